@@ -207,6 +207,9 @@ public interface Archive<T extends Archive<T>> extends Assignable {
 
     /**
      * Obtains the {@link Node} located at the specified path
+     * <p>
+     * Paths differing only by a trailing slash are equal, so {@code "dir/"} and {@code "dir"} find the same node,
+     * whether it is a directory or not. This holds for every archive, including those mounted from a ZIP file.
      *
      * @param path
      *            The path to the node within the archive
@@ -217,7 +220,8 @@ public interface Archive<T extends Archive<T>> extends Assignable {
     Node get(ArchivePath path) throws IllegalArgumentException;
 
     /**
-     * Obtains the {@link Node} located at the specified path
+     * Obtains the {@link Node} located at the specified path, ignoring a trailing slash as {@link #get(ArchivePath)}
+     * does
      *
      * @param path
      *            The path to the node within the archive
@@ -340,7 +344,8 @@ public interface Archive<T extends Archive<T>> extends Assignable {
                                                    ArchiveFormat archiveFormat);
 
     /**
-     * Denotes whether this archive contains a resource at the specified path
+     * Denotes whether this archive contains a resource at the specified path, ignoring a trailing slash as
+     * {@link #get(ArchivePath)} does
      *
      * @param path
      *            The path to the resource
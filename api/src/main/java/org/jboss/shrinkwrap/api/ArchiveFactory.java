@@ -194,4 +194,50 @@ public final class ArchiveFactory {
                 ioe);
         }
     }
+
+    /**
+     * Creates a new archive of the specified type mounted from the specified {@link File} with
+     * {@link ZipImporter#mount(File)}: entries are read from the file as they are needed rather than all imported up
+     * front, and the file must not change while the archive is in use. The file is expected to be encoded as ZIP (i.e.
+     * JAR/WAR/EAR). The name of the archive will be set to {@link File#getName()}. The archive will be backed by the
+     * {@link Configuration} specific to this {@link ArchiveFactory}.
+     *
+     * @param type
+     *            The type of the archive e.g. {@link org.jboss.shrinkwrap.api.spec.WebArchive}
+     * @param archiveFile
+     *            the archiveFile to mount
+     * @return An {@link Assignable} view
+     * @throws IllegalArgumentException
+     *             If either argument is not supplied, if the specified {@link File} does not exist, or is not a valid
+     *             ZIP file
+     * @throws org.jboss.shrinkwrap.api.importer.ArchiveImportException
+     *             If the file could not be read
+     */
+    public <T extends Assignable> T mountZipFile(final Class<T> type, final File archiveFile)
+        throws IllegalArgumentException, ArchiveImportException {
+        // Precondition checks
+        if (type == null) {
+            throw new IllegalArgumentException("Type must be specified");
+        }
+        if (archiveFile == null) {
+            throw new IllegalArgumentException("File must be specified");
+        }
+        if (!archiveFile.exists()) {
+            throw new IllegalArgumentException("File to mount does not exist: " + archiveFile.getAbsolutePath());
+        }
+        if (archiveFile.isDirectory()) {
+            throw new IllegalArgumentException("File to mount must not be a directory: "
+                + archiveFile.getAbsolutePath());
+        }
+
+        try {
+            return ShrinkWrap.create(type, archiveFile.getName()).as(ZipImporter.class).mount(archiveFile).as(type);
+        } catch (final ArchiveImportException aie) {
+            if (aie.getCause() instanceof ZipException) {
+                throw new IllegalArgumentException("Does not appear to be a valid ZIP file: "
+                    + archiveFile.getAbsolutePath());
+            }
+            throw aie;
+        }
+    }
 }
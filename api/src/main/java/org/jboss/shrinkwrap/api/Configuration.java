@@ -21,6 +21,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.concurrent.ExecutorService;
 
+import org.jboss.shrinkwrap.api.asset.BlobStore;
+
 /**
  * Encapsulates all configuration for a given {@link Domain}. Each {@link Archive} created by the domain's
  * {@link ArchiveFactory} will consult the configuration internally. An {@link Archive}'s configuration may not be
@@ -59,6 +61,11 @@ public class Configuration {
      */
     private final Iterable<ClassLoader> classLoaders;
 
+    /**
+     * {@link BlobStore} sharing identical imported content
+     */
+    private final BlobStore blobStore;
+
     // -------------------------------------------------------------------------------------||
     // Constructor ------------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -83,6 +90,7 @@ public class Configuration {
         // Set
         this.extensionLoader = builder.getExtensionLoader();
         this.executorService = builder.getExecutorService();
+        this.blobStore = builder.getBlobStore();
         // Defensive copy
         Collection<ClassLoader> cls = new ArrayList<>();
         if (builder.getClassLoaders() instanceof Collection) {
@@ -122,4 +130,11 @@ public class Configuration {
     public Iterable<ClassLoader> getClassLoaders() {
         return classLoaders;
     }
+
+    /**
+     * @return the blobStore, or null if none was specified, in which case imported content is not shared
+     */
+    public BlobStore getBlobStore() {
+        return blobStore;
+    }
 }
@@ -23,6 +23,8 @@ import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.jboss.shrinkwrap.api.asset.BlobStore;
+
 /**
  * Mutable construction object for new instances of {@link Configuration}. Provides defaults for each property if not
  * specified (null) according to the following:
@@ -30,6 +32,8 @@ import java.util.logging.Logger;
  * <ul>
  * <li><code>executorService</code> - Stay null, none is required and ShrinkWrap will create its own and destroy it when
  * done as needed</li>
+ * <li><code>blobStore</code> - Stay null, imported content is not shared; if specified, identical content imported
+ * into the archives of the domain is held in memory once</li>
  * <li><code>extensionLoader</code> - A new instance of the service extension loader from shrinkwrap-impl</li>
  * </ul>
  *
@@ -74,6 +78,11 @@ public class ConfigurationBuilder {
      */
     private Iterable<ClassLoader> classLoaders;
 
+    /**
+     * {@link BlobStore} sharing identical imported content
+     */
+    private BlobStore blobStore;
+
     // -------------------------------------------------------------------------------------||
     // Constructor ------------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -110,6 +119,13 @@ public class ConfigurationBuilder {
         return classLoaders;
     }
 
+    /**
+     * @return the blobStore
+     */
+    public BlobStore getBlobStore() {
+        return blobStore;
+    }
+
     /**
      * Sets the {@link ExtensionLoader} to be used, returning this instance
      *
@@ -147,6 +163,19 @@ public class ConfigurationBuilder {
         return this;
     }
 
+    /**
+     * Sets the {@link BlobStore} through which identical content imported into archives is shared, returning this
+     * instance. A store may be shared by several domains.
+     *
+     * @param blobStore
+     *             The {@link BlobStore} to be set
+     * @return the current instance of {@link ConfigurationBuilder}
+     */
+    public ConfigurationBuilder blobStore(final BlobStore blobStore) {
+        this.blobStore = blobStore;
+        return this;
+    }
+
     /**
      * Builds a new {@link Configuration} using the properties contained in this builder. In the case a property has not
      * been specified, it will be defaulted according to the rules set forth in this {@link ConfigurationBuilder}'s
@@ -185,6 +185,30 @@ public final class ShrinkWrap {
         return getDefaultDomain().getArchiveFactory().createFromZipFile(type, archiveFile);
     }
 
+    /**
+     * Creates a new archive of the specified type mounted from the specified {@link File}, whose entries are read as
+     * they are needed. The file is expected to be encoded as ZIP (i.e. JAR/WAR/EAR) and must not change while the
+     * archive is in use. The name of the archive will be set to {@link File#getName()}. The archive will be backed by
+     * the {@link Configuration} within the {@link ShrinkWrap#getDefaultDomain()}
+     *
+     * @param type
+     *            The type of the archive e.g. {@link org.jboss.shrinkwrap.api.spec.WebArchive}
+     * @param archiveFile
+     *            the file to mount
+     * @return An {@link Assignable} view
+     * @throws IllegalArgumentException
+     *             If either argument is not supplied, if the specified {@link File} does not exist, or is not a valid
+     *             ZIP file
+     * @throws org.jboss.shrinkwrap.api.importer.ArchiveImportException
+     *             If the file could not be read
+     * @see ArchiveFactory#mountZipFile(Class, File)
+     */
+    public static <T extends Assignable> T mountZipFile(final Class<T> type, final File archiveFile)
+        throws IllegalArgumentException, ArchiveImportException {
+        // Delegate
+        return getDefaultDomain().getArchiveFactory().mountZipFile(type, archiveFile);
+    }
+
     // -------------------------------------------------------------------------------------||
     // Internal Helper Members ------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
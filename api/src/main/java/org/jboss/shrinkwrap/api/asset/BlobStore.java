@@ -0,0 +1,244 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.api.asset;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Content-addressed store sharing byte arrays of identical content between the assets holding them, so that content
+ * imported many times, into the same or different archives, is held in memory once.
+ * <p>
+ * Arrays are looked up by a hash of their content and compared in full, so distinct content is never shared. Each
+ * stored array counts the holders it was handed to; a holder is released once the garbage collector finds it
+ * unreachable, and an array without holders is evicted. Holders must never modify the shared array, nor hand it out
+ * to code that might.
+ * <p>
+ * Opt-in, see {@link org.jboss.shrinkwrap.api.ConfigurationBuilder#blobStore(BlobStore)}. Thread-safe.
+ */
+public final class BlobStore {
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Stored content by itself; guarded by {@code this}
+     */
+    private final Map<Blob, Blob> blobs = new HashMap<>();
+
+    /**
+     * References to the live holders, keeping the references themselves reachable; guarded by {@code this}
+     */
+    private final Set<HolderReference> holders = new HashSet<>();
+
+    private final ReferenceQueue<Object> released = new ReferenceQueue<>();
+
+    /**
+     * Size of the stored content; guarded by {@code this}
+     */
+    private long storedBytes;
+
+    /**
+     * Size of the content of all live holders; guarded by {@code this}
+     */
+    private long referencedBytes;
+
+    // -------------------------------------------------------------------------------------||
+    // Functional Methods -----------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Creates a holder of the specified content, backed by the array of identical content already stored if there is
+     * one, or by the specified array, which is then stored.
+     *
+     * @param content
+     *            The content, which must not be modified afterwards
+     * @param holder
+     *            Creates the holder, such as an {@link Asset}, from the array backing it
+     * @return The holder
+     * @throws IllegalArgumentException
+     *             If the content or holder factory is not specified
+     */
+    public <H> H share(final byte[] content, final Function<byte[], H> holder) throws IllegalArgumentException {
+        if (content == null) {
+            throw new IllegalArgumentException("content must be specified");
+        }
+        if (holder == null) {
+            throw new IllegalArgumentException("holder must be specified");
+        }
+
+        final Blob candidate = new Blob(content);
+        synchronized (this) {
+            expungeReleased();
+            Blob blob = blobs.get(candidate);
+            if (blob == null) {
+                blob = candidate;
+                blobs.put(blob, blob);
+                storedBytes += content.length;
+            }
+            final H created = holder.apply(blob.content);
+            holders.add(new HolderReference(created, blob, released));
+            blob.references++;
+            referencedBytes += content.length;
+            return created;
+        }
+    }
+
+    /**
+     * @return The number of distinct arrays stored
+     */
+    public synchronized int getBlobCount() {
+        expungeReleased();
+        return blobs.size();
+    }
+
+    /**
+     * @return The number of live holders of stored arrays
+     */
+    public synchronized int getReferenceCount() {
+        expungeReleased();
+        return holders.size();
+    }
+
+    /**
+     * @return The size in bytes of the stored arrays
+     */
+    public synchronized long getStoredBytes() {
+        expungeReleased();
+        return storedBytes;
+    }
+
+    /**
+     * @return The number of bytes the live holders would hold on top of {@link #getStoredBytes()} had their content not
+     *         been shared
+     */
+    public synchronized long getSavedBytes() {
+        expungeReleased();
+        return referencedBytes - storedBytes;
+    }
+
+    /**
+     * @param holder
+     *            A holder created by this store
+     * @return The reference enqueued once the specified holder is unreachable, or null if the holder is released
+     */
+    synchronized Reference<Object> referenceOf(final Object holder) {
+        for (final HolderReference reference : holders) {
+            if (reference.get() == holder) {
+                return reference;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public synchronized String toString() {
+        expungeReleased();
+        return BlobStore.class.getSimpleName() + " [blobs=" + blobs.size() + ", references=" + holders.size()
+            + ", storedBytes=" + storedBytes + ", savedBytes=" + (referencedBytes - storedBytes) + "]";
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Releases the holders found unreachable, evicting arrays left without holders; called holding {@code this}
+     */
+    private void expungeReleased() {
+        Reference<?> reference;
+        while ((reference = released.poll()) != null) {
+            final HolderReference holder = (HolderReference) reference;
+            if (!holders.remove(holder)) {
+                continue;
+            }
+            final Blob blob = holder.blob;
+            referencedBytes -= blob.content.length;
+            if (--blob.references == 0) {
+                blobs.remove(blob);
+                storedBytes -= blob.content.length;
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * A stored array, keyed by its content
+     */
+    private static final class Blob {
+
+        private final byte[] content;
+
+        private final int hash;
+
+        /**
+         * Number of live holders; guarded by the store
+         */
+        private int references;
+
+        Blob(final byte[] content) {
+            this.content = content;
+            this.hash = Arrays.hashCode(content);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Blob)) {
+                return false;
+            }
+            final Blob other = (Blob) obj;
+            return hash == other.hash && Arrays.equals(content, other.content);
+        }
+    }
+
+    /**
+     * Cleared and enqueued once its holder is unreachable
+     */
+    private static final class HolderReference extends WeakReference<Object> {
+
+        private final Blob blob;
+
+        HolderReference(final Object holder, final Blob blob, final ReferenceQueue<Object> queue) {
+            super(holder, queue);
+            this.blob = blob;
+        }
+    }
+}
@@ -27,7 +27,7 @@ import java.util.logging.Logger;
  * @author <a href="mailto:andrew.rubinger@jboss.org">ALR</a>
  * @version $Revision: $
  */
-public class ByteArrayAsset implements Asset {
+public class ByteArrayAsset implements SizedAsset {
 
     // -------------------------------------------------------------------------------------||
     // Class Members ----------------------------------------------------------------------||
@@ -60,18 +60,35 @@ public class ByteArrayAsset implements Asset {
      *             If the contents were not specified
      */
     public ByteArrayAsset(final byte[] content) throws IllegalArgumentException {
+        this(content, true);
+    }
+
+    /**
+     * Creates a new {@link Asset} instance backed by the specified byte array, which is only copied if requested.
+     * Intended for subclasses creating the array themselves and never modifying it afterwards.
+     *
+     * @param content
+     *            The byte array that will be used as the data source for the new {@link ByteArrayAsset}
+     * @param copy
+     *            Whether to back the asset by a copy of the array instead of the array itself
+     * @throws IllegalArgumentException
+     *             If the contents were not specified
+     */
+    protected ByteArrayAsset(final byte[] content, final boolean copy) throws IllegalArgumentException {
         // Precondition check
         if (content == null) {
             throw new IllegalArgumentException("content must be specified");
         }
 
-        // Defensive copy on set, SHRINKWRAP-38
         final int length = content.length;
-        byte[] newArray = new byte[length];
-        System.arraycopy(content, 0, newArray, 0, length);
-
-        // Set
-        this.content = newArray;
+        if (copy) {
+            // Defensive copy on set, SHRINKWRAP-38
+            byte[] newArray = new byte[length];
+            System.arraycopy(content, 0, newArray, 0, length);
+            this.content = newArray;
+        } else {
+            this.content = content;
+        }
         if (log.isLoggable(Level.FINER)) {
             log.finer("Created " + this + " with backing byte array of size " + length + "b");
         }
@@ -102,6 +119,14 @@ public class ByteArrayAsset implements Asset {
         return new ByteArrayInputStream(this.content);
     }
 
+    /**
+     * @see org.jboss.shrinkwrap.api.asset.SizedAsset#getSize()
+     */
+    @Override
+    public long getSize() {
+        return this.content.length;
+    }
+
     /**
      * Returns the underlying content.
      *
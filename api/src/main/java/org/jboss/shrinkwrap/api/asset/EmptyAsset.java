@@ -25,7 +25,7 @@ import java.io.InputStream;
  * @author <a href="mailto:dan.j.allen@gmail.com">Dan Allen</a>
  * @version $Revision: $
  */
-public enum EmptyAsset implements Asset {
+public enum EmptyAsset implements SizedAsset {
     INSTANCE;
 
     /**
@@ -45,6 +45,14 @@ public enum EmptyAsset implements Asset {
         return new ByteArrayInputStream(content);
     }
 
+    /**
+     * @see org.jboss.shrinkwrap.api.asset.SizedAsset#getSize()
+     */
+    @Override
+    public long getSize() {
+        return 0L;
+    }
+
     /**
      * Returns the underlying content.
      *
@@ -21,13 +21,14 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * Implementation of an {@link Asset} backed by a {@link File}
  *
  * @author <a href="mailto:aslak@conduct.no">Aslak Knutsen</a>
  */
-public class FileAsset implements Asset {
+public class FileAsset implements SizedAsset {
     private final File file;
 
     /**
@@ -51,6 +52,28 @@ public class FileAsset implements Asset {
         this.file = file;
     }
 
+    /**
+     * Load the specified File, trusting attributes read already, for instance while walking a directory tree, instead
+     * of checking again that the file exists.
+     *
+     * @param file
+     *            The file to load
+     * @param attributes
+     *            The attributes of the file, as read by the caller
+     * @throws IllegalArgumentException
+     *             File and attributes can not be null
+     */
+    public FileAsset(final File file, final BasicFileAttributes attributes) {
+        // Precondition check
+        if (file == null) {
+            throw new IllegalArgumentException("File must be specified");
+        }
+        if (attributes == null) {
+            throw new IllegalArgumentException("Attributes must be specified");
+        }
+        this.file = file;
+    }
+
     /**
      * Opens a new FileInputStream for the given File.
      * <p>
@@ -69,6 +92,17 @@ public class FileAsset implements Asset {
         }
     }
 
+    /**
+     * Returns the current length of the file. The length is read from the file system on every call, so it reflects
+     * changes made to the file after the asset was created, and is 0 if the file no longer exists.
+     *
+     * @see org.jboss.shrinkwrap.api.asset.SizedAsset#getSize()
+     */
+    @Override
+    public long getSize() {
+        return file.length();
+    }
+
     /**
      * Returns the loaded file.
      *
@@ -30,7 +30,7 @@ import org.jboss.shrinkwrap.api.nio2.file.SeekableInMemoryByteChannel;
  *
  * @author <a href="mailto:alr@jboss.org">Andrew Lee Rubinger</a>
  */
-public class MemoryAsset implements Asset, SeekableByteChannel {
+public class MemoryAsset implements SizedAsset, SeekableByteChannel {
 
     private final SeekableInMemoryByteChannel delegate;
 
@@ -131,6 +131,16 @@ public class MemoryAsset implements Asset, SeekableByteChannel {
         return delegate.size();
     }
 
+    /**
+     * Returns the current size of the buffer, which changes as the channel is written to.
+     *
+     * @see org.jboss.shrinkwrap.api.asset.SizedAsset#getSize()
+     */
+    @Override
+    public long getSize() {
+        return delegate.size();
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -0,0 +1,32 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.api.asset;
+
+/**
+ * An {@link Asset} that knows the length of its content without reading it, allowing archives to account for their size
+ * and exporters to write entry headers up front.
+ */
+public interface SizedAsset extends Asset {
+
+    /**
+     * Obtains the number of bytes the stream returned by {@link #openStream()} currently provides. Must be cheap to
+     * compute.
+     *
+     * @return The size of the content in bytes, or -1 if it is not known
+     */
+    long getSize();
+}
@@ -27,7 +27,7 @@ import java.util.logging.Logger;
  * @author <a href="mailto:dan.j.allen@gmail.com">Dan Allen</a>
  * @version $Revision: $
  */
-public class StringAsset implements Asset {
+public class StringAsset implements SizedAsset {
     // -------------------------------------------------------------------------------------||
     // Class Members ----------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -46,6 +46,11 @@ public class StringAsset implements Asset {
      */
     private final String content;
 
+    /**
+     * Number of bytes the content encodes to, computed on first request; -1 until then
+     */
+    private volatile long size = -1;
+
     // -------------------------------------------------------------------------------------||
     // Constructor ------------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -83,6 +88,22 @@ public class StringAsset implements Asset {
         return new ByteArrayInputStream(content.getBytes());
     }
 
+    /**
+     * Obtains the number of bytes {@link #openStream()} provides, which is the length of the content encoded in the
+     * platform's default charset. Computed once, on first request.
+     *
+     * @see org.jboss.shrinkwrap.api.asset.SizedAsset#getSize()
+     */
+    @Override
+    public long getSize() {
+        long size = this.size;
+        if (size < 0) {
+            size = content.getBytes().length;
+            this.size = size;
+        }
+        return size;
+    }
+
     /**
      * Returns the underlying content.
      *
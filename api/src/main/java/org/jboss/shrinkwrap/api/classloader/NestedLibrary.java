@@ -0,0 +1,360 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.api.classloader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.api.asset.ArchiveAsset;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
+
+/**
+ * A library JAR held by an asset of an archive, such as a JAR under {@code WEB-INF/lib}, whose entries a
+ * {@link ShrinkWrapClassLoader} reads without importing the JAR. The JAR is opened the first time it is searched:
+ * a nested {@link Archive} is searched directly, a JAR file through a {@link ZipFile}, and other JARs are read into
+ * memory once and their entries found through the central directory and inflated when opened.
+ */
+abstract class NestedLibrary implements Closeable {
+
+    // -------------------------------------------------------------------------------------||
+    // Factory ----------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Creates the library held by an asset
+     */
+    static NestedLibrary of(final Asset asset) {
+        if (asset instanceof ArchiveAsset) {
+            return new NestedArchive(((ArchiveAsset) asset).getArchive());
+        }
+        if (asset instanceof FileAsset) {
+            return new JarFile(((FileAsset) asset).getSource());
+        }
+        return new InMemoryJar(asset);
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Contracts --------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Whether the library holds an entry
+     *
+     * @param name
+     *            The entry name, relative to the root of the library
+     */
+    abstract boolean contains(String name) throws IOException;
+
+    /**
+     * Opens an entry of the library
+     *
+     * @param name
+     *            The entry name, relative to the root of the library
+     * @return The content, or null if the entry is a directory or does not exist
+     */
+    abstract InputStream open(String name) throws IOException;
+
+    /**
+     * Releases the resources held to read the library
+     */
+    @Override
+    public void close() throws IOException {
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Implementations --------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * A library added as an archive
+     */
+    private static final class NestedArchive extends NestedLibrary {
+
+        private final Archive<?> archive;
+
+        NestedArchive(final Archive<?> archive) {
+            this.archive = archive;
+        }
+
+        @Override
+        boolean contains(final String name) {
+            return archive.get('/' + name) != null;
+        }
+
+        @Override
+        InputStream open(final String name) {
+            final Node node = archive.get('/' + name);
+            return node == null || node.getAsset() == null ? null : node.getAsset().openStream();
+        }
+    }
+
+    /**
+     * A library backed by a file
+     */
+    private static final class JarFile extends NestedLibrary {
+
+        private final File file;
+
+        private ZipFile zipFile;
+
+        JarFile(final File file) {
+            this.file = file;
+        }
+
+        @Override
+        boolean contains(final String name) throws IOException {
+            return zipFile().getEntry(name) != null;
+        }
+
+        @Override
+        InputStream open(final String name) throws IOException {
+            final ZipFile zip = zipFile();
+            final ZipEntry entry = zip.getEntry(name);
+            return entry == null || entry.isDirectory() ? null : zip.getInputStream(entry);
+        }
+
+        private synchronized ZipFile zipFile() throws IOException {
+            if (zipFile == null) {
+                zipFile = new ZipFile(file);
+            }
+            return zipFile;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            if (zipFile != null) {
+                zipFile.close();
+                zipFile = null;
+            }
+        }
+    }
+
+    /**
+     * A library read into memory
+     */
+    private static final class InMemoryJar extends NestedLibrary {
+
+        private static final int END_SIGNATURE = 0x06054b50;
+
+        private static final int CENTRAL_SIGNATURE = 0x02014b50;
+
+        private static final int LOCAL_SIGNATURE = 0x04034b50;
+
+        private static final int END_SIZE = 22;
+
+        private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+        private final Asset asset;
+
+        /**
+         * The content of the JAR, and the location of each entry within it, or the content of each entry if the
+         * central directory could not be read
+         */
+        private byte[] content;
+
+        private Map<String, Entry> entries;
+
+        private Map<String, byte[]> extracted;
+
+        InMemoryJar(final Asset asset) {
+            this.asset = asset;
+        }
+
+        @Override
+        boolean contains(final String name) throws IOException {
+            load();
+            return entries != null ? entries.containsKey(name) : extracted.containsKey(name);
+        }
+
+        @Override
+        InputStream open(final String name) throws IOException {
+            load();
+            if (entries == null) {
+                final byte[] bytes = extracted.get(name);
+                return bytes == null || name.endsWith("/") ? null : new ByteArrayInputStream(bytes);
+            }
+            final Entry entry = entries.get(name);
+            if (entry == null || name.endsWith("/")) {
+                return null;
+            }
+            if (readInt(entry.headerOffset) != LOCAL_SIGNATURE) {
+                throw new IOException("Invalid local header for " + name + " in " + asset);
+            }
+            final int dataOffset = entry.headerOffset + 30 + readShort(entry.headerOffset + 26)
+                + readShort(entry.headerOffset + 28);
+            if (entry.method == ZipEntry.STORED) {
+                return new ByteArrayInputStream(content, dataOffset, entry.compressedSize);
+            }
+            // One more byte than the compressed data, as raw inflation may need it to detect the end
+            final Inflater inflater = new Inflater(true);
+            return new InflaterInputStream(new ByteArrayInputStream(content, dataOffset, entry.compressedSize + 1),
+                inflater) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    inflater.end();
+                }
+            };
+        }
+
+        private synchronized void load() throws IOException {
+            if (content != null || extracted != null) {
+                return;
+            }
+            final byte[] read;
+            try (InputStream in = asset.openStream()) {
+                read = readAll(in);
+            }
+            final Map<String, Entry> indexed = readCentralDirectory(read);
+            if (indexed != null) {
+                content = read;
+                entries = indexed;
+            } else {
+                extracted = extract(read);
+            }
+        }
+
+        /**
+         * Indexes the entries listed in the central directory
+         *
+         * @return The entries by name, or null if the central directory could not be read, for instance in a ZIP64
+         *         file
+         */
+        private static Map<String, Entry> readCentralDirectory(final byte[] jar) {
+            final int end = findEnd(jar);
+            if (end < 0) {
+                return null;
+            }
+            final long count = readShort(jar, end + 10);
+            final long offset = readInt(jar, end + 16) & 0xFFFFFFFFL;
+            if (count == 0xFFFF || offset >= jar.length) {
+                return null;
+            }
+            final Map<String, Entry> indexed = new HashMap<>((int) count * 4 / 3 + 1);
+            int position = (int) offset;
+            for (int i = 0; i < count; i++) {
+                if (position + 46 > jar.length || readInt(jar, position) != CENTRAL_SIGNATURE) {
+                    return null;
+                }
+                final int method = readShort(jar, position + 10);
+                final long compressedSize = readInt(jar, position + 20) & 0xFFFFFFFFL;
+                final int nameLength = readShort(jar, position + 28);
+                final int extraLength = readShort(jar, position + 30);
+                final int commentLength = readShort(jar, position + 32);
+                final long headerOffset = readInt(jar, position + 42) & 0xFFFFFFFFL;
+                if (headerOffset + compressedSize > jar.length || position + 46 + nameLength > jar.length
+                    || (method != ZipEntry.STORED && method != ZipEntry.DEFLATED)) {
+                    return null;
+                }
+                final String name = new String(jar, position + 46, nameLength, StandardCharsets.UTF_8);
+                indexed.putIfAbsent(name, new Entry(method, (int) compressedSize, (int) headerOffset));
+                position += 46 + nameLength + extraLength + commentLength;
+            }
+            return indexed;
+        }
+
+        /**
+         * Finds the end of central directory record, which is followed by a comment of up to 64 KB
+         */
+        private static int findEnd(final byte[] jar) {
+            final int lowest = Math.max(0, jar.length - END_SIZE - MAX_COMMENT_SIZE);
+            for (int position = jar.length - END_SIZE; position >= lowest; position--) {
+                if (readInt(jar, position) == END_SIGNATURE) {
+                    return position;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Reads every entry of a JAR whose central directory could not be read
+         */
+        private static Map<String, byte[]> extract(final byte[] jar) throws IOException {
+            final Map<String, byte[]> read = new HashMap<>();
+            try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(jar))) {
+                ZipEntry entry;
+                while ((entry = in.getNextEntry()) != null) {
+                    read.putIfAbsent(entry.getName(), readAll(in));
+                }
+            }
+            return read;
+        }
+
+        private int readInt(final int position) {
+            return readInt(content, position);
+        }
+
+        private int readShort(final int position) {
+            return readShort(content, position);
+        }
+
+        private static int readInt(final byte[] bytes, final int position) {
+            return readShort(bytes, position) | readShort(bytes, position + 2) << 16;
+        }
+
+        private static int readShort(final byte[] bytes, final int position) {
+            return (bytes[position] & 0xFF) | (bytes[position + 1] & 0xFF) << 8;
+        }
+
+        /**
+         * The location of an entry in the JAR
+         */
+        private static final class Entry {
+
+            private final int method;
+
+            private final int compressedSize;
+
+            private final int headerOffset;
+
+            Entry(final int method, final int compressedSize, final int headerOffset) {
+                this.method = method;
+                this.compressedSize = compressedSize;
+                this.headerOffset = headerOffset;
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    static byte[] readAll(final InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(in.available(), 1024));
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
@@ -18,14 +18,24 @@ package org.jboss.shrinkwrap.api.classloader;
 
 import java.io.Closeable;
 import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.net.URLConnection;
 import java.net.URLStreamHandler;
+import java.security.CodeSigner;
+import java.security.CodeSource;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import org.jboss.shrinkwrap.api.Archive;
@@ -37,6 +47,16 @@ import org.jboss.shrinkwrap.api.asset.Asset;
 /**
  * Extension that will create a ClassLoader based on an Array of Archives. When done, call
  * {@link ShrinkWrapClassLoader#close()} to free resources.
+ * <p>
+ * Classes are defined straight from the content of their asset, and resources are located through an index of the
+ * paths of all archives built when the loader is created, rather than by opening a connection on the URL of each
+ * archive in turn. Content added to the archives afterwards is still found, by looking in each archive. Streams opened
+ * on resource URLs are released when they are closed; {@link #close()} closes those still open. The loader is parallel
+ * capable.
+ * <p>
+ * Library JARs directly under {@code WEB-INF/lib} or {@code lib} of the archives when the loader is created are
+ * searched after the classes of all archives, whether they were added as archives or as the bytes of a JAR. Each
+ * library is read the first time it is searched and its entries are then looked up by name, without importing the JAR.
  *
  * @author <a href="mailto:aslak@redhat.com">Aslak Knutsen</a>
  * @author <a href="mailto:andrew.rubinger@jboss.org">ALR</a>
@@ -56,21 +76,66 @@ public class ShrinkWrapClassLoader extends URLClassLoader implements Closeable {
      */
     private static final String EMPTY = "";
 
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * Location classes are also looked up under, relative to the class prefix
+     */
+    private static final String WEB_INF_CLASSES = "WEB-INF/classes";
+
+    /**
+     * Directories library JARs are looked up under
+     */
+    private static final String[] LIBRARY_DIRECTORIES = {"/WEB-INF/lib/", "/lib/"};
+
+    private static final String JAR_SUFFIX = ".jar";
+
+    /**
+     * Separates the URL of a library from the name of an entry within it
+     */
+    private static final String LIBRARY_SEPARATOR = "!/";
+
+    static {
+        ClassLoader.registerAsParallelCapable();
+    }
+
     // -------------------------------------------------------------------------------------||
     // Instance Members --------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
 
     /**
-     * List of all streams opened, such that they may be closed in {@link ShrinkWrapClassLoader#close()}. Guarded by
-     * "this".
+     * All streams opened and not closed yet, such that they may be closed in {@link ShrinkWrapClassLoader#close()}
      */
-    private final List<InputStream> openedStreams = new ArrayList<>();
+    private final Set<InputStream> openedStreams = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
     /**
      * Location of the
      */
     private final ArchivePath classPrefix;
 
+    /**
+     * The absolute paths resources are looked up under: the class prefix and {@code WEB-INF/classes} within it, each
+     * ending with a slash
+     */
+    private final String classDirectory;
+
+    private final String webInfClassDirectory;
+
+    /**
+     * The added archives, in search order
+     */
+    private final List<ArchiveLocation> locations = new ArrayList<>();
+
+    /**
+     * The first archive holding each resource when the loader was created, by resource name
+     */
+    private final Map<String, ArchiveLocation> index = new HashMap<>();
+
+    /**
+     * The library JARs of the added archives, in search order
+     */
+    private final List<LibraryLocation> libraries = new ArrayList<>();
+
     // -------------------------------------------------------------------------------------||
     // Constructors ------------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -89,8 +154,10 @@ public class ShrinkWrapClassLoader extends URLClassLoader implements Closeable {
         if (archives == null) {
             throw new IllegalArgumentException("Archives must be specified");
         }
-        addArchives(archives);
         this.classPrefix = ArchivePaths.root();
+        this.classDirectory = directoryOf(EMPTY);
+        this.webInfClassDirectory = directoryOf(WEB_INF_CLASSES);
+        addArchives(archives);
     }
 
     /**
@@ -125,8 +192,11 @@ public class ShrinkWrapClassLoader extends URLClassLoader implements Closeable {
         if (archives == null) {
             throw new IllegalArgumentException("Archives must be specified");
         }
-        addArchives(archives);
         this.classPrefix = classPrefix == null ? ArchivePaths.root() : ArchivePaths.create(classPrefix);
+        final String prefix = relativeName(this.classPrefix.get());
+        this.classDirectory = directoryOf(prefix);
+        this.webInfClassDirectory = directoryOf(prefix.isEmpty() ? WEB_INF_CLASSES : WEB_INF_CLASSES + '/' + prefix);
+        addArchives(archives);
     }
 
     private void addArchives(final Archive<?>[] archives) {
@@ -136,8 +206,9 @@ public class ShrinkWrapClassLoader extends URLClassLoader implements Closeable {
     }
 
     private void addArchive(final Archive<?> archive) {
+        final URL url;
         try {
-            addURL(new URL(null, "archive:" + archive.getName() + "/", new URLStreamHandler() {
+            url = new URL(null, "archive:" + archive.getName() + "/", new URLStreamHandler() {
                 @Override
                 protected URLConnection openConnection(final URL u) {
                     return new URLConnection(u) {
@@ -148,9 +219,13 @@ public class ShrinkWrapClassLoader extends URLClassLoader implements Closeable {
                         @Override
                         public InputStream getInputStream() throws IOException {
                             final ArchivePath rawPath = convertToArchivePath(u);
-                            final ArchivePath path = ArchivePaths.create(
-                                    ShrinkWrapClassLoader.this.classPrefix,rawPath);
-                            final Node node = node(archive, path);
+                            final Node node = node(archive, rawPath.get());
+
+                            // SHRINKWRAP-308 We've asked for a path that doesn't exist
+                            if (node == null) {
+                                throw new FileNotFoundException("Requested path: "
+                                    + ArchivePaths.create(classPrefix, rawPath) + " does not exist in " + archive);
+                            }
                             final Asset asset = node.getAsset();
 
                             // SHRINKWRAP-306
@@ -159,25 +234,7 @@ public class ShrinkWrapClassLoader extends URLClassLoader implements Closeable {
                                 return null;
                             }
 
-                            final InputStream input = asset.openStream();
-                            synchronized (this) {
-                                openedStreams.add(input);
-                            }
-                            return input;
-
-                        }
-
-                        private Node node(final Archive<?> archive, final ArchivePath path) throws FileNotFoundException {
-                           Node node = archive.get(path);
-                           if (node != null) {
-                              return node;
-                           }
-                           node = archive.get(ArchivePaths.create("WEB-INF/classes", path));
-                           if (node != null) {
-                              return node;
-                           }
-                           // SHRINKWRAP-308 We've asked for a path that doesn't exist
-                           throw new FileNotFoundException("Requested path: " + path + " does not exist in " + archive);
+                            return track(asset.openStream());
                         }
 
                         private ArchivePath convertToArchivePath(URL url) {
@@ -188,22 +245,332 @@ public class ShrinkWrapClassLoader extends URLClassLoader implements Closeable {
                         }
                     };
                 }
-            }));
+            });
         } catch (Exception e) {
             throw new RuntimeException("Could not create URL for archive: " + archive.getName(), e);
         }
+        addURL(url);
+
+        final ArchiveLocation location = new ArchiveLocation(archive, url);
+        locations.add(location);
+        // Index classes and find nested libraries from a single copy of the content
+        for (final Map.Entry<ArchivePath, Node> entry : archive.getContent().entrySet()) {
+            final String name = entry.getKey().get();
+            if (name.startsWith(classDirectory)) {
+                index.putIfAbsent(name.substring(classDirectory.length()), location);
+            }
+            if (name.startsWith(webInfClassDirectory)) {
+                index.putIfAbsent(name.substring(webInfClassDirectory.length()), location);
+            }
+            final Asset asset = entry.getValue().getAsset();
+            if (asset != null && name.endsWith(JAR_SUFFIX) && isInLibraryDirectory(name)) {
+                final NestedLibrary library = NestedLibrary.of(asset);
+                libraries.add(new LibraryLocation(library, libraryUrl(archive, name, library)));
+            }
+        }
     }
 
-    public void close() {
-        synchronized (this) {
-            for (InputStream stream : openedStreams) {
-                try {
-                    stream.close();
-                } catch (Exception e) {
-                    log.warning("Could not close opened input stream: " + e);
+    private static boolean isInLibraryDirectory(final String name) {
+        for (final String directory : LIBRARY_DIRECTORIES) {
+            if (name.startsWith(directory) && name.indexOf('/', directory.length()) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the URL of a library, resolving entry names after {@link #LIBRARY_SEPARATOR}
+     */
+    private URL libraryUrl(final Archive<?> archive, final String path, final NestedLibrary library) {
+        final String spec = "archive:" + archive.getName() + path + LIBRARY_SEPARATOR;
+        try {
+            return new URL(null, spec, new URLStreamHandler() {
+                @Override
+                protected URLConnection openConnection(final URL u) {
+                    return new URLConnection(u) {
+                        @Override
+                        public void connect() {
+                        }
+
+                        @Override
+                        public InputStream getInputStream() throws IOException {
+                            final String file = u.getPath();
+                            final String name = file.substring(file.indexOf(LIBRARY_SEPARATOR)
+                                + LIBRARY_SEPARATOR.length());
+                            if (!library.contains(name)) {
+                                throw new FileNotFoundException("Requested path: " + name + " does not exist in "
+                                    + path + " of " + archive);
+                            }
+                            final InputStream in = library.open(name);
+                            return in == null ? null : track(in);
+                        }
+                    };
+                }
+            });
+        } catch (final MalformedURLException mue) {
+            throw new RuntimeException("Could not create URL for library: " + spec, mue);
+        }
+    }
+
+
+    // -------------------------------------------------------------------------------------||
+    // Overridden Implementations ---------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Defines a class from the content of its asset in the first archive holding it.
+     *
+     * @see java.net.URLClassLoader#findClass(java.lang.String)
+     */
+    @Override
+    protected Class<?> findClass(final String name) throws ClassNotFoundException {
+        final String resourceName = name.replace('.', '/') + CLASS_SUFFIX;
+        for (final ArchiveLocation location : candidates(resourceName)) {
+            final Node node = node(location.archive, resourceName);
+            if (node == null || node.getAsset() == null) {
+                continue;
+            }
+            final byte[] bytes;
+            try (InputStream in = node.getAsset().openStream()) {
+                bytes = NestedLibrary.readAll(in);
+            } catch (final IOException | RuntimeException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+            definePackageOf(name);
+            return defineClass(name, bytes, 0, bytes.length, location.codeSource);
+        }
+        for (final LibraryLocation location : libraries) {
+            final byte[] bytes;
+            try (InputStream in = location.library.open(resourceName)) {
+                if (in == null) {
+                    continue;
+                }
+                bytes = NestedLibrary.readAll(in);
+            } catch (final IOException | RuntimeException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+            definePackageOf(name);
+            return defineClass(name, bytes, 0, bytes.length, location.codeSource);
+        }
+        throw new ClassNotFoundException(name);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.net.URLClassLoader#findResource(java.lang.String)
+     */
+    @Override
+    public URL findResource(final String name) {
+        for (final ArchiveLocation location : candidates(name)) {
+            if (node(location.archive, name) != null) {
+                return location.urlOf(name);
+            }
+        }
+        final String relativeName = relativeName(name);
+        for (final LibraryLocation location : libraries) {
+            try {
+                if (location.library.contains(relativeName)) {
+                    return location.urlOf(relativeName);
                 }
+            } catch (final IOException ioe) {
+                log.warning("Could not read library " + location.url + ": " + ioe);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see java.net.URLClassLoader#findResources(java.lang.String)
+     */
+    @Override
+    public Enumeration<URL> findResources(final String name) throws IOException {
+        final List<URL> found = new ArrayList<>(1);
+        for (final ArchiveLocation location : locations) {
+            if (node(location.archive, name) != null) {
+                found.add(location.urlOf(name));
+            }
+        }
+        final String relativeName = relativeName(name);
+        for (final LibraryLocation location : libraries) {
+            if (location.library.contains(relativeName)) {
+                found.add(location.urlOf(relativeName));
+            }
+        }
+        return Collections.enumeration(found);
+    }
+
+    public void close() {
+        for (final InputStream stream : new ArrayList<>(openedStreams)) {
+            try {
+                stream.close();
+            } catch (Exception e) {
+                log.warning("Could not close opened input stream: " + e);
+            }
+        }
+        openedStreams.clear();
+        for (final LibraryLocation location : libraries) {
+            try {
+                location.library.close();
+            } catch (final IOException ioe) {
+                log.warning("Could not close library " + location.url + ": " + ioe);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * The archives to look for a resource in: the indexed archive first, which holds the resource unless the archives
+     * changed since the loader was created, then all archives in order
+     */
+    private List<ArchiveLocation> candidates(final String name) {
+        final ArchiveLocation indexed = index.get(relativeName(name));
+        if (indexed == null) {
+            return locations;
+        }
+        if (locations.size() == 1) {
+            return locations;
+        }
+        final List<ArchiveLocation> candidates = new ArrayList<>(locations.size() + 1);
+        candidates.add(indexed);
+        candidates.addAll(locations);
+        return candidates;
+    }
+
+    /**
+     * Finds the node of a resource under the class prefix of an archive, or under {@code WEB-INF/classes} within it
+     *
+     * @return The node, or null if the archive holds no such resource
+     */
+    private Node node(final Archive<?> archive, final String name) {
+        final String relativeName = relativeName(name);
+        final Node node = archive.get(classDirectory + relativeName);
+        if (node != null) {
+            return node;
+        }
+        return archive.get(webInfClassDirectory + relativeName);
+    }
+
+    /**
+     * Registers an opened stream until it is closed
+     */
+    private InputStream track(final InputStream input) {
+        final InputStream tracked = new FilterInputStream(input) {
+            @Override
+            public void close() throws IOException {
+                openedStreams.remove(this);
+                super.close();
+            }
+        };
+        openedStreams.add(tracked);
+        return tracked;
+    }
+
+    /**
+     * Defines the package of a class unless it is defined already
+     */
+    @SuppressWarnings("deprecation")
+    private void definePackageOf(final String className) {
+        final int packageEnd = className.lastIndexOf('.');
+        if (packageEnd < 0) {
+            return;
+        }
+        final String packageName = className.substring(0, packageEnd);
+        if (getPackage(packageName) == null) {
+            try {
+                definePackage(packageName, null, null, null, null, null, null, null);
+            } catch (final IllegalArgumentException iae) {
+                // Defined concurrently
+            }
+        }
+    }
+
+    /**
+     * The absolute path of a directory given relative to the root, ending with a slash
+     */
+    private static String directoryOf(final String relativeName) {
+        return relativeName.isEmpty() ? "/" : '/' + relativeName + '/';
+    }
+
+    /**
+     * A resource name without leading slashes
+     */
+    private static String relativeName(final String name) {
+        int start = 0;
+        while (start < name.length() && name.charAt(start) == '/') {
+            start++;
+        }
+        return name.substring(start);
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * An added archive with its URL
+     */
+    private static final class ArchiveLocation {
+
+        private final Archive<?> archive;
+
+        private final URL url;
+
+        /**
+         * The code source of the classes of the archive, the archive URL as for {@link URLClassLoader}
+         */
+        private final CodeSource codeSource;
+
+        ArchiveLocation(final Archive<?> archive, final URL url) {
+            this.archive = archive;
+            this.url = url;
+            this.codeSource = new CodeSource(url, (CodeSigner[]) null);
+        }
+
+        /**
+         * The URL of a resource, as {@link URLClassLoader} resolves it against the URL of the archive
+         */
+        URL urlOf(final String name) {
+            try {
+                return new URL(url, name);
+            } catch (final MalformedURLException mue) {
+                throw new IllegalArgumentException("Invalid resource name: " + name, mue);
+            }
+        }
+    }
+
+    /**
+     * A library JAR of an added archive with its URL
+     */
+    private static final class LibraryLocation {
+
+        private final NestedLibrary library;
+
+        private final URL url;
+
+        private final CodeSource codeSource;
+
+        LibraryLocation(final NestedLibrary library, final URL url) {
+            this.library = library;
+            this.url = url;
+            this.codeSource = new CodeSource(url, (CodeSigner[]) null);
+        }
+
+        /**
+         * The URL of an entry of the library
+         */
+        URL urlOf(final String name) {
+            try {
+                return new URL(url, name);
+            } catch (final MalformedURLException mue) {
+                throw new IllegalArgumentException("Invalid resource name: " + name, mue);
             }
-            openedStreams.clear();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.api.exporter;
+
+/**
+ * How an {@link ExplodedExporter} creates the files of assets backed by a file, such as
+ * {@link org.jboss.shrinkwrap.api.asset.FileAsset}. Other assets are always written from their stream. If a link
+ * cannot be created, for instance because the target directory is on another file system or the platform does not
+ * support links, the file is copied instead.
+ * <p>
+ * Whatever the strategy, a file already present at the target is deleted and created anew rather than written over,
+ * so that an export never writes through a link left by a previous one. This breaks hard links at the target: other
+ * names for the file it replaces keep the previous content.
+ */
+public enum ExplodedExportStrategy {
+
+    /**
+     * Copies the content of the source file into a new file, leaving the transfer to the operating system where
+     * possible rather than passing the content through the heap
+     */
+    COPY,
+
+    /**
+     * Creates a hard link to the source file, so that no content is copied; the exported file and the source are then
+     * the same file, and changes to one show in the other
+     */
+    HARD_LINK,
+
+    /**
+     * Creates a symbolic link to the absolute path of the source file; the exported file then follows the source
+     */
+    SYMBOLIC_LINK
+}
@@ -17,6 +17,7 @@
 package org.jboss.shrinkwrap.api.exporter;
 
 import java.io.File;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.shrinkwrap.api.Assignable;
 
@@ -74,4 +75,44 @@ public interface ExplodedExporter extends Assignable {
      *             if the export process fails
      */
     File exportExplodedInto(File directory);
+
+    /**
+     * Sets whether exports update the target directory incrementally, for instance to redeploy an exploded archive
+     * into a running server. An incremental export leaves files whose size and content match their asset untouched,
+     * writes the others, and deletes the files and directories of the target directory that are not part of the
+     * archive. A regular export writes every asset and leaves other files in place. Nested archives are exported
+     * the same way.
+     *
+     * @param incremental
+     *            Whether exports are incremental
+     * @return This exporter
+     */
+    ExplodedExporter incremental(boolean incremental);
+
+    /**
+     * Sets how the files of assets backed by a file, such as {@link org.jboss.shrinkwrap.api.asset.FileAsset}, are
+     * created; defaults to {@link ExplodedExportStrategy#COPY}. Linking avoids copying content altogether, which makes
+     * exporting large archives mostly a matter of file system metadata. Nested archives are exported the same way.
+     * Files present at the target are deleted and recreated rather than overwritten, whatever the strategy, which
+     * breaks hard links at the target.
+     *
+     * @param strategy
+     *            How file-backed assets are exported
+     * @return This exporter
+     * @throws IllegalArgumentException
+     *             if the strategy is null
+     */
+    ExplodedExporter strategy(ExplodedExportStrategy strategy);
+
+    /**
+     * Sets the {@link ExecutorService} on which files are written in parallel with the calling thread, or null to
+     * write every file on the calling thread, which is the default. The executor may be bounded and shared with other
+     * exports: writes the executor does not start in time are done on the calling thread. Nested archives are
+     * exported the same way.
+     *
+     * @param executorService
+     *            The executor to write files on, or null
+     * @return This exporter
+     */
+    ExplodedExporter parallel(ExecutorService executorService);
 }
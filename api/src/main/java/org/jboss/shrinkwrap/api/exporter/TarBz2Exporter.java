@@ -16,6 +16,8 @@
  */
 package org.jboss.shrinkwrap.api.exporter;
 
+import java.util.concurrent.ExecutorService;
+
 import org.jboss.shrinkwrap.api.Assignable;
 
 /**
@@ -31,5 +33,15 @@ public interface TarBz2Exporter extends StreamExporter {
     // Contracts --------------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
 
-    // Inherited from superclass
+    /**
+     * Sets the {@link ExecutorService} on which BZip2 blocks are compressed in parallel, or null to compress every
+     * block on the thread reading the export, which is the default. Either way the export is a single standard BZip2
+     * stream. The executor may be bounded and shared with other exports: a block whose task has not started by the
+     * time it is needed is compressed on the reading thread instead.
+     *
+     * @param executorService
+     *            The executor to compress blocks on, or null
+     * @return This exporter
+     */
+    TarBz2Exporter parallel(ExecutorService executorService);
 }
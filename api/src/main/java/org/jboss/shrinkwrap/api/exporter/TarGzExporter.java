@@ -16,6 +16,8 @@
  */
 package org.jboss.shrinkwrap.api.exporter;
 
+import java.util.concurrent.ExecutorService;
+
 import org.jboss.shrinkwrap.api.Assignable;
 
 /**
@@ -30,5 +32,27 @@ public interface TarGzExporter extends StreamExporter {
     // Contracts --------------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
 
-    // Inherited from superclass
+    /**
+     * Sets the level GZIP compression deflates at, from 0 (no compression) to 9 (best compression), or -1 for the
+     * default level of {@link java.util.zip.Deflater}, which is used unless set.
+     *
+     * @param level
+     *            The compression level
+     * @return This exporter
+     * @throws IllegalArgumentException
+     *             If the level is not between -1 and 9
+     */
+    TarGzExporter compressionLevel(int level) throws IllegalArgumentException;
+
+    /**
+     * Sets the {@link ExecutorService} on which chunks of the content are deflated in parallel, or null to deflate the
+     * whole content on the thread reading the export, which is the default. Either way the export is a single GZIP
+     * member. The executor may be bounded and shared with other exports: a chunk whose task has not started by the time
+     * it is needed is deflated on the reading thread instead.
+     *
+     * @param executorService
+     *            The executor to deflate chunks on, or null
+     * @return This exporter
+     */
+    TarGzExporter parallel(ExecutorService executorService);
 }
@@ -16,6 +16,8 @@
  */
 package org.jboss.shrinkwrap.api.exporter;
 
+import java.util.concurrent.ExecutorService;
+
 import org.jboss.shrinkwrap.api.Assignable;
 
 /**
@@ -29,4 +31,16 @@ import org.jboss.shrinkwrap.api.Assignable;
  */
 public interface ZipExporter extends StreamExporter {
 
+    /**
+     * Sets the {@link ExecutorService} on which the entries following the one being written are deflated ahead, or
+     * null to deflate every entry on the thread reading the export, which is the default. Entries are still written in
+     * the order of the archive content. The executor may be bounded and shared with other exports: a task that has not
+     * started by the time its entry is needed is run on the reading thread instead. The entries of nested archives are
+     * deflated without it.
+     *
+     * @param executorService
+     *            The executor to deflate entries on, or null
+     * @return This exporter
+     */
+    ZipExporter parallel(ExecutorService executorService);
 }
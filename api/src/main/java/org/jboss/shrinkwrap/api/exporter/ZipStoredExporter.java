@@ -26,4 +26,17 @@ import org.jboss.shrinkwrap.api.Assignable;
  * @version $Revision: $
  */
 public interface ZipStoredExporter extends StreamExporter {
+
+    /**
+     * Sets the number of bytes up to which the content of an entry is kept in memory. STORED entries need their size
+     * and CRC before their content is written, so each asset is read once and its content kept until written; entries
+     * larger than this threshold are spilled to a temporary file instead.
+     *
+     * @param threshold
+     *            Maximum number of bytes of an entry held in memory
+     * @return This exporter
+     * @throws IllegalArgumentException
+     *             If the threshold is negative
+     */
+    ZipStoredExporter inMemoryThreshold(long threshold) throws IllegalArgumentException;
 }
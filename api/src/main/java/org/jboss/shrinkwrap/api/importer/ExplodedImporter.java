@@ -17,6 +17,7 @@
 package org.jboss.shrinkwrap.api.importer;
 
 import java.io.File;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchivePath;
@@ -89,4 +90,17 @@ public interface ExplodedImporter extends Assignable {
      */
     ExplodedImporter importDirectory(String fileName, Filter<ArchivePath> filter);
 
+    /**
+     * Sets the {@link ExecutorService} on which directories are listed in parallel with the calling thread, or null to
+     * walk the whole tree on the calling thread, which is the default. Entries are added to the archive in the same
+     * order either way. The executor may be bounded and shared with other imports: listings the executor does not
+     * start in time are done on the calling thread. The filter of a parallel import is called on the executor's
+     * threads as well, concurrently, so it must be thread-safe.
+     *
+     * @param executorService
+     *            The executor to list directories on, or null
+     * @return this
+     */
+    ExplodedImporter parallel(ExecutorService executorService);
+
 }
\ No newline at end of file
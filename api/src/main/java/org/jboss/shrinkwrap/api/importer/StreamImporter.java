@@ -19,6 +19,7 @@ package org.jboss.shrinkwrap.api.importer;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipInputStream;
 
@@ -96,4 +97,29 @@ public interface StreamImporter<I extends StreamImporter<I>> extends Assignable
      *             If no file is specified or if the file is a directory
      */
     I importFrom(File file, Filter<ArchivePath> filter) throws ArchiveImportException;
+
+    /**
+     * Sets the number of bytes up to which the content of an entry imported from a stream is kept in memory. Larger
+     * entries are written to temporary files and added as file assets; a file is deleted once its asset is no longer
+     * reachable, or when the JVM exits. By default all entries are kept in memory.
+     *
+     * @param threshold
+     *            Maximum number of bytes of an entry held in memory
+     * @return This importer
+     * @throws IllegalArgumentException
+     *             If the threshold is negative
+     */
+    I inMemoryThreshold(long threshold) throws IllegalArgumentException;
+
+    /**
+     * Sets the {@link ExecutorService} on which entries imported from a stream are added to the archive while the
+     * calling thread goes on reading the stream, or null to add every entry on the calling thread, which is the
+     * default. Entries are added in the order they are read. The executor may be bounded and busy running the import
+     * itself: entries the executor does not start adding in time are added on the calling thread.
+     *
+     * @param executorService
+     *            The executor to add entries on, or null
+     * @return This importer
+     */
+    I parallel(ExecutorService executorService);
 }
@@ -19,7 +19,9 @@ package org.jboss.shrinkwrap.api.importer;
 import org.jboss.shrinkwrap.api.Assignable;
 
 /**
- * {@link Assignable} type capable of importing TAR archive content encoded in BZip2 compression.
+ * {@link Assignable} type capable of importing TAR archive content encoded in BZip2 compression. An executor set
+ * through {@link #parallel(java.util.concurrent.ExecutorService)} also decodes BZip2 blocks ahead of the one being
+ * read; blocks it does not start in time are decoded on the calling thread.
  *
  * @author <a href="mailto:andrew.rubinger@jboss.org">ALR</a>
  * @author <a href="mailto:ts@bee.kz">Tair Sabirgaliev</a>
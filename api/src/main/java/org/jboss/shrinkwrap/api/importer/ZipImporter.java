@@ -16,6 +16,7 @@
  */
 package org.jboss.shrinkwrap.api.importer;
 
+import java.io.File;
 import java.io.InputStream;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
@@ -76,4 +77,24 @@ public interface ZipImporter extends StreamImporter<ZipImporter> {
      *             If no file is specified
      */
     ZipImporter importFrom(ZipFile file) throws ArchiveImportException;
+
+    /**
+     * Mounts the provided ZIP file as the content of an empty {@link Archive}. Unlike {@link #importFrom(File)},
+     * only the central directory of the file is read; entries are added to the archive the first time they are looked
+     * up, including through the map returned by {@link Archive#getContent()} as it is iterated over, for instance by
+     * an exporter. Changes to the archive are kept in memory and never written to the file, which must not change
+     * while the archive is in use. No
+     * {@link org.jboss.shrinkwrap.api.ArchiveEventHandler} is invoked for the mounted entries.
+     *
+     * @param file
+     *            the file to mount
+     * @return Archive of the mounted Zip
+     * @throws ArchiveImportException
+     *             If the file could not be read as ZIP
+     * @throws IllegalArgumentException
+     *             If no file is specified or the file is a directory
+     * @throws IllegalStateException
+     *             If the archive already has content
+     */
+    ZipImporter mount(File file) throws ArchiveImportException, IllegalStateException;
 }
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.api.asset;
+
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test Cases for the {@link BlobStore}
+ */
+public class BlobStoreTestCase {
+
+    private static final Function<byte[], Holder> HOLDER = Holder::new;
+
+    @Test
+    public void shouldShareIdenticalContent() {
+        final BlobStore store = new BlobStore();
+        final Holder first = store.share(new byte[] { 1, 2, 3 }, HOLDER);
+        final Holder second = store.share(new byte[] { 1, 2, 3 }, HOLDER);
+
+        Assertions.assertSame(first.content, second.content);
+        Assertions.assertEquals(1, store.getBlobCount());
+        Assertions.assertEquals(2, store.getReferenceCount());
+        Assertions.assertEquals(3, store.getStoredBytes());
+        Assertions.assertEquals(3, store.getSavedBytes());
+    }
+
+    @Test
+    public void shouldNotShareDistinctContent() {
+        final BlobStore store = new BlobStore();
+        final Holder first = store.share(new byte[] { 1, 2, 3 }, HOLDER);
+        final Holder second = store.share(new byte[] { 1, 2, 4 }, HOLDER);
+        final Holder empty = store.share(new byte[0], HOLDER);
+
+        Assertions.assertNotSame(first.content, second.content);
+        Assertions.assertArrayEquals(new byte[] { 1, 2, 4 }, second.content);
+        Assertions.assertEquals(0, empty.content.length);
+        Assertions.assertEquals(3, store.getBlobCount());
+        Assertions.assertEquals(6, store.getStoredBytes());
+        Assertions.assertEquals(0, store.getSavedBytes());
+    }
+
+    @Test
+    public void shouldEvictContentOnceUnreferenced() {
+        final BlobStore store = new BlobStore();
+        final Holder first = store.share(new byte[] { 1, 2, 3 }, HOLDER);
+        final Holder kept = store.share(new byte[] { 4, 5 }, HOLDER);
+        final Holder second = store.share(new byte[] { 1, 2, 3 }, HOLDER);
+
+        // Enqueued as the garbage collector would once the holders are unreachable
+        store.referenceOf(first).enqueue();
+        Assertions.assertEquals(2, store.getBlobCount());
+        Assertions.assertEquals(0, store.getSavedBytes());
+        store.referenceOf(second).enqueue();
+
+        Assertions.assertEquals(1, store.getBlobCount());
+        Assertions.assertEquals(1, store.getReferenceCount());
+        Assertions.assertEquals(2, store.getStoredBytes());
+        Assertions.assertEquals(0, store.getSavedBytes());
+        Assertions.assertNull(store.referenceOf(first));
+        Assertions.assertArrayEquals(new byte[] { 4, 5 }, kept.content);
+    }
+
+    @Test
+    public void shouldRejectMissingArguments() {
+        final BlobStore store = new BlobStore();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> store.share(null, HOLDER));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> store.share(new byte[0], null));
+    }
+
+    private static final class Holder {
+
+        private final byte[] content;
+
+        Holder(final byte[] content) {
+            this.content = content;
+        }
+    }
+}
@@ -18,9 +18,14 @@ package org.jboss.shrinkwrap.api.asset;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 
 /**
  * Test to ensure that we can use a File as a resource.
@@ -58,6 +63,21 @@ public class FileAssetTestCase {
                 "A non existing file should result in a IllegalArgumentException");
     }
 
+    @Test
+    public void shouldTrustAttributesReadAlready(@TempDir final Path directory) throws Exception {
+        final Path file = Files.write(directory.resolve("walked.txt"), "walked".getBytes(StandardCharsets.UTF_8));
+        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+
+        try (InputStream io = new FileAsset(file.toFile(), attributes).openStream()) {
+            Assertions.assertEquals("walked", ApiTestUtils.convertToString(io));
+        }
+        // The file is not checked again, so a file deleted since it was walked fails only once read
+        Files.delete(file);
+        final FileAsset asset = new FileAsset(file.toFile(), attributes);
+        Assertions.assertThrows(RuntimeException.class, asset::openStream);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new FileAsset(file.toFile(), null));
+    }
+
     @Test
     public void shouldBeAbleToReturnFile() {
         final File exitingFile = new File(EXISTING_FILE);
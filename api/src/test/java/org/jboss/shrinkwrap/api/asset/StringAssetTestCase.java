@@ -80,4 +80,22 @@ public class StringAssetTestCase {
 
         Assertions.assertEquals(contents, asset.getSource());
     }
+
+    /**
+     * Ensures the reported size is the number of bytes the stream provides, also for characters encoded in several
+     * bytes
+     */
+    @Test
+    public void testSizeMatchesStream() throws Exception {
+        final StringAsset asset = new StringAsset("Gr\u00fc\u00dfe \u2603 " + StringAsset.class.getSimpleName());
+
+        try (final InputStream stream = asset.openStream()) {
+            long read = 0;
+            while (stream.read() != -1) {
+                read++;
+            }
+            Assertions.assertEquals(read, asset.getSize());
+            Assertions.assertEquals(read, asset.getSize(), "Size should not change once computed");
+        }
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import org.jboss.shrinkwrap.api.Assignable;
+import org.jboss.shrinkwrap.spi.ArchiveStatistics;
+
+/**
+ * {@link Assignable} implementation view of the {@link ArchiveStatistics} of a {@link MemoryMapArchiveBase}.
+ */
+public class ArchiveStatisticsImpl extends AssignableBase<MemoryMapArchiveBase<?>> implements ArchiveStatistics {
+
+    public ArchiveStatisticsImpl(final MemoryMapArchiveBase<?> archive) {
+        super(archive);
+    }
+
+    @Override
+    public long getAssetCount() {
+        return this.getArchive().getAssetCount();
+    }
+
+    @Override
+    public long getDirectoryCount() {
+        return this.getArchive().getDirectoryCount();
+    }
+
+    @Override
+    public long getUsedSpace() {
+        return this.getArchive().getUsedSpace();
+    }
+
+    @Override
+    public long getModificationVersion() {
+        return this.getArchive().getModificationVersion();
+    }
+}
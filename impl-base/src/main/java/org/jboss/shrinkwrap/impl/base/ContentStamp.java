@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+/**
+ * State of the content of an archive and its nested archives, equal to an earlier stamp of the same archive only if
+ * the content has not changed in between. Combines the greatest modification version of the archives with the
+ * modification time and length of the files backing their assets. Invalid if the content holds assets that may
+ * change unnoticed, in which case it must not be relied upon.
+ */
+final class ContentStamp {
+
+    private long version;
+
+    /**
+     * Sum of the hashes of the file states, independent of the order in which files are added
+     */
+    private long files;
+
+    private boolean valid = true;
+
+    void addVersion(final long version) {
+        this.version = Math.max(this.version, version);
+    }
+
+    void addFile(final String path, final long lastModified, final long length) {
+        files += (path.hashCode() * 31L + lastModified) * 31L + length;
+    }
+
+    void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * @return The greatest modification version of the archives
+     */
+    long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Whether the stamp captures all changes of the content
+     */
+    boolean isValid() {
+        return valid;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(version * 31 + files);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ContentStamp)) {
+            return false;
+        }
+        final ContentStamp other = (ContentStamp) obj;
+        return valid == other.valid && version == other.version && files == other.files;
+    }
+
+    @Override
+    public String toString() {
+        return ContentStamp.class.getSimpleName() + " [version=" + version + ", files=" + files + ", valid=" + valid
+            + "]";
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.asset.ArchiveAsset;
+import org.jboss.shrinkwrap.api.exporter.ArchiveExportException;
+
+/**
+ * Exported content of a {@link MemoryMapArchiveBase} nested in other archives, by exporter, so that reading the
+ * {@link ArchiveAsset} of an unchanged archive does not export it again. An export is reused as long as the
+ * {@link ContentStamp} of the archive is unchanged, which covers modifications of the archive and of the archives
+ * nested in it. Exports are held in memory up to a threshold and in a temporary file above it, deleted once the export
+ * is replaced or the archive is no longer nested. Archives that are not nested, or whose content may change unnoticed
+ * because it holds assets of types not known to be immutable, are exported on every request.
+ * <p>
+ * Thread-safe.
+ */
+public final class ExportCache {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private static final Logger log = Logger.getLogger(ExportCache.class.getName());
+
+    /**
+     * Number of bytes of an export kept in memory before spilling it to a temporary file
+     */
+    static final long IN_MEMORY_THRESHOLD = 4 * 1024 * 1024;
+
+    /**
+     * Prefix of the temporary files exports are spilled to
+     */
+    static final String SPILL_FILE_PREFIX = "shrinkwrap-export-";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Exports by exporter type; guarded by {@code this}
+     */
+    private final Map<Class<?>, Export> exports = new HashMap<>();
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    ExportCache() {
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Functional Methods -----------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Obtains the export of the specified archive, reusing an earlier export of the same type if the archive is nested
+     * in another and has not changed since.
+     *
+     * @param archive
+     *            The archive being exported
+     * @param exporterType
+     *            The type of the exporter
+     * @param export
+     *            Exports the archive
+     * @return The exported content
+     * @throws ArchiveExportException
+     *             If the archive could not be exported
+     */
+    public static InputStream export(final Archive<?> archive, final Class<?> exporterType,
+        final Supplier<InputStream> export) throws ArchiveExportException {
+        final MemoryMapArchiveBase<?> base = MemoryMapArchiveBase.unwrap(archive);
+        if (base == null || !base.isNested()) {
+            return export.get();
+        }
+        return base.getExportCache().get(base, exporterType, export);
+    }
+
+    /**
+     * Discards all exports
+     */
+    void clear() {
+        synchronized (this) {
+            for (final Export cached : exports.values()) {
+                cached.discard();
+            }
+            exports.clear();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private InputStream get(final MemoryMapArchiveBase<?> archive, final Class<?> exporterType,
+        final Supplier<InputStream> export) {
+        // Taken before exporting, so that a modification made while exporting invalidates the export
+        final ContentStamp stamp = archive.contentStamp();
+        if (!stamp.isValid()) {
+            return export.get();
+        }
+
+        final Export cached;
+        synchronized (this) {
+            cached = exports.get(exporterType);
+        }
+        if (cached != null && cached.stamp.equals(stamp)) {
+            final InputStream in = cached.open();
+            if (in != null) {
+                return in;
+            }
+        }
+
+        final Export exported = Export.read(stamp, export.get());
+        synchronized (this) {
+            final Export replaced = exports.put(exporterType, exported);
+            if (replaced != null) {
+                replaced.discard();
+            }
+        }
+        final InputStream in = exported.open();
+        // Null if replaced by a concurrent export and deleted already
+        return in != null ? in : export.get();
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Exported content with the stamp of the archive it was exported from
+     */
+    private static final class Export {
+
+        private final ContentStamp stamp;
+
+        private final ContentBuffer memory;
+
+        private final Path spillFile;
+
+        private Export(final ContentStamp stamp, final ContentBuffer memory, final Path spillFile) {
+            this.stamp = stamp;
+            this.memory = memory;
+            this.spillFile = spillFile;
+        }
+
+        /**
+         * Reads an export into memory, or into a temporary file once it exceeds {@link #IN_MEMORY_THRESHOLD}
+         */
+        static Export read(final ContentStamp stamp, final InputStream exported) throws ArchiveExportException {
+            final ContentBuffer memory = new ContentBuffer();
+            Path spillFile = null;
+            try (InputStream in = exported) {
+                final byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    if (memory.size() + read > IN_MEMORY_THRESHOLD) {
+                        spillFile = Files.createTempFile(SPILL_FILE_PREFIX, ".tmp");
+                        try (OutputStream out = Files.newOutputStream(spillFile)) {
+                            memory.writeTo(out);
+                            do {
+                                out.write(buffer, 0, read);
+                            } while ((read = in.read(buffer)) != -1);
+                        }
+                        return new Export(stamp, null, spillFile);
+                    }
+                    memory.write(buffer, 0, read);
+                }
+            } catch (final IOException ioe) {
+                deleteQuietly(spillFile);
+                throw new ArchiveExportException("Could not read export", ioe);
+            }
+            return new Export(stamp, memory, null);
+        }
+
+        /**
+         * @return A stream of the content, or null if its temporary file was deleted in the meantime
+         */
+        InputStream open() {
+            if (spillFile == null) {
+                return memory.asInputStream();
+            }
+            try {
+                return Files.newInputStream(spillFile);
+            } catch (final IOException ioe) {
+                return null;
+            }
+        }
+
+        void discard() {
+            deleteQuietly(spillFile);
+        }
+
+        private static void deleteQuietly(final Path file) {
+            if (file == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (final IOException ioe) {
+                // Still open on a platform that does not allow that
+                log.log(Level.FINE, "Could not delete " + file + ", deleting it on exit", ioe);
+                file.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * {@link ByteArrayOutputStream} which can be read back without copying its contents
+     */
+    private static final class ContentBuffer extends ByteArrayOutputStream {
+
+        InputStream asInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+}
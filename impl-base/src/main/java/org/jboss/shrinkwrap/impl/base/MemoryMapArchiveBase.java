@@ -16,7 +16,8 @@
  */
 package org.jboss.shrinkwrap.impl.base;
 
-import java.util.ArrayList;
+import java.io.File;
+import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -25,6 +26,8 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchiveEvent;
@@ -45,7 +48,10 @@ import org.jboss.shrinkwrap.impl.base.path.PathUtil;
 /**
  * MemoryMapArchiveBase
  * <p>
- * A base implementation for all MemoryMap archives. Thread-safe.
+ * A base implementation for all MemoryMap archives. Thread-safe: reads never block, concurrent additions only contend
+ * on the paths and directories they touch, and {@link #getContent()} returns a consistent snapshot in insertion order.
+ * The content of an empty archive may be mounted from a ZIP file, whose entries are added as they are looked up.
+ * While the archive is nested in others, its exports are cached until its content changes, see {@link ExportCache}.
  *
  * @author <a href="mailto:baileyje@gmail.com">John Bailey</a>
  * @author <a href="mailto:aslak@conduct.no">Aslak Knutsen</a>
@@ -54,6 +60,15 @@ import org.jboss.shrinkwrap.impl.base.path.PathUtil;
  */
 public abstract class MemoryMapArchiveBase<T extends Archive<T>> extends ArchiveBase<T> implements Archive<T> {
 
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Path of the root node, which is stored but never reported as content
+     */
+    private static final ArchivePath ROOT = new BasicPath("/");
+
     // -------------------------------------------------------------------------------------||
     // Instance Members -------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -61,14 +76,22 @@ public abstract class MemoryMapArchiveBase<T extends Archive<T>> extends Archive
     /**
      * Storage for the {@link Node}s.
      */
-    private final Map<ArchivePath, NodeImpl> content = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final NodeStore content = new NodeStore();
 
     /**
-     * Storage for the {@link ArchiveAsset}s. Used to help get access to nested archive content.
+     * Storage for the {@link ArchiveAsset}s. Used to help get access to nested archive content. Replaced as a whole on
+     * every change so that lookups, which happen on every addition, need no locking.
      */
-    private final Map<ArchivePath, ArchiveAsset> nestedArchives = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile Map<ArchivePath, ArchiveAsset> nestedArchives = Collections.emptyMap();
 
-    private final List<ArchiveEventHandler> handlers = new ArrayList<>();
+    private final List<ArchiveEventHandler> handlers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Number of {@link ArchiveAsset}s of this archive stored in other archives
+     */
+    private final AtomicInteger nestings = new AtomicInteger();
+
+    private final ExportCache exportCache = new ExportCache();
 
     // -------------------------------------------------------------------------------------||
     // Constructor ------------------------------------------------------------------------||
@@ -105,8 +128,7 @@ public abstract class MemoryMapArchiveBase<T extends Archive<T>> extends Archive
         super(archiveName, configuration);
 
         // Add the root node to the content
-        final ArchivePath rootPath = new BasicPath("/");
-        content.put(rootPath, new NodeImpl(rootPath));
+        content.putIfAbsent(new NodeImpl(ROOT));
     }
 
     // -------------------------------------------------------------------------------------||
@@ -161,7 +183,7 @@ public abstract class MemoryMapArchiveBase<T extends Archive<T>> extends Archive
         if (node.getAsset() != null && node.getAsset() instanceof ArchiveAsset) {
             final ArchiveAsset archiveAsset = (ArchiveAsset) node.getAsset();
             // Add asset to ArchiveAsset Map
-            nestedArchives.put(archivePath, archiveAsset);
+            updateNestedArchive(archivePath, archiveAsset);
         }
 
         return covariantReturn();
@@ -184,38 +206,54 @@ public abstract class MemoryMapArchiveBase<T extends Archive<T>> extends Archive
 
     private T addAsset(ArchivePath path, Asset asset) {
         final Asset handledAsset = invokeHandlers(path, asset);
+        final NodeImpl newNode = new NodeImpl(path, handledAsset);
 
-        // Disallow if we're dealing with a non-empty dir
-        if (contains(path)) {
-            if (asset != null) {
-                // we're adding a file
-                final Node node = this.get(path);
-                if (node.getAsset() == null) {
-                    // Path exists as a dir, throw an exception
-                    throw new IllegalOverwriteException("Cannot add requested asset " + asset + " to path "
-                        + path.get() + " to archive " + this.getName() + "; path already exists as directory");
+        content.update(() -> {
+            if (asset == null) {
+                // we're adding dir, if it exists do nothing
+                if (!content.containsKey(path) && !nestedContains(path) && content.putIfAbsent(newNode) == null) {
+                    linkToParent(newNode);
+                }
+                return;
+            }
+
+            // we're adding a file, disallow if the path exists as a directory in a nested archive
+            if (!content.containsKey(path) && nestedContains(path)) {
+                assertNotDirectory(this.get(path), path, asset);
+            }
+
+            while (true) {
+                final NodeImpl existing = content.get(path);
+                if (existing == null) {
+                    // Path does not exist, add new node
+                    if (content.putIfAbsent(newNode) == null) {
+                        break;
+                    }
                 } else {
                     // path exists as a file, overwrite
-                    addNewNode(path, handledAsset);
+                    assertNotDirectory(existing, path, asset);
+                    if (content.replace(existing, newNode)) {
+                        break;
+                    }
                 }
             }
-
-            // we're adding dir, it exists, do nothing
-        } else {
-            // Path does not exist, add new node
-            addNewNode(path, handledAsset);
-        }
+            linkToParent(newNode);
+        });
 
         return covariantReturn();
     }
 
-    private void addNewNode(ArchivePath path, Asset handledAsset) {
-        // Add the node to the content of the archive
-        final NodeImpl newNode = new NodeImpl(path, handledAsset);
-        content.put(path, newNode);
+    private void assertNotDirectory(Node node, ArchivePath path, Asset asset) {
+        if (node != null && node.getAsset() == null) {
+            // Path exists as a dir, throw an exception
+            throw new IllegalOverwriteException("Cannot add requested asset " + asset + " to path "
+                + path.get() + " to archive " + this.getName() + "; path already exists as directory");
+        }
+    }
 
+    private void linkToParent(NodeImpl newNode) {
         // Add the new node to the parent as a child
-        final NodeImpl parentNode = obtainParent(path.getParent());
+        final NodeImpl parentNode = obtainParent(newNode.getPath().getParent());
         if (parentNode != null) {
             parentNode.addChild(newNode);
         }
@@ -290,7 +328,11 @@ public abstract class MemoryMapArchiveBase<T extends Archive<T>> extends Archive
             }
         }
 
-        return removeNodeRecursively(node, safePath);
+        final ArchivePath removedPath = safePath;
+        return content.exclusive(() -> {
+            final NodeImpl current = content.get(removedPath);
+            return current == null ? null : removeNodeRecursively(current, removedPath);
+        });
     }
 
     /**
@@ -308,7 +350,9 @@ public abstract class MemoryMapArchiveBase<T extends Archive<T>> extends Archive
         }
 
         // Remove from nested archives if present
-        nestedArchives.remove(path);
+        if (nestedArchives.containsKey(path)) {
+            updateNestedArchive(path, null);
+        }
 
         // Recursively delete children if present
         if (node.getChildren() != null) {
@@ -357,14 +401,7 @@ public abstract class MemoryMapArchiveBase<T extends Archive<T>> extends Archive
      */
     @Override
     public Map<ArchivePath, Node> getContent() {
-        Map<ArchivePath, Node> ret = new LinkedHashMap<>();
-        for (Map.Entry<ArchivePath, NodeImpl> item : content.entrySet()) {
-            if (!item.getKey().equals(new BasicPath("/"))) {
-                ret.put(item.getKey(), item.getValue());
-            }
-        }
-
-        return Collections.unmodifiableMap(ret);
+        return content.snapshot(path -> !ROOT.equals(path));
     }
 
     /**
@@ -376,21 +413,142 @@ public abstract class MemoryMapArchiveBase<T extends Archive<T>> extends Archive
     public Map<ArchivePath, Node> getContent(Filter<ArchivePath> filter) {
         Validate.notNull(filter, "Filter must be specified");
 
-        Map<ArchivePath, Node> filteredContent = new LinkedHashMap<>();
-        for (Map.Entry<ArchivePath, NodeImpl> contentEntry : content.entrySet()) {
-            if (filter.include(contentEntry.getKey())) {
-                if (!contentEntry.getKey().equals(new BasicPath("/"))) {
-                    filteredContent.put(contentEntry.getKey(), contentEntry.getValue());
-                }
-            }
+        // Copied outside of the store's lock, as the filter runs once per path
+        return new LinkedHashMap<>(content.snapshot(path -> filter.include(path) && !ROOT.equals(path)));
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Statistics -------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * @return The number of assets in this archive, not counting nested archive content
+     * @see org.jboss.shrinkwrap.spi.ArchiveStatistics#getAssetCount()
+     */
+    long getAssetCount() {
+        return content.assetCount();
+    }
+
+    /**
+     * @return The number of directories in this archive, not counting the root
+     * @see org.jboss.shrinkwrap.spi.ArchiveStatistics#getDirectoryCount()
+     */
+    long getDirectoryCount() {
+        // The root node is stored but is not content
+        return content.size() - content.assetCount() - 1;
+    }
+
+    /**
+     * @return The size in bytes of the assets in this archive
+     * @see org.jboss.shrinkwrap.spi.ArchiveStatistics#getUsedSpace()
+     */
+    long getUsedSpace() {
+        return content.usedSpace();
+    }
+
+    /**
+     * @return The greatest modification version of this archive and its nested archives
+     * @see org.jboss.shrinkwrap.spi.ArchiveStatistics#getModificationVersion()
+     */
+    long getModificationVersion() {
+        return contentStamp().getVersion();
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Export Caching ---------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Obtains the {@link MemoryMapArchiveBase} underlying an archive, looking through views such as containers
+     *
+     * @param archive
+     *            The archive
+     * @return The underlying archive, or null if it is not a {@link MemoryMapArchiveBase}
+     */
+    static MemoryMapArchiveBase<?> unwrap(final Archive<?> archive) {
+        Archive<?> current = archive;
+        while (current instanceof AssignableBase) {
+            current = ((AssignableBase<?>) current).getArchive();
         }
-        return filteredContent;
+        return current instanceof MemoryMapArchiveBase ? (MemoryMapArchiveBase<?>) current : null;
+    }
+
+    /**
+     * @return A stamp of the current content of this archive and its nested archives
+     */
+    ContentStamp contentStamp() {
+        final ContentStamp stamp = new ContentStamp();
+        stamp(stamp);
+        return stamp;
+    }
+
+    /**
+     * Adds the state of the content of this archive and its nested archives to a stamp
+     */
+    void stamp(final ContentStamp stamp) {
+        content.stamp(stamp);
+    }
+
+    /**
+     * Records that an {@link ArchiveAsset} of this archive was stored in, or removed from, another archive; exports are
+     * discarded once the archive is not nested anymore
+     */
+    void nested(final int delta) {
+        if (nestings.addAndGet(delta) == 0) {
+            exportCache.clear();
+        }
+    }
+
+    /**
+     * @return Whether an {@link ArchiveAsset} of this archive is stored in another archive
+     */
+    boolean isNested() {
+        return nestings.get() > 0;
+    }
+
+    ExportCache getExportCache() {
+        return exportCache;
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Mounting ---------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Mounts a ZIP file as the content of this archive, which must be empty
+     *
+     * @param file
+     *            The ZIP file
+     * @throws IllegalArgumentException
+     *             If the file is not specified
+     * @throws IllegalStateException
+     *             If this archive has content
+     * @throws IOException
+     *             If the file could not be read as ZIP
+     * @see org.jboss.shrinkwrap.spi.Mountable#mount(File)
+     */
+    void mount(final File file) throws IllegalArgumentException, IllegalStateException, IOException {
+        Validate.notNull(file, "File must be specified");
+        content.mount(new MountedZip(file), ROOT);
     }
 
     // -------------------------------------------------------------------------------------||
     // Internal Helper Methods ------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
 
+    /**
+     * Registers or, if the asset is null, unregisters a nested archive by copying the current registrations
+     */
+    private synchronized void updateNestedArchive(ArchivePath path, ArchiveAsset archiveAsset) {
+        final Map<ArchivePath, ArchiveAsset> updated = new LinkedHashMap<>(nestedArchives);
+        if (archiveAsset == null) {
+            updated.remove(path);
+        } else {
+            updated.put(path, archiveAsset);
+        }
+        nestedArchives = updated;
+    }
+
     /**
      * Check to see if a path is found in a nested archive
      */
@@ -497,28 +655,27 @@ public abstract class MemoryMapArchiveBase<T extends Archive<T>> extends Archive
 
         NodeImpl node = content.get(path);
 
-        // If the node exists, just return it
-        if (node != null) {
-            // if the node is an asset, throw an exception
-            if (node.getAsset() != null) {
-                throw new IllegalArchivePathException("Could not create node under " + path.getParent()
-                    + ". It points to an asset.");
-            }
-
-            return node;
-        }
-
         // If the node doesn't exist, create it. Also create all possible non-existing
         // parents
-        node = new NodeImpl(path);
-        NodeImpl parentNode = obtainParent(path.getParent());
+        if (node == null) {
+            final NodeImpl parentNode = obtainParent(path.getParent());
 
-        if (parentNode != null) {
-            parentNode.addChild(node);
+            // Add the node to the contents of the archive, unless another thread got there first
+            final NodeImpl newNode = new NodeImpl(path);
+            node = content.putIfAbsent(newNode);
+            if (node == null) {
+                if (parentNode != null) {
+                    parentNode.addChild(newNode);
+                }
+                return newNode;
+            }
         }
 
-        // Add the node to the contents of the archive
-        content.put(path, node);
+        // if the node is an asset, throw an exception
+        if (node.getAsset() != null) {
+            throw new IllegalArchivePathException("Could not create node under " + path.getParent()
+                + ". It points to an asset.");
+        }
 
         return node;
     }
@@ -0,0 +1,946 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.SizedAsset;
+import org.jboss.shrinkwrap.impl.base.asset.ZipFileEntryAsset;
+import org.jboss.shrinkwrap.impl.base.path.BasicPath;
+
+/**
+ * Read-only view of the entries of a ZIP file, read from its central directory, used as the source of the nodes of a
+ * mounted {@link MemoryMapArchiveBase}.
+ * <p>
+ * Mounting only reads the central directory into memory; the file is not kept open. The first
+ * {@link #SCANNED_LOOKUPS} lookups scan it; after that, or once the children of a directory, the counters or a view
+ * are requested, the entry names are indexed, without decoding them, into arrays of a few ints per entry, directories
+ * that have no entry of their own included. Nodes are created on request with a {@link ZipFileEntryAsset} reading the
+ * entry from the file.
+ * <p>
+ * A node stored in the archive is claimed, see {@link #claim(NodeImpl)}, after which the ZIP file no longer provides
+ * it, so that removing it from the archive does not bring it back. The counters tell the number and size of the
+ * nodes that are not claimed yet, and views tell which nodes were not claimed as of a claim sequence number.
+ */
+final class MountedZip {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private static final int END_SIGNATURE = 0x06054b50;
+
+    private static final int END_SIZE = 22;
+
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+
+    private static final int CENTRAL_HEADER_SIZE = 46;
+
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+
+    /**
+     * Number of lookups answered by scanning the central directory before it is indexed
+     */
+    private static final int SCANNED_LOOKUPS = 16;
+
+    /**
+     * {@link #entries} value of directories
+     */
+    private static final int DIRECTORY = -1;
+
+    /**
+     * {@link #lookup(ArchivePath)} value of paths that are not in the ZIP file
+     */
+    private static final int ABSENT = -2;
+
+    /**
+     * {@link #parents} value of top-level nodes
+     */
+    private static final int ROOT = -1;
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private final File file;
+
+    /**
+     * The central directory, read into memory and only read with absolute gets so it can be shared by threads
+     */
+    private final ByteBuffer central;
+
+    /**
+     * Number of entries recorded in the end of central directory record
+     */
+    private final int recordedEntries;
+
+    /**
+     * Index of the nodes, built on first use; nodes are numbered in order of appearance, directories before their
+     * content
+     */
+    private volatile Index index;
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    /**
+     * Claims made before the index was built, in sequence from 1, applied to it once it is; guarded by
+     * {@link #central}
+     */
+    private List<NodeImpl> pendingClaims = new ArrayList<>();
+
+    /**
+     * Sequence number of the last claim
+     */
+    private final AtomicInteger claims = new AtomicInteger();
+
+    private final AtomicInteger claimedNodes = new AtomicInteger();
+
+    private final AtomicInteger claimedEntries = new AtomicInteger();
+
+    private final AtomicInteger claimedUnknownSizes = new AtomicInteger();
+
+    private final AtomicLong claimedBytes = new AtomicLong();
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Reads the central directory of the specified ZIP file
+     *
+     * @param file
+     *            The ZIP file
+     * @throws ZipException
+     *             If the file is not a ZIP file
+     * @throws IOException
+     *             If the file could not be read
+     */
+    MountedZip(final File file) throws IOException {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final long endPosition = findEnd(channel, size);
+            final ByteBuffer end = read(channel, endPosition, END_SIZE);
+            long entries = end.getShort(10) & 0xFFFF;
+            long centralSize = end.getInt(12) & ZIP64_MAGIC;
+            long centralEnd = endPosition;
+
+            if (endPosition >= ZIP64_LOCATOR_SIZE
+                && read(channel, endPosition - ZIP64_LOCATOR_SIZE, 4).getInt(0) == ZIP64_LOCATOR_SIGNATURE) {
+                final long zip64EndPosition = read(channel, endPosition - ZIP64_LOCATOR_SIZE, ZIP64_LOCATOR_SIZE)
+                    .getLong(8);
+                final ByteBuffer zip64End = read(channel, zip64EndPosition, 56);
+                if (zip64End.getInt(0) != ZIP64_END_SIGNATURE) {
+                    throw new ZipException("Invalid ZIP64 end of central directory in " + file);
+                }
+                entries = zip64End.getLong(32);
+                centralSize = zip64End.getLong(40);
+                centralEnd = zip64EndPosition;
+            }
+            // Derive the position from the end rather than the recorded offset, which ignores any prepended data
+            final long centralPosition = centralEnd - centralSize;
+            if (centralPosition < 0 || centralSize > Integer.MAX_VALUE || entries > Integer.MAX_VALUE) {
+                throw new ZipException("Invalid or unsupported central directory in " + file);
+            }
+            this.recordedEntries = (int) entries;
+            this.central = read(channel, centralPosition, (int) centralSize);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Functional Methods -----------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * @return The ZIP file
+     */
+    File getFile() {
+        return file;
+    }
+
+    /**
+     * @param path
+     *            The path to look up
+     * @return Whether the ZIP file has an entry or a directory at the specified path that is not claimed
+     */
+    boolean provides(final ArchivePath path) {
+        return lookup(path) != ABSENT && !isClaimed(path);
+    }
+
+    /**
+     * @param path
+     *            The path of a node of the ZIP file
+     * @return Whether the node at the specified path is claimed
+     */
+    boolean isClaimed(final ArchivePath path) {
+        final Index current = index;
+        if (current == null) {
+            synchronized (central) {
+                if (index == null) {
+                    for (final NodeImpl node : pendingClaims) {
+                        if (node.getPath().equals(path)) {
+                            return true;
+                        }
+                    }
+                    return false;
+                }
+            }
+            return isClaimed(path);
+        }
+        final int node = current.find(path);
+        return node >= 0 && current.claimedNodes.get(node) != null;
+    }
+
+    /**
+     * Claims the node at the path of the specified node, which was created by {@link #newNode(ArchivePath)} and is
+     * now stored. Claims must not run concurrently with {@link #claimSequence()}.
+     *
+     * @param node
+     *            The stored node
+     * @return Whether the node was claimed; false if it already was
+     */
+    boolean claim(final NodeImpl node) {
+        final Index current = index;
+        if (current == null) {
+            synchronized (central) {
+                if (index == null) {
+                    for (final NodeImpl pending : pendingClaims) {
+                        if (pending.getPath().equals(node.getPath())) {
+                            return false;
+                        }
+                    }
+                    claims.incrementAndGet();
+                    pendingClaims.add(node);
+                    count(node);
+                    return true;
+                }
+            }
+            return claim(node);
+        }
+        final int position = current.find(node.getPath());
+        if (position < 0 || !current.claimedNodes.compareAndSet(position, null, node)) {
+            return false;
+        }
+        current.claimedAt.set(position, claims.incrementAndGet());
+        count(node);
+        return true;
+    }
+
+    /**
+     * @return The sequence number of the last claim, marking the nodes a view taken now leaves out
+     */
+    int claimSequence() {
+        return claims.get();
+    }
+
+    /**
+     * @param path
+     *            The path to look up
+     * @return The node claimed at the specified path, or null if the ZIP file has no claimed node there
+     */
+    NodeImpl claimedNode(final ArchivePath path) {
+        final Index index = index();
+        final int node = index.find(path);
+        return node < 0 ? null : index.claimedNodes.get(node);
+    }
+
+    /**
+     * @param path
+     *            The path to look up
+     * @param sequence
+     *            A claim sequence number
+     * @return Whether the ZIP file has a node at the specified path that was not claimed as of the sequence number
+     */
+    boolean isUnclaimedAt(final ArchivePath path, final int sequence) {
+        final Index index = index();
+        final int node = index.find(path);
+        return node >= 0 && index.isUnclaimedAt(node, sequence);
+    }
+
+    /**
+     * Iterates over the paths of the nodes that were not claimed as of a sequence number, in the order in which
+     * looking up every entry, in the order of the central directory, stores them: an entry, then its parents from the
+     * top down.
+     *
+     * @param sequence
+     *            A claim sequence number
+     * @return The paths of the nodes not claimed as of the sequence number
+     */
+    Iterator<ArchivePath> unclaimedPaths(final int sequence) {
+        return new UnclaimedPathIterator(index(), sequence);
+    }
+
+    /**
+     * @return The number of nodes that are not claimed, directories included
+     */
+    int unclaimedNodes() {
+        return index().size - claimedNodes.get();
+    }
+
+    /**
+     * @return The number of nodes holding an entry that are not claimed
+     */
+    int unclaimedEntries() {
+        return index().entryNodeCount - claimedEntries.get();
+    }
+
+    /**
+     * @return The uncompressed size of the entries that are not claimed, or -1 if the central directory does not
+     *         record the size of some of them
+     */
+    long unclaimedBytes() {
+        final Index index = index();
+        if (index.unknownSizes > claimedUnknownSizes.get()) {
+            return -1L;
+        }
+        return index.totalBytes - claimedBytes.get();
+    }
+
+    /**
+     * @return Whether all nodes are claimed, so that the ZIP file provides no more nodes
+     */
+    boolean isExhausted() {
+        final Index current = index;
+        return current != null && claimedNodes.get() == current.size;
+    }
+
+    /**
+     * Creates the node for the specified path.
+     *
+     * @param path
+     *            The path of the node
+     * @return A node holding a {@link ZipFileEntryAsset} for an entry, a node without asset for a directory, or null
+     *         if the ZIP file has nothing at the specified path
+     */
+    NodeImpl newNode(final ArchivePath path) {
+        final int entry = lookup(path);
+        if (entry == ABSENT) {
+            return null;
+        }
+        // Nodes are stored under paths without trailing slash, which are equal to those with one
+        final String name = path.get();
+        final ArchivePath nodePath = name.endsWith("/") ? new BasicPath(name.substring(0, name.length() - 1)) : path;
+        if (entry == DIRECTORY) {
+            return new NodeImpl(nodePath);
+        }
+        return new NodeImpl(nodePath, new ZipFileEntryAsset(file, newEntry(entry)));
+    }
+
+    /**
+     * @param path
+     *            The path of a directory
+     * @return The paths of the entries and directories directly under the specified directory, in order of
+     *         appearance
+     */
+    List<ArchivePath> children(final ArchivePath path) {
+        final Index index = index();
+        final int parent;
+        if (path.getParent() == null) {
+            parent = ROOT;
+        } else {
+            parent = index.find(path);
+            if (parent < 0 || index.entries[parent] != DIRECTORY) {
+                return new ArrayList<>(0);
+            }
+        }
+        final int[] children = index.children();
+        final int from = index.childStart[parent + 1];
+        final int to = index.childStart[parent + 2];
+        final List<ArchivePath> paths = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            paths.add(index.path(children[i]));
+        }
+        return paths;
+    }
+
+    /**
+     * Passes the path of every entry to the specified action, in the order of the central directory. Directories
+     * without an entry of their own are left out.
+     *
+     * @param action
+     *            The action to run for each path
+     */
+    void forEachPath(final Consumer<ArchivePath> action) {
+        final Index index = index();
+        for (int i = 0; i < index.entryCount; i++) {
+            action.accept(index.path(index.entryNodes[i]));
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Adds a claimed node to the counters
+     */
+    private void count(final NodeImpl node) {
+        claimedNodes.incrementAndGet();
+        final Asset asset = node.getAsset();
+        if (asset != null) {
+            claimedEntries.incrementAndGet();
+            final long size = ((SizedAsset) asset).getSize();
+            if (size < 0) {
+                claimedUnknownSizes.incrementAndGet();
+            } else {
+                claimedBytes.addAndGet(size);
+            }
+        }
+    }
+
+    /**
+     * @return The central directory position of the entry at the specified path, {@link #DIRECTORY} or
+     *         {@link #ABSENT}
+     */
+    private int lookup(final ArchivePath path) {
+        final byte[] name = nameOf(path);
+        if (name == null) {
+            return ABSENT;
+        }
+        if (index == null && lookups.incrementAndGet() <= SCANNED_LOOKUPS) {
+            return scan(name);
+        }
+        final Index index = index();
+        final int node = index.find(name);
+        return node < 0 ? ABSENT : index.entries[node];
+    }
+
+    /**
+     * Looks up a name by reading the whole central directory, with the same outcome as {@link Index#find(byte[])}
+     */
+    private int scan(final byte[] name) {
+        int found = ABSENT;
+        int position = 0;
+        final int limit = central.limit();
+        while (position + CENTRAL_HEADER_SIZE <= limit && central.getInt(position) == CENTRAL_SIGNATURE) {
+            final int nameLength = central.getShort(position + 28) & 0xFFFF;
+            int start = position + CENTRAL_HEADER_SIZE;
+            int end = start + nameLength;
+            while (start < end && central.get(start) == '/') {
+                start++;
+            }
+            final boolean directory = end > start && central.get(end - 1) == '/';
+            while (end > start && central.get(end - 1) == '/') {
+                end--;
+            }
+            final int length = end - start;
+            if (length >= name.length && equalsName(start, name)) {
+                if (length == name.length) {
+                    if (found == ABSENT) {
+                        found = directory ? DIRECTORY : position;
+                    } else if (found != DIRECTORY && !directory) {
+                        found = position;
+                    }
+                } else if (central.get(start + name.length) == '/' && found == ABSENT) {
+                    found = DIRECTORY;
+                }
+            }
+            position += CENTRAL_HEADER_SIZE + nameLength + (central.getShort(position + 30) & 0xFFFF)
+                + (central.getShort(position + 32) & 0xFFFF);
+        }
+        return found;
+    }
+
+    /**
+     * @return The name bytes of the specified path as indexed, or null if no node can have that path
+     */
+    private static byte[] nameOf(final ArchivePath path) {
+        // Stored paths are absolute and have no trailing slash, like the paths of imported entries; a trailing slash is
+        // ignored, as paths differing only by one are equal
+        final String name = path.get();
+        final int end = name.endsWith("/") ? name.length() - 1 : name.length();
+        if (end < 2 || name.charAt(0) != '/' || name.charAt(end - 1) == '/') {
+            return null;
+        }
+        return name.substring(1, end).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether the central directory holds the specified name at the specified position
+     */
+    private boolean equalsName(final int start, final byte[] name) {
+        for (int i = 0; i < name.length; i++) {
+            if (central.get(start + i) != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Index index() {
+        Index current = index;
+        if (current == null) {
+            synchronized (central) {
+                current = index;
+                if (current == null) {
+                    current = new Index();
+                    for (int i = 0; i < pendingClaims.size(); i++) {
+                        final int node = current.find(pendingClaims.get(i).getPath());
+                        current.claimedNodes.set(node, pendingClaims.get(i));
+                        current.claimedAt.set(node, i + 1);
+                    }
+                    pendingClaims = null;
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Creates an entry carrying the name and sizes of the entry at the specified position of the central directory,
+     * enough for {@link java.util.zip.ZipFile#getInputStream(ZipEntry)}
+     */
+    private ZipEntry newEntry(final int position) {
+        final int nameLength = central.getShort(position + 28) & 0xFFFF;
+        final ZipEntry entry = new ZipEntry(new String(bytes(position + CENTRAL_HEADER_SIZE, nameLength),
+            StandardCharsets.UTF_8));
+        final long size = entrySize(position);
+        if (size >= 0) {
+            entry.setSize(size);
+        }
+        return entry;
+    }
+
+    /**
+     * @return The uncompressed size of the entry at the specified position of the central directory, read from the
+     *         ZIP64 extra field if needed, or -1 if it is not recorded
+     */
+    private long entrySize(final int position) {
+        final long size = central.getInt(position + 24) & ZIP64_MAGIC;
+        if (size != ZIP64_MAGIC) {
+            return size;
+        }
+        final int nameLength = central.getShort(position + 28) & 0xFFFF;
+        int extra = position + CENTRAL_HEADER_SIZE + nameLength;
+        final int extraEnd = extra + (central.getShort(position + 30) & 0xFFFF);
+        while (extra + 4 <= extraEnd) {
+            final int id = central.getShort(extra) & 0xFFFF;
+            final int length = central.getShort(extra + 2) & 0xFFFF;
+            if (id == ZIP64_EXTRA_ID && length >= 8 && extra + 12 <= extraEnd) {
+                // The uncompressed size comes first, as it is the first field set to the magic value
+                return central.getLong(extra + 4);
+            }
+            extra += 4 + length;
+        }
+        return -1L;
+    }
+
+    private byte[] bytes(final int position, final int length) {
+        final byte[] bytes = new byte[length];
+        final ByteBuffer source = central.duplicate();
+        source.position(position);
+        source.get(bytes);
+        return bytes;
+    }
+
+    private static long findEnd(final FileChannel channel, final long size) throws IOException {
+        if (size >= END_SIZE && read(channel, size - END_SIZE, 4).getInt(0) == END_SIGNATURE) {
+            return size - END_SIZE;
+        }
+        // The archive has a comment
+        final int length = (int) Math.min(size, END_SIZE + MAX_COMMENT_SIZE);
+        final ByteBuffer tail = read(channel, size - length, length);
+        for (int i = length - END_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_SIGNATURE && (tail.getShort(i + 20) & 0xFFFF) == length - END_SIZE - i) {
+                return size - length + i;
+            }
+        }
+        throw new ZipException("Not a ZIP file, no end of central directory found");
+    }
+
+    private static ByteBuffer read(final FileChannel channel, final long position, final int length)
+        throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new ZipException("Unexpected end of ZIP file");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Open addressing hash table of the names of the nodes. A node is a range of bytes of the central directory: the
+     * name of an entry without leading and trailing slashes, or the leading part of such a name up to a slash for a
+     * directory.
+     */
+    private final class Index {
+
+        private int size;
+
+        /**
+         * Number of entries in {@link #entryNodes}
+         */
+        private int entryCount;
+
+        /**
+         * Node of each entry, in the order of the central directory
+         */
+        private int[] entryNodes;
+
+        /**
+         * Start of the name of each node in {@link #central}
+         */
+        private int[] nameStarts;
+
+        private int[] nameLengths;
+
+        /**
+         * Central directory position of the entry of each node, or {@link #DIRECTORY}
+         */
+        private int[] entries;
+
+        /**
+         * Parent directory of each node, or {@link #ROOT}
+         */
+        private int[] parents;
+
+        private int[] hashes;
+
+        /**
+         * Node number plus one by hash, zero for a free slot
+         */
+        private int[] table;
+
+        /**
+         * Offset in {@link #children} of the children of each directory, shifted by one for the root; built on first
+         * use
+         */
+        private int[] childStart;
+
+        private int[] children;
+
+        /**
+         * Number of nodes holding an entry, and the total and unknown sizes of their entries
+         */
+        private int entryNodeCount;
+
+        private long totalBytes;
+
+        private int unknownSizes;
+
+        /**
+         * Node claimed at each position, or null
+         */
+        private final AtomicReferenceArray<NodeImpl> claimedNodes;
+
+        /**
+         * Claim sequence number of each claimed node, zero while the node is not claimed or its claim is in progress
+         */
+        private final AtomicIntegerArray claimedAt;
+
+        Index() {
+            final int capacity = Math.max(16, recordedEntries + recordedEntries / 2);
+            nameStarts = new int[capacity];
+            nameLengths = new int[capacity];
+            entries = new int[capacity];
+            parents = new int[capacity];
+            hashes = new int[capacity];
+            table = new int[tableSize(capacity)];
+            entryNodes = new int[Math.max(16, recordedEntries)];
+
+            int position = 0;
+            final int limit = central.limit();
+            while (position + CENTRAL_HEADER_SIZE <= limit && central.getInt(position) == CENTRAL_SIGNATURE) {
+                final int nameLength = central.getShort(position + 28) & 0xFFFF;
+                final int extraLength = central.getShort(position + 30) & 0xFFFF;
+                final int commentLength = central.getShort(position + 32) & 0xFFFF;
+                addEntry(position, position + CENTRAL_HEADER_SIZE, nameLength);
+                position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+            }
+            for (int node = 0; node < size; node++) {
+                if (entries[node] != DIRECTORY) {
+                    entryNodeCount++;
+                    final long entrySize = entrySize(entries[node]);
+                    if (entrySize < 0) {
+                        unknownSizes++;
+                    } else {
+                        totalBytes += entrySize;
+                    }
+                }
+            }
+            claimedNodes = new AtomicReferenceArray<>(size);
+            claimedAt = new AtomicIntegerArray(size);
+        }
+
+        boolean isUnclaimedAt(final int node, final int sequence) {
+            final int claimed = claimedAt.get(node);
+            return claimed == 0 || claimed > sequence;
+        }
+
+        int find(final ArchivePath path) {
+            final byte[] name = nameOf(path);
+            return name == null ? -1 : find(name);
+        }
+
+        int find(final byte[] bytes) {
+            int hash = 0;
+            for (final byte b : bytes) {
+                hash = 31 * hash + b;
+            }
+            final int mask = table.length - 1;
+            for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+                final int node = table[slot] - 1;
+                if (node < 0) {
+                    return -1;
+                }
+                if (hashes[node] == hash && nameLengths[node] == bytes.length
+                    && equalsName(nameStarts[node], bytes)) {
+                    return node;
+                }
+            }
+        }
+
+        ArchivePath path(final int node) {
+            return new BasicPath(new String(bytes(nameStarts[node], nameLengths[node]), StandardCharsets.UTF_8));
+        }
+
+        synchronized int[] children() {
+            if (children == null) {
+                final int[] starts = new int[size + 2];
+                for (int node = 0; node < size; node++) {
+                    starts[parents[node] + 2]++;
+                }
+                for (int i = 1; i < starts.length; i++) {
+                    starts[i] += starts[i - 1];
+                }
+                final int[] filled = Arrays.copyOf(starts, starts.length);
+                final int[] ordered = new int[size];
+                for (int node = 0; node < size; node++) {
+                    ordered[filled[parents[node] + 1]++] = node;
+                }
+                childStart = starts;
+                children = ordered;
+            }
+            return children;
+        }
+
+        private void addEntry(final int position, final int nameStart, final int nameLength) {
+            int start = nameStart;
+            int end = nameStart + nameLength;
+            while (start < end && central.get(start) == '/') {
+                start++;
+            }
+            final boolean directory = end > start && central.get(end - 1) == '/';
+            while (end > start && central.get(end - 1) == '/') {
+                end--;
+            }
+            if (start == end) {
+                return;
+            }
+
+            int parent = ROOT;
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                final byte b = central.get(i);
+                if (b == '/' && i > start && central.get(i - 1) != '/') {
+                    parent = findOrAdd(start, i - start, hash, DIRECTORY, parent);
+                }
+                hash = 31 * hash + b;
+            }
+            final int node = findOrAdd(start, end - start, hash, directory ? DIRECTORY : position, parent);
+            if (!directory && entries[node] != DIRECTORY) {
+                // A later entry of the same name wins, as when importing
+                entries[node] = position;
+            }
+            if (entryCount == entryNodes.length) {
+                entryNodes = Arrays.copyOf(entryNodes, entryCount * 2);
+            }
+            entryNodes[entryCount++] = node;
+        }
+
+        private int findOrAdd(final int start, final int length, final int hash, final int entry, final int parent) {
+            final int mask = table.length - 1;
+            int slot = hash & mask;
+            for (;; slot = (slot + 1) & mask) {
+                final int node = table[slot] - 1;
+                if (node < 0) {
+                    break;
+                }
+                if (hashes[node] == hash && nameLengths[node] == length && equalsRange(nameStarts[node], start,
+                    length)) {
+                    return node;
+                }
+            }
+            if (size == nameStarts.length) {
+                grow();
+                return findOrAdd(start, length, hash, entry, parent);
+            }
+            final int node = size++;
+            nameStarts[node] = start;
+            nameLengths[node] = length;
+            entries[node] = entry;
+            parents[node] = parent;
+            hashes[node] = hash;
+            table[slot] = node + 1;
+            return node;
+        }
+
+        private void grow() {
+            final int capacity = nameStarts.length * 2;
+            nameStarts = Arrays.copyOf(nameStarts, capacity);
+            nameLengths = Arrays.copyOf(nameLengths, capacity);
+            entries = Arrays.copyOf(entries, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            table = new int[tableSize(capacity)];
+            final int mask = table.length - 1;
+            for (int node = 0; node < size; node++) {
+                int slot = hashes[node] & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = node + 1;
+            }
+        }
+
+        private boolean equalsRange(final int first, final int second, final int length) {
+            for (int i = 0; i < length; i++) {
+                if (central.get(first + i) != central.get(second + i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private int tableSize(final int capacity) {
+            return Integer.highestOneBit(capacity * 2 - 1) << 1;
+        }
+    }
+
+    /**
+     * Iterates over the paths of the nodes not claimed as of a sequence number, see {@link #unclaimedPaths(int)}
+     */
+    private static final class UnclaimedPathIterator implements Iterator<ArchivePath> {
+
+        private final Index index;
+
+        private final int sequence;
+
+        /**
+         * Nodes already returned or skipped
+         */
+        private final boolean[] visited;
+
+        /**
+         * Next entry in the order of the central directory
+         */
+        private int entry;
+
+        /**
+         * Nodes to return next: an entry and its parents from the top down
+         */
+        private int[] pending = new int[8];
+
+        private int pendingStart;
+
+        private int pendingEnd;
+
+        UnclaimedPathIterator(final Index index, final int sequence) {
+            this.index = index;
+            this.sequence = sequence;
+            this.visited = new boolean[index.size];
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return pendingStart < pendingEnd;
+        }
+
+        @Override
+        public ArchivePath next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final ArchivePath path = index.path(pending[pendingStart++]);
+            if (pendingStart == pendingEnd) {
+                advance();
+            }
+            return path;
+        }
+
+        private void advance() {
+            pendingStart = 0;
+            pendingEnd = 0;
+            while (pendingEnd == 0 && entry < index.entryCount) {
+                final int node = index.entryNodes[entry++];
+                add(node);
+                int depth = 0;
+                for (int parent = index.parents[node]; parent != ROOT; parent = index.parents[parent]) {
+                    depth++;
+                }
+                final int[] parents = new int[depth];
+                for (int parent = index.parents[node]; parent != ROOT; parent = index.parents[parent]) {
+                    parents[--depth] = parent;
+                }
+                for (final int parent : parents) {
+                    add(parent);
+                }
+            }
+        }
+
+        private void add(final int node) {
+            if (visited[node]) {
+                return;
+            }
+            visited[node] = true;
+            if (index.isUnclaimedAt(node, sequence)) {
+                if (pendingEnd == pending.length) {
+                    pending = Arrays.copyOf(pending, pendingEnd * 2);
+                }
+                pending[pendingEnd++] = node;
+            }
+        }
+    }
+}
@@ -16,8 +16,11 @@
  */
 package org.jboss.shrinkwrap.impl.base;
 
-import java.util.Collections;
-import java.util.LinkedHashSet;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.jboss.shrinkwrap.api.Archive;
@@ -32,6 +35,15 @@ import org.jboss.shrinkwrap.api.asset.Asset;
  */
 public class NodeImpl implements Node {
 
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Number of removed children tolerated in {@link #children} before it is compacted
+     */
+    private static final int COMPACTION_THRESHOLD = 16;
+
     // -------------------------------------------------------------------------------------||
     // Instance Members -------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -47,9 +59,21 @@ public class NodeImpl implements Node {
     private final Asset asset;
 
     /**
-     * The children nodes.
+     * The children nodes in insertion order, with null in place of removed children. Replaced as a whole by writers, so
+     * that {@link #getChildren()} only reads it.
+     */
+    private volatile PersistentVector<Node> children = PersistentVector.empty();
+
+    /**
+     * The position of each child in {@link #children}. Guarded by its own monitor, so that writers only contend per
+     * directory.
+     */
+    private final Map<ArchivePath, Integer> positions = new HashMap<>();
+
+    /**
+     * Adds the children not linked yet when they are first requested, or null if all children are linked
      */
-    private final Set<Node> children = Collections.synchronizedSet(new LinkedHashSet<>());
+    private volatile Runnable childLoader;
 
     // -------------------------------------------------------------------------------------||
     // Constructor ------------------------------------------------------------------------||
@@ -111,11 +135,17 @@ public class NodeImpl implements Node {
      */
     @Override
     public Set<Node> getChildren() {
-        return Collections.unmodifiableSet(this.children);
+        final Runnable loader = childLoader;
+        if (loader != null) {
+            // Idempotent, so concurrent callers may all run it rather than wait for each other
+            loader.run();
+            childLoader = null;
+        }
+        return new Children(children);
     }
 
     /**
-     * Adds a child to the Set of nodes. If already exists, nothing happens.
+     * Adds a child to the Set of nodes. If a child with the same path already exists, it is replaced in place.
      *
      * @param node
      *            The Node that will be added as a child
@@ -123,7 +153,49 @@ public class NodeImpl implements Node {
     public void addChild(Node node) {
         Validate.notNull(node, "No node was specified");
 
-        children.add(node);
+        synchronized (positions) {
+            final Integer position = positions.get(node.getPath());
+            if (position != null) {
+                children = children.set(position, node);
+            } else {
+                positions.put(node.getPath(), children.length());
+                children = children.append(node);
+            }
+        }
+    }
+
+    /**
+     * Adds the specified children, placing them, in the specified order, before the children that are not among them.
+     * Children already present are replaced.
+     *
+     * @param nodes
+     *            The children to add first
+     */
+    void addChildrenFirst(final List<Node> nodes) {
+        synchronized (positions) {
+            final PersistentVector<Node> previous = children;
+            positions.clear();
+            children = PersistentVector.empty();
+            for (final Node node : nodes) {
+                addChild(node);
+            }
+            for (final Node child : previous) {
+                if (!positions.containsKey(child.getPath())) {
+                    addChild(child);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the loader run before the children are first returned, to add the children that are not linked yet. The
+     * loader may run more than once and must only add children through {@link #addChild(Node)}.
+     *
+     * @param loader
+     *            The loader of the children
+     */
+    void setChildLoader(final Runnable loader) {
+        this.childLoader = loader;
     }
 
     /**
@@ -135,7 +207,23 @@ public class NodeImpl implements Node {
     public void removeChild(Node node) {
         Validate.notNull(node, "No node was specified");
 
-        children.remove(node);
+        synchronized (positions) {
+            final Integer position = positions.remove(node.getPath());
+            if (position == null) {
+                return;
+            }
+            PersistentVector<Node> remaining = children.set(position, null);
+            final int removed = remaining.length() - remaining.count();
+            if (removed > COMPACTION_THRESHOLD && removed > remaining.count()) {
+                final PersistentVector<Node> sparse = remaining;
+                remaining = PersistentVector.empty();
+                for (final Node child : sparse) {
+                    positions.put(child.getPath(), remaining.length());
+                    remaining = remaining.append(child);
+                }
+            }
+            children = remaining;
+        }
     }
 
     /*
@@ -175,4 +263,29 @@ public class NodeImpl implements Node {
         return this.path.get();
     }
 
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Unmodifiable view of a version of the children
+     */
+    private static final class Children extends AbstractSet<Node> {
+
+        private final PersistentVector<Node> nodes;
+
+        Children(final PersistentVector<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        public Iterator<Node> iterator() {
+            return nodes.iterator();
+        }
+
+        @Override
+        public int size() {
+            return nodes.count();
+        }
+    }
 }
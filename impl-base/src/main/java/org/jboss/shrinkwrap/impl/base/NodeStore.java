@@ -0,0 +1,939 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.Filter;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.api.asset.ArchiveAsset;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.asset.ClassAsset;
+import org.jboss.shrinkwrap.api.asset.ClassLoaderAsset;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
+import org.jboss.shrinkwrap.api.asset.SizedAsset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.impl.base.asset.ServiceProviderAsset;
+import org.jboss.shrinkwrap.impl.base.asset.ZipFileEntryAsset;
+import org.jboss.shrinkwrap.impl.base.importer.ImportedByteArrayAsset;
+
+/**
+ * Concurrent, insertion-ordered storage for the {@link NodeImpl}s of a {@link MemoryMapArchiveBase}.
+ * <p>
+ * Lookups go straight to a {@link ConcurrentHashMap} and never block. Insertion order is recorded in a
+ * {@link PersistentVector}; replacing the node of an existing path keeps its original position, while a path that is
+ * removed and added again moves to the end, just like a {@link LinkedHashMap}.
+ * <p>
+ * Compound modifications run inside {@link #update(Runnable)}, which any number of threads may enter at once; they only
+ * contend on the hash bins of the paths they touch and on appending to the insertion order.
+ * {@link #exclusive(Supplier)} and {@link #snapshot(Filter)} wait for running updates to complete and block new ones,
+ * so a snapshot never observes half of a modification; as the insertion order is persistent, a snapshot only reads a
+ * reference while doing so.
+ * <p>
+ * Every change of the node stored under a path also updates running counters of the stored assets and of their size
+ * in bytes, see {@link #usedSpace()}, and the modification version of the store, see {@link #stamp(ContentStamp)}.
+ * <p>
+ * The nodes of a mounted ZIP file, see {@link #mount(MountedZip, ArchivePath)}, are stored the first time their path
+ * is looked up, linked to their parent, which is stored as well, and claimed from the ZIP file. The counters add the
+ * nodes the ZIP file still provides, as recorded in its central directory, and snapshots take the claim sequence
+ * number along with the insertion order, so that neither needs to store them. A snapshot stores the nodes of the ZIP
+ * file as it is iterated over.
+ */
+final class NodeStore {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Number of removed entries tolerated in the insertion order before it is compacted
+     */
+    private static final int COMPACTION_THRESHOLD = 64;
+
+    /**
+     * {@link Slot#size} of a slot whose size is not part of {@link #countedBytes}
+     */
+    private static final long UNCOUNTED = -1L;
+
+    /**
+     * Buffer size used to count the bytes of assets that do not know their size
+     */
+    private static final int MEASURE_BUFFER_SIZE = 8192;
+
+    /**
+     * Source of the modification versions of all stores, so that a version taken later is always greater
+     */
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    /**
+     * Asset types whose content never changes once created; subclasses are not included, as they may override how the
+     * content is read
+     */
+    private static final Set<Class<?>> IMMUTABLE_ASSET_TYPES = new HashSet<>(Arrays.asList(ByteArrayAsset.class,
+        ImportedByteArrayAsset.class, StringAsset.class, EmptyAsset.class, ClassAsset.class, ClassLoaderAsset.class,
+        ServiceProviderAsset.class));
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Index of the live entries by path
+     */
+    private final ConcurrentMap<ArchivePath, Slot> index = new ConcurrentHashMap<>();
+
+    /**
+     * Live entries in insertion order, with null in place of removed entries until the next compaction
+     */
+    private final AtomicReference<PersistentVector<Slot>> order = new AtomicReference<>(PersistentVector.empty());
+
+    /**
+     * Shared by updates, held exclusively by snapshots and removals
+     */
+    private final Lock sharedLock;
+
+    private final Lock exclusiveLock;
+
+    /**
+     * Number of stored nodes holding an asset
+     */
+    private final LongAdder assetCount = new LongAdder();
+
+    /**
+     * Sum of the sizes of the assets whose size is known
+     */
+    private final LongAdder countedBytes = new LongAdder();
+
+    /**
+     * Slots holding an asset whose size is not part of {@link #countedBytes}, measured by {@link #usedSpace()}
+     */
+    private final Set<Slot> uncounted = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Slots holding an asset whose content may change without the store being modified: any asset that is not of one
+     * of the {@link #IMMUTABLE_ASSET_TYPES}
+     */
+    private final Set<Slot> watched = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Version of the last addition, replacement or removal of a node
+     */
+    private volatile long version = VERSIONS.incrementAndGet();
+
+    /**
+     * Source of the nodes that are not stored yet, or null
+     */
+    private volatile MountedZip mounted;
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    NodeStore() {
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        this.sharedLock = lock.readLock();
+        this.exclusiveLock = lock.writeLock();
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Functional Methods -----------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * @param path
+     *            The path to look up
+     * @return The node stored under the specified path, or null if there is none
+     */
+    NodeImpl get(final ArchivePath path) {
+        final Slot slot = index.get(path);
+        if (slot != null) {
+            return slot.node;
+        }
+        final MountedZip zip = mounted;
+        return zip == null ? null : materialize(zip, path, false);
+    }
+
+    /**
+     * @param path
+     *            The path to look up
+     * @return Whether a node is stored under the specified path
+     */
+    boolean containsKey(final ArchivePath path) {
+        if (index.containsKey(path)) {
+            return true;
+        }
+        final MountedZip zip = mounted;
+        // A node claimed from the ZIP file in the meantime is stored, unless it was removed since
+        return zip != null && (zip.provides(path) || index.containsKey(path));
+    }
+
+    /**
+     * @return The number of stored nodes, including those of a mounted ZIP file
+     */
+    int size() {
+        final MountedZip zip = mounted;
+        if (zip == null) {
+            return index.size();
+        }
+        // Nodes are stored and claimed within updates, so they are counted once
+        exclusiveLock.lock();
+        try {
+            return index.size() + zip.unclaimedNodes();
+        } finally {
+            exclusiveLock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of stored nodes holding an asset, including those of a mounted ZIP file
+     */
+    long assetCount() {
+        final MountedZip zip = mounted;
+        if (zip == null) {
+            return assetCount.sum();
+        }
+        exclusiveLock.lock();
+        try {
+            return assetCount.sum() + zip.unclaimedEntries();
+        } finally {
+            exclusiveLock.unlock();
+        }
+    }
+
+    /**
+     * Sums the sizes of the stored assets. Assets whose size was not known when they were stored are measured the
+     * first time, except for assets that may change after being stored: {@link ArchiveAsset}s, {@link FileAsset}s and
+     * {@link SizedAsset}s that can be written to, which are measured on every call. The entries of a mounted ZIP file
+     * that are not stored count for the size recorded in its central directory.
+     *
+     * @return The size of the stored assets in bytes
+     * @throws RuntimeException
+     *             If the content of an asset could not be read
+     */
+    long usedSpace() {
+        final long mountedBytes = mountedBytes();
+        long changingBytes = 0L;
+        for (final Slot slot : uncounted) {
+            synchronized (slot) {
+                if (slot.size != UNCOUNTED || !uncounted.contains(slot)) {
+                    // Replaced or removed in the meantime
+                    continue;
+                }
+                final Asset asset = slot.node.getAsset();
+                final long size = measure(asset);
+                if (isChanging(asset)) {
+                    changingBytes += size;
+                } else {
+                    slot.size = size;
+                    countedBytes.add(size);
+                    uncounted.remove(slot);
+                }
+            }
+        }
+        return countedBytes.sum() + changingBytes + mountedBytes;
+    }
+
+    /**
+     * Adds the state of the stored content to a stamp: the modification version of this store and of the stores of
+     * nested {@link MemoryMapArchiveBase}s, and the modification time and length of the files of {@link FileAsset}s,
+     * {@link ZipFileEntryAsset}s and of a mounted ZIP file. Nodes of a mounted ZIP file are not considered modified
+     * when they are stored. Assets that are not of a type known to be immutable and not backed by a file make the
+     * stamp invalid, as they may change in a way the stamp does not capture.
+     *
+     * @param stamp
+     *            The stamp to add to
+     */
+    void stamp(final ContentStamp stamp) {
+        stamp.addVersion(version);
+        final MountedZip zip = mounted;
+        if (zip != null) {
+            addFile(stamp, zip.getFile());
+        }
+        for (final Slot slot : watched) {
+            final Asset asset = slot.node.getAsset();
+            if (asset instanceof ArchiveAsset) {
+                final MemoryMapArchiveBase<?> nested = MemoryMapArchiveBase.unwrap(((ArchiveAsset) asset)
+                    .getArchive());
+                if (nested == null) {
+                    stamp.invalidate();
+                } else {
+                    nested.stamp(stamp);
+                }
+            } else if (asset instanceof FileAsset) {
+                addFile(stamp, ((FileAsset) asset).getSource());
+            } else if (asset instanceof ZipFileEntryAsset) {
+                addFile(stamp, ((ZipFileEntryAsset) asset).getFile());
+            } else {
+                stamp.invalidate();
+            }
+        }
+    }
+
+    /**
+     * Stores the specified node under its path, unless the path is already taken. Must be called from within
+     * {@link #update(Runnable)} or {@link #exclusive(Supplier)}.
+     *
+     * @param node
+     *            The node to store
+     * @return The node already stored under the path, or null if the specified node was stored
+     */
+    NodeImpl putIfAbsent(final NodeImpl node) {
+        final MountedZip zip = mounted;
+        if (zip != null && !index.containsKey(node.getPath())) {
+            final NodeImpl existing = materialize(zip, node.getPath(), false);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        final NodeImpl existing = store(node);
+        if (existing == null) {
+            modified();
+        }
+        return existing;
+    }
+
+    /**
+     * Mounts a ZIP file, whose nodes are stored as they are looked up. The store must only hold the root node.
+     *
+     * @param zip
+     *            The ZIP file to mount
+     * @param root
+     *            The path of the root node
+     * @throws IllegalStateException
+     *             If the store holds more than the root node or a ZIP file is mounted already
+     */
+    void mount(final MountedZip zip, final ArchivePath root) throws IllegalStateException {
+        exclusiveLock.lock();
+        try {
+            if (mounted != null || index.size() != 1 || !index.containsKey(root)) {
+                throw new IllegalStateException("A ZIP file can only be mounted in an empty archive");
+            }
+            mounted = zip;
+            modified();
+            final NodeImpl rootNode = index.get(root).node;
+            rootNode.setChildLoader(() -> loadChildren(rootNode));
+        } finally {
+            exclusiveLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the node stored under the path of the expected node, keeping its position in the insertion order. Must
+     * be called from within {@link #update(Runnable)} or {@link #exclusive(Supplier)}.
+     *
+     * @param expected
+     *            The node that is expected to be stored
+     * @param node
+     *            The replacement node, with the same path
+     * @return Whether the node was replaced; false if another node was stored under the path in the meantime
+     */
+    boolean replace(final NodeImpl expected, final NodeImpl node) {
+        final Slot slot = index.get(node.getPath());
+        if (slot == null || slot.node != expected) {
+            return false;
+        }
+        final Slot replacement = new Slot(node);
+        // Hold both slots until the replacement is in place, so a concurrent replacement of either waits for it
+        synchronized (slot) {
+            synchronized (replacement) {
+                if (!index.replace(node.getPath(), slot, replacement)) {
+                    return false;
+                }
+                replacement.position = slot.position;
+                order.updateAndGet(slots -> slots.set(replacement.position, replacement));
+                uncount(slot);
+                count(replacement);
+            }
+        }
+        modified();
+        return true;
+    }
+
+    /**
+     * Removes the node stored under the specified path. Must be called from within {@link #exclusive(Supplier)}.
+     *
+     * @param path
+     *            The path of the node to remove
+     * @return The removed node, or null if there was none
+     */
+    NodeImpl remove(final ArchivePath path) {
+        final Slot slot = index.remove(path);
+        if (slot == null) {
+            return null;
+        }
+        synchronized (slot) {
+            uncount(slot);
+        }
+        final PersistentVector<Slot> slots = order.updateAndGet(current -> current.set(slot.position, null));
+        modified();
+        final int removed = slots.length() - slots.count();
+        if (removed > COMPACTION_THRESHOLD && removed > slots.count()) {
+            compact();
+        }
+        return slot.node;
+    }
+
+    /**
+     * Runs a modification that may proceed concurrently with other updates.
+     *
+     * @param modification
+     *            The modification to run
+     */
+    void update(final Runnable modification) {
+        sharedLock.lock();
+        try {
+            modification.run();
+        } finally {
+            sharedLock.unlock();
+        }
+    }
+
+    /**
+     * Runs a modification while no other modification or snapshot is in progress.
+     *
+     * @param modification
+     *            The modification to run
+     * @return The result of the modification
+     */
+    <R> R exclusive(final Supplier<R> modification) {
+        exclusiveLock.lock();
+        try {
+            return modification.get();
+        } finally {
+            exclusiveLock.unlock();
+        }
+    }
+
+    /**
+     * Takes a consistent view of the stored nodes in insertion order, which later modifications do not affect. The
+     * nodes a mounted ZIP file provides follow, and are stored as the view is iterated over or looked up.
+     *
+     * @param filter
+     *            The filter deciding which paths are part of the view; applied while the view is read, so it must
+     *            always give the same answer for a path
+     * @return An unmodifiable map of the included nodes
+     */
+    Map<ArchivePath, Node> snapshot(final Filter<ArchivePath> filter) {
+        final PersistentVector<Slot> slots;
+        final MountedZip zip;
+        final int claims;
+        exclusiveLock.lock();
+        try {
+            slots = order.get();
+            zip = mounted;
+            claims = zip == null ? 0 : zip.claimSequence();
+        } finally {
+            exclusiveLock.unlock();
+        }
+        return new Snapshot(slots, filter, zip, claims);
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Stores a node under its path, unless the path is already taken
+     */
+    private NodeImpl store(final NodeImpl node) {
+        final Slot slot = new Slot(node);
+        // Hold the new slot until it is counted, so a concurrent replacement cannot uncount it first
+        synchronized (slot) {
+            final Slot existing = index.putIfAbsent(node.getPath(), slot);
+            if (existing != null) {
+                return existing.node;
+            }
+            order.updateAndGet(slots -> {
+                slot.position = slots.length();
+                return slots.append(slot);
+            });
+            count(slot);
+        }
+        return null;
+    }
+
+    /**
+     * Stores the node of a mounted ZIP file at the specified path and its missing parents, unless another thread did
+     * first. Like when adding a node to an archive, the node is stored before its parents, which are stored from the
+     * top down.
+     *
+     * @param parentFirst
+     *            Whether to store the parents before the node
+     * @return The stored node, or null if the ZIP file has nothing at the path
+     */
+    private NodeImpl materialize(final MountedZip zip, final ArchivePath path, final boolean parentFirst) {
+        final NodeImpl node = zip.newNode(path);
+        if (node == null) {
+            return null;
+        }
+        if (node.getAsset() == null) {
+            node.setChildLoader(() -> loadChildren(node));
+        }
+
+        NodeImpl parent = parentFirst ? materializeParent(zip, path.getParent()) : null;
+        final NodeImpl[] existing = new NodeImpl[1];
+        final boolean[] stored = new boolean[1];
+        update(() -> {
+            // Checked within the update, as a claimed node can only be removed by an exclusive modification
+            if (zip.isClaimed(node.getPath())) {
+                final Slot slot = index.get(node.getPath());
+                existing[0] = slot == null ? null : slot.node;
+            } else {
+                existing[0] = store(node);
+                stored[0] = existing[0] == null && zip.claim(node);
+            }
+        });
+        if (!stored[0]) {
+            return existing[0];
+        }
+        if (zip.isExhausted()) {
+            mounted = null;
+        }
+        if (!parentFirst) {
+            parent = materializeParent(zip, path.getParent());
+        }
+        if (parent != null) {
+            parent.addChild(node);
+        }
+        return node;
+    }
+
+    private NodeImpl materializeParent(final MountedZip zip, final ArchivePath path) {
+        if (path == null) {
+            return null;
+        }
+        final Slot slot = index.get(path);
+        return slot != null ? slot.node : materialize(zip, path, true);
+    }
+
+    /**
+     * Links the children a directory has in the mounted ZIP file to it, ahead of the children added since mounting
+     */
+    private void loadChildren(final NodeImpl directory) {
+        final MountedZip zip = mounted;
+        if (zip != null) {
+            final List<Node> children = new ArrayList<>();
+            for (final ArchivePath path : zip.children(directory.getPath())) {
+                final NodeImpl child = get(path);
+                if (child != null) {
+                    children.add(child);
+                }
+            }
+            directory.addChildrenFirst(children);
+        }
+    }
+
+    /**
+     * @return The size of the entries of the mounted ZIP file that are not stored
+     */
+    private long mountedBytes() {
+        final MountedZip zip = mounted;
+        if (zip == null) {
+            return 0L;
+        }
+        exclusiveLock.lock();
+        try {
+            final long bytes = zip.unclaimedBytes();
+            if (bytes >= 0) {
+                return bytes;
+            }
+        } finally {
+            exclusiveLock.unlock();
+        }
+        // Some sizes are not recorded; store the entries so they are measured
+        zip.forEachPath(this::get);
+        return 0L;
+    }
+
+    /**
+     * @return The node the mounted ZIP file provided at the specified path when claimed, storing it first if it is
+     *         not yet
+     */
+    private Node claimedNode(final MountedZip zip, final ArchivePath path) {
+        NodeImpl node = zip.claimedNode(path);
+        if (node == null) {
+            get(path);
+            node = zip.claimedNode(path);
+        }
+        return node;
+    }
+
+    /**
+     * Adds the asset of a slot to the counters; called holding the monitor of the slot.
+     */
+    private void count(final Slot slot) {
+        final Asset asset = slot.node.getAsset();
+        if (asset == null) {
+            return;
+        }
+        assetCount.increment();
+        if (!IMMUTABLE_ASSET_TYPES.contains(asset.getClass())) {
+            watched.add(slot);
+            nest(asset, 1);
+        }
+        final long size = isChanging(asset) ? UNCOUNTED : knownSize(asset);
+        if (size == UNCOUNTED) {
+            uncounted.add(slot);
+        } else {
+            slot.size = size;
+            countedBytes.add(size);
+        }
+    }
+
+    /**
+     * Removes the asset of a slot from the counters; called holding the monitor of the slot.
+     */
+    private void uncount(final Slot slot) {
+        final Asset asset = slot.node.getAsset();
+        if (asset == null) {
+            return;
+        }
+        assetCount.decrement();
+        if (watched.remove(slot)) {
+            nest(asset, -1);
+        }
+        if (slot.size == UNCOUNTED) {
+            uncounted.remove(slot);
+        } else {
+            countedBytes.add(-slot.size);
+            slot.size = UNCOUNTED;
+        }
+    }
+
+    /**
+     * Whether the content of an asset is expected to change after it is stored, so that its size cannot be counted
+     * once
+     */
+    private static boolean isChanging(final Asset asset) {
+        return asset instanceof ArchiveAsset || asset instanceof FileAsset || asset instanceof WritableByteChannel;
+    }
+
+    private static void addFile(final ContentStamp stamp, final File file) {
+        stamp.addFile(file.getPath(), file.lastModified(), file.length());
+    }
+
+    /**
+     * Tells the archive of an {@link ArchiveAsset} that it is nested in one more or one less archive
+     */
+    private static void nest(final Asset asset, final int delta) {
+        if (asset instanceof ArchiveAsset) {
+            final MemoryMapArchiveBase<?> nested = MemoryMapArchiveBase.unwrap(((ArchiveAsset) asset).getArchive());
+            if (nested != null) {
+                nested.nested(delta);
+            }
+        }
+    }
+
+    private static long knownSize(final Asset asset) {
+        if (asset instanceof SizedAsset) {
+            final long size = ((SizedAsset) asset).getSize();
+            if (size >= 0) {
+                return size;
+            }
+        }
+        return UNCOUNTED;
+    }
+
+    private static long measure(final Asset asset) {
+        final long size = knownSize(asset);
+        if (size != UNCOUNTED) {
+            return size;
+        }
+        long count = 0L;
+        try (InputStream in = asset.openStream()) {
+            final byte[] buffer = new byte[MEASURE_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                count += read;
+            }
+        } catch (final IOException ioe) {
+            throw new RuntimeException("Could not count size of " + asset, ioe);
+        }
+        return count;
+    }
+
+    private void modified() {
+        version = VERSIONS.incrementAndGet();
+    }
+
+    /**
+     * Drops removed entries from the insertion order; called with {@link #exclusiveLock} held.
+     */
+    private void compact() {
+        PersistentVector<Slot> compacted = PersistentVector.empty();
+        for (final Slot slot : order.get()) {
+            slot.position = compacted.length();
+            compacted = compacted.append(slot);
+        }
+        order.set(compacted);
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * A node stored under its path, at a position in the insertion order; replacing the node replaces the slot
+     */
+    private static final class Slot {
+
+        private final ArchivePath path;
+
+        private final NodeImpl node;
+
+        /**
+         * Position in {@link NodeStore#order}; set before the slot is published there, and only changed by compaction,
+         * with {@link NodeStore#exclusiveLock} held
+         */
+        private volatile int position;
+
+        /**
+         * Size of the asset of {@link #node} added to {@link NodeStore#countedBytes}, or {@link NodeStore#UNCOUNTED};
+         * guarded by the monitor of the slot
+         */
+        private long size = UNCOUNTED;
+
+        Slot(final NodeImpl node) {
+            this.path = node.getPath();
+            this.node = node;
+        }
+    }
+
+    /**
+     * Unmodifiable view of the nodes in a version of the insertion order, followed by the nodes a mounted ZIP file
+     * provided as of a claim sequence number. Lookups index the stored nodes of the view the first time.
+     */
+    private final class Snapshot extends AbstractMap<ArchivePath, Node> {
+
+        private final PersistentVector<Slot> slots;
+
+        private final Filter<ArchivePath> filter;
+
+        /**
+         * The mounted ZIP file, or null
+         */
+        private final MountedZip zip;
+
+        private final int claims;
+
+        private final Set<Map.Entry<ArchivePath, Node>> entries = new AbstractSet<Map.Entry<ArchivePath, Node>>() {
+
+            @Override
+            public Iterator<Map.Entry<ArchivePath, Node>> iterator() {
+                final Iterator<Map.Entry<ArchivePath, Node>> stored = new EntryIterator(slots.iterator(), filter);
+                return zip == null ? stored : new MountedEntryIterator(stored);
+            }
+
+            @Override
+            public int size() {
+                return lookup().size() + mountedSize();
+            }
+        };
+
+        /**
+         * The included stored nodes by path, or null until first needed
+         */
+        private volatile Map<ArchivePath, Node> lookup;
+
+        /**
+         * The number of included nodes of the ZIP file, or -1 until first needed
+         */
+        private volatile int mountedSize = -1;
+
+        Snapshot(final PersistentVector<Slot> slots, final Filter<ArchivePath> filter, final MountedZip zip,
+            final int claims) {
+            this.slots = slots;
+            this.filter = filter;
+            this.zip = zip;
+            this.claims = claims;
+        }
+
+        @Override
+        public Set<Map.Entry<ArchivePath, Node>> entrySet() {
+            return entries;
+        }
+
+        @Override
+        public Node get(final Object key) {
+            final Node node = lookup().get(key);
+            if (node == null && isMounted(key)) {
+                return claimedNode(zip, (ArchivePath) key);
+            }
+            return node;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return lookup().containsKey(key) || isMounted(key);
+        }
+
+        /**
+         * Whether the ZIP file provided an included node under the specified key
+         */
+        private boolean isMounted(final Object key) {
+            return zip != null && key instanceof ArchivePath && filter.include((ArchivePath) key)
+                && zip.isUnclaimedAt((ArchivePath) key, claims);
+        }
+
+        private int mountedSize() {
+            int result = mountedSize;
+            if (result < 0) {
+                result = 0;
+                if (zip != null) {
+                    for (final Iterator<ArchivePath> paths = zip.unclaimedPaths(claims); paths.hasNext();) {
+                        if (filter.include(paths.next())) {
+                            result++;
+                        }
+                    }
+                }
+                mountedSize = result;
+            }
+            return result;
+        }
+
+        private Map<ArchivePath, Node> lookup() {
+            Map<ArchivePath, Node> result = lookup;
+            if (result == null) {
+                result = new HashMap<>(Math.max(16, slots.count() * 4 / 3 + 1));
+                for (final Iterator<Map.Entry<ArchivePath, Node>> stored = new EntryIterator(slots.iterator(),
+                    filter); stored.hasNext();) {
+                    final Map.Entry<ArchivePath, Node> entry = stored.next();
+                    result.put(entry.getKey(), entry.getValue());
+                }
+                lookup = result;
+            }
+            return result;
+        }
+
+        /**
+         * Iterates over the included stored nodes, then over the included nodes of the ZIP file, storing them
+         */
+        private final class MountedEntryIterator implements Iterator<Map.Entry<ArchivePath, Node>> {
+
+            private final Iterator<Map.Entry<ArchivePath, Node>> stored;
+
+            private final Iterator<ArchivePath> paths;
+
+            private ArchivePath next;
+
+            MountedEntryIterator(final Iterator<Map.Entry<ArchivePath, Node>> stored) {
+                this.stored = stored;
+                this.paths = zip.unclaimedPaths(claims);
+                advance();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return stored.hasNext() || next != null;
+            }
+
+            @Override
+            public Map.Entry<ArchivePath, Node> next() {
+                if (stored.hasNext()) {
+                    return stored.next();
+                }
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                final ArchivePath path = next;
+                advance();
+                return new AbstractMap.SimpleImmutableEntry<>(path, claimedNode(zip, path));
+            }
+
+            private void advance() {
+                next = null;
+                while (paths.hasNext()) {
+                    final ArchivePath path = paths.next();
+                    if (filter.include(path)) {
+                        next = path;
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Iterates over the included slots of a version of the insertion order
+     */
+    private static final class EntryIterator implements Iterator<Map.Entry<ArchivePath, Node>> {
+
+        private final Iterator<Slot> slots;
+
+        private final Filter<ArchivePath> filter;
+
+        private Slot next;
+
+        EntryIterator(final Iterator<Slot> slots, final Filter<ArchivePath> filter) {
+            this.slots = slots;
+            this.filter = filter;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<ArchivePath, Node> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final Slot slot = next;
+            advance();
+            return new AbstractMap.SimpleImmutableEntry<>(slot.path, slot.node);
+        }
+
+        private void advance() {
+            next = null;
+            while (slots.hasNext()) {
+                final Slot slot = slots.next();
+                if (filter.include(slot.path)) {
+                    next = slot;
+                    return;
+                }
+            }
+        }
+    }
+}
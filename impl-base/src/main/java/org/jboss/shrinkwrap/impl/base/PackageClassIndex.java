@@ -0,0 +1,517 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+import org.jboss.shrinkwrap.api.asset.ClassLoaderAsset;
+import org.jboss.shrinkwrap.impl.base.asset.ZipFileHandles;
+
+/**
+ * Index of the classes contained in a package, as seen by a {@link ClassLoader}. Used by {@link URLPackageScanner} to
+ * find the classes of a package, and its subpackages, and to find the nested classes of a class without scanning its
+ * whole package, see {@link #findNestedClasses(ClassLoader, String, URLPackageScanner.Callback)}.
+ * <p>
+ * Indexes are cached per {@link ClassLoader} and package; the class entries of JAR files are cached per file and
+ * shared by all {@link ClassLoader}s. A cached index is rebuilt when the modification time or size of one of the JAR
+ * files, or the modification time of one of the directories, it was built from changes. Class loaders are only weakly
+ * referenced.
+ * <p>
+ * If the system property {@value #PERSISTENT_DIRECTORY_PROPERTY} names a directory, the class entries of JAR files
+ * are also kept there, so that later JVM runs do not need to read unchanged JAR files again.
+ */
+public final class PackageClassIndex {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private static final Logger log = Logger.getLogger(PackageClassIndex.class.getName());
+
+    /**
+     * System property naming the directory the class entries of JAR files are kept in between JVM runs
+     */
+    public static final String PERSISTENT_DIRECTORY_PROPERTY = "org.jboss.shrinkwrap.packageIndex.directory";
+
+    /**
+     * Version of the format of the kept class entries, changed whenever the format changes
+     */
+    private static final int PERSISTENT_FORMAT = 1;
+
+    private static final String SUFFIX_CLASS = ".class";
+
+    private static final String WEB_INF_CLASSES_DIR = "WEB-INF/classes/";
+
+    private static final PackageClassIndex INSTANCE = new PackageClassIndex();
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Package indexes per {@link ClassLoader}
+     */
+    private final Map<ClassLoader, ClassLoaderPackages> packages = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Class entries of JAR files by directory
+     */
+    private final ConcurrentMap<File, JarEntries> jars = new ConcurrentHashMap<>();
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private PackageClassIndex() {
+    }
+
+    /**
+     * @return The shared index
+     */
+    public static PackageClassIndex getInstance() {
+        return INSTANCE;
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Functional Methods -----------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Invokes the callback for every class of a package, in the directories and JAR files in which the
+     * {@link ClassLoader} finds the package, optionally including the classes of its subpackages. Classes of a WAR
+     * are found under {@code WEB-INF/classes} if the package is not found at the root.
+     *
+     * @param classLoader
+     *            The {@link ClassLoader} to find the classes with
+     * @param packageName
+     *            The name of the package, empty for the default package
+     * @param recursive
+     *            Whether to include the classes of subpackages
+     * @param callback
+     *            Invoked with the name and a {@link ClassLoaderAsset} of each class
+     * @throws IllegalArgumentException
+     *             If any argument is not specified
+     */
+    public void findClasses(final ClassLoader classLoader, final String packageName, final boolean recursive,
+        final URLPackageScanner.Callback callback) throws IllegalArgumentException {
+        Validate.notNull(classLoader, "ClassLoader must be specified");
+        Validate.notNull(packageName, "Package name must be specified");
+        Validate.notNull(callback, "Callback must be specified");
+
+        for (final IndexedClass indexed : getPackage(classLoader, packageName, recursive).classes) {
+            callback.classFound(indexed.className, new ClassLoaderAsset(indexed.resourceName, classLoader));
+        }
+    }
+
+    /**
+     * Invokes the callback for every class nested, at any depth, in the specified class, as found by
+     * {@link URLPackageScanner} in the package of the class. Takes time proportional to the number of classes nested in
+     * the top-level class once the package is indexed.
+     *
+     * @param classLoader
+     *            The {@link ClassLoader} to find the classes with
+     * @param className
+     *            The binary name of the class whose nested classes to find
+     * @param callback
+     *            Invoked with the name and a {@link ClassLoaderAsset} of each nested class
+     * @throws IllegalArgumentException
+     *             If any argument is not specified
+     */
+    public void findNestedClasses(final ClassLoader classLoader, final String className,
+        final URLPackageScanner.Callback callback) throws IllegalArgumentException {
+        Validate.notNull(classLoader, "ClassLoader must be specified");
+        Validate.notNull(className, "Class name must be specified");
+        Validate.notNull(callback, "Callback must be specified");
+
+        final int packageEnd = className.lastIndexOf('.');
+        final String packageName = packageEnd < 0 ? "" : className.substring(0, packageEnd);
+        final String simpleName = className.substring(packageEnd + 1);
+        final int topLevelEnd = simpleName.indexOf('$');
+        final String topLevelName = topLevelEnd < 0 ? simpleName : simpleName.substring(0, topLevelEnd);
+
+        final List<IndexedClass> candidates = getPackage(classLoader, packageName, false).byTopLevel()
+            .get(topLevelName);
+        if (candidates == null) {
+            return;
+        }
+        final String nestedPrefix = className + '$';
+        for (final IndexedClass candidate : candidates) {
+            if (candidate.className.startsWith(nestedPrefix)) {
+                callback.classFound(candidate.className, new ClassLoaderAsset(candidate.resourceName, classLoader));
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private PackageClasses getPackage(final ClassLoader classLoader, final String packageName,
+        final boolean recursive) {
+        final ClassLoaderPackages classLoaderPackages = packages.computeIfAbsent(classLoader,
+            cl -> new ClassLoaderPackages());
+        final ConcurrentMap<String, PackageClasses> indexes = recursive ? classLoaderPackages.recursive
+            : classLoaderPackages.direct;
+        PackageClasses indexed = indexes.get(packageName);
+        if (indexed == null || !indexed.isCurrent()) {
+            indexed = indexPackage(classLoader, packageName, recursive);
+            indexes.put(packageName, indexed);
+        }
+        return indexed;
+    }
+
+    /**
+     * Lists the classes of a package in the locations the {@link ClassLoader} finds the package directory in
+     */
+    private PackageClasses indexPackage(final ClassLoader classLoader, final String packageName,
+        final boolean recursive) {
+        final String packagePath = packageName.replace('.', '/');
+        final PackageClasses indexed = new PackageClasses();
+        try {
+            String prefix = "";
+            List<URL> resources = Collections.list(classLoader.getResources(packagePath));
+            if (resources.isEmpty()) {
+                prefix = WEB_INF_CLASSES_DIR;
+                resources = Collections.list(classLoader.getResources(prefix + packagePath));
+            } else {
+                for (final URL url : resources) {
+                    if (url.toString().contains(WEB_INF_CLASSES_DIR)) {
+                        prefix = WEB_INF_CLASSES_DIR;
+                        break;
+                    }
+                }
+            }
+
+            final Set<String> locations = new LinkedHashSet<>();
+            for (final URL url : resources) {
+                locations.add(URLPackageScanner.getLocation(url));
+            }
+            for (final String location : locations) {
+                final File file = new File(location);
+                if (file.isDirectory()) {
+                    indexDirectory(indexed, file, packageName, prefix, recursive);
+                } else {
+                    indexed.track(file);
+                    indexJar(indexed, file, prefix + packagePath, prefix, recursive);
+                }
+            }
+        } catch (final IOException ioe) {
+            log.log(Level.WARNING, "could not read: " + packageName, ioe);
+        }
+        return indexed;
+    }
+
+    private void indexDirectory(final PackageClasses indexed, final File directory, final String packageName,
+        final String prefix, final boolean recursive) {
+        indexed.track(directory);
+        final File[] children = directory.listFiles();
+        if (children == null) {
+            return;
+        }
+        final String packagePrefix = packageName.isEmpty() ? packageName : packageName + ".";
+        for (final File child : children) {
+            final String name = child.getName();
+            if (name.endsWith(SUFFIX_CLASS) && !child.isDirectory()) {
+                final String className = packagePrefix + name.substring(0, name.length() - SUFFIX_CLASS.length());
+                indexed.add(className, prefix + className.replace('.', '/') + SUFFIX_CLASS);
+            } else if (recursive && child.isDirectory()) {
+                indexDirectory(indexed, child, packagePrefix + name, prefix, true);
+            }
+        }
+    }
+
+    private void indexJar(final PackageClasses indexed, final File file, final String directory, final String prefix,
+        final boolean recursive) throws IOException {
+        final JarEntries entries = getJarEntries(file);
+        final Collection<List<String>> directories;
+        if (!recursive) {
+            final List<String> names = entries.byDirectory.get(directory);
+            directories = names == null ? Collections.emptyList() : Collections.singletonList(names);
+        } else if (directory.isEmpty()) {
+            directories = entries.byDirectory.values();
+        } else {
+            // The directory and its subdirectories, which sort between "directory/" and "directory0"
+            directories = new ArrayList<>();
+            final List<String> names = entries.byDirectory.get(directory);
+            if (names != null) {
+                directories.add(names);
+            }
+            directories.addAll(entries.byDirectory.subMap(directory + '/', directory + '0').values());
+        }
+        for (final List<String> names : directories) {
+            for (final String name : names) {
+                final String className = name.substring(prefix.length(), name.length() - SUFFIX_CLASS.length())
+                    .replace('/', '.');
+                indexed.add(className, name);
+            }
+        }
+    }
+
+    /**
+     * Obtains the class entries of a JAR file from the cache, from the persistent directory, or by reading the file
+     */
+    private JarEntries getJarEntries(final File file) throws IOException {
+        final long lastModified = file.lastModified();
+        final long length = file.length();
+        JarEntries entries = jars.get(file);
+        if (entries != null && entries.lastModified == lastModified && entries.length == length) {
+            return entries;
+        }
+        final File persisted = persistentFileOf(file);
+        entries = persisted == null ? null : JarEntries.load(persisted, file, lastModified, length);
+        if (entries == null) {
+            entries = JarEntries.read(file, lastModified, length);
+            if (persisted != null) {
+                entries.store(persisted, file);
+            }
+        }
+        jars.put(file, entries);
+        return entries;
+    }
+
+    /**
+     * The file the class entries of a JAR file are kept in between JVM runs, or null if they are not kept
+     */
+    private static File persistentFileOf(final File jar) {
+        final String directory = System.getProperty(PERSISTENT_DIRECTORY_PROPERTY);
+        if (directory == null || directory.isEmpty()) {
+            return null;
+        }
+        final String path = jar.getAbsolutePath();
+        return new File(directory, jar.getName() + '-' + Integer.toHexString(path.hashCode()) + ".index");
+    }
+
+    private static long stampOf(final File file) {
+        return file.lastModified() * 31 + file.length();
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * The package indexes of one {@link ClassLoader} by package name, without and with subpackages
+     */
+    private static final class ClassLoaderPackages {
+
+        private final ConcurrentMap<String, PackageClasses> direct = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<String, PackageClasses> recursive = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * The classes of one package, or package tree, as seen by one {@link ClassLoader}
+     */
+    private static final class PackageClasses {
+
+        private final List<IndexedClass> classes = new ArrayList<>();
+
+        /**
+         * Classes by their top-level simple name, built when first needed
+         */
+        private volatile Map<String, List<IndexedClass>> byTopLevel;
+
+        /**
+         * Directories and JAR files the index was built from, with their {@link PackageClassIndex#stampOf(File)}
+         */
+        private final List<File> sources = new ArrayList<>();
+
+        private final List<Long> stamps = new ArrayList<>();
+
+        void add(final String className, final String resourceName) {
+            classes.add(new IndexedClass(className, resourceName));
+        }
+
+        void track(final File source) {
+            sources.add(source);
+            stamps.add(stampOf(source));
+        }
+
+        Map<String, List<IndexedClass>> byTopLevel() {
+            Map<String, List<IndexedClass>> grouped = byTopLevel;
+            if (grouped == null) {
+                grouped = new LinkedHashMap<>();
+                for (final IndexedClass indexed : classes) {
+                    final String className = indexed.className;
+                    final String simpleName = className.substring(className.lastIndexOf('.') + 1);
+                    final int topLevelEnd = simpleName.indexOf('$');
+                    final String topLevelName = topLevelEnd < 0 ? simpleName : simpleName.substring(0, topLevelEnd);
+                    grouped.computeIfAbsent(topLevelName, name -> new ArrayList<>(1)).add(indexed);
+                }
+                byTopLevel = grouped;
+            }
+            return grouped;
+        }
+
+        boolean isCurrent() {
+            for (int i = 0; i < sources.size(); i++) {
+                if (stampOf(sources.get(i)) != stamps.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * A class name with the name of its resource
+     */
+    private static final class IndexedClass {
+
+        private final String className;
+
+        private final String resourceName;
+
+        IndexedClass(final String className, final String resourceName) {
+            this.className = className;
+            this.resourceName = resourceName;
+        }
+    }
+
+    /**
+     * The class entries of a JAR file by directory, in the order of the file
+     */
+    private static final class JarEntries {
+
+        private final long lastModified;
+
+        private final long length;
+
+        private final NavigableMap<String, List<String>> byDirectory = new TreeMap<>();
+
+        private JarEntries(final long lastModified, final long length) {
+            this.lastModified = lastModified;
+            this.length = length;
+        }
+
+        static JarEntries read(final File file, final long lastModified, final long length) throws IOException {
+            final JarEntries read = new JarEntries(lastModified, length);
+            try (ZipFileHandles.Handle handle = ZipFileHandles.getInstance().acquire(file)) {
+                final Enumeration<? extends ZipEntry> entries = handle.getZipFile().entries();
+                while (entries.hasMoreElements()) {
+                    final String name = entries.nextElement().getName();
+                    if (name.endsWith(SUFFIX_CLASS)) {
+                        final int directoryEnd = name.lastIndexOf('/');
+                        final String directory = directoryEnd < 0 ? "" : name.substring(0, directoryEnd);
+                        read.byDirectory.computeIfAbsent(directory, dir -> new ArrayList<>()).add(name);
+                    }
+                }
+            } catch (final ZipException e) {
+                throw new RuntimeException("Error handling file " + file, e);
+            }
+            return read;
+        }
+
+        /**
+         * Loads the class entries kept for a JAR file
+         *
+         * @return The entries, or null if none are kept for this modification time and size of the file
+         */
+        static JarEntries load(final File persisted, final File file, final long lastModified, final long length) {
+            if (!persisted.isFile()) {
+                return null;
+            }
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(persisted.toPath())))) {
+                if (in.readInt() != PERSISTENT_FORMAT || !in.readUTF().equals(file.getAbsolutePath())
+                    || in.readLong() != lastModified || in.readLong() != length) {
+                    return null;
+                }
+                final JarEntries loaded = new JarEntries(lastModified, length);
+                for (int directories = in.readInt(); directories > 0; directories--) {
+                    final String directory = in.readUTF();
+                    final String namePrefix = directory.isEmpty() ? directory : directory + '/';
+                    final int count = in.readInt();
+                    final List<String> names = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        names.add(namePrefix + in.readUTF());
+                    }
+                    loaded.byDirectory.put(directory, names);
+                }
+                return loaded;
+            } catch (final IOException ioe) {
+                log.log(Level.FINE, "Could not load the class entries of " + file + " from " + persisted, ioe);
+                return null;
+            }
+        }
+
+        /**
+         * Keeps the class entries of a JAR file, replacing the kept file atomically where supported; failures are
+         * only logged, as the entries can be read again
+         */
+        void store(final File persisted, final File file) {
+            Path temporary = null;
+            try {
+                final Path parent = Files.createDirectories(persisted.getParentFile().toPath());
+                temporary = Files.createTempFile(parent, persisted.getName(), ".tmp");
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(temporary)))) {
+                    out.writeInt(PERSISTENT_FORMAT);
+                    out.writeUTF(file.getAbsolutePath());
+                    out.writeLong(lastModified);
+                    out.writeLong(length);
+                    out.writeInt(byDirectory.size());
+                    for (final Map.Entry<String, List<String>> directory : byDirectory.entrySet()) {
+                        final int nameStart = directory.getKey().isEmpty() ? 0 : directory.getKey().length() + 1;
+                        out.writeUTF(directory.getKey());
+                        out.writeInt(directory.getValue().size());
+                        for (final String name : directory.getValue()) {
+                            out.writeUTF(name.substring(nameStart));
+                        }
+                    }
+                }
+                try {
+                    Files.move(temporary, persisted.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (final IOException | UnsupportedOperationException e) {
+                    Files.move(temporary, persisted.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (final IOException ioe) {
+                log.log(Level.FINE, "Could not keep the class entries of " + file + " in " + persisted, ioe);
+                if (temporary != null) {
+                    temporary.toFile().delete();
+                }
+            }
+        }
+    }
+}
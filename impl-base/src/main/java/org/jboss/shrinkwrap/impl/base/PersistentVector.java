@@ -0,0 +1,285 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable, persistent sequence of elements, in which null marks a removed element. Appending and replacing an
+ * element return a new vector sharing all but O(log n) of its storage with this one, so a consistent view of a
+ * sequence being modified is taken by reading a reference.
+ * <p>
+ * Elements are held in a trie of 32-element arrays; the last, partially filled array is kept apart so that appending
+ * usually copies only that array.
+ *
+ * @param <E>
+ *            The type of the elements
+ */
+final class PersistentVector<E> implements Iterable<E> {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private static final int BITS = 5;
+
+    private static final int WIDTH = 1 << BITS;
+
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 0, BITS, new Object[WIDTH],
+        new Object[0]);
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Number of positions, including those of removed elements
+     */
+    private final int length;
+
+    /**
+     * Number of elements that are not null
+     */
+    private final int count;
+
+    /**
+     * Bits of a position above those indexing the arrays at the bottom of the trie
+     */
+    private final int shift;
+
+    private final Object[] root;
+
+    private final Object[] tail;
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private PersistentVector(final int length, final int count, final int shift, final Object[] root,
+        final Object[] tail) {
+        this.length = length;
+        this.count = count;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * @return The empty vector
+     */
+    @SuppressWarnings("unchecked")
+    static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Functional Methods -----------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * @return The number of positions, including those of removed elements
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * @return The number of elements that are not null
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * @param index
+     *            The position of the element
+     * @return The element at the specified position, or null if it was removed
+     * @throws IndexOutOfBoundsException
+     *             If the position is negative or not less than {@link #length()}
+     */
+    @SuppressWarnings("unchecked")
+    E get(final int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return (E) arrayFor(index)[index & MASK];
+    }
+
+    /**
+     * @param element
+     *            The element to append, or null
+     * @return A vector holding the elements of this one followed by the specified element
+     */
+    PersistentVector<E> append(final E element) {
+        final int added = element == null ? 0 : 1;
+        if (length - tailOffset() < WIDTH) {
+            final Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(length + 1, count + added, shift, root, newTail);
+        }
+        // The tail is full, move it into the trie
+        final Object[] newRoot;
+        int newShift = shift;
+        if ((length >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(length + 1, count + added, newShift, newRoot, new Object[] { element });
+    }
+
+    /**
+     * @param index
+     *            The position of the element to replace
+     * @param element
+     *            The replacement, or null to remove the element
+     * @return A vector holding the elements of this one, with the specified element at the specified position
+     * @throws IndexOutOfBoundsException
+     *             If the position is negative or not less than {@link #length()}
+     */
+    PersistentVector<E> set(final int index, final E element) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        final int newCount = count - (get(index) == null ? 0 : 1) + (element == null ? 0 : 1);
+        if (index >= tailOffset()) {
+            final Object[] newTail = tail.clone();
+            newTail[index & MASK] = element;
+            return new PersistentVector<>(length, newCount, shift, root, newTail);
+        }
+        return new PersistentVector<>(length, newCount, shift, set(shift, root, index, element), tail);
+    }
+
+    /**
+     * @return An iterator over the elements that are not null, in order
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+
+            /**
+             * Array holding the 32 positions starting at {@link #base}
+             */
+            private Object[] array;
+
+            private int base = -WIDTH;
+
+            private int index = advance(0);
+
+            @Override
+            public boolean hasNext() {
+                return index < length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (index >= length) {
+                    throw new NoSuchElementException();
+                }
+                final E element = (E) at(index);
+                index = advance(index + 1);
+                return element;
+            }
+
+            private int advance(int from) {
+                while (from < length && at(from) == null) {
+                    from++;
+                }
+                return from;
+            }
+
+            private Object at(final int position) {
+                if (position - base >= WIDTH) {
+                    array = arrayFor(position);
+                    base = position & ~MASK;
+                }
+                return array[position & MASK];
+            }
+        };
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + ", length " + length);
+        }
+    }
+
+    /**
+     * Position of the first element of the tail
+     */
+    private int tailOffset() {
+        return length < WIDTH ? 0 : ((length - 1) >>> BITS) << BITS;
+    }
+
+    /**
+     * The array at the bottom of the trie, or the tail, holding the specified position
+     */
+    private Object[] arrayFor(final int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    /**
+     * Copies the path to the last array of the trie below the specified node, adding the full tail after it
+     */
+    private Object[] pushTail(final int level, final Object[] parent, final Object[] fullTail) {
+        final int child = ((length - 1) >>> level) & MASK;
+        final Object[] copy = parent.clone();
+        if (level == BITS) {
+            copy[child] = fullTail;
+        } else {
+            final Object[] existing = (Object[]) parent[child];
+            copy[child] = existing != null ? pushTail(level - BITS, existing, fullTail)
+                : newPath(level - BITS, fullTail);
+        }
+        return copy;
+    }
+
+    private static Object[] newPath(final int level, final Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        final Object[] path = new Object[WIDTH];
+        path[0] = newPath(level - BITS, node);
+        return path;
+    }
+
+    private static Object[] set(final int level, final Object[] node, final int index, final Object element) {
+        final Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = element;
+        } else {
+            final int child = (index >>> level) & MASK;
+            copy[child] = set(level - BITS, (Object[]) node[child], index, element);
+        }
+        return copy;
+    }
+}
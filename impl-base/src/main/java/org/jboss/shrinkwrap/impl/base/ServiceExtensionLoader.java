@@ -18,12 +18,17 @@ package org.jboss.shrinkwrap.impl.base;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchiveFormat;
@@ -43,6 +48,10 @@ import org.jboss.shrinkwrap.api.UnknownExtensionTypeExceptionDelegator;
  * to a one-element collection holding the TCCL. The {@link ServiceExtensionLoader#classLoaders} are used to find the
  * provider-configuration file for the extension to be loaded in META-INF/services/. This provider-configuration file is
  * used to make an instance of the SPI implementation and cached in {@link ServiceExtensionLoader#cache}.
+ * <p>
+ * The constructor of each implementation class is resolved once into an {@link ExtensionFactory}, so that loading an
+ * extension which was loaded before only allocates the new instance. All caches are safe for use by concurrent
+ * threads.
  *
  * @author <a href="mailto:aslak@conduct.no">Aslak Knutsen</a>
  * @author <a href="mailto:ken@glxn.net">Ken Gullaksen</a>
@@ -54,8 +63,13 @@ public class ServiceExtensionLoader implements ExtensionLoader {
     // Instance Members -------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
 
-    private final Map<Class<?>, Class<?>> cache = new HashMap<>();
-    private final Map<Class<?>, ExtensionWrapper> extensionMappings = new HashMap<>();
+    private final ConcurrentMap<Class<?>, Class<?>> cache = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, ExtensionWrapper> extensionMappings = new ConcurrentHashMap<>();
+
+    /**
+     * Factories by extension implementation class
+     */
+    private final ConcurrentMap<Class<?>, ExtensionFactory> factories = new ConcurrentHashMap<>();
 
     /**
      * ClassLoader used for loading extensions
@@ -93,12 +107,14 @@ public class ServiceExtensionLoader implements ExtensionLoader {
     @Override
     public <T extends Assignable> T load(Class<T> extensionClass, Archive<?> baseArchive)
         throws UnknownExtensionTypeException {
-        if (isCached(extensionClass)) {
-            return createFromCache(extensionClass, baseArchive);
+        final Class<T> extensionImplClass = getFromCache(extensionClass);
+        if (extensionImplClass != null) {
+            return createExtension(extensionImplClass, baseArchive);
         }
         T object = createFromLoadExtension(extensionClass, baseArchive);
 
-        addToCache(extensionClass, object.getClass());
+        // Don't replace an override added in the meantime
+        cache.putIfAbsent(extensionClass, object.getClass());
 
         return object;
     }
@@ -111,11 +127,6 @@ public class ServiceExtensionLoader implements ExtensionLoader {
         return cache.containsKey(extensionClass);
     }
 
-    private <T extends Assignable> T createFromCache(Class<T> extensionClass, Archive<?> archive) {
-        Class<T> extensionImplClass = getFromCache(extensionClass);
-        return createExtension(extensionImplClass, archive);
-    }
-
     void addToCache(Class<?> extensionClass, Class<?> extensionImplClass) {
         cache.put(extensionClass, extensionImplClass);
     }
@@ -346,32 +357,22 @@ public class ServiceExtensionLoader implements ExtensionLoader {
      *        An instance of <code>extensionImplClass</code> created using <code>archive</code> as a parameter.
 
      */
+    @SuppressWarnings("unchecked")
     private <T extends Assignable> T createExtension(Class<T> extensionImplClass, Archive<?> archive) {
-
-        T extension;
-        Constructor<T> extensionImplConstructor = findConstructor(extensionImplClass);
-
-        @SuppressWarnings("unchecked")
-        Class<T> constructorArg = (Class<T>) extensionImplConstructor.getParameterTypes()[0];
-        try {
-
-            if (constructorArg.isInstance(archive)) {
-                extension = extensionImplConstructor.newInstance(archive);
-            } else {
-                extension = extensionImplConstructor.newInstance(load(constructorArg, archive));
-            }
-        } catch (InstantiationException e) {
-            throw new ExtensionLoadingException("Failed to instantiate class of type " + archive.getClass()
-                + ". The underlying class can not be abstract.", e);
-        } catch (IllegalAccessException e) {
-            throw new ExtensionLoadingException("Failed to instantiate class of type " + archive.getClass()
-                + ". The underlying constructor is inaccessible.", e);
-        } catch (InvocationTargetException e) {
-            throw new ExtensionLoadingException("Failed to instantiate class of type " + archive.getClass()
-                + ". The underlying constructor threw an exception.", e);
+        ExtensionFactory factory = factories.get(extensionImplClass);
+        if (factory == null) {
+            factory = new ExtensionFactory(findConstructor(extensionImplClass));
+            factories.putIfAbsent(extensionImplClass, factory);
         }
 
-        return extension;
+        // Adapt the archive to the type the constructor expects
+        final Assignable argument;
+        if (factory.parameterType.isInstance(archive)) {
+            argument = archive;
+        } else {
+            argument = load(factory.parameterType, archive);
+        }
+        return (T) factory.create(argument, archive);
     }
 
     /**
@@ -404,4 +405,51 @@ public class ServiceExtensionLoader implements ExtensionLoader {
     private Iterable<ClassLoader> getClassLoaders() {
         return this.classLoaders;
     }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Creates instances of an extension implementation through a {@link MethodHandle} to its constructor, resolved
+     * once.
+     */
+    private static final class ExtensionFactory {
+
+        /**
+         * The constructor, adapted to the type (Assignable)Assignable
+         */
+        private final MethodHandle constructor;
+
+        /**
+         * The type of the single constructor argument
+         */
+        private final Class<? extends Assignable> parameterType;
+
+        @SuppressWarnings("unchecked")
+        ExtensionFactory(final Constructor<?> constructor) {
+            this.parameterType = (Class<? extends Assignable>) constructor.getParameterTypes()[0];
+            final Class<?> declaringClass = constructor.getDeclaringClass();
+            if (Modifier.isAbstract(declaringClass.getModifiers())) {
+                throw new ExtensionLoadingException("Failed to instantiate class of type " + declaringClass
+                    + ". The underlying class can not be abstract.");
+            }
+            try {
+                this.constructor = MethodHandles.publicLookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Assignable.class, Assignable.class));
+            } catch (final IllegalAccessException e) {
+                throw new ExtensionLoadingException("Failed to instantiate class of type " + declaringClass
+                    + ". The underlying constructor is inaccessible.", e);
+            }
+        }
+
+        Assignable create(final Assignable argument, final Archive<?> archive) {
+            try {
+                return (Assignable) constructor.invokeExact(argument);
+            } catch (final Throwable t) {
+                throw new ExtensionLoadingException("Failed to instantiate class of type " + archive.getClass()
+                    + ". The underlying constructor threw an exception.", t);
+            }
+        }
+    }
 }
@@ -17,22 +17,21 @@
 package org.jboss.shrinkwrap.impl.base.asset;
 
 import java.io.File;
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
 
-import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.SizedAsset;
 import org.jboss.shrinkwrap.impl.base.Validate;
 
 /**
- * Holds a reference to the ZipFile and the ZipEntry this Asset represents for lazy loading.
+ * Holds a reference to the ZipFile and the ZipEntry this Asset represents for lazy loading. The file is opened
+ * through {@link ZipFileHandles}, so the assets of one file share the same {@link java.util.zip.ZipFile}.
  * <p>
  * Used by the ZipImporter.
  *
  * @author <a href="mailto:aslak@conduct.no">Aslak Knutsen</a>
  */
-public class ZipFileEntryAsset implements Asset {
+public class ZipFileEntryAsset implements SizedAsset {
     private final File file;
     private final ZipEntry entry;
 
@@ -53,39 +52,26 @@ public class ZipFileEntryAsset implements Asset {
     // TODO: create AssetStreamException ?
     public InputStream openStream() {
         try {
-            final ZipFile file = new ZipFile(this.file);
-            return new InputStreamWrapper(file, file.getInputStream(entry));
+            return ZipFileHandles.getInstance().openStream(file, entry);
         } catch (final Exception e) {
             throw new RuntimeException("Could not open zip file stream", e);
         }
     }
 
-    private static class InputStreamWrapper extends InputStream {
-
-        private final ZipFile file;
-        private final InputStream is;
-
-        private InputStreamWrapper(final ZipFile file, final InputStream is) {
-            this.file = file;
-            this.is = is;
-        }
-
-        @Override
-        public int read() throws IOException {
-            return this.is.read();
-        }
+    /**
+     * @return The ZIP file holding the entry
+     */
+    public File getFile() {
+        return file;
+    }
 
-        @Override
-        public void close() throws IOException {
-            try {
-                try {
-                    this.is.close();
-                } finally {
-                    this.file.close();
-                }
-            } finally {
-                super.close();
-            }
-        }
+    /**
+     * Returns the uncompressed size recorded for the entry.
+     *
+     * @see org.jboss.shrinkwrap.api.asset.SizedAsset#getSize()
+     */
+    @Override
+    public long getSize() {
+        return entry.getSize();
     }
 }
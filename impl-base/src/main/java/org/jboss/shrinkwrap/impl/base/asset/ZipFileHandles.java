@@ -0,0 +1,356 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.asset;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.jboss.shrinkwrap.impl.base.Validate;
+
+/**
+ * Pool of open {@link ZipFile}s shared by everything reading entries of the same file, so that the central directory
+ * of a file is parsed once rather than once per entry read.
+ * <p>
+ * Handles are reference counted and keyed by the absolute path of the file. A handle is only reused while the file
+ * key, modification time and size of the file are unchanged; otherwise a new {@link ZipFile} is opened and the stale
+ * one is closed once released. Handles nobody holds are closed after {@link #IDLE_TIMEOUT_MILLIS} by a daemon thread,
+ * so files are not kept open, or locked on Windows, for longer than that.
+ */
+public final class ZipFileHandles {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private static final Logger log = Logger.getLogger(ZipFileHandles.class.getName());
+
+    /**
+     * Time in milliseconds after which a handle nobody holds is closed
+     */
+    public static final long IDLE_TIMEOUT_MILLIS = 2000;
+
+    private static final ZipFileHandles INSTANCE = new ZipFileHandles();
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Current handles by absolute path, guarded by {@code this}
+     */
+    private final Map<String, Handle> handles = new HashMap<>();
+
+    /**
+     * Closes idle handles; its only thread terminates when no eviction is pending
+     */
+    private final ScheduledThreadPoolExecutor evictor;
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private ZipFileHandles() {
+        evictor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "ShrinkWrap ZipFile eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.setKeepAliveTime(IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        evictor.allowCoreThreadTimeOut(true);
+        evictor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * @return The shared pool
+     */
+    public static ZipFileHandles getInstance() {
+        return INSTANCE;
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Functional Methods -----------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Obtains a handle on the specified ZIP file, opening it if no current handle is pooled. The handle must be
+     * closed once the {@link ZipFile} is no longer used, which does not close the {@link ZipFile} itself.
+     *
+     * @param file
+     *            The ZIP file
+     * @return A handle holding the open {@link ZipFile}
+     * @throws IllegalArgumentException
+     *             If the file is not specified
+     * @throws IOException
+     *             If the file could not be opened
+     */
+    public Handle acquire(final File file) throws IllegalArgumentException, IOException {
+        Validate.notNull(file, "File must be specified");
+
+        final String path = file.getAbsolutePath();
+        final Stamp stamp = stampOf(file);
+        synchronized (this) {
+            final Handle handle = handles.get(path);
+            if (handle != null && handle.stamp.equals(stamp)) {
+                handle.retain();
+                return handle;
+            }
+        }
+
+        final Handle opened = new Handle(path, stamp, new ZipFile(file));
+        synchronized (this) {
+            final Handle handle = handles.get(path);
+            if (handle != null && handle.stamp.equals(stamp)) {
+                // Lost a race with another thread opening the same file
+                handle.retain();
+                opened.closeQuietly();
+                return handle;
+            }
+            if (handle != null) {
+                retire(handle);
+            }
+            handles.put(path, opened);
+            opened.retain();
+            return opened;
+        }
+    }
+
+    /**
+     * Opens a stream on an entry of the specified ZIP file, holding a handle until the stream is closed.
+     *
+     * @param file
+     *            The ZIP file
+     * @param entry
+     *            The entry to read
+     * @return A stream on the uncompressed content of the entry
+     * @throws IllegalArgumentException
+     *             If the file or entry is not specified
+     * @throws IOException
+     *             If the file could not be opened or the entry could not be read
+     */
+    public InputStream openStream(final File file, final ZipEntry entry) throws IllegalArgumentException,
+        IOException {
+        Validate.notNull(entry, "Entry must be specified");
+
+        final Handle handle = acquire(file);
+        try {
+            final InputStream stream = handle.getZipFile().getInputStream(entry);
+            if (stream == null) {
+                throw new IOException("Entry " + entry.getName() + " not found in " + file);
+            }
+            return new EntryInputStream(stream, handle);
+        } catch (final IOException | RuntimeException e) {
+            handle.close();
+            throw e;
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Identifies the content of a file: its file key, if the platform has one, modification time and size
+     */
+    private static Stamp stampOf(final File file) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        return new Stamp(attributes.fileKey(), attributes.lastModifiedTime().toMillis(), attributes.size());
+    }
+
+    /**
+     * Removes a handle from the pool, closing it now if nobody holds it; called holding {@code this}
+     */
+    private void retire(final Handle handle) {
+        if (handles.get(handle.path) == handle) {
+            handles.remove(handle.path);
+        }
+        handle.retired = true;
+        if (handle.references == 0) {
+            handle.closeQuietly();
+        }
+    }
+
+    private synchronized void evict(final Handle handle) {
+        if (handle.references == 0 && !handle.retired) {
+            retire(handle);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * A reference on a pooled {@link ZipFile}
+     */
+    public final class Handle implements Closeable {
+
+        private final String path;
+
+        private final Stamp stamp;
+
+        private final ZipFile zipFile;
+
+        /**
+         * Fields below are guarded by the pool
+         */
+        private int references;
+
+        private boolean retired;
+
+        private ScheduledFuture<?> eviction;
+
+        private Handle(final String path, final Stamp stamp, final ZipFile zipFile) {
+            this.path = path;
+            this.stamp = stamp;
+            this.zipFile = zipFile;
+        }
+
+        /**
+         * @return The open {@link ZipFile}, which must not be closed by the caller
+         */
+        public ZipFile getZipFile() {
+            return zipFile;
+        }
+
+        /**
+         * Releases this reference on the {@link ZipFile}. Must be called exactly once per
+         * {@link ZipFileHandles#acquire(File)}.
+         *
+         * @see java.io.Closeable#close()
+         */
+        @Override
+        public void close() {
+            synchronized (ZipFileHandles.this) {
+                if (--references > 0) {
+                    return;
+                }
+                if (retired) {
+                    closeQuietly();
+                } else {
+                    eviction = evictor.schedule(() -> evict(this), IDLE_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                }
+            }
+        }
+
+        /**
+         * Called holding the pool
+         */
+        private void retain() {
+            references++;
+            if (eviction != null) {
+                eviction.cancel(false);
+                eviction = null;
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                zipFile.close();
+            } catch (final IOException ioe) {
+                log.log(Level.FINE, "Could not close " + path, ioe);
+            }
+        }
+    }
+
+    /**
+     * Stream on an entry releasing its handle when closed
+     */
+    private static final class EntryInputStream extends FilterInputStream {
+
+        private Handle handle;
+
+        private EntryInputStream(final InputStream in, final Handle handle) {
+            super(in);
+            this.handle = handle;
+        }
+
+        /**
+         * Overrides {@code InputStream.transferTo} on Java 9 and later
+         */
+        public long transferTo(final OutputStream out) throws IOException {
+            Objects.requireNonNull(out, "out");
+            final byte[] buffer = new byte[8192];
+            long transferred = 0;
+            int read;
+            while ((read = in.read(buffer, 0, buffer.length)) >= 0) {
+                out.write(buffer, 0, read);
+                transferred += read;
+            }
+            return transferred;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (handle != null) {
+                    handle.close();
+                    handle = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Identity and version of a file
+     */
+    private static final class Stamp {
+
+        private final Object fileKey;
+
+        private final long lastModified;
+
+        private final long size;
+
+        private Stamp(final Object fileKey, final long lastModified, final long size) {
+            this.fileKey = fileKey;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof Stamp)) {
+                return false;
+            }
+            final Stamp other = (Stamp) obj;
+            return Objects.equals(fileKey, other.fileKey) && lastModified == other.lastModified && size == other.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(fileKey, lastModified, size);
+        }
+    }
+}
@@ -60,6 +60,7 @@ import org.jboss.shrinkwrap.api.exporter.ZipExporter;
 import org.jboss.shrinkwrap.api.formatter.Formatter;
 import org.jboss.shrinkwrap.impl.base.ArchiveBase;
 import org.jboss.shrinkwrap.impl.base.AssignableBase;
+import org.jboss.shrinkwrap.impl.base.PackageClassIndex;
 import org.jboss.shrinkwrap.impl.base.URLPackageScanner;
 import org.jboss.shrinkwrap.impl.base.Validate;
 import org.jboss.shrinkwrap.impl.base.asset.AssetUtil;
@@ -1368,25 +1369,10 @@ public abstract class ContainerBase<T extends Archive<T>> extends AssignableBase
             final ClassLoader adjustedCl = loadingCl == null ? ClassLoader.getSystemClassLoader() : loadingCl;
 
             // Get all inner classes and add them
-            addPackages(false, new Filter<ArchivePath>() {
-                /**
-                 * path = /package/MyClass$Test.class <br/>
-                 * clazz = /package/MyClass.class <br/>
-                 *
-                 *
-                 * @param path
-                 *            The added classes
-                 * @return {@code true} if the path matches the pattern for the given class resource, {@code false} otherwise
-                 */
-                @Override
-                public boolean include(ArchivePath path) {
-                    ArchivePath classArchivePath = AssetUtil.getFullPathForClassResource(clazz);
-                    String expression = classArchivePath.get().replace(".class", "\\$.*");
-                    return path.get().matches(expression);
-                }
-            }, adjustedCl,
-            // Assumes a null package is a class in the default package
-                clazz.getPackage() == null ? DEFAULT_PACKAGE_NAME : clazz.getPackage().getName());
+            PackageClassIndex.getInstance().findNestedClasses(adjustedCl, clazz.getName(), (className, asset) -> {
+                ArchivePath classNamePath = AssetUtil.getFullPathForClassResource(className);
+                add(asset, new BasicPath(getClassesPath(), classNamePath));
+            });
         }
         return covariantReturn();
     }
@@ -16,7 +16,6 @@
  */
 package org.jboss.shrinkwrap.impl.base.exporter;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -29,18 +28,21 @@ import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.Node;
 import org.jboss.shrinkwrap.api.asset.Asset;
 import org.jboss.shrinkwrap.api.exporter.ArchiveExportException;
-import org.jboss.shrinkwrap.impl.base.io.IOUtil;
 import org.jboss.shrinkwrap.impl.base.path.PathUtil;
 
 /**
  * Base for on-demand input streams. Encodes data on the fly, when read method is executed.
+ * <p>
+ * Encoded data is produced one chunk at a time into an internal buffer which is handed out directly by the bulk
+ * {@link #read(byte[], int, int)}, {@link #skip(long)} and {@link #transferTo(OutputStream)} operations, so no
+ * intermediate copies are made between the encoder and the consumer.
  *
  * @author <a href="mailto:mmatloka@gmail.com">Michal Matloka</a>
  */
 public abstract class AbstractOnDemandInputStream<T extends OutputStream> extends InputStream {
 
     /**
-     * Number of bytes kept in buffer.
+     * Number of bytes read from an asset per encoding step.
      */
     private static final int BUFFER_LENGTH = 4096;
 
@@ -55,19 +57,24 @@ public abstract class AbstractOnDemandInputStream<T extends OutputStream> extend
     protected T outputStream;
 
     /**
-     * Base for outputStream.
+     * Base for outputStream; holds encoded data not yet handed out to the reader.
      */
-    private final ByteArrayOutputStream bufferedOutputStream = new ByteArrayOutputStream();
+    private final ChunkBuffer bufferedOutputStream = new ChunkBuffer();
 
     /**
-     * Stream of currently processed Node.
+     * Reusable buffer for reading the contents of the currently processed node.
      */
-    private InputStream currentNodeStream;
+    private final byte[] copyBuffer = new byte[BUFFER_LENGTH];
+
+    /**
+     * Position of the next byte to be handed out from {@link #bufferedOutputStream}.
+     */
+    private int bufferPosition;
 
     /**
-     * Stream to the buffer.
+     * Stream of currently processed Node.
      */
-    private ByteArrayInputStream bufferInputStream;
+    private InputStream currentNodeStream;
 
     /**
      * If output stream was closed - we should finish.
@@ -86,81 +93,169 @@ public abstract class AbstractOnDemandInputStream<T extends OutputStream> extend
      *              The archive from which the stream is created
      */
     public AbstractOnDemandInputStream(final Archive<?> archive) {
-        final Collection<Node> nodes = archive.getContent().values();
+        this(archive.getContent().values());
+    }
+
+    /**
+     * Creates stream from the nodes of an archive, in the order they are to be written.
+     *
+     * @param nodes
+     *              The nodes from which the stream is created
+     */
+    protected AbstractOnDemandInputStream(final Collection<Node> nodes) {
         this.nodesIterator = nodes.iterator();
     }
 
     @Override
     public int read() throws IOException {
+        if (!fillBuffer()) {
+            return -1;
+        }
+        return bufferedOutputStream.byteAt(bufferPosition++);
+    }
 
-        if (outputStream == null && !outputStreamClosed) {
-            // first run
-            outputStream = createOutputStream(bufferedOutputStream);
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (b == null) {
+            throw new NullPointerException();
+        }
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
         }
 
-        int value = bufferInputStream != null ? bufferInputStream.read() : -1;
-        if (value == -1) {
-            if (currentNodeStream != null) {
-                // current node was not processed completely
-                try {
-                    doCopy();
-                    bufferInputStream = new ByteArrayInputStream(bufferedOutputStream.toByteArray());
-                    bufferedOutputStream.reset();
-                    return this.read();
-                } catch (final Throwable t) {
-                    throw new ArchiveExportException("Failed to write asset to output: " + currentPath.get(), t);
-                }
-            } else if (nodesIterator.hasNext()) {
-                // current node was processed completely, process next one
-                final Node currentNode = nodesIterator.next();
+        int read = 0;
+        while (read < len && fillBuffer()) {
+            final int chunk = Math.min(len - read, bufferedOutputStream.size() - bufferPosition);
+            bufferedOutputStream.copyTo(bufferPosition, b, off + read, chunk);
+            bufferPosition += chunk;
+            read += chunk;
+        }
+        return read == 0 ? -1 : read;
+    }
 
-                currentPath = currentNode.getPath();
-                final String pathName = PathUtil.optionallyRemovePrecedingSlash(currentPath.get());
+    @Override
+    public long skip(final long n) throws IOException {
+        long skipped = 0;
+        while (skipped < n && fillBuffer()) {
+            final int chunk = (int) Math.min(n - skipped, bufferedOutputStream.size() - bufferPosition);
+            bufferPosition += chunk;
+            skipped += chunk;
+        }
+        return skipped;
+    }
 
-                final boolean isDirectory = currentNode.getAsset() == null;
-                String resolvedPath = pathName;
+    @Override
+    public int available() {
+        return bufferedOutputStream.size() - bufferPosition;
+    }
 
-                if (isDirectory) {
-                    resolvedPath = PathUtil.optionallyAppendSlash(resolvedPath);
-                    startAsset(resolvedPath, currentNode.getAsset());
-                    endAsset();
-                } else {
-                    startAsset(resolvedPath, currentNode.getAsset());
+    /**
+     * Reads all remaining encoded data from this stream and writes it to the given {@link OutputStream}, handing out
+     * each encoded chunk directly from the internal buffer. Overrides {@code InputStream.transferTo} on runtimes which
+     * provide it.
+     *
+     * @param out
+     *            The output stream to write to
+     * @return The number of bytes transferred
+     * @throws IOException
+     *             If an I/O error occurs when reading or writing
+     */
+    public long transferTo(final OutputStream out) throws IOException {
+        if (out == null) {
+            throw new NullPointerException();
+        }
 
-                    try {
-                        currentNodeStream = currentNode.getAsset().openStream();
-                        doCopy();
-                    } catch (final Throwable t) {
-                        throw new ArchiveExportException("Failed to write asset to output: " + currentPath.get(), t);
-                    }
-                    bufferInputStream = new ByteArrayInputStream(bufferedOutputStream.toByteArray());
-                    bufferedOutputStream.reset();
-                }
+        long transferred = 0;
+        while (fillBuffer()) {
+            final int chunk = bufferedOutputStream.size() - bufferPosition;
+            bufferedOutputStream.writeTo(bufferPosition, chunk, out);
+            bufferPosition += chunk;
+            transferred += chunk;
+        }
+        return transferred;
+    }
 
-            } else {
-                // each node was processed
-                if (!outputStreamClosed) {
-                    outputStream.close();
-                    outputStreamClosed = true;
-
-                    // output closed, now process what was saved on close
-                    bufferInputStream = new ByteArrayInputStream(bufferedOutputStream.toByteArray());
-                    bufferedOutputStream.close();
-
-                    currentNodeStream = null;
-                    outputStream = null;
-                    return this.read();
-                }
+    @Override
+    public void close() throws IOException {
+        if (currentNodeStream != null) {
+            currentNodeStream.close();
+            currentNodeStream = null;
+        }
+    }
+
+    /**
+     * Ensures the internal buffer holds unread encoded data, encoding further content from the archive as required.
+     *
+     * @return true if there is data to be read, false if the end of the stream has been reached
+     * @throws IOException
+     *             If an I/O error occurs during encoding
+     */
+    private boolean fillBuffer() throws IOException {
+        while (bufferPosition >= bufferedOutputStream.size()) {
+            bufferedOutputStream.reset();
+            bufferPosition = 0;
 
+            if (outputStreamClosed) {
                 // everything was read, end
-                return -1;
+                return false;
             }
+            encodeNext();
+        }
+        return true;
+    }
 
-            // chosen new node or new data in buffer - read again
-            return this.read();
+    /**
+     * Performs a single encoding step, writing the produced data into the internal buffer. Depending on the state this
+     * either continues the currently processed node, starts the next node or finishes the output stream.
+     *
+     * @throws IOException
+     *             If an I/O error occurs during encoding
+     */
+    private void encodeNext() throws IOException {
+        if (outputStream == null) {
+            // first run
+            outputStream = createOutputStream(bufferedOutputStream);
         }
 
-        return value;
+        if (currentNodeStream != null) {
+            // current node was not processed completely
+            try {
+                doCopy();
+            } catch (final Throwable t) {
+                throw new ArchiveExportException("Failed to write asset to output: " + currentPath.get(), t);
+            }
+        } else if (nodesIterator.hasNext()) {
+            // current node was processed completely, process next one
+            final Node currentNode = nodesIterator.next();
+
+            currentPath = currentNode.getPath();
+            final String pathName = PathUtil.optionallyRemovePrecedingSlash(currentPath.get());
+
+            final boolean isDirectory = currentNode.getAsset() == null;
+            String resolvedPath = pathName;
+
+            if (isDirectory) {
+                resolvedPath = PathUtil.optionallyAppendSlash(resolvedPath);
+                startAsset(resolvedPath, currentNode.getAsset());
+                endAsset();
+            } else {
+                try {
+                    startAsset(resolvedPath, currentNode.getAsset());
+                    currentNodeStream = openAssetStream(currentNode.getAsset());
+                    doCopy();
+                } catch (final Throwable t) {
+                    throw new ArchiveExportException("Failed to write asset to output: " + currentPath.get(), t);
+                }
+            }
+        } else {
+            // each node was processed, output closed, now process what was saved on close
+            outputStream.close();
+            outputStreamClosed = true;
+            outputStream = null;
+        }
     }
 
     /**
@@ -170,12 +265,15 @@ public abstract class AbstractOnDemandInputStream<T extends OutputStream> extend
      *             If an I/O error occurs during the copy operation
      */
     private void doCopy() throws IOException {
-        int copied = IOUtil.copy(currentNodeStream, outputStream, BUFFER_LENGTH);
+        final int copied = currentNodeStream.read(copyBuffer);
         if (copied == -1) {
             currentNodeStream.close();
             currentNodeStream = null;
             endAsset();
+            return;
         }
+        outputStream.write(copyBuffer, 0, copied);
+        outputStream.flush();
     }
 
     /**
@@ -202,6 +300,20 @@ public abstract class AbstractOnDemandInputStream<T extends OutputStream> extend
         closeEntry(outputStream);
     }
 
+    /**
+     * Opens the stream from which the content of the entry started last by
+     * {@link #putNextEntry(OutputStream, String, Asset)} is copied. By default the asset itself is opened.
+     *
+     * @param asset
+     *            The asset being written
+     * @return The stream of the entry content
+     * @throws IOException
+     *             If an error occurred opening the stream
+     */
+    protected InputStream openAssetStream(final Asset asset) throws IOException {
+        return asset.openStream();
+    }
+
     /**
      * Creates the real {@link OutputStream} to which we'll write, wrapping the provided target.
      *
@@ -234,4 +346,26 @@ public abstract class AbstractOnDemandInputStream<T extends OutputStream> extend
      *            The output stream to close the entry for
      */
     protected abstract void closeEntry(T outputStream) throws IOException;
+
+    /**
+     * {@link ByteArrayOutputStream} granting access to its contents without copying them.
+     */
+    private static final class ChunkBuffer extends ByteArrayOutputStream {
+
+        ChunkBuffer() {
+            super(BUFFER_LENGTH * 2);
+        }
+
+        int byteAt(final int index) {
+            return buf[index] & 0xFF;
+        }
+
+        void copyTo(final int from, final byte[] target, final int offset, final int length) {
+            System.arraycopy(buf, from, target, offset, length);
+        }
+
+        void writeTo(final int from, final int length, final OutputStream target) throws IOException {
+            target.write(buf, from, length);
+        }
+    }
 }
@@ -116,7 +116,13 @@ public abstract class AbstractStreamExporterImpl extends AssignableBase<Archive<
         try (InputStream in = this.exportAsInputStream()) {
             // Write out
             try {
-                IOUtil.copy(in, target);
+                if (in instanceof AbstractOnDemandInputStream) {
+                    // Hand out encoded chunks directly, without an intermediate copy buffer
+                    ((AbstractOnDemandInputStream<?>) in).transferTo(target);
+                    target.flush();
+                } else {
+                    IOUtil.copy(in, target);
+                }
             } catch (final IOException e) {
                 throw new ArchiveExportException("Error encountered in exporting archive to " + target, e);
             }
@@ -19,7 +19,28 @@ package org.jboss.shrinkwrap.impl.base.exporter;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -27,7 +48,11 @@ import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.Node;
 import org.jboss.shrinkwrap.api.asset.ArchiveAsset;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
+import org.jboss.shrinkwrap.api.asset.SizedAsset;
 import org.jboss.shrinkwrap.api.exporter.ArchiveExportException;
+import org.jboss.shrinkwrap.api.exporter.ExplodedExportStrategy;
 import org.jboss.shrinkwrap.api.exporter.ExplodedExporter;
 import org.jboss.shrinkwrap.impl.base.io.IOUtil;
 
@@ -35,6 +60,15 @@ import org.jboss.shrinkwrap.impl.base.io.IOUtil;
  * ExplodedExporterDelegate
  * <p>
  * Delegate used to export an archive into an exploded directory structure.
+ * <p>
+ * An incremental export compares each asset with the file already in place, by size and then content, and only writes
+ * the files that differ; files and directories of the output directory that are not part of the archive are deleted
+ * once all assets are written. Files are written on the {@link ExecutorService}, if one is given, and on the calling
+ * thread.
+ * <p>
+ * Files of {@link FileAsset}s are linked to their source or copied with {@link FileChannel#transferTo}, which lets
+ * the operating system copy the content without passing it through the heap, according to the
+ * {@link ExplodedExportStrategy}; a link that cannot be created falls back to a copy.
  *
  * @author <a href="mailto:baileyje@gmail.com">John Bailey</a>
  * @author <a href="mailto:aslak@conduct.no">Aslak Knutsen</a>
@@ -50,6 +84,8 @@ public class ExplodedExporterDelegate extends AbstractExporterDelegate<File> {
      */
     private static final Logger log = Logger.getLogger(ExplodedExporterDelegate.class.getName());
 
+    private static final int BUFFER_SIZE = 8192;
+
     // -------------------------------------------------------------------------------------||
     // Instance Members -------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -59,6 +95,42 @@ public class ExplodedExporterDelegate extends AbstractExporterDelegate<File> {
      */
     private final File outputDirectory;
 
+    /**
+     * Whether files matching their asset are left untouched and files not in the archive deleted
+     */
+    private final boolean incremental;
+
+    private final ExplodedExportStrategy strategy;
+
+    private final ExecutorService executorService;
+
+    /**
+     * Directories known to exist, saving a file system check per node
+     */
+    private final Set<File> directories = new HashSet<>();
+
+    /**
+     * Files and directories of the archive, kept by an incremental export; nested archive directories are added to
+     * {@link #nestedDirectories} as well, as their content is kept by the export of the nested archive
+     */
+    private final Set<Path> expected = new HashSet<>();
+
+    private final Set<Path> nestedDirectories = new HashSet<>();
+
+    /**
+     * Writes of assets not run yet
+     */
+    private final Queue<Runnable> writes = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger written = new AtomicInteger();
+
+    private final AtomicInteger unchanged = new AtomicInteger();
+
+    /**
+     * First failure of a write
+     */
+    private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
     // -------------------------------------------------------------------------------------||
     // Constructor ------------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -67,10 +139,33 @@ public class ExplodedExporterDelegate extends AbstractExporterDelegate<File> {
      * Creates a new exploded exporter delegate for the provided {@link Archive}
      */
     public ExplodedExporterDelegate(Archive<?> archive, File outputDirectory) {
+        this(archive, outputDirectory, false, ExplodedExportStrategy.COPY, null);
+    }
+
+    /**
+     * Creates a new exploded exporter delegate for the provided {@link Archive}
+     *
+     * @param archive
+     *            The archive to export
+     * @param outputDirectory
+     *            The directory to export into
+     * @param incremental
+     *            Whether to only write the files that differ from their asset and delete the files not in the archive
+     * @param strategy
+     *            How the files of {@link FileAsset}s are created
+     * @param executorService
+     *            The {@link ExecutorService} to write files on in parallel, or null to write them on the calling thread
+     */
+    public ExplodedExporterDelegate(final Archive<?> archive, final File outputDirectory, final boolean incremental,
+        final ExplodedExportStrategy strategy, final ExecutorService executorService) {
         super(archive);
         this.outputDirectory = outputDirectory;
+        this.incremental = incremental;
+        this.strategy = strategy;
+        this.executorService = executorService;
 
         validateOutputDirectory(outputDirectory);
+        directories.add(outputDirectory);
     }
 
     // -------------------------------------------------------------------------------------||
@@ -92,7 +187,7 @@ public class ExplodedExporterDelegate extends AbstractExporterDelegate<File> {
 
         // Get the assets parent directory and make sure it exists
         final File assetParent = assetFile.getParentFile();
-        if (!assetParent.exists()) {
+        if (directories.add(assetParent) && !assetParent.exists()) {
             if (!assetParent.mkdirs()) {
                 throw new ArchiveExportException("Failed to write asset.  Unable to create parent directory.");
             }
@@ -109,9 +204,16 @@ public class ExplodedExporterDelegate extends AbstractExporterDelegate<File> {
         try {
             assert node != null;
             final boolean isDirectory = (node.getAsset() == null);
+            if (incremental) {
+                expected.add(assetFile.toPath());
+            }
             if (isDirectory) {
+                if (incremental && assetFile.isFile()) {
+                    // Replaced by a directory
+                    Files.delete(assetFile.toPath());
+                }
                 // If it doesn't already exist
-                if (!assetFile.exists()) {
+                if (directories.add(assetFile) && !assetFile.exists()) {
                     // Attempt a creation
                     if (!assetFile.mkdirs()) {
                         // Some error in writing
@@ -121,23 +223,16 @@ public class ExplodedExporterDelegate extends AbstractExporterDelegate<File> {
             }
             // Only handle non-directory assets, otherwise the path is handled above
             else {
-                try {
-                    if (log.isLoggable(Level.FINE)) {
-                        log.fine("Writing asset " + path.get() + " to " + assetFile.getAbsolutePath());
-                    }
-                    // Get the asset streams
-                    try (InputStream assetInputStream = node.getAsset().openStream();
-                         FileOutputStream assetFileOutputStream = new FileOutputStream(assetFile);
-                         BufferedOutputStream assetBufferedOutputStream = new BufferedOutputStream(
-                                 assetFileOutputStream, 8192)) {
-                        // Write contents
-                        IOUtil.copyWithClose(assetInputStream, assetBufferedOutputStream);
-                    }
-                } catch (final Exception e) {
-                    // Provide a more detailed exception than the outer block
-                    throw new ArchiveExportException("Failed to write asset " + path + " to " + assetFile, e);
+                final Asset asset = node.getAsset();
+                final Runnable write = () -> writeAsset(path, asset, assetFile);
+                if (executorService == null) {
+                    write.run();
+                } else {
+                    writes.add(write);
                 }
             }
+        } catch (final ArchiveExportException e) {
+            throw e;
         } catch (final Exception e) {
             throw new ArchiveExportException("Unexpected error encountered in export of " + node, e);
         }
@@ -150,6 +245,19 @@ public class ExplodedExporterDelegate extends AbstractExporterDelegate<File> {
      */
     @Override
     protected File getResult() {
+        if (executorService != null) {
+            runWrites();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        if (incremental) {
+            final int deleted = deleteUnexpected();
+            if (log.isLoggable(Level.FINE)) {
+                log.fine("Exported " + getArchive().getName() + " incrementally: " + written.get() + " written, "
+                    + unchanged.get() + " unchanged, " + deleted + " deleted");
+            }
+        }
         return outputDirectory;
     }
 
@@ -169,7 +277,282 @@ public class ExplodedExporterDelegate extends AbstractExporterDelegate<File> {
     private void processArchiveAsset(File parentDirectory, ArchiveAsset nestedArchiveAsset) {
         // Get the nested archive
         Archive<?> nestedArchive = nestedArchiveAsset.getArchive();
-        nestedArchive.as(ExplodedExporter.class).exportExploded(parentDirectory);
+        final File nestedDirectory = nestedArchive.as(ExplodedExporter.class).incremental(incremental)
+            .strategy(strategy).parallel(executorService).exportExploded(parentDirectory);
+        if (incremental) {
+            expected.add(nestedDirectory.toPath());
+            nestedDirectories.add(nestedDirectory.toPath());
+        }
+    }
+
+    /**
+     * Writes the content of an asset to a file, unless the export is incremental and the file has that content already
+     */
+    private void writeAsset(final ArchivePath path, final Asset asset, final File assetFile) {
+        try {
+            final Path target = assetFile.toPath();
+            final Path source = asset instanceof FileAsset ? ((FileAsset) asset).getSource().toPath() : null;
+            if (incremental) {
+                if (Files.isDirectory(target, LinkOption.NOFOLLOW_LINKS)) {
+                    // Replaced by a file
+                    deleteRecursively(target);
+                } else if (isUpToDate(target, source, asset)) {
+                    unchanged.incrementAndGet();
+                    return;
+                }
+            }
+            if (log.isLoggable(Level.FINE)) {
+                log.fine("Writing asset " + path.get() + " to " + assetFile.getAbsolutePath());
+            }
+            // Replace rather than overwrite, as writing through a link of a previous export would change its source
+            Files.deleteIfExists(target);
+            if (source != null && (link(source, target) || transfer(source, target))) {
+                written.incrementAndGet();
+                return;
+            }
+            // Get the asset streams
+            try (InputStream assetInputStream = asset.openStream();
+                 FileOutputStream assetFileOutputStream = new FileOutputStream(assetFile);
+                 BufferedOutputStream assetBufferedOutputStream = new BufferedOutputStream(
+                         assetFileOutputStream, BUFFER_SIZE)) {
+                // Write contents
+                IOUtil.copyWithClose(assetInputStream, assetBufferedOutputStream);
+            }
+            written.incrementAndGet();
+        } catch (final Exception e) {
+            // Provide a more detailed exception than the outer block
+            throw new ArchiveExportException("Failed to write asset " + path + " to " + assetFile, e);
+        }
+    }
+
+    /**
+     * Whether the file of an asset needs no write: a link to the source file of a {@link FileAsset} if the strategy
+     * links, or a file holding the content of the asset otherwise or if the link could not be created
+     *
+     * @param source
+     *            The source file of a {@link FileAsset}, or null for other assets
+     */
+    private boolean isUpToDate(final Path target, final Path source, final Asset asset) throws IOException {
+        if (Files.isSymbolicLink(target)) {
+            return strategy == ExplodedExportStrategy.SYMBOLIC_LINK && source != null
+                && Files.readSymbolicLink(target).equals(source.toAbsolutePath());
+        }
+        if (!Files.isRegularFile(target)) {
+            return false;
+        }
+        if (source != null && Files.isSameFile(target, source)) {
+            return strategy == ExplodedExportStrategy.HARD_LINK;
+        }
+        return hasContent(target.toFile(), asset);
+    }
+
+    /**
+     * Links the target to the source file if the strategy asks for it
+     *
+     * @return Whether the link was created; false if the file is to be copied
+     */
+    private boolean link(final Path source, final Path target) {
+        try {
+            switch (strategy) {
+                case HARD_LINK:
+                    Files.createLink(target, source);
+                    return true;
+                case SYMBOLIC_LINK:
+                    Files.createSymbolicLink(target, source.toAbsolutePath());
+                    return true;
+                default:
+                    return false;
+            }
+        } catch (final IOException | UnsupportedOperationException | SecurityException e) {
+            if (log.isLoggable(Level.FINE)) {
+                log.fine("Copying " + source + " to " + target + ", unable to link: " + e);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Copies a file by transferring its content between channels, leaving the copy to the operating system where
+     * possible
+     *
+     * @return Whether the file was copied; false if the source is not a regular file and is to be streamed instead
+     */
+    private static boolean transfer(final Path source, final Path target) throws IOException {
+        if (!Files.isRegularFile(source)) {
+            return false;
+        }
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            final long size = in.size();
+            long position = 0;
+            while (position < size) {
+                final long transferred = in.transferTo(position, size - position, out);
+                if (transferred <= 0) {
+                    // Truncated while copying
+                    break;
+                }
+                position += transferred;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Whether a file holds exactly the content of an asset; compares sizes first if the asset knows its size
+     */
+    private static boolean hasContent(final File file, final Asset asset) throws IOException {
+        if (asset instanceof SizedAsset) {
+            final long size = ((SizedAsset) asset).getSize();
+            if (size >= 0 && size != file.length()) {
+                return false;
+            }
+        }
+        try (InputStream expectedContent = asset.openStream();
+             InputStream actualContent = Files.newInputStream(file.toPath())) {
+            final byte[] expectedBuffer = new byte[BUFFER_SIZE];
+            final byte[] actualBuffer = new byte[BUFFER_SIZE];
+            while (true) {
+                final int read = readFully(expectedContent, expectedBuffer);
+                if (readFully(actualContent, actualBuffer) != read) {
+                    return false;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (expectedBuffer[i] != actualBuffer[i]) {
+                        return false;
+                    }
+                }
+                if (read < BUFFER_SIZE) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads until the buffer is full or the stream ends
+     */
+    private static int readFully(final InputStream in, final byte[] buffer) throws IOException {
+        int read = 0;
+        while (read < buffer.length) {
+            final int n = in.read(buffer, read, buffer.length - read);
+            if (n == -1) {
+                break;
+            }
+            read += n;
+        }
+        return read;
+    }
+
+    /**
+     * Runs the queued writes on the executor and on the calling thread. Workers the executor rejects, or did not start
+     * by the time the queue is drained, are cancelled, so a bounded executor or one busy running this export cannot
+     * stall or fail it.
+     */
+    private void runWrites() {
+        final int parallelism = Math.max(1, Math.min(writes.size() - 1, Runtime.getRuntime().availableProcessors()));
+        final CountDownLatch done = new CountDownLatch(parallelism);
+        final List<AtomicBoolean> claims = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            final AtomicBoolean claim = new AtomicBoolean();
+            claims.add(claim);
+            try {
+                executorService.execute(() -> {
+                    if (claim.compareAndSet(false, true)) {
+                        try {
+                            drainWrites();
+                        } finally {
+                            done.countDown();
+                        }
+                    }
+                });
+            } catch (final RejectedExecutionException ree) {
+                // The calling thread drains the queue instead
+                claim.set(true);
+                done.countDown();
+            }
+        }
+        drainWrites();
+        for (final AtomicBoolean claim : claims) {
+            if (claim.compareAndSet(false, true)) {
+                done.countDown();
+            }
+        }
+        try {
+            done.await();
+        } catch (final InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ArchiveExportException("Interrupted while writing " + outputDirectory, ie);
+        }
+    }
+
+    private void drainWrites() {
+        Runnable write;
+        while (failure.get() == null && (write = writes.poll()) != null) {
+            try {
+                write.run();
+            } catch (final RuntimeException e) {
+                failure.compareAndSet(null, e);
+            }
+        }
+    }
+
+    /**
+     * Deletes the files and directories of the output directory that are not part of the archive, leaving the content
+     * of nested archive directories to their own export
+     *
+     * @return The number of files and directories deleted
+     */
+    private int deleteUnexpected() {
+        final Path root = outputDirectory.toPath();
+        final List<Path> unexpected = new ArrayList<>();
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+                    if (dir.equals(root)) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    if (!expected.contains(dir)) {
+                        unexpected.add(dir);
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    return nestedDirectories.contains(dir) ? FileVisitResult.SKIP_SUBTREE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                    if (!expected.contains(file)) {
+                        unexpected.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            for (final Path path : unexpected) {
+                deleteRecursively(path);
+            }
+        } catch (final IOException ioe) {
+            throw new ArchiveExportException("Failed to delete files not in archive from " + outputDirectory, ioe);
+        }
+        return unexpected.size();
+    }
+
+    private static void deleteRecursively(final Path path) throws IOException {
+        Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
     }
 
     /**
@@ -17,10 +17,12 @@
 package org.jboss.shrinkwrap.impl.base.exporter;
 
 import java.io.File;
+import java.util.concurrent.ExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.exporter.ExplodedExportStrategy;
 import org.jboss.shrinkwrap.api.exporter.ExplodedExporter;
 import org.jboss.shrinkwrap.impl.base.AssignableBase;
 import org.jboss.shrinkwrap.impl.base.Validate;
@@ -45,6 +47,25 @@ public class ExplodedExporterImpl extends AssignableBase<Archive<?>> implements
      */
     private static final Logger log = Logger.getLogger(ExplodedExporterImpl.class.getName());
 
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Whether exports update the target directory incrementally
+     */
+    private boolean incremental;
+
+    /**
+     * How file-backed assets are exported
+     */
+    private ExplodedExportStrategy strategy = ExplodedExportStrategy.COPY;
+
+    /**
+     * Executor files are written on in parallel, or null
+     */
+    private ExecutorService executorService;
+
     // -------------------------------------------------------------------------------------||
     // Constructor ------------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -98,9 +119,44 @@ public class ExplodedExporterImpl extends AssignableBase<Archive<?>> implements
         return export(archive, directory);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.exporter.ExplodedExporter#incremental(boolean)
+     */
+    @Override
+    public ExplodedExporter incremental(final boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.exporter.ExplodedExporter#strategy(ExplodedExportStrategy)
+     */
+    @Override
+    public ExplodedExporter strategy(final ExplodedExportStrategy strategy) {
+        Validate.notNull(strategy, "Strategy must be specified");
+        this.strategy = strategy;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.exporter.ExplodedExporter#parallel(ExecutorService)
+     */
+    @Override
+    public ExplodedExporter parallel(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
     private File export(final Archive<?> archive, File outputDirectory) {
         // Get the export delegate
-        final ExplodedExporterDelegate exporterDelegate = new ExplodedExporterDelegate(archive, outputDirectory);
+        final ExplodedExporterDelegate exporterDelegate = new ExplodedExporterDelegate(archive, outputDirectory,
+            incremental, strategy, executorService);
 
         // Run the export and get the result
         final File explodedDirectory = exporterDelegate.export();
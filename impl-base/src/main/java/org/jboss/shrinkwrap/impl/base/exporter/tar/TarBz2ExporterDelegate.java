@@ -17,6 +17,7 @@
 package org.jboss.shrinkwrap.impl.base.exporter.tar;
 
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchivePath;
@@ -33,8 +34,18 @@ import org.jboss.shrinkwrap.impl.base.exporter.AbstractExporterDelegate;
 class TarBz2ExporterDelegate extends
         AbstractExporterDelegate<InputStream> {
 
+    /**
+     * Executor BZip2 blocks are compressed on, or null to compress them on the reading thread
+     */
+    private final ExecutorService executorService;
+
     TarBz2ExporterDelegate(Archive<?> archive) {
+        this(archive, null);
+    }
+
+    TarBz2ExporterDelegate(Archive<?> archive, ExecutorService executorService) {
         super(archive);
+        this.executorService = executorService;
     }
 
     @Override
@@ -44,6 +55,6 @@ class TarBz2ExporterDelegate extends
 
     @Override
     protected InputStream getResult() {
-        return new TarBz2OnDemandInputStream(getArchive());
+        return new TarBz2OnDemandInputStream(getArchive(), executorService);
     }
 }
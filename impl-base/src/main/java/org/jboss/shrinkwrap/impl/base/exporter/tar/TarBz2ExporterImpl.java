@@ -18,13 +18,17 @@ package org.jboss.shrinkwrap.impl.base.exporter.tar;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.exporter.TarBz2Exporter;
+import org.jboss.shrinkwrap.impl.base.ExportCache;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractExporterDelegate;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractStreamExporterImpl;
 
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
 
 /**
- * Implementation of {@link TarBz2Exporter} used to export an Archive as a TAR format encoded in BZip2.
+ * Implementation of {@link TarBz2Exporter} used to export an Archive as a TAR format encoded in BZip2. If an
+ * {@link ExecutorService} is set through {@link #parallel(ExecutorService)}, BZip2 blocks are compressed on it in
+ * parallel.
  *
  * @author <a href="mailto:andrew.rubinger@jboss.org">ALR</a>
  * @author <a href="mailto:mmatloka@gmail.com">Michal Matloka</a>
@@ -33,6 +37,11 @@ import java.io.InputStream;
 public class TarBz2ExporterImpl extends AbstractStreamExporterImpl implements
         TarBz2Exporter {
 
+    /**
+     * Executor BZip2 blocks are compressed on, if any
+     */
+    private ExecutorService executorService;
+
     /**
      * Creates a new exporter for the specified archive
      */
@@ -40,6 +49,17 @@ public class TarBz2ExporterImpl extends AbstractStreamExporterImpl implements
         super(archive);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.exporter.TarBz2Exporter#parallel(java.util.concurrent.ExecutorService)
+     */
+    @Override
+    public TarBz2Exporter parallel(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -47,11 +67,15 @@ public class TarBz2ExporterImpl extends AbstractStreamExporterImpl implements
      */
     @Override
     public InputStream exportAsInputStream() {
-        // Create export delegate
-        final AbstractExporterDelegate<InputStream> exportDelegate = new TarBz2ExporterDelegate(this.getArchive());
+        // Reuse the export of the archive if it is nested and unchanged
+        return ExportCache.export(this.getArchive(), this.getClass(), () -> {
+            // Create export delegate
+            final AbstractExporterDelegate<InputStream> exportDelegate = new TarBz2ExporterDelegate(this.getArchive(),
+                executorService);
 
-        // Execute export
-        return exportDelegate.export();
+            // Execute export
+            return exportDelegate.export();
+        });
     }
 
 }
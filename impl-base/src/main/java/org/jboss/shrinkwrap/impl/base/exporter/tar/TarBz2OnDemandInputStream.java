@@ -18,12 +18,10 @@ package org.jboss.shrinkwrap.impl.base.exporter.tar;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.shrinkwrap.api.Archive;
-import org.jboss.shrinkwrap.api.asset.Asset;
-import org.jboss.shrinkwrap.impl.base.exporter.AbstractOnDemandInputStream;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarBzOutputStream;
-import org.jboss.shrinkwrap.impl.base.io.tar.TarEntry;
 
 /**
  * TarBz on demand input stream.
@@ -31,7 +29,9 @@ import org.jboss.shrinkwrap.impl.base.io.tar.TarEntry;
  * @author <a href="mailto:mmatloka@gmail.com">Michal Matloka</a>
  * @author <a href="mailto:ts@bee.kz">Tair Sabirgaliev</a>
  */
-class TarBz2OnDemandInputStream extends AbstractOnDemandInputStream<TarBzOutputStream> {
+class TarBz2OnDemandInputStream extends TarOnDemandInputStreamBase<TarBzOutputStream> {
+
+    private final ExecutorService executorService;
 
     /**
      * Creates stream directly from archive.
@@ -40,24 +40,26 @@ class TarBz2OnDemandInputStream extends AbstractOnDemandInputStream<TarBzOutputS
      *             The {@link Archive} to be exported as a TarBz2 archive.
      */
     TarBz2OnDemandInputStream(Archive<?> archive) {
-        super(archive);
-    }
-
-    @Override
-    protected TarBzOutputStream createOutputStream(OutputStream outputStream)
-            throws IOException {
-        return new TarBzOutputStream(outputStream);
+        this(archive, null);
     }
 
-    @Override
-    protected void closeEntry(TarBzOutputStream outputStream) throws IOException {
-        outputStream.closeEntry();
+    /**
+     * Creates stream directly from archive, compressing BZip2 blocks in parallel.
+     *
+     * @param archive
+     *             The {@link Archive} to be exported as a TarBz2 archive.
+     * @param executorService
+     *             The {@link ExecutorService} on which blocks are compressed, or null to compress them on the reading
+     *             thread.
+     */
+    TarBz2OnDemandInputStream(Archive<?> archive, ExecutorService executorService) {
+        super(archive);
+        this.executorService = executorService;
     }
 
     @Override
-    protected void putNextEntry(TarBzOutputStream outputStream, String context, final Asset asset)
+    protected TarBzOutputStream createOutputStream(OutputStream outputStream)
             throws IOException {
-        final TarEntry entry = new TarEntry(context);
-        outputStream.putNextEntry(entry);
+        return new TarBzOutputStream(outputStream, executorService);
     }
 }
@@ -0,0 +1,156 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.exporter.tar;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.jboss.shrinkwrap.api.asset.Asset;
+
+/**
+ * Content of a TAR entry whose {@link Asset} does not report its size, read once so the size can be written in the
+ * entry header ahead of it. Held in memory up to a threshold and in a temporary file, deleted once read, above it.
+ */
+final class TarEntryContent {
+
+    /**
+     * Prefix of the temporary files content is spilled to
+     */
+    static final String SPILL_FILE_PREFIX = "shrinkwrap-tar-";
+
+    /**
+     * Default number of bytes of an entry kept in memory before spilling it to a temporary file
+     */
+    static final long DEFAULT_IN_MEMORY_THRESHOLD = 4 * 1024 * 1024;
+
+    private final ContentBuffer memory;
+
+    private final Path spillFile;
+
+    private final long size;
+
+    private TarEntryContent(final ContentBuffer memory, final Path spillFile, final long size) {
+        this.memory = memory;
+        this.spillFile = spillFile;
+        this.size = size;
+    }
+
+    /**
+     * Reads the content of the specified asset, computing its size.
+     *
+     * @param asset
+     *             The asset to be read
+     * @param inMemoryThreshold
+     *             Number of bytes kept in memory before spilling the content to a temporary file
+     * @return The content read
+     * @throws IOException
+     *             If an error occurred reading the asset or writing the temporary file
+     */
+    static TarEntryContent read(final Asset asset, final long inMemoryThreshold) throws IOException {
+        final byte[] buf = new byte[8192];
+        ContentBuffer memory = new ContentBuffer();
+        Path spillFile = null;
+        OutputStream spill = null;
+        long size = 0;
+
+        try (InputStream is = asset.openStream()) {
+            int len;
+            while ((len = is.read(buf, 0, buf.length)) != -1) {
+                size += len;
+                if (spill == null && size > inMemoryThreshold) {
+                    // Too large to be kept in memory, move what we have so far to a temporary file
+                    spillFile = Files.createTempFile(SPILL_FILE_PREFIX, ".tmp");
+                    spill = Files.newOutputStream(spillFile);
+                    memory.writeTo(spill);
+                    memory = null;
+                }
+                if (spill != null) {
+                    spill.write(buf, 0, len);
+                } else {
+                    memory.write(buf, 0, len);
+                }
+            }
+            if (spill != null) {
+                spill.close();
+            }
+        } catch (final IOException | RuntimeException e) {
+            try {
+                if (spill != null) {
+                    spill.close();
+                }
+            } finally {
+                if (spillFile != null) {
+                    Files.deleteIfExists(spillFile);
+                }
+            }
+            throw e;
+        }
+
+        return new TarEntryContent(memory, spillFile, size);
+    }
+
+    /**
+     * @return The size of the content
+     */
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * Opens the stream of the content; a temporary file is deleted when the stream is closed.
+     */
+    InputStream openStream() throws IOException {
+        if (spillFile == null) {
+            return memory.asInputStream();
+        }
+        return new FilterInputStream(Files.newInputStream(spillFile)) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    Files.deleteIfExists(spillFile);
+                }
+            }
+        };
+    }
+
+    /**
+     * Discards content which will not be read.
+     */
+    void discard() throws IOException {
+        if (spillFile != null) {
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    /**
+     * {@link ByteArrayOutputStream} which can be read back without copying its contents.
+     */
+    private static final class ContentBuffer extends ByteArrayOutputStream {
+
+        InputStream asInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+}
@@ -20,6 +20,7 @@ import java.io.InputStream;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.exporter.TarExporter;
+import org.jboss.shrinkwrap.impl.base.ExportCache;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractExporterDelegate;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractStreamExporterImpl;
 
@@ -45,10 +46,13 @@ public class TarExporterImpl extends AbstractStreamExporterImpl implements TarEx
      */
     @Override
     public InputStream exportAsInputStream() {
-        // Create export delegate
-        final AbstractExporterDelegate<InputStream> exportDelegate = new TarExporterDelegate(this.getArchive());
+        // Reuse the export of the archive if it is nested and unchanged
+        return ExportCache.export(this.getArchive(), this.getClass(), () -> {
+            // Create export delegate
+            final AbstractExporterDelegate<InputStream> exportDelegate = new TarExporterDelegate(this.getArchive());
 
-        // Execute export
-        return exportDelegate.export();
+            // Execute export
+            return exportDelegate.export();
+        });
     }
 }
@@ -17,6 +17,8 @@
 package org.jboss.shrinkwrap.impl.base.exporter.tar;
 
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.Deflater;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchivePath;
@@ -31,8 +33,24 @@ import org.jboss.shrinkwrap.impl.base.exporter.AbstractExporterDelegate;
  */
 class TarGzExporterDelegate extends AbstractExporterDelegate<InputStream> {
 
+    /**
+     * Executor chunks are deflated on, or null to deflate them on the reading thread
+     */
+    private final ExecutorService executorService;
+
+    /**
+     * Level the content is deflated at
+     */
+    private final int level;
+
     TarGzExporterDelegate(final Archive<?> archive) {
+        this(archive, null, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    TarGzExporterDelegate(final Archive<?> archive, final ExecutorService executorService, final int level) {
         super(archive);
+        this.executorService = executorService;
+        this.level = level;
     }
 
     @Override
@@ -42,6 +60,6 @@ class TarGzExporterDelegate extends AbstractExporterDelegate<InputStream> {
 
     @Override
     protected InputStream getResult() {
-        return new TarGzOnDemandInputStream(getArchive());
+        return new TarGzOnDemandInputStream(getArchive(), executorService, level);
     }
 }
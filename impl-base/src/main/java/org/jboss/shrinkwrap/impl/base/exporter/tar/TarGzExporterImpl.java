@@ -17,20 +17,35 @@
 package org.jboss.shrinkwrap.impl.base.exporter.tar;
 
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.Deflater;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.exporter.TarGzExporter;
+import org.jboss.shrinkwrap.impl.base.ExportCache;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractExporterDelegate;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractStreamExporterImpl;
 
 /**
- * Implementation of {@link TarGzExporter} used to export an Archive as a TAR format encoded in GZIP.
+ * Implementation of {@link TarGzExporter} used to export an Archive as a TAR format encoded in GZIP. If an
+ * {@link ExecutorService} is set through {@link #parallel(ExecutorService)}, chunks of the content are deflated on it
+ * in parallel.
  *
  * @author <a href="mailto:andrew.rubinger@jboss.org">ALR</a>
  * @author <a href="mailto:mmatloka@gmail.com">Michal Matloka</a>
  */
 public class TarGzExporterImpl extends AbstractStreamExporterImpl implements TarGzExporter {
 
+    /**
+     * Level the content is deflated at
+     */
+    private int level = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * Executor chunks of the content are deflated on, if any
+     */
+    private ExecutorService executorService;
+
     /**
      * Creates a new exporter for the specified archive
      */
@@ -38,6 +53,31 @@ public class TarGzExporterImpl extends AbstractStreamExporterImpl implements Tar
         super(archive);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.exporter.TarGzExporter#compressionLevel(int)
+     */
+    @Override
+    public TarGzExporter compressionLevel(final int level) throws IllegalArgumentException {
+        if (level < Deflater.DEFAULT_COMPRESSION || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Compression level must be between -1 and 9: " + level);
+        }
+        this.level = level;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.exporter.TarGzExporter#parallel(java.util.concurrent.ExecutorService)
+     */
+    @Override
+    public TarGzExporter parallel(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -45,8 +85,18 @@ public class TarGzExporterImpl extends AbstractStreamExporterImpl implements Tar
      */
     @Override
     public InputStream exportAsInputStream() {
+        if (level != Deflater.DEFAULT_COMPRESSION) {
+            // Exports cached for reuse are deflated at the default level
+            return export();
+        }
+        // Reuse the export of the archive if it is nested and unchanged
+        return ExportCache.export(this.getArchive(), this.getClass(), this::export);
+    }
+
+    private InputStream export() {
         // Create export delegate
-        final AbstractExporterDelegate<InputStream> exportDelegate = new TarGzExporterDelegate(this.getArchive());
+        final AbstractExporterDelegate<InputStream> exportDelegate = new TarGzExporterDelegate(this.getArchive(),
+            executorService, level);
 
         // Execute export
         return exportDelegate.export();
@@ -17,20 +17,23 @@
 package org.jboss.shrinkwrap.impl.base.exporter.tar;
 
 import org.jboss.shrinkwrap.api.Archive;
-import org.jboss.shrinkwrap.api.asset.Asset;
-import org.jboss.shrinkwrap.impl.base.exporter.AbstractOnDemandInputStream;
-import org.jboss.shrinkwrap.impl.base.io.tar.TarEntry;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarGzOutputStream;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.Deflater;
 
 /**
  * TarGz on demand input stream.
  *
  * @author <a href="mailto:mmatloka@gmail.com">Michal Matloka</a>
  */
-class TarGzOnDemandInputStream extends AbstractOnDemandInputStream<TarGzOutputStream> {
+class TarGzOnDemandInputStream extends TarOnDemandInputStreamBase<TarGzOutputStream> {
+
+    private final ExecutorService executorService;
+
+    private final int level;
 
     /**
      * Creates stream directly from archive.
@@ -39,22 +42,28 @@ class TarGzOnDemandInputStream extends AbstractOnDemandInputStream<TarGzOutputSt
      *             The {@link Archive} from which to create the stream.
      */
     TarGzOnDemandInputStream(final Archive<?> archive) {
-        super(archive);
-    }
-
-    @Override
-    protected TarGzOutputStream createOutputStream(final OutputStream outputStream) throws IOException {
-        return new TarGzOutputStream(outputStream);
+        this(archive, null, Deflater.DEFAULT_COMPRESSION);
     }
 
-    @Override
-    protected void closeEntry(final TarGzOutputStream outputStream) throws IOException {
-        outputStream.closeEntry();
+    /**
+     * Creates stream directly from archive, deflating at the specified level.
+     *
+     * @param archive
+     *             The {@link Archive} from which to create the stream.
+     * @param executorService
+     *             The {@link ExecutorService} on which chunks are deflated, or null to deflate them on the reading
+     *             thread.
+     * @param level
+     *             The compression level.
+     */
+    TarGzOnDemandInputStream(final Archive<?> archive, final ExecutorService executorService, final int level) {
+        super(archive);
+        this.executorService = executorService;
+        this.level = level;
     }
 
     @Override
-    protected void putNextEntry(final TarGzOutputStream outputStream, final String context, final Asset asset) throws IOException {
-        final TarEntry entry = new TarEntry(context);
-        outputStream.putNextEntry(entry);
+    protected TarGzOutputStream createOutputStream(final OutputStream outputStream) throws IOException {
+        return new TarGzOutputStream(outputStream, executorService, level);
     }
 }
\ No newline at end of file
@@ -16,21 +16,42 @@
  */
 package org.jboss.shrinkwrap.impl.base.exporter.tar;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.SizedAsset;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractOnDemandInputStream;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarEntry;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarOutputStreamImpl;
 
 /**
  * Base for Tar related on-demand InputStreams.
+ * <p>
+ * TAR entry headers carry the size of the entry ahead of its content. The size of {@link SizedAsset}s is written up
+ * front and their content streamed as is; the content of other assets is read once beforehand to learn its size, and
+ * kept (in memory, or in a temporary file above a threshold) to be written from there. As the content of a
+ * {@link SizedAsset} may change between the time its size is read and the time it is streamed, for instance a file
+ * being written to, the number of bytes streamed is checked against the header and the export fails if they differ.
  *
  * @author <a href="mailto:mmatloka@gmail.com">Michal Matloka</a>
  */
 abstract class TarOnDemandInputStreamBase<T extends TarOutputStreamImpl> extends AbstractOnDemandInputStream<T> {
 
+    /**
+     * Content of the entry started last, not yet handed out for writing.
+     */
+    private TarEntryContent pendingContent;
+
+    /**
+     * Name and header size of the {@link SizedAsset} entry started last, or null if the entry was not sized up front.
+     */
+    private String sizedEntryName;
+
+    private long sizedEntrySize;
+
     /**
      * Creates stream directly from archive.
      *
@@ -49,6 +70,94 @@ abstract class TarOnDemandInputStreamBase<T extends TarOutputStreamImpl> extends
     @Override
     protected void putNextEntry(final TarOutputStreamImpl outputStream, final String context, final Asset asset) throws IOException {
         final TarEntry entry = new TarEntry(context);
+        sizedEntryName = null;
+
+        // If it is not a directory
+        if (asset != null) {
+            long size = asset instanceof SizedAsset ? ((SizedAsset) asset).getSize() : -1;
+            if (size < 0) {
+                // Reads the content once, calculating the size
+                pendingContent = TarEntryContent.read(asset, TarEntryContent.DEFAULT_IN_MEMORY_THRESHOLD);
+                size = pendingContent.getSize();
+            } else {
+                sizedEntryName = context;
+                sizedEntrySize = size;
+            }
+            entry.setSize(size);
+        }
+
         outputStream.putNextEntry(entry);
     }
-}
\ No newline at end of file
+
+    @Override
+    protected InputStream openAssetStream(final Asset asset) throws IOException {
+        if (pendingContent == null) {
+            final InputStream stream = super.openAssetStream(asset);
+            return sizedEntryName == null ? stream : new SizeCheckingInputStream(stream, sizedEntryName,
+                sizedEntrySize);
+        }
+        final TarEntryContent content = pendingContent;
+        pendingContent = null;
+        return content.openStream();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (pendingContent != null) {
+                pendingContent.discard();
+                pendingContent = null;
+            }
+        }
+    }
+
+    /**
+     * Fails reading the content of a {@link SizedAsset} once it turns out to be longer or shorter than the size written
+     * to its header, which the TAR format cannot recover from.
+     */
+    private static final class SizeCheckingInputStream extends FilterInputStream {
+
+        private final String name;
+
+        private final long size;
+
+        private long read;
+
+        SizeCheckingInputStream(final InputStream in, final String name, final long size) {
+            super(in);
+            this.name = name;
+            this.size = size;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            count(b < 0 ? -1 : 1);
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final int n = super.read(b, off, len);
+            count(n);
+            return n;
+        }
+
+        private void count(final int n) throws IOException {
+            if (n < 0) {
+                if (read < size) {
+                    throw new IOException("Content of " + name + " ended after " + read + " bytes, but its TAR header"
+                        + " declares " + size + " bytes; the asset changed size during export");
+                }
+                return;
+            }
+            read += n;
+            if (read > size) {
+                throw new IOException("Content of " + name + " exceeds the " + size + " bytes declared in its TAR"
+                    + " header; the asset changed size during export");
+            }
+        }
+    }
+}
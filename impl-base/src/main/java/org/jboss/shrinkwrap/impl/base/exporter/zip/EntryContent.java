@@ -0,0 +1,252 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.exporter.zip;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.jboss.shrinkwrap.api.asset.Asset;
+
+/**
+ * Content of a ZIP entry read once from its {@link Asset}, either as is (STORED) or deflated, along with its CRC and
+ * sizes. Held in memory up to a threshold and in a temporary file, deleted once read, above it.
+ */
+final class EntryContent {
+
+    /**
+     * Prefix of the temporary files content is spilled to
+     */
+    static final String SPILL_FILE_PREFIX = "shrinkwrap-zip-";
+
+    private final ContentBuffer memory;
+
+    private final Path spillFile;
+
+    private final long size;
+
+    private final long compressedSize;
+
+    private final long crc;
+
+    private EntryContent(final Sink sink, final long size, final long crc) {
+        this.memory = sink.memory;
+        this.spillFile = sink.spillFile;
+        this.compressedSize = sink.written;
+        this.size = size;
+        this.crc = crc;
+    }
+
+    /**
+     * Reads the content of the specified asset as is, computing its size and CRC.
+     *
+     * @param asset
+     *             The asset to be read
+     * @param inMemoryThreshold
+     *             Number of bytes kept in memory before spilling the content to a temporary file
+     * @return The content read
+     * @throws IOException
+     *             If an error occurred reading the asset or writing the temporary file
+     */
+    static EntryContent stored(final Asset asset, final long inMemoryThreshold) throws IOException {
+        final CRC32 crc32 = new CRC32();
+        final byte[] buf = new byte[8192];
+        long size = 0;
+
+        final Sink sink = new Sink(inMemoryThreshold);
+        try (InputStream is = asset.openStream()) {
+            int len;
+            while ((len = is.read(buf, 0, buf.length)) != -1) {
+                crc32.update(buf, 0, len);
+                size += len;
+                sink.write(buf, 0, len);
+            }
+            sink.close();
+        } catch (final IOException | RuntimeException e) {
+            sink.discard();
+            throw e;
+        }
+
+        return new EntryContent(sink, size, crc32.getValue());
+    }
+
+    /**
+     * Reads and deflates the content of the specified asset, computing its size and CRC.
+     *
+     * @param asset
+     *             The asset to be read
+     * @param inMemoryThreshold
+     *             Number of compressed bytes kept in memory before spilling the content to a temporary file
+     * @param level
+     *             The compression level
+     * @return The deflated content
+     * @throws IOException
+     *             If an error occurred reading the asset or writing the temporary file
+     */
+    static EntryContent deflated(final Asset asset, final long inMemoryThreshold, final int level)
+        throws IOException {
+        final CRC32 crc32 = new CRC32();
+        final Deflater deflater = new Deflater(level, true);
+        final byte[] buf = new byte[8192];
+        final byte[] deflated = new byte[8192];
+        long size = 0;
+
+        final Sink sink = new Sink(inMemoryThreshold);
+        try (InputStream is = asset.openStream()) {
+            int len;
+            while ((len = is.read(buf, 0, buf.length)) != -1) {
+                crc32.update(buf, 0, len);
+                size += len;
+                deflater.setInput(buf, 0, len);
+                while (!deflater.needsInput()) {
+                    sink.write(deflated, 0, deflater.deflate(deflated, 0, deflated.length));
+                }
+            }
+            deflater.finish();
+            while (!deflater.finished()) {
+                sink.write(deflated, 0, deflater.deflate(deflated, 0, deflated.length));
+            }
+            sink.close();
+        } catch (final IOException | RuntimeException e) {
+            sink.discard();
+            throw e;
+        } finally {
+            deflater.end();
+        }
+
+        return new EntryContent(sink, size, crc32.getValue());
+    }
+
+    /**
+     * @return The uncompressed size of the content
+     */
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * @return The size of the content as held, compressed or not
+     */
+    long getCompressedSize() {
+        return compressedSize;
+    }
+
+    /**
+     * @return The CRC-32 of the uncompressed content
+     */
+    long getCrc() {
+        return crc;
+    }
+
+    /**
+     * Opens the stream of the content as held; a temporary file is deleted when the stream is closed.
+     */
+    InputStream openStream() throws IOException {
+        if (spillFile == null) {
+            return memory.asInputStream();
+        }
+        return new FilterInputStream(Files.newInputStream(spillFile)) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    Files.deleteIfExists(spillFile);
+                }
+            }
+        };
+    }
+
+    /**
+     * Discards content which will not be read.
+     */
+    void discard() throws IOException {
+        if (spillFile != null) {
+            Files.deleteIfExists(spillFile);
+        }
+    }
+
+    /**
+     * Destination of content, moving it from memory to a temporary file once a threshold is exceeded.
+     */
+    private static final class Sink {
+
+        private final long inMemoryThreshold;
+
+        private ContentBuffer memory = new ContentBuffer();
+
+        private Path spillFile;
+
+        private OutputStream spill;
+
+        private long written;
+
+        Sink(final long inMemoryThreshold) {
+            this.inMemoryThreshold = inMemoryThreshold;
+        }
+
+        void write(final byte[] b, final int off, final int len) throws IOException {
+            written += len;
+            if (spill == null && written > inMemoryThreshold) {
+                // Too large to be kept in memory, move what we have so far to a temporary file
+                spillFile = Files.createTempFile(SPILL_FILE_PREFIX, ".tmp");
+                spill = Files.newOutputStream(spillFile);
+                memory.writeTo(spill);
+                memory = null;
+            }
+            if (spill != null) {
+                spill.write(b, off, len);
+            } else {
+                memory.write(b, off, len);
+            }
+        }
+
+        void close() throws IOException {
+            if (spill != null) {
+                spill.close();
+                spill = null;
+            }
+        }
+
+        void discard() throws IOException {
+            try {
+                close();
+            } finally {
+                if (spillFile != null) {
+                    Files.deleteIfExists(spillFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@link ByteArrayOutputStream} which can be read back without copying its contents.
+     */
+    private static final class ContentBuffer extends ByteArrayOutputStream {
+
+        InputStream asInputStream() {
+            return new ByteArrayInputStream(buf, 0, count);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.exporter.zip;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.impl.base.exporter.AbstractOnDemandInputStream;
+
+/**
+ * ZIP on demand input stream deflating entries in parallel. The entries following the one currently written are
+ * deflated ahead on an {@link ExecutorService}; entries are still written one after another in the order of the
+ * archive content, so the output does not depend on the scheduling of the compression tasks. An entry whose task has
+ * not started by the time it is written is deflated on the reading thread, so a bounded executor also running the
+ * export of nested archives cannot deadlock.
+ */
+class ParallelZipOnDemandInputStream extends AbstractOnDemandInputStream<PrecompressedZipOutputStream> {
+
+    /**
+     * Executor the entries are deflated on
+     */
+    private final ExecutorService executorService;
+
+    /**
+     * Iterator over the nodes yet to be scheduled for compression
+     */
+    private final Iterator<Node> scheduleIterator;
+
+    /**
+     * Compression tasks of upcoming entries, in the order the entries will be written
+     */
+    private final Deque<FutureTask<EntryContent>> inFlight = new ArrayDeque<>();
+
+    /**
+     * Maximum number of entries deflated ahead of the one being written
+     */
+    private final int window;
+
+    /**
+     * Number of compressed bytes of an entry kept in memory before spilling it to a temporary file
+     */
+    private final long inMemoryThreshold;
+
+    /**
+     * Modification time of all entries
+     */
+    private final long time = System.currentTimeMillis();
+
+    /**
+     * Content of the entry started last, not yet handed out for writing
+     */
+    private EntryContent pendingContent;
+
+    /**
+     * Set once closed, so compression tasks still running discard their result
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates stream directly from archive.
+     *
+     * @param archive
+     *             The {@link Archive} to be read and compressed.
+     * @param executorService
+     *             The {@link ExecutorService} on which entries are deflated.
+     * @param inMemoryThreshold
+     *             Number of compressed bytes of an entry kept in memory before spilling it to a temporary file.
+     */
+    ParallelZipOnDemandInputStream(final Archive<?> archive, final ExecutorService executorService,
+        final long inMemoryThreshold) {
+        this(archive.getContent().values(), executorService, inMemoryThreshold);
+    }
+
+    private ParallelZipOnDemandInputStream(final Collection<Node> nodes, final ExecutorService executorService,
+        final long inMemoryThreshold) {
+        super(nodes);
+        this.executorService = executorService;
+        this.scheduleIterator = nodes.iterator();
+        this.inMemoryThreshold = inMemoryThreshold;
+        this.window = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    @Override
+    protected PrecompressedZipOutputStream createOutputStream(final OutputStream outputStream) {
+        return new PrecompressedZipOutputStream(outputStream, time);
+    }
+
+    @Override
+    protected void putNextEntry(final PrecompressedZipOutputStream outputStream, final String context,
+        final Asset asset) throws IOException {
+        // Directory
+        if (asset == null) {
+            outputStream.putNextEntry(context, ZipEntry.STORED, 0, 0, 0);
+            return;
+        }
+
+        schedule();
+        pendingContent = await(inFlight.poll());
+        outputStream.putNextEntry(context, ZipEntry.DEFLATED, pendingContent.getCrc(),
+            pendingContent.getCompressedSize(), pendingContent.getSize());
+    }
+
+    @Override
+    protected InputStream openAssetStream(final Asset asset) throws IOException {
+        final EntryContent content = pendingContent;
+        pendingContent = null;
+        return content.openStream();
+    }
+
+    @Override
+    protected void closeEntry(final PrecompressedZipOutputStream outputStream) throws IOException {
+        outputStream.closeEntry();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        try {
+            super.close();
+        } finally {
+            if (pendingContent != null) {
+                pendingContent.discard();
+                pendingContent = null;
+            }
+            for (final Future<EntryContent> future : inFlight) {
+                if (!future.cancel(false) && future.isDone()) {
+                    try {
+                        future.get().discard();
+                    } catch (final InterruptedException | ExecutionException e) {
+                        // Nothing to discard
+                    }
+                }
+            }
+            inFlight.clear();
+        }
+    }
+
+    /**
+     * Submits compression tasks for upcoming entries until the window is full.
+     */
+    private void schedule() {
+        while (inFlight.size() < window && scheduleIterator.hasNext()) {
+            final Asset asset = scheduleIterator.next().getAsset();
+            if (asset == null) {
+                // Directories are written as is
+                continue;
+            }
+            final FutureTask<EntryContent> task = new FutureTask<>(() -> {
+                final EntryContent content = EntryContent.deflated(asset, inMemoryThreshold,
+                    Deflater.DEFAULT_COMPRESSION);
+                if (closed) {
+                    content.discard();
+                }
+                return content;
+            });
+            try {
+                executorService.execute(task);
+            } catch (final RejectedExecutionException ree) {
+                // Deflated on the reading thread when needed
+            }
+            inFlight.add(task);
+        }
+    }
+
+    /**
+     * Waits for the specified compression task, running it on this thread if it has not started yet, and rethrowing
+     * its failure.
+     */
+    private static EntryContent await(final FutureTask<EntryContent> future) throws IOException {
+        future.run();
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an entry to be compressed");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
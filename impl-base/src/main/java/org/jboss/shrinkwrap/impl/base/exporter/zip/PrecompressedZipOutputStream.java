@@ -0,0 +1,348 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.exporter.zip;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * Writes the ZIP file format for entries whose content is already in its final (deflated or stored) form, as opposed
+ * to {@link java.util.zip.ZipOutputStream} which compresses the content itself. The CRC and sizes of each entry must
+ * be known when it is started, so they are written in the local header and no data descriptors are needed. ZIP64
+ * extensions are written where sizes, offsets or the number of entries require them.
+ *
+ * @see <a href="http://www.pkware.com/documents/casestudies/APPNOTE.TXT">PKWARE APPNOTE</a>
+ */
+class PrecompressedZipOutputStream extends FilterOutputStream {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+
+    private static final int VERSION = 20;
+    private static final int VERSION_ZIP64 = 45;
+
+    /**
+     * General purpose flag denoting UTF-8 entry names
+     */
+    private static final int FLAG_UTF8 = 0x0800;
+
+    private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+
+    /**
+     * Modification time of all entries, in MS-DOS format
+     */
+    private final long dosTime;
+
+    /**
+     * Entries written so far, for the central directory
+     */
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * Entry currently being written
+     */
+    private Entry current;
+
+    /**
+     * Number of bytes written to the underlying stream
+     */
+    private long written;
+
+    private boolean finished;
+
+    /**
+     * Creates a new ZIP writer
+     *
+     * @param out
+     *            The underlying stream
+     * @param time
+     *            Modification time of all entries, in milliseconds since the epoch
+     */
+    PrecompressedZipOutputStream(final OutputStream out, final long time) {
+        super(out);
+        this.dosTime = javaToDosTime(time);
+    }
+
+    /**
+     * Starts a new entry, writing its local header. The content to be written next must be exactly
+     * {@code compressedSize} bytes long.
+     *
+     * @param name
+     *            The name of the entry
+     * @param method
+     *            {@link ZipEntry#STORED} or {@link ZipEntry#DEFLATED}
+     * @param crc
+     *            The CRC-32 of the uncompressed content
+     * @param compressedSize
+     *            The size of the content to be written
+     * @param size
+     *            The uncompressed size of the content
+     * @throws IOException
+     *             If an I/O error occurred
+     */
+    void putNextEntry(final String name, final int method, final long crc, final long compressedSize, final long size)
+        throws IOException {
+        if (current != null) {
+            closeEntry();
+        }
+
+        final Entry entry = new Entry(name.getBytes(StandardCharsets.UTF_8), method, crc, compressedSize, size,
+            written);
+        final boolean zip64 = size >= ZIP64_MAGIC || compressedSize >= ZIP64_MAGIC;
+
+        writeInt(LOCAL_HEADER_SIGNATURE);
+        writeShort(zip64 ? VERSION_ZIP64 : VERSION);
+        writeShort(FLAG_UTF8);
+        writeShort(method);
+        writeInt(dosTime);
+        writeInt(crc);
+        if (zip64) {
+            writeInt(ZIP64_MAGIC);
+            writeInt(ZIP64_MAGIC);
+        } else {
+            writeInt(compressedSize);
+            writeInt(size);
+        }
+        writeShort(entry.name.length);
+        writeShort(zip64 ? 20 : 0);
+        writeBytes(entry.name);
+        if (zip64) {
+            writeShort(ZIP64_EXTRA_ID);
+            writeShort(16);
+            writeLong(size);
+            writeLong(compressedSize);
+        }
+
+        entry.dataOffset = written;
+        current = entry;
+    }
+
+    /**
+     * Closes the current entry, ensuring all of its content has been written.
+     *
+     * @throws IOException
+     *             If an I/O error occurred or the content written does not match the size of the entry
+     */
+    void closeEntry() throws IOException {
+        if (current == null) {
+            return;
+        }
+        final long contentWritten = written - current.dataOffset;
+        if (contentWritten != current.compressedSize) {
+            throw new ZipException("Invalid entry compressed size for "
+                + new String(current.name, StandardCharsets.UTF_8) + " (expected " + current.compressedSize + " but got " + contentWritten + " bytes)");
+        }
+        entries.add(current);
+        current = null;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        out.write(b);
+        written++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        out.write(b, off, len);
+        written += len;
+    }
+
+    /**
+     * Finishes writing the ZIP, writing the central directory, without closing the underlying stream.
+     *
+     * @throws IOException
+     *             If an I/O error occurred
+     */
+    void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        closeEntry();
+
+        final long centralDirectoryOffset = written;
+        for (final Entry entry : entries) {
+            writeCentralHeader(entry);
+        }
+        final long centralDirectorySize = written - centralDirectoryOffset;
+        final long count = entries.size();
+
+        if (count >= ZIP64_MAGIC_COUNT || centralDirectorySize >= ZIP64_MAGIC
+            || centralDirectoryOffset >= ZIP64_MAGIC) {
+            final long zip64EndOffset = written;
+            writeInt(ZIP64_END_SIGNATURE);
+            writeLong(44);
+            writeShort(VERSION_ZIP64);
+            writeShort(VERSION_ZIP64);
+            writeInt(0);
+            writeInt(0);
+            writeLong(count);
+            writeLong(count);
+            writeLong(centralDirectorySize);
+            writeLong(centralDirectoryOffset);
+
+            writeInt(ZIP64_LOCATOR_SIGNATURE);
+            writeInt(0);
+            writeLong(zip64EndOffset);
+            writeInt(1);
+        }
+
+        writeInt(END_SIGNATURE);
+        writeShort(0);
+        writeShort(0);
+        writeShort((int) Math.min(count, ZIP64_MAGIC_COUNT));
+        writeShort((int) Math.min(count, ZIP64_MAGIC_COUNT));
+        writeInt(Math.min(centralDirectorySize, ZIP64_MAGIC));
+        writeInt(Math.min(centralDirectoryOffset, ZIP64_MAGIC));
+        writeShort(0);
+
+        out.flush();
+        finished = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeCentralHeader(final Entry entry) throws IOException {
+        // ZIP64 extra field holds, in this order, only those values which overflowed
+        final ByteArrayOutputStream extra = new ByteArrayOutputStream();
+        final boolean sizeOverflow = entry.size >= ZIP64_MAGIC;
+        final boolean compressedSizeOverflow = entry.compressedSize >= ZIP64_MAGIC;
+        final boolean offsetOverflow = entry.headerOffset >= ZIP64_MAGIC;
+        if (sizeOverflow) {
+            writeLong(extra, entry.size);
+        }
+        if (compressedSizeOverflow) {
+            writeLong(extra, entry.compressedSize);
+        }
+        if (offsetOverflow) {
+            writeLong(extra, entry.headerOffset);
+        }
+        final boolean zip64 = extra.size() > 0;
+
+        writeInt(CENTRAL_HEADER_SIGNATURE);
+        writeShort(zip64 ? VERSION_ZIP64 : VERSION);
+        writeShort(zip64 ? VERSION_ZIP64 : VERSION);
+        writeShort(FLAG_UTF8);
+        writeShort(entry.method);
+        writeInt(dosTime);
+        writeInt(entry.crc);
+        writeInt(compressedSizeOverflow ? ZIP64_MAGIC : entry.compressedSize);
+        writeInt(sizeOverflow ? ZIP64_MAGIC : entry.size);
+        writeShort(entry.name.length);
+        writeShort(zip64 ? extra.size() + 4 : 0);
+        writeShort(0);
+        writeShort(0);
+        writeShort(0);
+        writeInt(0);
+        writeInt(offsetOverflow ? ZIP64_MAGIC : entry.headerOffset);
+        writeBytes(entry.name);
+        if (zip64) {
+            writeShort(ZIP64_EXTRA_ID);
+            writeShort(extra.size());
+            writeBytes(extra.toByteArray());
+        }
+    }
+
+    private void writeShort(final int v) throws IOException {
+        out.write(v & 0xff);
+        out.write((v >>> 8) & 0xff);
+        written += 2;
+    }
+
+    private void writeInt(final long v) throws IOException {
+        out.write((int) (v & 0xff));
+        out.write((int) ((v >>> 8) & 0xff));
+        out.write((int) ((v >>> 16) & 0xff));
+        out.write((int) ((v >>> 24) & 0xff));
+        written += 4;
+    }
+
+    private void writeLong(final long v) throws IOException {
+        writeLong(out, v);
+        written += 8;
+    }
+
+    private static void writeLong(final OutputStream target, final long v) throws IOException {
+        for (int i = 0; i < 8; i++) {
+            target.write((int) ((v >>> (i * 8)) & 0xff));
+        }
+    }
+
+    private void writeBytes(final byte[] b) throws IOException {
+        out.write(b, 0, b.length);
+        written += b.length;
+    }
+
+    /**
+     * Converts Java time to MS-DOS date and time, the same way as {@link ZipEntry#setTime(long)}
+     */
+    private static long javaToDosTime(final long time) {
+        final LocalDateTime ldt = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+        final int year = ldt.getYear() - 1980;
+        if (year < 0) {
+            return (1 << 21) | (1 << 16);
+        }
+        return ((long) year << 25 | ldt.getMonthValue() << 21 | ldt.getDayOfMonth() << 16 | ldt.getHour() << 11
+            | ldt.getMinute() << 5 | ldt.getSecond() >> 1) & 0xffffffffL;
+    }
+
+    /**
+     * Entry written, as recorded for the central directory
+     */
+    private static final class Entry {
+
+        final byte[] name;
+        final int method;
+        final long crc;
+        final long compressedSize;
+        final long size;
+        final long headerOffset;
+        long dataOffset;
+
+        Entry(final byte[] name, final int method, final long crc, final long compressedSize, final long size,
+            final long headerOffset) {
+            this.name = name;
+            this.method = method;
+            this.crc = crc;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.headerOffset = headerOffset;
+        }
+    }
+}
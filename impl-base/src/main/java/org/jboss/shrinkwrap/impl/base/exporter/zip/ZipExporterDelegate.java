@@ -21,6 +21,7 @@ import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.Node;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractExporterDelegate;
 
+import java.util.concurrent.ExecutorService;
 import java.util.zip.ZipOutputStream;
 
 import java.io.InputStream;
@@ -35,9 +36,28 @@ class ZipExporterDelegate extends AbstractExporterDelegate<InputStream> {
 
     private final boolean compressed;
 
+    private final long inMemoryThreshold;
+
+    private final ExecutorService executorService;
+
     protected ZipExporterDelegate(final Archive<?> archive) {
+        this(archive, (ExecutorService) null);
+    }
+
+    /**
+     * Creates a delegate exporting with compression, deflating entries in parallel on the specified
+     * {@link ExecutorService} if one is given
+     *
+     * @param archive
+     *             The archive to export
+     * @param executorService
+     *             The {@link ExecutorService} to deflate entries on, or null to deflate them on the reading thread
+     */
+    protected ZipExporterDelegate(final Archive<?> archive, final ExecutorService executorService) {
         super(archive);
         compressed = true;
+        inMemoryThreshold = ZipStoredExporterImpl.DEFAULT_IN_MEMORY_THRESHOLD;
+        this.executorService = executorService;
 
         // Precondition check
         if (archive.getContent().isEmpty()) {
@@ -48,8 +68,14 @@ class ZipExporterDelegate extends AbstractExporterDelegate<InputStream> {
     }
 
     protected ZipExporterDelegate(final Archive<?> archive, final boolean compressed) {
+        this(archive, compressed, ZipStoredExporterImpl.DEFAULT_IN_MEMORY_THRESHOLD);
+    }
+
+    protected ZipExporterDelegate(final Archive<?> archive, final boolean compressed, final long inMemoryThreshold) {
         super(archive);
         this.compressed = compressed;
+        this.inMemoryThreshold = inMemoryThreshold;
+        this.executorService = null;
 
         // Precondition check
         if (archive.getContent().isEmpty()) {
@@ -66,6 +92,9 @@ class ZipExporterDelegate extends AbstractExporterDelegate<InputStream> {
 
     @Override
     protected InputStream getResult() {
-        return new ZipOnDemandInputStream(getArchive(), compressed);
+        if (executorService != null) {
+            return new ParallelZipOnDemandInputStream(getArchive(), executorService, inMemoryThreshold);
+        }
+        return new ZipOnDemandInputStream(getArchive(), compressed, inMemoryThreshold);
     }
 }
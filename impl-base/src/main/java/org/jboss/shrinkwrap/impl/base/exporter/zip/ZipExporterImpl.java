@@ -17,14 +17,17 @@
 package org.jboss.shrinkwrap.impl.base.exporter.zip;
 
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.impl.base.ExportCache;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractExporterDelegate;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractStreamExporterImpl;
 
 /**
- * Implementation of ZipExporter used to export an Archive as a ZIP format.
+ * Implementation of ZipExporter used to export an Archive as a ZIP format. If an {@link ExecutorService} is set
+ * through {@link #parallel(ExecutorService)}, entries are deflated on it in parallel.
  *
  * @author <a href="mailto:baileyje@gmail.com">John Bailey</a>
  * @author <a href="mailto:aslak@conduct.no">Aslak Knutsen</a>
@@ -33,10 +36,26 @@ import org.jboss.shrinkwrap.impl.base.exporter.AbstractStreamExporterImpl;
  */
 public class ZipExporterImpl extends AbstractStreamExporterImpl implements ZipExporter {
 
+    /**
+     * Executor entries are deflated on, if any
+     */
+    private ExecutorService executorService;
+
     public ZipExporterImpl(final Archive<?> archive) {
         super(archive);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.exporter.ZipExporter#parallel(java.util.concurrent.ExecutorService)
+     */
+    @Override
+    public ZipExporter parallel(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -44,10 +63,14 @@ public class ZipExporterImpl extends AbstractStreamExporterImpl implements ZipEx
      */
     @Override
     public InputStream exportAsInputStream() {
-        // Create export delegate
-        final AbstractExporterDelegate<InputStream> exportDelegate = new ZipExporterDelegate(this.getArchive());
+        // Reuse the export of the archive if it is nested and unchanged
+        return ExportCache.export(this.getArchive(), this.getClass(), () -> {
+            // Create export delegate
+            final AbstractExporterDelegate<InputStream> exportDelegate = new ZipExporterDelegate(this.getArchive(),
+                executorService);
 
-        // Export and get result
-        return exportDelegate.export();
+            // Export and get result
+            return exportDelegate.export();
+        });
     }
 }
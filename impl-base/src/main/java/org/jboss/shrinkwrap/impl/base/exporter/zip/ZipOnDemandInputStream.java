@@ -16,11 +16,9 @@
  */
 package org.jboss.shrinkwrap.impl.base.exporter.zip;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -30,6 +28,10 @@ import org.jboss.shrinkwrap.impl.base.exporter.AbstractOnDemandInputStream;
 
 /**
  * ZIP on demand input stream.
+ * <p>
+ * STORED entries require their size and CRC to be known before their content is written. To avoid reading each asset
+ * twice, the content read while computing them is kept (in memory, or in a temporary file above a threshold) and
+ * written from there.
  *
  * @author <a href="mailto:mmatloka@gmail.com">Michal Matloka</a>
  */
@@ -39,6 +41,16 @@ class ZipOnDemandInputStream extends AbstractOnDemandInputStream<ZipOutputStream
     private final boolean compressed;
     private static final long SYSTIME = System.currentTimeMillis();
 
+    /**
+     * Number of bytes of a STORED entry kept in memory before spilling it to a temporary file.
+     */
+    private final long inMemoryThreshold;
+
+    /**
+     * Content of the STORED entry started last, not yet handed out for writing.
+     */
+    private EntryContent pendingContent;
+
     /**
      * Creates stream directly from archive with compression.
      *
@@ -46,8 +58,7 @@ class ZipOnDemandInputStream extends AbstractOnDemandInputStream<ZipOutputStream
      *             The {@link Archive} to be read and compressed.
      */
     ZipOnDemandInputStream(final Archive<?> archive) {
-        super(archive);
-        compressed = true;
+        this(archive, true);
     }
 
     /**
@@ -59,8 +70,23 @@ class ZipOnDemandInputStream extends AbstractOnDemandInputStream<ZipOutputStream
      *             Flag indicating whether the stream should be compressed.
      */
     ZipOnDemandInputStream(final Archive<?> archive, final boolean compressed) {
+        this(archive, compressed, ZipStoredExporterImpl.DEFAULT_IN_MEMORY_THRESHOLD);
+    }
+
+    /**
+     * Creates stream directly from archive.
+     *
+     * @param archive
+     *             The {@link Archive} to be read.
+     * @param compressed
+     *             Flag indicating whether the stream should be compressed.
+     * @param inMemoryThreshold
+     *             Number of bytes of a STORED entry kept in memory before spilling it to a temporary file.
+     */
+    ZipOnDemandInputStream(final Archive<?> archive, final boolean compressed, final long inMemoryThreshold) {
         super(archive);
         this.compressed = compressed;
+        this.inMemoryThreshold = inMemoryThreshold;
     }
 
     @Override
@@ -93,22 +119,10 @@ class ZipOnDemandInputStream extends AbstractOnDemandInputStream<ZipOutputStream
 
             // If it is not a directory
             if (asset != null) {
-
-                // Calculates the CRC
-                CRC32 crc32 = new CRC32();
-
-                byte[] buf = new byte[1024];
-                int len;
-                try (InputStream is = new BufferedInputStream(asset.openStream())) {
-                    while ((len = is.read(buf, 0, buf.length)) != -1) {
-                        crc32.update(buf, 0, len);
-
-                        // Updates the size of the file
-                        contentSize += len;
-                    }
-                }
-                // Gets calculated value
-                crc = crc32.getValue();
+                // Reads the content once, calculating the CRC and size
+                pendingContent = EntryContent.stored(asset, inMemoryThreshold);
+                contentSize = pendingContent.getSize();
+                crc = pendingContent.getCrc();
             }
 
             zipEntry.setCrc(crc);
@@ -117,4 +131,26 @@ class ZipOnDemandInputStream extends AbstractOnDemandInputStream<ZipOutputStream
 
         outputStream.putNextEntry(zipEntry);
     }
+
+    @Override
+    protected InputStream openAssetStream(final Asset asset) throws IOException {
+        if (pendingContent == null) {
+            return super.openAssetStream(asset);
+        }
+        final EntryContent content = pendingContent;
+        pendingContent = null;
+        return content.openStream();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (pendingContent != null) {
+                pendingContent.discard();
+                pendingContent = null;
+            }
+        }
+    }
 }
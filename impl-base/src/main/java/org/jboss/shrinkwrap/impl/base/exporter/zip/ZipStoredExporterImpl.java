@@ -18,6 +18,7 @@ package org.jboss.shrinkwrap.impl.base.exporter.zip;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.exporter.ZipStoredExporter;
+import org.jboss.shrinkwrap.impl.base.ExportCache;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractExporterDelegate;
 import org.jboss.shrinkwrap.impl.base.exporter.AbstractStreamExporterImpl;
 
@@ -30,16 +31,44 @@ import java.io.InputStream;
  */
 public class ZipStoredExporterImpl extends AbstractStreamExporterImpl implements ZipStoredExporter {
 
+    /**
+     * Default number of bytes of an entry kept in memory before spilling it to a temporary file
+     */
+    static final long DEFAULT_IN_MEMORY_THRESHOLD = 4 * 1024 * 1024;
+
+    /**
+     * Number of bytes of an entry kept in memory before spilling it to a temporary file
+     */
+    private long inMemoryThreshold = DEFAULT_IN_MEMORY_THRESHOLD;
+
     public ZipStoredExporterImpl(Archive<?> archive) {
         super(archive);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.exporter.ZipStoredExporter#inMemoryThreshold(long)
+     */
+    @Override
+    public ZipStoredExporter inMemoryThreshold(final long threshold) throws IllegalArgumentException {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("In memory threshold must not be negative: " + threshold);
+        }
+        this.inMemoryThreshold = threshold;
+        return this;
+    }
+
     @Override
     public InputStream exportAsInputStream() {
-        // Create export delegate
-        final AbstractExporterDelegate<InputStream> exportDelegate = new ZipExporterDelegate(this.getArchive(), false);
+        // Reuse the export of the archive if it is nested and unchanged
+        return ExportCache.export(this.getArchive(), this.getClass(), () -> {
+            // Create export delegate
+            final AbstractExporterDelegate<InputStream> exportDelegate = new ZipExporterDelegate(this.getArchive(),
+                false, inMemoryThreshold);
 
-        // Export and get result
-        return exportDelegate.export();
+            // Export and get result
+            return exportDelegate.export();
+        });
     }
 }
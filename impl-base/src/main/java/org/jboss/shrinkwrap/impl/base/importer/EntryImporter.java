@@ -0,0 +1,410 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.importer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.BlobStore;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
+import org.jboss.shrinkwrap.impl.base.io.TemporaryFiles;
+import org.jboss.shrinkwrap.spi.Configurable;
+
+/**
+ * Adds the entries read from an archive stream, such as a ZIP or TAR stream, to an {@link Archive}.
+ * <p>
+ * The content of an entry is read into an array of exactly its size when the size is known, and handed to the asset
+ * without copying. Entries larger than the in-memory threshold are written to temporary files instead, deleted once
+ * their asset is no longer reachable. If an {@link ExecutorService} is given, entries are added to the archive on it
+ * while the calling thread goes on reading the stream; entries are still added in the order they are read. Should the
+ * executor not start adding entries before the read-ahead queue is full, for instance as it is busy running the import
+ * itself, the calling thread adds them instead. If the {@link Archive} is configured with a {@link BlobStore}, content
+ * kept in memory is shared through it. Not thread-safe: all methods must be called from the thread reading the
+ * stream.
+ */
+public final class EntryImporter implements Closeable {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Default number of bytes of an entry kept in memory; all entries are kept in memory
+     */
+    public static final long DEFAULT_IN_MEMORY_THRESHOLD = Long.MAX_VALUE;
+
+    /**
+     * Prefix of the temporary files content is spilled to
+     */
+    static final String SPILL_FILE_PREFIX = "shrinkwrap-import-";
+
+    /**
+     * Largest array the JVM can reliably allocate
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Number of entries read ahead of the one being added to the archive
+     */
+    private static final int QUEUE_CAPACITY = 32;
+
+    /**
+     * Marks the end of the entries in the queue
+     */
+    private static final PendingEntry END = new PendingEntry(null, null);
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private final Archive<?> archive;
+
+    private final long inMemoryThreshold;
+
+    /**
+     * Store sharing the content kept in memory; null if not configured
+     */
+    private final BlobStore blobStore;
+
+    /**
+     * Entries read but not added yet, and the task adding them; null if entries are added by the reading thread
+     */
+    private BlockingQueue<PendingEntry> queue;
+
+    private Future<?> consumer;
+
+    /**
+     * Set by whichever of the task and the reading thread starts adding queued entries first
+     */
+    private final AtomicBoolean consumerClaimed = new AtomicBoolean();
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Creates an importer adding entries to the specified archive
+     *
+     * @param archive
+     *            The archive to add entries to
+     * @param inMemoryThreshold
+     *            Number of bytes of an entry kept in memory before spilling it to a temporary file
+     * @param executorService
+     *            The executor to add entries on, or null to add them on the calling thread
+     */
+    public EntryImporter(final Archive<?> archive, final long inMemoryThreshold,
+        final ExecutorService executorService) {
+        assert archive != null : "Archive must be specified";
+        assert inMemoryThreshold >= 0 : "In memory threshold must not be negative";
+        this.archive = archive;
+        this.inMemoryThreshold = inMemoryThreshold;
+
+        this.blobStore = archive.as(Configurable.class).getConfiguration().getBlobStore();
+        if (executorService != null) {
+            queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+            try {
+                consumer = executorService.submit(this::addQueuedEntries);
+            } catch (final RejectedExecutionException ree) {
+                // Entries are added on the calling thread instead
+                queue = null;
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Functional Methods -----------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Adds a directory
+     *
+     * @param name
+     *            The name of the directory
+     * @throws IOException
+     *             If the entries could not be added
+     */
+    public void addDirectory(final String name) throws IOException {
+        add(new PendingEntry(name, null));
+    }
+
+    /**
+     * Reads the content of an entry and adds it as an asset
+     *
+     * @param name
+     *            The name of the entry
+     * @param content
+     *            The stream of the entry content, read up to its end but not closed
+     * @param size
+     *            The size of the content in bytes, or -1 if it is not known
+     * @throws IOException
+     *             If the content could not be read or the entries could not be added
+     */
+    public void addEntry(final String name, final InputStream content, final long size) throws IOException {
+        add(new PendingEntry(name, read(content, size)));
+    }
+
+    /**
+     * Waits until all entries have been added to the archive
+     *
+     * @throws IOException
+     *             If an entry could not be added
+     */
+    public void finish() throws IOException {
+        if (queue == null) {
+            return;
+        }
+        if (consumerClaimed.compareAndSet(false, true)) {
+            // The task did not start yet
+            addQueuedEntriesHere();
+            return;
+        }
+        put(END);
+        await();
+    }
+
+    /**
+     * Stops adding entries, if {@link #finish()} was not called or failed
+     */
+    @Override
+    public void close() {
+        if (consumer != null && !consumer.isDone()) {
+            consumer.cancel(true);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private void add(final PendingEntry entry) throws IOException {
+        if (queue == null) {
+            entry.addTo(archive);
+        } else {
+            put(entry);
+        }
+    }
+
+    private void put(final PendingEntry entry) throws IOException {
+        try {
+            while (!queue.offer(entry, 100, TimeUnit.MILLISECONDS)) {
+                if (consumer.isDone()) {
+                    // Stopped by a failure
+                    await();
+                } else if (consumerClaimed.compareAndSet(false, true)) {
+                    // The task did not start, add the queued entries and all following ones here
+                    addQueuedEntriesHere();
+                    entry.addTo(archive);
+                    return;
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while importing entry " + entry.name);
+        }
+    }
+
+    /**
+     * Adds the queued entries on the reading thread, which adds all following entries too; called once the task is
+     * prevented from starting
+     */
+    private void addQueuedEntriesHere() {
+        consumer.cancel(false);
+        PendingEntry queued;
+        while ((queued = queue.poll()) != null) {
+            queued.addTo(archive);
+        }
+        queue = null;
+        consumer = null;
+    }
+
+    /**
+     * Adds queued entries to the archive until the end is reached; runs on the executor
+     */
+    private Void addQueuedEntries() throws InterruptedException {
+        if (!consumerClaimed.compareAndSet(false, true)) {
+            return null;
+        }
+        PendingEntry entry;
+        while ((entry = queue.take()) != END) {
+            entry.addTo(archive);
+        }
+        return null;
+    }
+
+    /**
+     * Waits for the queued entries to be added, rethrowing a failure
+     */
+    private void await() throws IOException {
+        try {
+            consumer.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for entries to be imported");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * Reads the content of an entry into an asset, in memory or in a temporary file
+     */
+    private Asset read(final InputStream content, final long size) throws IOException {
+        if (size > inMemoryThreshold || size > MAX_ARRAY_SIZE) {
+            return spill(null, 0, content);
+        }
+        if (size >= 0) {
+            final byte[] exact = new byte[(int) size];
+            int read = 0;
+            while (read < exact.length) {
+                final int n = content.read(exact, read, exact.length - read);
+                if (n == -1) {
+                    // Shorter than announced
+                    return inMemory(Arrays.copyOf(exact, read));
+                }
+                read += n;
+            }
+            final int next = content.read();
+            if (next == -1) {
+                return inMemory(exact);
+            }
+            // Longer than announced, go on with a growing buffer
+            final ContentBuffer grown = new ContentBuffer(exact.length + BUFFER_SIZE);
+            grown.write(exact, 0, exact.length);
+            grown.write(next);
+            return readRemaining(grown, content);
+        }
+        return readRemaining(new ContentBuffer(BUFFER_SIZE), content);
+    }
+
+    private Asset readRemaining(final ContentBuffer memory, final InputStream content) throws IOException {
+        int n;
+        while ((n = content.read(buffer)) != -1) {
+            if (memory.size() + (long) n > Math.min(inMemoryThreshold, MAX_ARRAY_SIZE)) {
+                // Too large to be kept in memory, move what we have so far to a temporary file
+                return spill(memory, n, content);
+            }
+            memory.write(buffer, 0, n);
+        }
+        return inMemory(memory.toExactArray());
+    }
+
+    /**
+     * Wraps content read into memory, sharing it through the {@link BlobStore} if one is configured
+     */
+    private Asset inMemory(final byte[] content) {
+        if (blobStore == null) {
+            return new ImportedByteArrayAsset(content, false);
+        }
+        return blobStore.share(content, shared -> new ImportedByteArrayAsset(shared, true));
+    }
+
+    /**
+     * Writes the content read so far, the first bytes of the buffer and the remaining content to a temporary file
+     */
+    private Asset spill(final ContentBuffer memory, final int buffered, final InputStream content)
+        throws IOException {
+        final File file = File.createTempFile(SPILL_FILE_PREFIX, ".tmp");
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            if (memory != null) {
+                memory.writeTo(out);
+            }
+            out.write(buffer, 0, buffered);
+            int n;
+            while ((n = content.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        } catch (final IOException | RuntimeException e) {
+            Files.deleteIfExists(file.toPath());
+            throw e;
+        }
+        final FileAsset asset = new FileAsset(file);
+        TemporaryFiles.deleteWhenUnreachable(asset, file);
+        return asset;
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * An entry read and waiting to be added
+     */
+    private static final class PendingEntry {
+
+        private final String name;
+
+        /**
+         * Content of the entry, or null for a directory
+         */
+        private final Asset asset;
+
+        PendingEntry(final String name, final Asset asset) {
+            this.name = name;
+            this.asset = asset;
+        }
+
+        void addTo(final Archive<?> archive) {
+            if (asset == null) {
+                archive.addAsDirectory(name);
+            } else {
+                archive.add(asset, name);
+            }
+        }
+    }
+
+    /**
+     * {@link ByteArrayOutputStream} which hands out its buffer without copying when it is full.
+     */
+    private static final class ContentBuffer extends ByteArrayOutputStream {
+
+        ContentBuffer(final int size) {
+            super(size);
+        }
+
+        byte[] toExactArray() {
+            return count == buf.length ? buf : Arrays.copyOf(buf, count);
+        }
+    }
+}
@@ -17,16 +17,33 @@
 package org.jboss.shrinkwrap.impl.base.importer;
 
 import java.io.File;
-import java.util.Objects;
+import java.io.IOException;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import java.util.regex.Pattern;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.Filter;
 import org.jboss.shrinkwrap.api.Filters;
 import org.jboss.shrinkwrap.api.asset.FileAsset;
+import org.jboss.shrinkwrap.api.importer.ArchiveImportException;
 import org.jboss.shrinkwrap.api.importer.ExplodedImporter;
 import org.jboss.shrinkwrap.impl.base.AssignableBase;
 import org.jboss.shrinkwrap.impl.base.Validate;
@@ -36,6 +53,12 @@ import org.jboss.shrinkwrap.impl.base.path.BasicPath;
  * ExplodedImporterImpl
  * <p>
  * Importer used to import Exploded directory structures into a {@link Archive}
+ * <p>
+ * The directory is walked with {@link Files#walkFileTree}, following symbolic links; archive paths are built from the
+ * names of the walked files and the attributes read by the walk are reused for the assets. If an
+ * {@link ExecutorService} is set with {@link #parallel(ExecutorService)}, each directory is listed in a task of its
+ * own, so that subtrees are read in parallel, and the entries are then added on the calling thread in the order of a
+ * sequential walk. The filter is then called on the executor's threads.
  *
  * @author <a href="mailto:aslak@conduct.no">Aslak Knutsen</a>
  * @version $Revision: $
@@ -50,6 +73,17 @@ public class ExplodedImporterImpl extends AssignableBase<Archive<?>> implements
      */
     private static final Logger log = Logger.getLogger(ExplodedImporterImpl.class.getName());
 
+    private static final Set<FileVisitOption> FOLLOW_LINKS = EnumSet.of(FileVisitOption.FOLLOW_LINKS);
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members --------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Executor directories are listed on in parallel, or null
+     */
+    private ExecutorService executorService;
+
     // -------------------------------------------------------------------------------------||
     // Constructor -------------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -65,6 +99,17 @@ public class ExplodedImporterImpl extends AssignableBase<Archive<?>> implements
 
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.importer.ExplodedImporter#parallel(java.util.concurrent.ExecutorService)
+     */
+    @Override
+    public ExplodedImporter parallel(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -109,48 +154,230 @@ public class ExplodedImporterImpl extends AssignableBase<Archive<?>> implements
             throw new IllegalArgumentException("Given file is not a directory " + file.getAbsolutePath());
         }
 
-        doImport(file, Objects.requireNonNull(file.listFiles()), filter);
+        final Path root = file.toPath();
+        final ExecutorService executorService = this.executorService;
+        try {
+            if (executorService == null) {
+                Files.walkFileTree(root, FOLLOW_LINKS, Integer.MAX_VALUE, new ImportingVisitor(filter));
+            } else {
+                addEntries(list(root, "", new Ancestor(key(root), null), filter, executorService));
+            }
+        } catch (final IOException ioe) {
+            throw new ArchiveImportException("Could not import directory " + file.getAbsolutePath(), ioe);
+        }
         return this;
     }
 
-    private void doImport(File root, File[] files, Filter<ArchivePath> filter) {
-        for (File file : files) {
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Lists the entries of a directory accepted by the filter, forking the listing of each subdirectory on the
+     * executor
+     *
+     * @param directory
+     *            The directory to list
+     * @param path
+     *            The archive path of the directory, empty for the imported directory
+     * @param ancestors
+     *            The keys of the directory and its ancestors, to detect symbolic link loops
+     */
+    private List<Entry> list(final Path directory, final String path, final Ancestor ancestors,
+        final Filter<ArchivePath> filter, final ExecutorService executorService) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        Files.walkFileTree(directory, FOLLOW_LINKS, 1, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+                final ArchivePath entryPath = new BasicPath(path + '/' + file.getFileName());
+                if (!filter.include(entryPath)) {
+                    return FileVisitResult.CONTINUE;
+                }
+                if (log.isLoggable(Level.FINER)) {
+                    log.finer("Importing: " + file.toAbsolutePath());
+                }
+                if (!attributes.isDirectory()) {
+                    entries.add(new Entry(entryPath, asset(file, attributes), null));
+                } else if (ancestors.contains(attributes.fileKey())) {
+                    log.fine("Skipping symbolic link loop " + file.toAbsolutePath());
+                } else {
+                    final FutureTask<List<Entry>> children = new FutureTask<>(() -> list(file, entryPath.get(),
+                        new Ancestor(attributes.fileKey(), ancestors), filter, executorService));
+                    try {
+                        executorService.execute(children);
+                    } catch (final RejectedExecutionException ree) {
+                        // Listed when added instead
+                    }
+                    entries.add(new Entry(entryPath, null, children));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * Adds listed entries to the archive in order, listing the subdirectories whose task did not start yet on the
+     * calling thread
+     */
+    private void addEntries(final List<Entry> entries) throws IOException {
+        final Archive<?> archive = this.getArchive();
+        for (final Entry entry : entries) {
+            if (entry.children == null) {
+                archive.add(entry.asset, entry.path);
+                continue;
+            }
+            archive.addAsDirectory(entry.path);
+            entry.children.run();
+            try {
+                addEntries(entry.children.get());
+            } catch (final InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new ArchiveImportException("Interrupted while importing " + entry.path, ie);
+            } catch (final ExecutionException ee) {
+                final Throwable cause = ee.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new ArchiveImportException("Could not import " + entry.path, cause);
+            }
+        }
+    }
+
+    /**
+     * Creates the asset of a file from the attributes read by the walk, sparing another check that the file exists; a
+     * symbolic link whose target is missing is checked, and fails as {@link FileAsset} does for missing files
+     */
+    private static FileAsset asset(final Path file, final BasicFileAttributes attributes) {
+        return attributes.isSymbolicLink() ? new FileAsset(file.toFile()) : new FileAsset(file.toFile(), attributes);
+    }
+
+    /**
+     * The key identifying a directory for loop detection, or null if the file system does not provide one
+     */
+    private static Object key(final Path directory) throws IOException {
+        return Files.readAttributes(directory, BasicFileAttributes.class).fileKey();
+    }
+
+    /**
+     * Adds the walked files and directories to the archive
+     */
+    private final class ImportingVisitor extends SimpleFileVisitor<Path> {
+
+        private final Filter<ArchivePath> filter;
+
+        /**
+         * Archive paths of the directories being walked, the imported directory being the empty path
+         */
+        private final Deque<String> directories = new ArrayDeque<>();
+
+        ImportingVisitor(final Filter<ArchivePath> filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public FileVisitResult preVisitDirectory(final Path directory, final BasicFileAttributes attributes) {
+            if (directories.isEmpty()) {
+                directories.push("");
+                return FileVisitResult.CONTINUE;
+            }
+            final ArchivePath path = new BasicPath(directories.peek() + '/' + directory.getFileName());
+            if (!filter.include(path)) {
+                return FileVisitResult.SKIP_SUBTREE;
+            }
             if (log.isLoggable(Level.FINER)) {
-                log.finer("Importing: " + file.getAbsolutePath());
+                log.finer("Importing: " + directory.toAbsolutePath());
             }
-            final Archive<?> archive = this.getArchive();
-            final ArchivePath path = calculatePath(root, file);
-            if( filter.include(path) ) {
-                if (file.isDirectory()) {
-                    archive.addAsDirectory(path);
-                    doImport(root, Objects.requireNonNull(file.listFiles()), filter);
-                } else {
-                    archive.add(new FileAsset(file), path);
+            getArchive().addAsDirectory(path);
+            directories.push(path.get());
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) {
+            final ArchivePath path = new BasicPath(directories.peek() + '/' + file.getFileName());
+            if (filter.include(path)) {
+                if (log.isLoggable(Level.FINER)) {
+                    log.finer("Importing: " + file.toAbsolutePath());
                 }
+                getArchive().add(asset(file, attributes), path);
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(final Path file, final IOException exc) throws IOException {
+            if (exc instanceof FileSystemLoopException) {
+                log.fine("Skipping symbolic link loop " + file.toAbsolutePath());
+                return FileVisitResult.CONTINUE;
+            }
+            throw exc;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(final Path directory, final IOException exc) throws IOException {
+            if (exc != null) {
+                throw exc;
             }
+            directories.pop();
+            return FileVisitResult.CONTINUE;
         }
     }
 
     /**
-     * Calculate the relative child path.
-     *
-     * @param root
-     *            The Archive root folder
-     * @param child
-     *            The Child file
-     * @return a Path for the child relative to root
+     * A file or directory listed for import
      */
-    private ArchivePath calculatePath(File root, File child) {
-        String rootPath = unifyPath(root.getPath());
-        String childPath = unifyPath(child.getPath());
-        String archiveChildPath = childPath.replaceFirst(Pattern.quote(rootPath), "");
-        return new BasicPath(archiveChildPath);
+    private static final class Entry {
+
+        private final ArchivePath path;
+
+        /**
+         * The asset of a file, null for a directory
+         */
+        private final FileAsset asset;
+
+        /**
+         * The listing of a directory, null for a file
+         */
+        private final FutureTask<List<Entry>> children;
+
+        Entry(final ArchivePath path, final FileAsset asset, final FutureTask<List<Entry>> children) {
+            this.path = path;
+            this.asset = asset;
+            this.children = children;
+        }
     }
 
     /**
-     * Windows vs Linux will return different path separators, unify the paths.
+     * A directory being listed and its ancestors, by file key
      */
-    private String unifyPath(String path) {
-        return path.replaceAll("\\\\", "/");
+    private static final class Ancestor {
+
+        private final Object key;
+
+        private final Ancestor parent;
+
+        Ancestor(final Object key, final Ancestor parent) {
+            this.key = key;
+            this.parent = parent;
+        }
+
+        /**
+         * Whether the given key is the key of this directory or of an ancestor; false if the key is null
+         */
+        boolean contains(final Object key) {
+            if (key == null) {
+                return false;
+            }
+            for (Ancestor ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (key.equals(ancestor.key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
     }
 }
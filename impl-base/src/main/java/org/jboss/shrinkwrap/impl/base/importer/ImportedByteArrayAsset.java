@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.importer;
+
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+
+/**
+ * {@link ByteArrayAsset} taking over the array an entry was imported into, instead of copying it. An array shared
+ * through a {@link org.jboss.shrinkwrap.api.asset.BlobStore} is only handed out as a copy.
+ */
+public final class ImportedByteArrayAsset extends ByteArrayAsset {
+
+    /**
+     * Whether the array may back other assets
+     */
+    private final boolean shared;
+
+    ImportedByteArrayAsset(final byte[] content, final boolean shared) {
+        super(content, false);
+        this.shared = shared;
+    }
+
+    /**
+     * Returns the underlying content, or a copy of it if it is shared with other assets.
+     *
+     * @see org.jboss.shrinkwrap.api.asset.ByteArrayAsset#getSource()
+     */
+    @Override
+    public byte[] getSource() {
+        final byte[] source = super.getSource();
+        return shared ? source.clone() : source;
+    }
+}
@@ -24,7 +24,9 @@ import org.jboss.shrinkwrap.api.importer.TarBz2Importer;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarBzInputStream;
 
 /**
- * Used to import existing TAR.BZ2 files/streams into the given {@link Archive}
+ * Used to import existing TAR.BZ2 files/streams into the given {@link Archive}. If an
+ * {@link java.util.concurrent.ExecutorService} is set through {@link #parallel(java.util.concurrent.ExecutorService)},
+ * BZip2 blocks are decoded on it in parallel as well.
  *
  * @author <a href="mailto:andrew.rubinger@jboss.org">ALR</a>
  * @author <a href="mailto:ts@bee.kz">Tair Sabirgaliev</a>
@@ -51,7 +53,7 @@ public class TarBz2ImporterImpl extends TarImporterBase<TarBzInputStream, TarBz2
     @Override
     TarBzInputStream getInputStreamForRawStream(final InputStream in) throws IOException {
         assert in != null : "Specified input stream was null";
-        return new TarBzInputStream(in);
+        return new TarBzInputStream(in, this.getExecutorService());
     }
 
     /**
@@ -16,22 +16,22 @@
  */
 package org.jboss.shrinkwrap.impl.base.importer.tar;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.ArchivePaths;
 import org.jboss.shrinkwrap.api.Filter;
 import org.jboss.shrinkwrap.api.Filters;
-import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
 import org.jboss.shrinkwrap.api.importer.ArchiveImportException;
 import org.jboss.shrinkwrap.api.importer.StreamImporter;
 import org.jboss.shrinkwrap.impl.base.AssignableBase;
 import org.jboss.shrinkwrap.impl.base.Validate;
+import org.jboss.shrinkwrap.impl.base.importer.EntryImporter;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarEntry;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarInputStream;
 
@@ -43,6 +43,20 @@ import org.jboss.shrinkwrap.impl.base.io.tar.TarInputStream;
 abstract class TarImporterBase<S extends TarInputStream, I extends StreamImporter<I>> extends
     AssignableBase<Archive<?>> implements StreamImporter<I> {
 
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Number of bytes of an entry kept in memory
+     */
+    private long inMemoryThreshold = EntryImporter.DEFAULT_IN_MEMORY_THRESHOLD;
+
+    /**
+     * Executor entries are added on, if any
+     */
+    private ExecutorService executorService;
+
     // -------------------------------------------------------------------------------------||
     // Constructor ------------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -74,6 +88,13 @@ abstract class TarImporterBase<S extends TarInputStream, I extends StreamImporte
     // Functional Methods -----------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
 
+    /**
+     * Returns the executor set through {@link #parallel(ExecutorService)}, or null
+     */
+    ExecutorService getExecutorService() {
+        return executorService;
+    }
+
     /**
      * Provides covariant return
      */
@@ -115,7 +136,7 @@ abstract class TarImporterBase<S extends TarInputStream, I extends StreamImporte
 
     private I importFrom(final S stream, Filter<ArchivePath> filter) throws ArchiveImportException {
         Validate.notNull(stream, "Stream must be specified");
-        try {
+        try (EntryImporter importer = new EntryImporter(this.getArchive(), inMemoryThreshold, executorService)) {
             TarEntry entry;
             while ((entry = stream.getNextEntry()) != null) {
                 // Get the name
@@ -124,22 +145,15 @@ abstract class TarImporterBase<S extends TarInputStream, I extends StreamImporte
                     continue;
                 }
 
-                final Archive<?> archive = this.getArchive();
-
                 // Handle directories separately
                 if (entry.isDirectory()) {
-                    archive.addAsDirectory(entryName);
+                    importer.addDirectory(entryName);
                     continue;
                 }
 
-                ByteArrayOutputStream output = new ByteArrayOutputStream(8192);
-                byte[] content = new byte[4096];
-                int readBytes;
-                while ((readBytes = stream.read(content, 0, content.length)) != -1) {
-                    output.write(content, 0, readBytes);
-                }
-                archive.add(new ByteArrayAsset(output.toByteArray()), entryName);
+                importer.addEntry(entryName, stream, entry.getSize());
             }
+            importer.finish();
         } catch (final RuntimeException | IOException exception) {
             throw new ArchiveImportException("Could not import stream", exception);
         }
@@ -182,6 +196,31 @@ abstract class TarImporterBase<S extends TarInputStream, I extends StreamImporte
 
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.importer.StreamImporter#inMemoryThreshold(long)
+     */
+    @Override
+    public I inMemoryThreshold(final long threshold) throws IllegalArgumentException {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("In memory threshold must not be negative: " + threshold);
+        }
+        this.inMemoryThreshold = threshold;
+        return this.covariantReturn();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.importer.StreamImporter#parallel(java.util.concurrent.ExecutorService)
+     */
+    @Override
+    public I parallel(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this.covariantReturn();
+    }
+
     // -------------------------------------------------------------------------------------||
     // Internal Helper Methods ------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
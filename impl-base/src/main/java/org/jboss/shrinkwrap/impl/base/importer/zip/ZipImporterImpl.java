@@ -16,11 +16,11 @@
  */
 package org.jboss.shrinkwrap.impl.base.importer.zip;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Enumeration;
+import java.util.concurrent.ExecutorService;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipInputStream;
@@ -30,14 +30,15 @@ import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.ArchivePaths;
 import org.jboss.shrinkwrap.api.Filter;
 import org.jboss.shrinkwrap.api.Filters;
-import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
 import org.jboss.shrinkwrap.api.importer.ArchiveImportException;
 import org.jboss.shrinkwrap.api.importer.ZipImporter;
 import org.jboss.shrinkwrap.impl.base.AssignableBase;
 import org.jboss.shrinkwrap.impl.base.Validate;
 import org.jboss.shrinkwrap.impl.base.asset.ZipFileEntryAsset;
-import org.jboss.shrinkwrap.impl.base.io.IOUtil;
+import org.jboss.shrinkwrap.impl.base.asset.ZipFileHandles;
+import org.jboss.shrinkwrap.impl.base.importer.EntryImporter;
 import org.jboss.shrinkwrap.impl.base.path.BasicPath;
+import org.jboss.shrinkwrap.spi.Mountable;
 
 /**
  * Used to import existing Zip files/streams into the given {@link Archive}
@@ -47,6 +48,20 @@ import org.jboss.shrinkwrap.impl.base.path.BasicPath;
  */
 public class ZipImporterImpl extends AssignableBase<Archive<?>> implements ZipImporter {
 
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Number of bytes of an entry kept in memory when importing from a stream
+     */
+    private long inMemoryThreshold = EntryImporter.DEFAULT_IN_MEMORY_THRESHOLD;
+
+    /**
+     * Executor entries imported from a stream are added on, if any
+     */
+    private ExecutorService executorService;
+
     // -------------------------------------------------------------------------------------||
     // Constructor ------------------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -103,7 +118,7 @@ public class ZipImporterImpl extends AssignableBase<Archive<?>> implements ZipIm
         Validate.notNull(stream, "Stream must be specified");
         Validate.notNull(filter, "Filter must be specified");
 
-        try {
+        try (EntryImporter importer = new EntryImporter(this.getArchive(), inMemoryThreshold, executorService)) {
             // Wrap in ZipInputStream if we haven't been given one
             final ZipInputStream zipStream = new ZipInputStream(stream);
 
@@ -117,20 +132,16 @@ public class ZipImporterImpl extends AssignableBase<Archive<?>> implements ZipIm
                     continue;
                 }
 
-                // Get the archive
-                final Archive<?> archive = this.getArchive();
-
                 // Handle directories separately
                 if (entry.isDirectory()) {
-                    archive.addAsDirectory(entryName);
+                    importer.addDirectory(entryName);
                     continue;
                 }
 
-                final ByteArrayOutputStream output = new ByteArrayOutputStream(8192);
-                IOUtil.copy(zipStream, output);
-                archive.add(new ByteArrayAsset(output.toByteArray()), entryName);
+                importer.addEntry(entryName, zipStream, entry.getSize());
                 zipStream.closeEntry();
             }
+            importer.finish();
         } catch (IOException e) {
             throw new ArchiveImportException("Could not import stream", e);
         }
@@ -161,15 +172,19 @@ public class ZipImporterImpl extends AssignableBase<Archive<?>> implements ZipIm
         }
         Validate.notNull(filter, "Filter must be specified");
 
-        final ZipFile zipFile;
+        // Share the open file with the imported assets reading it later
+        final ZipFileHandles.Handle handle;
         try {
-            zipFile = new ZipFile(file);
+            handle = ZipFileHandles.getInstance().acquire(file);
         } catch (final IOException ioe) {
             throw new ArchiveImportException("Could not obtain ZIP File from File", ioe);
         }
 
-        // Delegate
-        return this.importFrom(zipFile, filter);
+        try {
+            return this.importEntries(handle.getZipFile(), file, filter);
+        } finally {
+            handle.close();
+        }
     }
 
     /**
@@ -182,9 +197,68 @@ public class ZipImporterImpl extends AssignableBase<Archive<?>> implements ZipIm
         return importFrom(file, Filters.includeAll());
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.importer.ZipImporter#mount(java.io.File)
+     */
+    @Override
+    public ZipImporter mount(final File file) throws ArchiveImportException, IllegalStateException {
+        Validate.notNull(file, "File must be specified");
+        if (file.isDirectory()) {
+            throw new IllegalArgumentException("File to mount as ZIP must not be a directory: "
+                + file.getAbsolutePath());
+        }
+
+        try {
+            this.getArchive().as(Mountable.class).mount(file);
+        } catch (final IOException ioe) {
+            throw new ArchiveImportException("Could not mount ZIP file " + file.getAbsolutePath(), ioe);
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.importer.StreamImporter#inMemoryThreshold(long)
+     */
+    @Override
+    public ZipImporter inMemoryThreshold(final long threshold) throws IllegalArgumentException {
+        if (threshold < 0) {
+            throw new IllegalArgumentException("In memory threshold must not be negative: " + threshold);
+        }
+        this.inMemoryThreshold = threshold;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @see org.jboss.shrinkwrap.api.importer.StreamImporter#parallel(java.util.concurrent.ExecutorService)
+     */
+    @Override
+    public ZipImporter parallel(final ExecutorService executorService) {
+        this.executorService = executorService;
+        return this;
+    }
+
     private ZipImporter importFrom(final ZipFile file, Filter<ArchivePath> filter) throws ArchiveImportException {
         Validate.notNull(file, "File must be specified");
 
+        try {
+            return this.importEntries(file, new File(file.getName()), filter);
+        } finally {
+            try {
+                file.close();
+            } catch (IOException e) {
+                //no-op
+            }
+        }
+    }
+
+    private ZipImporter importEntries(final ZipFile file, final File source, final Filter<ArchivePath> filter)
+        throws ArchiveImportException {
         try {
             Enumeration<? extends ZipEntry> entries = file.entries();
             while (entries.hasMoreElements()) {
@@ -204,16 +278,10 @@ public class ZipImporterImpl extends AssignableBase<Archive<?>> implements ZipIm
                     continue;
                 }
 
-                archive.add(new ZipFileEntryAsset(new File(file.getName()), entry), new BasicPath(entryName));
+                archive.add(new ZipFileEntryAsset(source, entry), new BasicPath(entryName));
             }
         } catch (Exception e) {
             throw new ArchiveImportException("Could not import file", e);
-        } finally {
-            try {
-                file.close();
-            } catch (IOException e) {
-                //no-op
-            }
         }
         return this;
     }
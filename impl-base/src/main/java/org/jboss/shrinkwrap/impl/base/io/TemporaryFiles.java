@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.io;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Deletes temporary files once the object owning them, such as the asset reading them, is no longer reachable.
+ * <p>
+ * Unlike {@link File#deleteOnExit()}, which holds every file until the JVM exits, files are deleted by a daemon thread
+ * as soon as the garbage collector finds their owner unreachable, and only the files of reachable owners are tracked.
+ * Files whose owner is still reachable when the JVM exits are deleted then.
+ */
+public final class TemporaryFiles {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private static final Logger log = Logger.getLogger(TemporaryFiles.class.getName());
+
+    /**
+     * Receives the references of owners found unreachable
+     */
+    private static final ReferenceQueue<Object> UNREACHABLE = new ReferenceQueue<>();
+
+    /**
+     * References of the owners whose files are not deleted yet, keeping the references themselves reachable
+     */
+    private static final Set<FileReference> TRACKED = ConcurrentHashMap.newKeySet();
+
+    static {
+        final Thread deleter = new Thread(TemporaryFiles::deleteUnreachable, "ShrinkWrap temporary file deleter");
+        deleter.setDaemon(true);
+        deleter.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (final FileReference reference : TRACKED) {
+                reference.delete();
+            }
+        }, "ShrinkWrap temporary file shutdown deleter"));
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Internal constructor; should not be called
+     */
+    private TemporaryFiles() {
+        throw new UnsupportedOperationException("No instances should be created; stateless class");
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Utilities --------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Deletes the specified file once the specified owner is no longer reachable, or when the JVM exits.
+     *
+     * @param owner
+     *            The object whose reachability decides when the file is deleted; must not be reachable from a
+     *            {@link ThreadLocal} or static field for the file to be deleted before the JVM exits
+     * @param file
+     *            The file to delete
+     */
+    public static void deleteWhenUnreachable(final Object owner, final File file) {
+        track(owner, file);
+    }
+
+    /**
+     * Tracks a file until its owner is no longer reachable
+     *
+     * @return The reference enqueued once the owner is no longer reachable
+     */
+    static Reference<Object> track(final Object owner, final File file) {
+        assert owner != null : "Owner must be specified";
+        assert file != null : "File must be specified";
+        final FileReference reference = new FileReference(owner, file);
+        TRACKED.add(reference);
+        return reference;
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private static void deleteUnreachable() {
+        while (true) {
+            try {
+                ((FileReference) UNREACHABLE.remove()).delete();
+            } catch (final InterruptedException ie) {
+                // Keep deleting files for as long as the JVM runs
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Reference to the owner of a file
+     */
+    private static final class FileReference extends PhantomReference<Object> {
+
+        private final File file;
+
+        FileReference(final Object owner, final File file) {
+            super(owner, UNREACHABLE);
+            this.file = file;
+        }
+
+        void delete() {
+            if (TRACKED.remove(this)) {
+                try {
+                    Files.deleteIfExists(file.toPath());
+                } catch (final IOException ioe) {
+                    log.log(Level.WARNING, "Could not delete temporary file " + file, ioe);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.io.tar;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * An output stream writing a single GZIP member like {@link java.util.zip.GZIPOutputStream}, deflating chunks of the
+ * input concurrently on an {@link ExecutorService} as pigz does.
+ * <p>
+ * Each chunk is deflated by a task primed with the last 32 KB of the previous chunk as dictionary, so the compression
+ * ratio stays close to that of a single deflater, and ends with a sync flush so the deflated chunks can be written one
+ * after another as a single deflate stream; the last chunk finishes that stream. The CRC of the member is computed on
+ * the writing thread, which is much faster than deflating.
+ * <p>
+ * Up to twice as many chunks as there are processors are deflated ahead of the one being written. The executor may be
+ * bounded and shared with other work: a chunk whose task the executor rejects or has not started by the time the chunk
+ * is to be written is deflated on the writing thread instead. Deflaters are reused across chunks and ended once the
+ * stream is finished, including those of tasks still running at that time.
+ * <p>
+ * Instances of this class are not thread safe.
+ */
+public class ParallelGZIPOutputStream extends OutputStream {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Size of the chunks deflated by each task, as pigz
+     */
+    private static final int CHUNK_SIZE = 128 * 1024;
+
+    /**
+     * Size of the deflate window, used as dictionary
+     */
+    private static final int DICTIONARY_SIZE = 32 * 1024;
+
+    /**
+     * GZIP header without file name, modification time or extra flags, as written by
+     * {@link java.util.zip.GZIPOutputStream}
+     */
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, 0};
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private final ExecutorService executorService;
+
+    private final int level;
+
+    /**
+     * Maximum number of chunks deflated ahead of the one being written
+     */
+    private final int window;
+
+    /**
+     * Deflation tasks of the chunks not yet written, in input order
+     */
+    private final Deque<FutureTask<byte[]>> inFlight = new ArrayDeque<>();
+
+    /**
+     * Deflaters not in use by a task, reused by later tasks
+     */
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Whether the stream is finished, after which deflaters are ended rather than reused
+     */
+    private volatile boolean finished;
+
+    private final CRC32 crc = new CRC32();
+
+    private OutputStream out;
+
+    /**
+     * The chunk being filled, and the previous one
+     */
+    private byte[] chunk = new byte[CHUNK_SIZE];
+
+    private int chunkLength;
+
+    private byte[] previousChunk;
+
+    private long size;
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Creates a new stream writing the GZIP header to the specified stream.
+     *
+     * @param out
+     *            The stream to write to
+     * @param executorService
+     *            The executor chunks are deflated on
+     * @param level
+     *            The compression level, from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+     * @throws IOException
+     *             If the header could not be written
+     * @throws IllegalArgumentException
+     *             If the stream or executor is not specified, or the level is invalid
+     */
+    public ParallelGZIPOutputStream(final OutputStream out, final ExecutorService executorService, final int level)
+        throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream must be specified");
+        }
+        if (executorService == null) {
+            throw new IllegalArgumentException("Executor service must be specified");
+        }
+        if (level != Deflater.DEFAULT_COMPRESSION
+            && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.out = out;
+        this.executorService = executorService;
+        this.level = level;
+        this.window = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+        out.write(HEADER);
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Overridden Implementations ---------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    @Override
+    public void write(final int b) throws IOException {
+        write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public void write(final byte[] buf, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > buf.length) {
+            throw new IndexOutOfBoundsException("off(" + off + "), len(" + len + "), length(" + buf.length + ")");
+        }
+        ensureOpen();
+        crc.update(buf, off, len);
+        size += len;
+        while (len > 0) {
+            final int copied = Math.min(len, chunk.length - chunkLength);
+            System.arraycopy(buf, off, chunk, chunkLength, copied);
+            chunkLength += copied;
+            off += copied;
+            len -= copied;
+            if (chunkLength == chunk.length) {
+                submitChunk(false);
+            }
+        }
+    }
+
+    /**
+     * Deflates the remaining input and writes the GZIP trailer, without closing the underlying stream.
+     */
+    public void finish() throws IOException {
+        if (out == null) {
+            return;
+        }
+        try {
+            submitChunk(true);
+            while (!inFlight.isEmpty()) {
+                out.write(await(inFlight.poll()));
+            }
+            final int crcValue = (int) crc.getValue();
+            final int isize = (int) size;
+            out.write(new byte[] {(byte) crcValue, (byte) (crcValue >>> 8), (byte) (crcValue >>> 16),
+                (byte) (crcValue >>> 24), (byte) isize, (byte) (isize >>> 8), (byte) (isize >>> 16),
+                (byte) (isize >>> 24)});
+        } finally {
+            for (final Future<byte[]> future : inFlight) {
+                future.cancel(false);
+            }
+            inFlight.clear();
+            out = null;
+            chunk = null;
+            previousChunk = null;
+            finished = true;
+            endDeflaters();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        final OutputStream outShadow = out;
+        if (outShadow != null) {
+            try {
+                finish();
+            } finally {
+                outShadow.close();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        final OutputStream outShadow = out;
+        if (outShadow != null) {
+            outShadow.flush();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private void ensureOpen() throws IOException {
+        if (out == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Submits the deflation of the current chunk, first writing deflated chunks while the window is full
+     */
+    private void submitChunk(final boolean last) throws IOException {
+        while (inFlight.size() >= window) {
+            out.write(await(inFlight.poll()));
+        }
+        final byte[] input = chunk;
+        final int length = chunkLength;
+        final byte[] dictionary = previousChunk;
+        final FutureTask<byte[]> task = new FutureTask<>(() -> deflate(input, length, dictionary, last));
+        try {
+            executorService.execute(task);
+        } catch (final RejectedExecutionException ree) {
+            // Deflated on the writing thread when needed
+        }
+        inFlight.add(task);
+        previousChunk = input;
+        chunk = last ? null : new byte[CHUNK_SIZE];
+        chunkLength = 0;
+    }
+
+    /**
+     * Deflates a chunk into raw deflate data, ending with a sync flush or, for the last chunk, the end of the stream
+     */
+    private byte[] deflate(final byte[] input, final int length, final byte[] dictionary, final boolean last) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary, dictionary.length - DICTIONARY_SIZE, DICTIONARY_SIZE);
+            }
+            deflater.setInput(input, 0, length);
+            byte[] deflated = new byte[length / 2 + 64];
+            int deflatedLength = 0;
+            if (last) {
+                deflater.finish();
+            }
+            while (true) {
+                if (deflatedLength == deflated.length) {
+                    deflated = Arrays.copyOf(deflated, deflated.length * 2);
+                }
+                final int available = deflated.length - deflatedLength;
+                final int written = deflater.deflate(deflated, deflatedLength, available,
+                    last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+                deflatedLength += written;
+                // A flush is complete once it leaves output space, the stream once it is finished
+                if (last ? deflater.finished() : written < available) {
+                    break;
+                }
+            }
+            return Arrays.copyOf(deflated, deflatedLength);
+        } finally {
+            deflater.reset();
+            deflaters.add(deflater);
+            // A task still running when the stream was finished ends its own deflater
+            if (finished) {
+                endDeflaters();
+            }
+        }
+    }
+
+    /**
+     * Ends the deflaters not in use by a task
+     */
+    private void endDeflaters() {
+        Deflater deflater;
+        while ((deflater = deflaters.poll()) != null) {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Waits for the specified deflation task, running it on this thread if it has not started yet, and rethrowing its
+     * failure.
+     */
+    private static byte[] await(final FutureTask<byte[]> future) throws IOException {
+        future.run();
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a chunk to be deflated");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+}
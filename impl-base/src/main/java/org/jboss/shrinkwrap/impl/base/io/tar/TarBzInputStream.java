@@ -18,8 +18,10 @@ package org.jboss.shrinkwrap.impl.base.io.tar;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.shrinkwrap.impl.base.io.tar.bzip.BZip2CompressorInputStream;
+import org.jboss.shrinkwrap.impl.base.io.tar.bzip.ParallelBZip2CompressorInputStream;
 
 /**
  * The {@link TarBzInputStream} reads a UNIX TAR archive, further encoded in BZIP compression, as an InputStream.
@@ -39,6 +41,18 @@ public class TarBzInputStream extends TarInputStream {
         super(new BZip2CompressorInputStream(is));
     }
 
+    /**
+     * @param is
+     *             The {@link InputStream} to read from.
+     * @param executorService
+     *             The {@link ExecutorService} BZIP2 blocks are decoded on, or null to decode them on the reading
+     *             thread.
+     */
+    public TarBzInputStream(InputStream is, ExecutorService executorService) throws IOException {
+        super(executorService == null ? new BZip2CompressorInputStream(is)
+            : new ParallelBZip2CompressorInputStream(is, executorService));
+    }
+
     /**
      * @param is
      *             The {@link InputStream} to read from.
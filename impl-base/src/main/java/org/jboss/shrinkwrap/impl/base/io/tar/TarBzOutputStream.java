@@ -19,8 +19,10 @@ package org.jboss.shrinkwrap.impl.base.io.tar;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
 
 import org.jboss.shrinkwrap.impl.base.io.tar.bzip.BZip2CompressorOutputStream;
+import org.jboss.shrinkwrap.impl.base.io.tar.bzip.ParallelBZip2CompressorOutputStream;
 
 // we extend TarOutputStream to have the same type,
 // BUT, we don't use ANY methods. It's all about
@@ -28,7 +30,8 @@ import org.jboss.shrinkwrap.impl.base.io.tar.bzip.BZip2CompressorOutputStream;
 
 /**
  * Outputs tar.bz2 files. Added functionality that it doesn't need to know the size of an entry. If an entry has zero
- * size when it is put in the Tar, then it buffers it until it's closed, and it knows the size.
+ * size when it is put in the Tar, then it buffers it until it's closed, and it knows the size. Blocks are compressed in
+ * parallel if an {@link ExecutorService} is given.
  *
  * @author "Bay" <bayard@generationjava.com>
  * @author <a href="mailto:ts@bee.kz">Tair Sabirgaliev</a>
@@ -36,13 +39,22 @@ import org.jboss.shrinkwrap.impl.base.io.tar.bzip.BZip2CompressorOutputStream;
 
 public class TarBzOutputStream extends TarOutputStreamImpl {
     private final TarOutputStreamImpl tos;
-    private final BZip2CompressorOutputStream bzip;
+    private final OutputStream bzip;
     private ByteArrayOutputStream bos;
     private TarEntry currentEntry = null;
 
     public TarBzOutputStream(OutputStream out) throws IOException {
+        this(out, null);
+    }
+
+    /**
+     * Creates a stream compressing blocks on the specified {@link ExecutorService}, or on the writing thread if it is
+     * null
+     */
+    public TarBzOutputStream(OutputStream out, ExecutorService executorService) throws IOException {
         super(null);
-        this.bzip = new BZip2CompressorOutputStream(out);
+        this.bzip = executorService == null ? new BZip2CompressorOutputStream(out)
+            : new ParallelBZip2CompressorOutputStream(out, executorService);
         this.tos = new TarOutputStreamImpl(this.bzip);
         this.bos = new ByteArrayOutputStream();
     }
@@ -67,8 +79,8 @@ public class TarBzOutputStream extends TarOutputStreamImpl {
 
     public void close() throws IOException {
         this.flush();
+        // Also closes, and so finishes, the BZip2 stream
         this.tos.close();
-        this.bzip.finish();
     }
 
     public int getRecordSize() {
@@ -9,6 +9,8 @@ package org.jboss.shrinkwrap.impl.base.io.tar;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPOutputStream;
 
 // we extend TarOutputStream to have the same type,
@@ -17,20 +19,30 @@ import java.util.zip.GZIPOutputStream;
 
 /**
  * Outputs tar.gz files. Added functionality that it doesn't need to know the size of an entry. If an entry has zero
- * size when it is put in the Tar, then it buffers it until it's closed, and it knows the size.
+ * size when it is put in the Tar, then it buffers it until it's closed, and it knows the size. Chunks are deflated in
+ * parallel if an {@link ExecutorService} is given.
  *
  * @author "Bay" <bayard@generationjava.com>
  */
 
 public class TarGzOutputStream extends TarOutputStreamImpl {
     private final TarOutputStreamImpl tos;
-    private final GZIPOutputStream gzip;
+    private final OutputStream gzip;
     private ByteArrayOutputStream bos;
     private TarEntry currentEntry = null;
 
     public TarGzOutputStream(OutputStream out) throws IOException {
+        this(out, null, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates a stream deflating at the specified level, on the specified {@link ExecutorService} or on the writing
+     * thread if it is null
+     */
+    public TarGzOutputStream(OutputStream out, ExecutorService executorService, int level) throws IOException {
         super(null);
-        this.gzip = new GZIPOutputStream(out);
+        this.gzip = executorService == null ? new LeveledGZIPOutputStream(out, level)
+            : new ParallelGZIPOutputStream(out, executorService, level);
         this.tos = new TarOutputStreamImpl(this.gzip);
         this.bos = new ByteArrayOutputStream();
     }
@@ -55,8 +67,8 @@ public class TarGzOutputStream extends TarOutputStreamImpl {
 
     public void close() throws IOException {
         this.flush();
+        // Also closes, and so finishes, the GZIP stream
         this.tos.close();
-        this.gzip.finish();
     }
 
     public int getRecordSize() {
@@ -118,4 +130,14 @@ public class TarGzOutputStream extends TarOutputStreamImpl {
         this.bos.flush();
     }
 
+    /**
+     * {@link GZIPOutputStream} deflating at a given level
+     */
+    private static final class LeveledGZIPOutputStream extends GZIPOutputStream {
+
+        LeveledGZIPOutputStream(final OutputStream out, final int level) throws IOException {
+            super(out);
+            this.def.setLevel(level);
+        }
+    }
 }
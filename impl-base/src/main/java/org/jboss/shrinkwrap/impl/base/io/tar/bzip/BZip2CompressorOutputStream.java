@@ -314,6 +314,17 @@ public class BZip2CompressorOutputStream extends OutputStream
     private int combinedCRC;
     private final int allowableBlockSize;
 
+    /**
+     * Whether only the blocks are written, without the stream header and trailer, for
+     * {@link ParallelBZip2CompressorOutputStream} to concatenate them with the blocks of other streams
+     */
+    private final boolean blocksOnly;
+
+    /**
+     * Number of blocks written so far
+     */
+    private int blockCount;
+
     /**
      * All memory intensive stuff.
      */
@@ -376,6 +387,23 @@ public class BZip2CompressorOutputStream extends OutputStream
     public BZip2CompressorOutputStream(final OutputStream out,
                                        final int blockSize)
         throws IOException {
+        this(out, blockSize, false);
+    }
+
+    /**
+     * Constructs a new <tt>BZip2CompressorOutputStream</tt> with specified block size, writing either a whole stream
+     * or only its blocks.
+     *
+     * @param out
+     *            the destination stream.
+     * @param blockSize
+     *            the blockSize as 100k units.
+     * @param blocksOnly
+     *            whether to leave out the stream header and trailer, and the last bits of the last block. Those bits
+     *            are then obtained through {@link #getPendingBits()} once finished.
+     */
+    BZip2CompressorOutputStream(final OutputStream out, final int blockSize, final boolean blocksOnly)
+        throws IOException {
         super();
 
         if (blockSize < 1) {
@@ -389,6 +417,7 @@ public class BZip2CompressorOutputStream extends OutputStream
 
         this.blockSize100k = blockSize;
         this.out = out;
+        this.blocksOnly = blocksOnly;
 
         /* 20 is just a paranoia constant */
         this.allowableBlockSize = (this.blockSize100k * BZip2Constants.BASE_BLOCK_SIZE) - 20;
@@ -490,7 +519,9 @@ public class BZip2CompressorOutputStream extends OutputStream
                 }
                 this.currentChar = -1;
                 endBlock();
-                endCompression();
+                if (!this.blocksOnly) {
+                    endCompression();
+                }
             } finally {
                 this.out = null;
                 this.data = null;
@@ -523,15 +554,17 @@ public class BZip2CompressorOutputStream extends OutputStream
      * @throws IOException if the magic bytes could not been written
      */
     private void init() throws IOException {
-        bsPutUByte('B');
-        bsPutUByte('Z');
-
         this.data = new Data(this.blockSize100k);
         this.blockSorter = new BlockSort(this.data);
 
-        // huffmanised magic bytes
-        bsPutUByte('h');
-        bsPutUByte('0' + this.blockSize100k);
+        if (!this.blocksOnly) {
+            bsPutUByte('B');
+            bsPutUByte('Z');
+
+            // huffmanised magic bytes
+            bsPutUByte('h');
+            bsPutUByte('0' + this.blockSize100k);
+        }
 
         this.combinedCRC = 0;
         initBlock();
@@ -589,6 +622,7 @@ public class BZip2CompressorOutputStream extends OutputStream
 
         /* Finally, block's contents proper. */
         moveToFrontCodeAndSend();
+        this.blockCount++;
     }
 
     private void endCompression() throws IOException {
@@ -616,6 +650,34 @@ public class BZip2CompressorOutputStream extends OutputStream
         return this.blockSize100k;
     }
 
+    /**
+     * Returns the number of blocks written.
+     */
+    int getBlockCount() {
+        return this.blockCount;
+    }
+
+    /**
+     * Returns the CRC of the blocks written, combined as in the stream trailer.
+     */
+    int getCombinedCRC() {
+        return this.combinedCRC;
+    }
+
+    /**
+     * Returns the bits written but not yet output, starting at the most significant bit.
+     */
+    int getPendingBits() {
+        return this.bsBuff;
+    }
+
+    /**
+     * Returns the number of bits written but not yet output, up to 32.
+     */
+    int getPendingBitCount() {
+        return this.bsLive;
+    }
+
     @Override
     public void write(final byte[] buf, int offs, final int len)
         throws IOException {
@@ -0,0 +1,726 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.io.tar.bzip;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An input stream that decompresses the BZip2 format like {@link BZip2CompressorInputStream}, decoding blocks
+ * concurrently on an {@link ExecutorService}.
+ * <p>
+ * The compressed input is scanned for the 48 bit magic numbers starting each block and ending each stream; as bzip2
+ * blocks are not byte aligned, the scan goes bit by bit. Each block found is decoded by a task, as a single block
+ * stream of its own, and the decoded blocks are read in order. Up to as many blocks as there are processors are scanned
+ * and decoded ahead of the one being read, so the memory needed is bounded by that number of blocks. Blocks not yet
+ * decoded when they are to be read, or rejected by the executor, are decoded on the reading thread, so the executor may
+ * be bounded and busy with other work.
+ * <p>
+ * As the magic number of a block may occur by chance within the compressed data of another block, a block that cannot
+ * be decoded is joined with the following one and decoded again, up to the size of the largest compressed block. The
+ * magic number ending a stream may occur by chance as well, so it only ends the stream if the combined CRC stored after
+ * it agrees with the CRCs of the blocks, and the input ends or another stream header follows.
+ * <p>
+ * Instances of this class are not thread safe.
+ */
+public class ParallelBZip2CompressorInputStream extends InputStream {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private static final long BLOCK_MAGIC = 0x314159265359L;
+
+    private static final long END_MAGIC = 0x177245385090L;
+
+    private static final long MAGIC_MASK = 0xFFFFFFFFFFFFL;
+
+    private static final int MAGIC_BITS = 48;
+
+    private static final int CRC_BITS = 32;
+
+    /**
+     * States of the scan of the compressed input
+     */
+    private static final int HEADER = 0;
+
+    private static final int BLOCKS = 1;
+
+    private static final int END = 2;
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private InputStream in;
+
+    private final ExecutorService executorService;
+
+    private final boolean decompressConcatenated;
+
+    /**
+     * Maximum number of blocks scanned and decoded ahead of the one being read
+     */
+    private final int window;
+
+    /**
+     * Blocks and stream ends scanned but not read yet, in input order
+     */
+    private final Deque<Segment> scanned = new ArrayDeque<>();
+
+    private int scannedBlocks;
+
+    private final byte[] readBuffer = new byte[8192];
+
+    private int state;
+
+    /**
+     * Bytes of the stream header read so far, and the block size of the current stream
+     */
+    private int headerBytes;
+
+    private int blockSize100k;
+
+    /**
+     * Number of bits of blocks scanned, and the last 64 of them
+     */
+    private long bitIndex;
+
+    private long lastBits;
+
+    /**
+     * The compressed input holding the block being scanned, starting at bit {@link #rawStart} of the input
+     */
+    private byte[] raw = new byte[64 * 1024];
+
+    private int rawLength;
+
+    private long rawStart;
+
+    /**
+     * Bit of the input the block being scanned starts at, or -1 before the first block of a stream
+     */
+    private long blockStart = -1;
+
+    /**
+     * The CRCs stored by the blocks of the stream being scanned
+     */
+    private int[] blockCRCs = new int[16];
+
+    private int blockCount;
+
+    /**
+     * Bit of the input a magic number possibly ending the stream starts at, or -1, whether the combined CRC stored
+     * after it agrees with the CRCs of the blocks, that CRC, and the number of bytes of another stream header following
+     * it so far, or -1 if other bytes follow it
+     */
+    private long endStart = -1;
+
+    private boolean endAgreed;
+
+    private int endCRC;
+
+    private int endHeaderBytes;
+
+    private int computedCombinedCRC;
+
+    /**
+     * The decoded block being read
+     */
+    private byte[] current = new byte[0];
+
+    private int currentPosition;
+
+    // -------------------------------------------------------------------------------------||
+    // Constructors -----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Constructs a new <tt>ParallelBZip2CompressorInputStream</tt> which decompresses the first .bz2 stream of the
+     * specified input.
+     *
+     * @param in
+     *            the source stream.
+     * @param executorService
+     *            the executor blocks are decoded on.
+     *
+     * @throws IOException
+     *             if the stream does not start with a .bz2 stream header or an I/O error occurs.
+     */
+    public ParallelBZip2CompressorInputStream(final InputStream in, final ExecutorService executorService)
+        throws IOException {
+        this(in, executorService, false);
+    }
+
+    /**
+     * Constructs a new <tt>ParallelBZip2CompressorInputStream</tt> which decompresses the specified input.
+     *
+     * @param in
+     *            the source stream.
+     * @param executorService
+     *            the executor blocks are decoded on.
+     * @param decompressConcatenated
+     *            if true, decompress until the end of the input; if false, stop after the first .bz2 stream.
+     *
+     * @throws IOException
+     *             if the stream does not start with a .bz2 stream header or an I/O error occurs.
+     */
+    public ParallelBZip2CompressorInputStream(final InputStream in, final ExecutorService executorService,
+        final boolean decompressConcatenated) throws IOException {
+        if (in == null) {
+            throw new IllegalArgumentException("Input stream must be specified");
+        }
+        if (executorService == null) {
+            throw new IllegalArgumentException("Executor service must be specified");
+        }
+        this.in = in;
+        this.executorService = executorService;
+        this.decompressConcatenated = decompressConcatenated;
+        this.window = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        // Check the header right away, as BZip2CompressorInputStream does
+        for (int i = 0; i < 4; i++) {
+            final int b = in.read();
+            if (b < 0 || !scanHeader(b)) {
+                throw new IOException("Stream is not in the BZip2 format");
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Overridden Implementations ---------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    @Override
+    public int read() throws IOException {
+        ensureOpen();
+        if (currentPosition == current.length && !nextBlock()) {
+            return -1;
+        }
+        return current[currentPosition++] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException("offs(" + off + "), len(" + len + "), length(" + b.length + ")");
+        }
+        ensureOpen();
+        if (len == 0) {
+            return 0;
+        }
+        if (currentPosition == current.length && !nextBlock()) {
+            return -1;
+        }
+        final int read = Math.min(len, current.length - currentPosition);
+        System.arraycopy(current, currentPosition, b, off, read);
+        currentPosition += read;
+        return read;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return current.length - currentPosition;
+    }
+
+    @Override
+    public void close() throws IOException {
+        final InputStream inShadow = in;
+        if (inShadow != null) {
+            in = null;
+            for (final Segment segment : scanned) {
+                if (segment.task != null) {
+                    segment.task.cancel(false);
+                }
+            }
+            scanned.clear();
+            current = null;
+            raw = null;
+            if (inShadow != System.in) {
+                inShadow.close();
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private void ensureOpen() throws IOException {
+        if (in == null) {
+            throw new IOException("stream closed");
+        }
+    }
+
+    /**
+     * Moves to the next decoded block, checking the CRC of each stream at its end
+     *
+     * @return false at the end of the input
+     */
+    private boolean nextBlock() throws IOException {
+        while (true) {
+            scanAhead(1);
+            final Segment segment = scanned.poll();
+            if (segment == null) {
+                return false;
+            }
+            if (segment.isStreamEnd()) {
+                if (segment.storedCRC != computedCombinedCRC) {
+                    throw new IOException("BZip2 CRC error");
+                }
+                computedCombinedCRC = 0;
+                continue;
+            }
+            scannedBlocks--;
+            scanAhead(0);
+            current = decoded(segment);
+            currentPosition = 0;
+            computedCombinedCRC = Integer.rotateLeft(computedCombinedCRC, 1) ^ segment.blockCRC();
+            if (current.length > 0) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Waits for a block to be decoded, decoding it on this thread if no worker started to. A block that cannot be
+     * decoded is joined with the following blocks, in case its end was found where its data matched a magic number, as
+     * long as the joined block is not larger than a compressed block can be.
+     */
+    private byte[] decoded(final Segment segment) throws IOException {
+        Segment joined = segment;
+        while (true) {
+            try {
+                return await(joined.task);
+            } catch (final IOException | RuntimeException e) {
+                scanAhead(1);
+                final Segment next = scanned.peek();
+                if (next == null || next.isStreamEnd()
+                    || joined.bitLength + next.bitLength > maxBlockBits(joined.blockSize100k)) {
+                    throw e;
+                }
+                scanned.poll();
+                scannedBlocks--;
+                next.task.cancel(false);
+                joined = joined.join(next);
+            }
+        }
+    }
+
+    /**
+     * Scans the input until the number of blocks ahead of the one being read reaches the window, plus the specified
+     * number of entries, or the input ends
+     */
+    private void scanAhead(final int extra) throws IOException {
+        while (state != END && (scannedBlocks < window || scanned.size() < extra)) {
+            final int read = in.read(readBuffer);
+            if (read < 0) {
+                endOfInput();
+                return;
+            }
+            for (int i = 0; i < read && state != END; i++) {
+                scan(readBuffer[i] & 0xff);
+            }
+        }
+    }
+
+    private void endOfInput() throws IOException {
+        if (state == BLOCKS && endStart >= 0 && endAgreed && endHeaderBytes <= 0) {
+            endStream();
+            state = END;
+            return;
+        }
+        if (state != HEADER || headerBytes != 0) {
+            throw new IOException("Unexpected end of BZip2 stream");
+        }
+        state = END;
+    }
+
+    private void scan(final int b) throws IOException {
+        switch (state) {
+            case HEADER:
+                if (!scanHeader(b)) {
+                    // Not another .bz2 stream, which ends the input as for BZip2CompressorInputStream
+                    state = END;
+                }
+                return;
+            default:
+                scanBlockByte(b);
+        }
+    }
+
+    /**
+     * Scans a byte of the blocks of a stream, looking for magic numbers ending at each of its bits
+     */
+    private void scanBlockByte(final int b) {
+        append(b);
+        lastBits = (lastBits << 8) | b;
+        bitIndex += 8;
+        for (int shift = 7; shift >= 0; shift--) {
+            final long magic = (lastBits >>> shift) & MAGIC_MASK;
+            final long start = bitIndex - shift - MAGIC_BITS;
+            if (magic == BLOCK_MAGIC) {
+                // Any magic number found before ending the stream was part of the data of the block
+                endStart = -1;
+                endBlock(start);
+                blockStart = start;
+            } else if (magic == END_MAGIC && (endStart < 0 || endHeaderBytes < 0)) {
+                endStart = start;
+                endAgreed = false;
+                endHeaderBytes = 0;
+            }
+        }
+        if (endStart >= 0) {
+            scanStreamEnd(b);
+        }
+    }
+
+    /**
+     * Checks the bytes following a magic number possibly ending the stream: the combined CRC stored after it must agree
+     * with the CRCs of the blocks, then the input must end or another stream header follow. Otherwise the magic number
+     * is part of the data of the block and the block goes on, though bytes other than a stream header following an
+     * agreeing CRC still end the input if no block follows them, as for {@link BZip2CompressorInputStream}.
+     */
+    private void scanStreamEnd(final int b) {
+        final long crcEnd = endStart + MAGIC_BITS + CRC_BITS;
+        if (bitIndex < crcEnd || endHeaderBytes < 0) {
+            return;
+        }
+        if (!endAgreed) {
+            endCRC = bits(endStart + MAGIC_BITS);
+            endAgreed = agrees(endCRC);
+            if (!endAgreed) {
+                endStart = -1;
+            } else if (!decompressConcatenated) {
+                endStream();
+                state = END;
+            }
+            // Otherwise the rest of the byte pads the stream
+            return;
+        }
+        if (!isHeaderByte(endHeaderBytes, b)) {
+            endHeaderBytes = -1;
+        } else if (++endHeaderBytes == 4) {
+            endStream();
+            startStream(b - '0');
+        }
+    }
+
+    /**
+     * Tells whether the specified combined CRC agrees with the CRCs stored by the blocks of the stream, the last one
+     * ending where the stream would. As a magic number found in the data of a block splits it in two, the CRC of any
+     * block but the first may be part of such data instead.
+     */
+    private boolean agrees(final int storedCRC) {
+        int count = blockCount;
+        if (blockStart >= 0) {
+            if (endStart - blockStart < MAGIC_BITS + CRC_BITS) {
+                return false;
+            }
+            if (count == blockCRCs.length) {
+                blockCRCs = Arrays.copyOf(blockCRCs, count * 2);
+            }
+            blockCRCs[count++] = bits(blockStart + MAGIC_BITS);
+        }
+        // Skipping the first block stands for skipping none
+        for (int skipped = 0; skipped < Math.max(1, count); skipped++) {
+            int combined = 0;
+            for (int i = 0; i < count; i++) {
+                if (i != skipped || i == 0) {
+                    combined = Integer.rotateLeft(combined, 1) ^ blockCRCs[i];
+                }
+            }
+            if (combined == storedCRC) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ends the stream at the magic number found, submitting its last block
+     */
+    private void endStream() {
+        endBlock(endStart);
+        blockStart = -1;
+        scanned.add(Segment.streamEnd(endCRC));
+        endStart = -1;
+        blockCount = 0;
+    }
+
+    /**
+     * Scans a byte of a stream header
+     *
+     * @return false if the byte does not belong to a stream header
+     */
+    private boolean scanHeader(final int b) {
+        if (!isHeaderByte(headerBytes++, b)) {
+            return false;
+        }
+        if (headerBytes == 4) {
+            headerBytes = 0;
+            startStream(b - '0');
+        }
+        return true;
+    }
+
+    private static boolean isHeaderByte(final int index, final int b) {
+        switch (index) {
+            case 0:
+                return b == 'B';
+            case 1:
+                return b == 'Z';
+            case 2:
+                return b == 'h';
+            default:
+                return b >= '1' && b <= '9';
+        }
+    }
+
+    private void startStream(final int blockSize100k) {
+        this.blockSize100k = blockSize100k;
+        state = BLOCKS;
+        blockStart = -1;
+        lastBits = 0;
+        rawLength = 0;
+        rawStart = bitIndex;
+    }
+
+    /**
+     * Submits the decoding of the block scanned so far, ending at the specified bit of the input
+     */
+    private void endBlock(final long end) {
+        if (blockStart >= 0) {
+            final Segment segment = new Segment(extract(blockStart, end), end - blockStart, blockSize100k);
+            if (blockCount == blockCRCs.length) {
+                blockCRCs = Arrays.copyOf(blockCRCs, blockCount * 2);
+            }
+            blockCRCs[blockCount++] = segment.bitLength < MAGIC_BITS + CRC_BITS ? 0 : segment.blockCRC();
+            segment.task = new FutureTask<>(segment::decode);
+            try {
+                executorService.execute(segment.task);
+            } catch (final RejectedExecutionException ree) {
+                // Decoded on the reading thread when needed
+            }
+            scanned.add(segment);
+            scannedBlocks++;
+        }
+        // Only keep the bytes holding the next block or magic number
+        final int keptFrom = (int) ((end - rawStart) >>> 3);
+        System.arraycopy(raw, keptFrom, raw, 0, rawLength - keptFrom);
+        rawLength -= keptFrom;
+        rawStart += (long) keptFrom << 3;
+    }
+
+    private void append(final int b) {
+        if (rawLength == raw.length) {
+            if (blockStart < 0 && endStart < 0 && rawLength > 16) {
+                // No block started, only the bytes possibly holding a magic number are needed
+                System.arraycopy(raw, rawLength - 16, raw, 0, 16);
+                rawStart += (long) (rawLength - 16) << 3;
+                rawLength = 16;
+            } else {
+                raw = Arrays.copyOf(raw, raw.length * 2);
+            }
+        }
+        raw[rawLength++] = (byte) b;
+    }
+
+    /**
+     * Copies the bits of the input between the specified bits into an array, starting at its first bit
+     */
+    private byte[] extract(final long start, final long end) {
+        final int length = (int) ((end - start + 7) >>> 3);
+        final byte[] bits = new byte[length];
+        final int offset = (int) (start - rawStart);
+        final int from = offset >>> 3;
+        final int shift = offset & 7;
+        for (int i = 0; i < length; i++) {
+            final int high = (raw[from + i] & 0xff) << shift;
+            final int low = shift == 0 || from + i + 1 >= rawLength ? 0 : (raw[from + i + 1] & 0xff) >>> (8 - shift);
+            bits[i] = (byte) (high | low);
+        }
+        final int trailing = (int) ((end - start) & 7);
+        if (trailing != 0) {
+            bits[length - 1] &= (byte) (0xff << (8 - trailing));
+        }
+        return bits;
+    }
+
+    /**
+     * Reads the 32 bits of the input starting at the specified bit
+     */
+    private int bits(final long start) {
+        final byte[] bits = extract(start, start + CRC_BITS);
+        return (bits[0] & 0xff) << 24 | (bits[1] & 0xff) << 16 | (bits[2] & 0xff) << 8 | (bits[3] & 0xff);
+    }
+
+    /**
+     * Upper bound of the bits of a compressed block of the specified size: its header and symbol map, the selectors and
+     * code lengths at their largest, and a code of the largest length for each symbol
+     */
+    private static long maxBlockBits(final int blockSize100k) {
+        final long symbols = (long) blockSize100k * BZip2Constants.BASE_BLOCK_SIZE + 1;
+        return MAGIC_BITS + CRC_BITS + 1 + 24 + 16 + 256 + 3 + 15
+            + BZip2Constants.MAX_SELECTORS * (BZip2Constants.N_GROUPS + 1)
+            + BZip2Constants.N_GROUPS * (5 + BZip2Constants.MAX_ALPHA_SIZE * (2 * BZip2Constants.MAX_CODE_LEN + 1))
+            + symbols * BZip2Constants.MAX_CODE_LEN;
+    }
+
+    /**
+     * Waits for the specified decoding task, running it on this thread if it has not started yet.
+     */
+    private static byte[] await(final FutureTask<byte[]> task) throws IOException {
+        task.run();
+        try {
+            return task.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a block to be decoded");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * A compressed block, from its magic number to the magic number that follows it, or the end of a stream
+     */
+    private static final class Segment {
+
+        /**
+         * The bits of the block, starting at the first bit, and their number
+         */
+        private final byte[] bits;
+
+        private final long bitLength;
+
+        private final int blockSize100k;
+
+        /**
+         * The combined CRC stored at the end of a stream
+         */
+        private final int storedCRC;
+
+        private FutureTask<byte[]> task;
+
+        private Segment(final byte[] bits, final long bitLength, final int blockSize100k) {
+            this.bits = bits;
+            this.bitLength = bitLength;
+            this.blockSize100k = blockSize100k;
+            this.storedCRC = 0;
+        }
+
+        private Segment(final int storedCRC) {
+            this.bits = null;
+            this.bitLength = 0;
+            this.blockSize100k = 0;
+            this.storedCRC = storedCRC;
+        }
+
+        static Segment streamEnd(final int storedCRC) {
+            return new Segment(storedCRC);
+        }
+
+        boolean isStreamEnd() {
+            return bits == null;
+        }
+
+        /**
+         * The CRC of the block, stored after its magic number
+         */
+        int blockCRC() {
+            return (bits[6] & 0xff) << 24 | (bits[7] & 0xff) << 16 | (bits[8] & 0xff) << 8 | (bits[9] & 0xff);
+        }
+
+        /**
+         * Creates the block made of this block followed by the specified one, decoding it on the calling thread
+         */
+        Segment join(final Segment next) {
+            final long length = bitLength + next.bitLength;
+            final byte[] joined = Arrays.copyOf(bits, (int) ((length + 7) >>> 3));
+            for (long i = 0; i < next.bitLength; i++) {
+                setBit(joined, bitLength + i, (next.bits[(int) (i >>> 3)] >>> (7 - (i & 7))) & 1);
+            }
+            final Segment segment = new Segment(joined, length, blockSize100k);
+            segment.task = new FutureTask<>(segment::decode);
+            return segment;
+        }
+
+        /**
+         * Decodes the block as a stream holding only this block
+         */
+        byte[] decode() throws IOException {
+            final long streamBits = 32 + bitLength + MAGIC_BITS + CRC_BITS;
+            final byte[] stream = new byte[(int) ((streamBits + 7) >>> 3)];
+            stream[0] = 'B';
+            stream[1] = 'Z';
+            stream[2] = 'h';
+            stream[3] = (byte) ('0' + blockSize100k);
+            System.arraycopy(bits, 0, stream, 4, bits.length);
+            long position = 32 + bitLength;
+            for (int i = MAGIC_BITS - 1; i >= 0; i--) {
+                setBit(stream, position++, (int) (END_MAGIC >>> i) & 1);
+            }
+            // The combined CRC of a single block is the CRC of the block
+            final int crc = blockCRC();
+            for (int i = CRC_BITS - 1; i >= 0; i--) {
+                setBit(stream, position++, (crc >>> i) & 1);
+            }
+            final ByteArrayOutputStream decoded = new ByteArrayOutputStream(blockSize100k
+                * BZip2Constants.BASE_BLOCK_SIZE);
+            try (InputStream in = new BZip2CompressorInputStream(new ByteArrayInputStream(stream))) {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    decoded.write(buffer, 0, read);
+                }
+            }
+            return decoded.toByteArray();
+        }
+
+        private static void setBit(final byte[] bytes, final long position, final int bit) {
+            if (bit != 0) {
+                bytes[(int) (position >>> 3)] |= (byte) (0x80 >>> (position & 7));
+            }
+        }
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.io.tar.bzip;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An output stream that compresses into the BZip2 format like {@link BZip2CompressorOutputStream}, sorting and
+ * Huffman coding blocks concurrently on an {@link ExecutorService}.
+ * <p>
+ * The input is cut into chunks that each fit in one block, unless the initial run-length encoding expands them, and
+ * each chunk is compressed into blocks by a task. The blocks are written in the order of the input, bit aligned after
+ * each other as bzip2 blocks are not byte aligned, under a single stream header and a trailer combining the CRCs of
+ * all blocks. The result is a standard single stream bzip2 file.
+ * <p>
+ * Up to twice as many chunks as there are processors are compressed ahead of the one being written, so the memory
+ * needed grows with that number, each task using as much memory as a {@link BZip2CompressorOutputStream}.
+ * <p>
+ * The executor may be bounded and shared with other work: a chunk whose task the executor rejects or has not started
+ * by the time the chunk is to be written is compressed on the writing thread instead.
+ * <p>
+ * Instances of this class are not thread safe.
+ */
+public class ParallelBZip2CompressorOutputStream extends OutputStream {
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private final ExecutorService executorService;
+
+    private final int blockSize100k;
+
+    /**
+     * Maximum number of chunks compressed ahead of the one being written
+     */
+    private final int window;
+
+    /**
+     * Compression tasks of the chunks not yet written, in input order
+     */
+    private final Deque<FutureTask<CompressedChunk>> inFlight = new ArrayDeque<>();
+
+    private OutputStream out;
+
+    /**
+     * The chunk being filled
+     */
+    private byte[] chunk;
+
+    private int chunkLength;
+
+    private int combinedCRC;
+
+    /**
+     * Bits not yet written, starting at the most significant bit, and their number
+     */
+    private int bsBuff;
+
+    private int bsLive;
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Constructs a new <tt>ParallelBZip2CompressorOutputStream</tt> with a block size of 900k.
+     *
+     * @param out
+     *            the destination stream.
+     * @param executorService
+     *            the executor blocks are compressed on.
+     *
+     * @throws IOException
+     *             if an I/O error occurs in the specified stream.
+     */
+    public ParallelBZip2CompressorOutputStream(final OutputStream out, final ExecutorService executorService)
+        throws IOException {
+        this(out, executorService, BZip2CompressorOutputStream.MAX_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructs a new <tt>ParallelBZip2CompressorOutputStream</tt> with specified block size.
+     *
+     * @param out
+     *            the destination stream.
+     * @param executorService
+     *            the executor blocks are compressed on.
+     * @param blockSize
+     *            the blockSize as 100k units.
+     *
+     * @throws IOException
+     *             if an I/O error occurs in the specified stream.
+     * @throws IllegalArgumentException
+     *             if <code>(blockSize < 1) || (blockSize > 9)</code>, or if the stream or executor is not specified.
+     */
+    public ParallelBZip2CompressorOutputStream(final OutputStream out, final ExecutorService executorService,
+        final int blockSize) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream must be specified");
+        }
+        if (executorService == null) {
+            throw new IllegalArgumentException("Executor service must be specified");
+        }
+        if (blockSize < BZip2CompressorOutputStream.MIN_BLOCK_SIZE
+            || blockSize > BZip2CompressorOutputStream.MAX_BLOCK_SIZE) {
+            throw new IllegalArgumentException("blockSize(" + blockSize + ") must be between 1 and 9");
+        }
+        this.out = out;
+        this.executorService = executorService;
+        this.blockSize100k = blockSize;
+        this.window = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+        // As many bytes as BZip2CompressorOutputStream puts in a block, so chunks without runs fill a block
+        this.chunk = new byte[blockSize * BZip2Constants.BASE_BLOCK_SIZE - 19];
+
+        out.write('B');
+        out.write('Z');
+        out.write('h');
+        out.write('0' + blockSize);
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Overridden Implementations ---------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        chunk[chunkLength++] = (byte) b;
+        if (chunkLength == chunk.length) {
+            submitChunk();
+        }
+    }
+
+    @Override
+    public void write(final byte[] buf, int offs, int len) throws IOException {
+        if (offs < 0 || len < 0 || offs + len > buf.length) {
+            throw new IndexOutOfBoundsException("offs(" + offs + "), len(" + len + "), buf.length(" + buf.length
+                + ")");
+        }
+        ensureOpen();
+        while (len > 0) {
+            final int copied = Math.min(len, chunk.length - chunkLength);
+            System.arraycopy(buf, offs, chunk, chunkLength, copied);
+            chunkLength += copied;
+            offs += copied;
+            len -= copied;
+            if (chunkLength == chunk.length) {
+                submitChunk();
+            }
+        }
+    }
+
+    /**
+     * Compresses the remaining input and writes the stream trailer, without closing the underlying stream.
+     */
+    public void finish() throws IOException {
+        if (out == null) {
+            return;
+        }
+        try {
+            if (chunkLength > 0) {
+                submitChunk();
+            }
+            while (!inFlight.isEmpty()) {
+                writeChunk(await(inFlight.poll()));
+            }
+            // Magic number of the end of stream, as in BZip2CompressorOutputStream
+            bsW(8, 0x17);
+            bsW(8, 0x72);
+            bsW(8, 0x45);
+            bsW(8, 0x38);
+            bsW(8, 0x50);
+            bsW(8, 0x90);
+            bsW(16, (combinedCRC >>> 16) & 0xffff);
+            bsW(16, combinedCRC & 0xffff);
+            while (bsLive > 0) {
+                out.write(bsBuff >>> 24);
+                bsBuff <<= 8;
+                bsLive -= 8;
+            }
+        } finally {
+            for (final Future<CompressedChunk> future : inFlight) {
+                future.cancel(true);
+            }
+            inFlight.clear();
+            out = null;
+            chunk = null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        final OutputStream outShadow = out;
+        if (outShadow != null) {
+            try {
+                finish();
+            } finally {
+                outShadow.close();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        final OutputStream outShadow = out;
+        if (outShadow != null) {
+            outShadow.flush();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private void ensureOpen() throws IOException {
+        if (out == null) {
+            throw new IOException("stream closed");
+        }
+    }
+
+    /**
+     * Submits the compression of the current chunk, first writing compressed chunks while the window is full
+     */
+    private void submitChunk() throws IOException {
+        while (inFlight.size() >= window) {
+            writeChunk(await(inFlight.poll()));
+        }
+        final byte[] input = chunk;
+        final int length = chunkLength;
+        final int blockSize = blockSize100k;
+        final FutureTask<CompressedChunk> task = new FutureTask<>(
+            () -> CompressedChunk.compress(input, length, blockSize));
+        try {
+            executorService.execute(task);
+        } catch (final RejectedExecutionException ree) {
+            // Compressed on the writing thread when needed
+        }
+        inFlight.add(task);
+        chunk = new byte[input.length];
+        chunkLength = 0;
+    }
+
+    /**
+     * Appends the blocks of a chunk to the stream, shifting them if the stream is not at a byte boundary
+     */
+    private void writeChunk(final CompressedChunk compressed) throws IOException {
+        combinedCRC = Integer.rotateLeft(combinedCRC, compressed.blockCount) ^ compressed.combinedCRC;
+
+        while (bsLive >= 8) {
+            out.write(bsBuff >>> 24);
+            bsBuff <<= 8;
+            bsLive -= 8;
+        }
+        final byte[] bytes = compressed.bytes;
+        if (bsLive == 0) {
+            out.write(bytes);
+        } else {
+            final int shift = bsLive;
+            int carry = bsBuff >>> 24;
+            final byte[] shifted = new byte[bytes.length];
+            for (int i = 0; i < bytes.length; i++) {
+                final int b = bytes[i] & 0xff;
+                shifted[i] = (byte) (carry | (b >>> shift));
+                carry = (b << (8 - shift)) & 0xff;
+            }
+            out.write(shifted);
+            bsBuff = carry << 24;
+        }
+
+        int pendingBits = compressed.pendingBits;
+        int pendingBitCount = compressed.pendingBitCount;
+        while (pendingBitCount > 0) {
+            final int n = Math.min(8, pendingBitCount);
+            bsW(n, pendingBits >>> (32 - n));
+            pendingBits <<= n;
+            pendingBitCount -= n;
+        }
+    }
+
+    private void bsW(final int n, final int v) throws IOException {
+        while (bsLive >= 8) {
+            out.write(bsBuff >>> 24);
+            bsBuff <<= 8;
+            bsLive -= 8;
+        }
+        bsBuff |= v << (32 - bsLive - n);
+        bsLive += n;
+    }
+
+    /**
+     * Waits for the specified compression task, running it on this thread if it has not started yet, and rethrowing
+     * its failure.
+     */
+    private static CompressedChunk await(final FutureTask<CompressedChunk> future) throws IOException {
+        future.run();
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a block to be compressed");
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * The blocks a chunk of input is compressed into
+     */
+    private static final class CompressedChunk {
+
+        /**
+         * The whole bytes of the blocks
+         */
+        private final byte[] bytes;
+
+        /**
+         * The last bits of the blocks, starting at the most significant bit, and their number
+         */
+        private final int pendingBits;
+
+        private final int pendingBitCount;
+
+        private final int blockCount;
+
+        private final int combinedCRC;
+
+        private CompressedChunk(final byte[] bytes, final BZip2CompressorOutputStream compressor) {
+            this.bytes = bytes;
+            this.pendingBits = compressor.getPendingBits();
+            this.pendingBitCount = compressor.getPendingBitCount();
+            this.blockCount = compressor.getBlockCount();
+            this.combinedCRC = compressor.getCombinedCRC();
+        }
+
+        static CompressedChunk compress(final byte[] input, final int length, final int blockSize)
+            throws IOException {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(length / 4);
+            final BZip2CompressorOutputStream compressor = new BZip2CompressorOutputStream(bytes, blockSize, true);
+            compressor.write(input, 0, length);
+            compressor.finish();
+            return new CompressedChunk(bytes.toByteArray(), compressor);
+        }
+    }
+}
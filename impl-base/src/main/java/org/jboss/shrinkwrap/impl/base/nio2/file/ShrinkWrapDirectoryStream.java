@@ -19,16 +19,18 @@ package org.jboss.shrinkwrap.impl.base.nio2.file;
 import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.NoSuchElementException;
 
 import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.ArchivePaths;
 import org.jboss.shrinkwrap.api.Node;
 
 /**
- * ShrinkWrap implementation of a {@link DirectoryStream}
+ * ShrinkWrap implementation of a {@link DirectoryStream}. Lazily iterates the children of the starting directory's
+ * {@link Node}, so listing a directory takes time proportional to its number of entries rather than to the size of the
+ * archive.
  *
  * @author <a href="mailto:alr@jboss.org">Andrew Lee Rubinger</a>
  */
@@ -95,18 +97,32 @@ class ShrinkWrapDirectoryStream implements DirectoryStream<Path> {
             throw new IllegalStateException("Iterator was already returned");
         }
 
-        boolean finishedSuccessfully = true;
-        try {
-            // Translate ShrinkWrap API to NIO.2 API Path
-            final Map<ArchivePath, Node> content = this.fs.getArchive().getContent();
-            final Collection<Path> newPaths = new ArrayList<>(content.size());
-            final Collection<ArchivePath> archivePaths = content.keySet();
-            for (final ArchivePath path : archivePaths) {
-                final Path newPath = new ShrinkWrapPath(path, fs);
-
-                if (!newPath.getParent().equals(startingPath)) {
-                    continue;
-                }
+        // Only the direct children of the starting directory are visited, as they are requested
+        final ArchivePath startingArchivePath = ArchivePaths.create(startingPath.toString());
+        final Node startingNode = this.fs.getArchive().get(startingArchivePath);
+        final Iterator<Node> children = startingNode == null ? Collections.<Node>emptyIterator()
+            : startingNode.getChildren().iterator();
+        iteratorReturned = true;
+        return new ChildIterator(children);
+    }
+
+    /**
+     * Translates the child {@link Node}s of the starting directory to NIO.2 API {@link Path}s, applying the filter
+     */
+    private final class ChildIterator implements Iterator<Path> {
+
+        private final Iterator<Node> children;
+
+        private Path next;
+
+        ChildIterator(final Iterator<Node> children) {
+            this.children = children;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !closed && children.hasNext()) {
+                final Path newPath = new ShrinkWrapPath(children.next().getPath(), fs);
 
                 // If we have a filter, and it rejects this path
                 try {
@@ -118,20 +134,20 @@ class ShrinkWrapDirectoryStream implements DirectoryStream<Path> {
                     throw new RuntimeException("Error encountered during filtering", ioe);
                 }
 
-                // Add the new Path; the filter either wasn't specified or didn't reject this Path
-                newPaths.add(newPath);
+                // The filter either wasn't specified or didn't reject this Path
+                next = newPath;
             }
+            return next != null;
+        }
 
-            // Return
-            return newPaths.iterator();
-        } catch (Throwable t) {
-            finishedSuccessfully = false;
-            throw t;
-        } finally {
-            if (finishedSuccessfully) {
-                iteratorReturned = true;
+        @Override
+        public Path next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
+            final Path current = next;
+            next = null;
+            return current;
         }
     }
-
 }
@@ -37,11 +37,21 @@ final class ShrinkWrapFileAttributes implements BasicFileAttributes {
     private final ShrinkWrapPath path;
     private final Archive<?> archive;
 
+    /**
+     * The node the attributes were read from, or null to look it up in the archive on every access
+     */
+    private final Node node;
+
     ShrinkWrapFileAttributes(final ShrinkWrapPath path, Archive<?> archive) {
+        this(path, archive, null);
+    }
+
+    ShrinkWrapFileAttributes(final ShrinkWrapPath path, Archive<?> archive, final Node node) {
         assert path != null : "Path must be specified";
         assert archive != null : "Archive must be specified";
         this.path = path;
         this.archive = archive;
+        this.node = node;
     }
 
     /**
@@ -88,9 +98,7 @@ final class ShrinkWrapFileAttributes implements BasicFileAttributes {
      */
     @Override
     public boolean isDirectory() {
-        final ArchivePath archivePath = ArchivePaths.create(path.toString());
-        Node node = archive.get(archivePath);
-        return node.getAsset() == null;
+        return this.getNode().getAsset() == null;
     }
 
     /**
@@ -126,7 +134,7 @@ final class ShrinkWrapFileAttributes implements BasicFileAttributes {
             return -1L;
         }
 
-        final Asset asset = this.getArchive().get(this.path.toString()).getAsset();
+        final Asset asset = this.getNode().getAsset();
         int totalRead = 0;
         final byte[] buffer = new byte[1024 * 4];
         int read;
@@ -150,6 +158,14 @@ final class ShrinkWrapFileAttributes implements BasicFileAttributes {
         return this.getArchive().getId() + "/" + this.path;
     }
 
+    private Node getNode() {
+        if (node != null) {
+            return node;
+        }
+        final ArchivePath archivePath = ArchivePaths.create(path.toString());
+        return archive.get(archivePath);
+    }
+
     private Archive<?> getArchive() {
         return ((ShrinkWrapFileSystem) path.getFileSystem()).getArchive();
     }
@@ -16,20 +16,13 @@
  */
 package org.jboss.shrinkwrap.impl.base.nio2.file;
 
-import java.io.BufferedInputStream;
-import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.FileStore;
 import java.nio.file.attribute.BasicFileAttributeView;
 import java.nio.file.attribute.FileAttributeView;
 import java.nio.file.attribute.FileStoreAttributeView;
-import java.util.Collection;
-import java.util.Map;
 
 import org.jboss.shrinkwrap.api.Archive;
-import org.jboss.shrinkwrap.api.ArchivePath;
-import org.jboss.shrinkwrap.api.Node;
-import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.spi.ArchiveStatistics;
 
 /**
  * {@link FileStore} implementation for ShrinkWrap {@link Archive}s; immutable and thread-safe.
@@ -96,38 +89,13 @@ public class ShrinkWrapFileStore extends FileStore {
     }
 
     /**
-     * Iterates through the underlying archive, counting the size of each {@link Asset}, returning the fully-tallied
-     * count in bytes.
+     * Obtains the total size of the assets within the archive from the running counters kept by the archive, see
+     * {@link ArchiveStatistics#getUsedSpace()}.
      *
      * @return The total size in bytes of all assets within the archive.
      */
     public long getUsedSpace() {
-        long count = 0L;
-        final int bufferSize = 1024 * 8;// Relatively big buffer (8MB); we're just reading
-
-        final Map<ArchivePath, Node> contents = archive.getContent();
-        final Collection<Node> nodes = contents.values();
-        for (final Node node : nodes) {
-            final Asset asset = node.getAsset();
-            if (asset == null) {
-                continue; // Directory
-            }
-
-            try (InputStream in = new BufferedInputStream(asset.openStream(), bufferSize)) {
-                final byte[] buffer = new byte[bufferSize];
-                int read;
-                while ((read = in.read(buffer)) != -1) {
-                    // Just count
-                    count += read;
-                }
-            } catch (final IOException ioe) {
-                throw new RuntimeException("Could not count size of archive " + this.archive.getName() + " at "
-                        + asset, ioe);
-            }
-
-        }
-
-        return count;
+        return archive.as(ArchiveStatistics.class).getUsedSpace();
     }
 
     /**
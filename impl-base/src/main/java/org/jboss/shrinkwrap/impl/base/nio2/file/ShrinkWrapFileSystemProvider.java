@@ -56,7 +56,6 @@ import org.jboss.shrinkwrap.api.ArchivePaths;
 import org.jboss.shrinkwrap.api.Node;
 import org.jboss.shrinkwrap.api.asset.Asset;
 import org.jboss.shrinkwrap.api.asset.MemoryNamedAsset;
-import org.jboss.shrinkwrap.api.nio2.file.SeekableInMemoryByteChannel;
 
 /**
  * {@link FileSystemProvider} implementation for ShrinkWrap {@link Archive}s.
@@ -245,7 +244,9 @@ public class ShrinkWrapFileSystemProvider extends FileSystemProvider {
     @Override
     public FileChannel newFileChannel(Path path, Set<? extends OpenOption> options,
             FileAttribute<?>... attrs) throws IOException {
-        return new ShrinkWrapFileChannel(newByteChannel(path, options, attrs));
+        final SeekableByteChannel channel = newByteChannel(path, options, attrs);
+        // Channels opened for reading are file channels already
+        return channel instanceof FileChannel ? (FileChannel) channel : new ShrinkWrapFileChannel(channel);
     }
 
     /**
@@ -313,14 +314,8 @@ public class ShrinkWrapFileSystemProvider extends FileSystemProvider {
                 + archivePath.get());
         }
 
-        // Existing asset is read into the channel
-        try (InputStream in = asset.openStream()) {
-            final SeekableByteChannel outChannel = new SeekableInMemoryByteChannel();
-            this.copy(in, outChannel);
-            // Set the position to 0, so it can be read from the beginning
-            outChannel.position(0);
-            return outChannel;
-        }
+        // Existing asset is read lazily by the channel
+        return new ShrinkWrapReadChannel(asset);
 
     }
 
@@ -575,11 +570,13 @@ public class ShrinkWrapFileSystemProvider extends FileSystemProvider {
         if (!(path instanceof ShrinkWrapPath)) {
             throw new IllegalArgumentException("Only " + ShrinkWrapPath.class.getSimpleName() + " is supported");
         }
-        final ShrinkWrapPath swPath = (ShrinkWrapPath) path;
-        if (!((ShrinkWrapFileSystem) swPath.getFileSystem()).getArchive().contains(path.toString())) {
+        // Resolve the node once; the attributes are a snapshot of it
+        final Archive<?> archive = getArchive(path);
+        final Node node = archive.get(ArchivePaths.create(path.toString()));
+        if (node == null) {
             throw new NoSuchFileException(path.toString());
         }
-        return type.cast(new ShrinkWrapFileAttributes((ShrinkWrapPath) path, getArchive(path)));
+        return type.cast(new ShrinkWrapFileAttributes((ShrinkWrapPath) path, archive, node));
     }
 
     /**
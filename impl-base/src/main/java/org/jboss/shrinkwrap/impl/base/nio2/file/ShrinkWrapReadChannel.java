@@ -0,0 +1,470 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.nio2.file;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
+import org.jboss.shrinkwrap.api.asset.SizedAsset;
+
+/**
+ * Read-only {@link FileChannel} over the content of an {@link Asset}, read lazily instead of being copied up front.
+ * <p>
+ * {@link FileAsset}s are read through a {@link FileChannel} on their file, so that {@link #transferTo(long, long,
+ * WritableByteChannel)} and {@link #map(MapMode, long, long)} go straight to the file system. The arrays of
+ * {@link ByteArrayAsset}s are read in place. Other assets are read from their stream, which is reopened only when
+ * reading before the current stream position. All write operations throw {@link NonWritableChannelException}; locking
+ * is not supported.
+ */
+final class ShrinkWrapReadChannel extends FileChannel {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private static final int BUFFER_SIZE = 8192;
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private final Content content;
+
+    /**
+     * Current position; guarded by this
+     */
+    private long position;
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Creates a channel reading the specified asset from its beginning
+     *
+     * @param asset
+     *            The asset to read
+     * @throws IOException
+     *             If the file of a {@link FileAsset} could not be opened
+     */
+    ShrinkWrapReadChannel(final Asset asset) throws IOException {
+        assert asset != null : "Asset must be specified";
+        if (asset instanceof FileAsset) {
+            content = new FileContent(FileChannel.open(((FileAsset) asset).getSource().toPath(),
+                StandardOpenOption.READ));
+        } else if (asset instanceof ByteArrayAsset) {
+            content = new BufferContent(ByteBuffer.wrap(((ByteArrayAsset) asset).getSource()));
+        } else if (asset instanceof EmptyAsset) {
+            content = new BufferContent(ByteBuffer.allocate(0));
+        } else {
+            content = new StreamContent(asset);
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Required Implementations -----------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    @Override
+    public synchronized int read(final ByteBuffer dst) throws IOException {
+        ensureOpen();
+        final int read = content.read(dst, position);
+        if (read > 0) {
+            position += read;
+        }
+        return read;
+    }
+
+    @Override
+    public synchronized long read(final ByteBuffer[] dsts, final int offset, final int length) throws IOException {
+        if (offset < 0 || length < 0 || offset > dsts.length - length) {
+            throw new IndexOutOfBoundsException();
+        }
+        long total = 0L;
+        for (int i = offset; i < offset + length; i++) {
+            final ByteBuffer dst = dsts[i];
+            while (dst.hasRemaining()) {
+                final int read = read(dst);
+                if (read < 0) {
+                    return total == 0L ? -1L : total;
+                }
+                total += read;
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public int read(final ByteBuffer dst, final long position) throws IOException {
+        if (position < 0) {
+            throw new IllegalArgumentException("Position must not be negative: " + position);
+        }
+        ensureOpen();
+        return content.read(dst, position);
+    }
+
+    @Override
+    public long transferTo(final long position, final long count, final WritableByteChannel target)
+        throws IOException {
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException("Position and count must not be negative");
+        }
+        ensureOpen();
+        final long size = content.size();
+        if (position >= size) {
+            return 0L;
+        }
+        return content.transferTo(position, Math.min(count, size - position), target);
+    }
+
+    @Override
+    public synchronized long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public synchronized FileChannel position(final long newPosition) throws IOException {
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Position must not be negative: " + newPosition);
+        }
+        ensureOpen();
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return content.size();
+    }
+
+    @Override
+    public MappedByteBuffer map(final MapMode mode, final long position, final long size) throws IOException {
+        if (mode != MapMode.READ_ONLY) {
+            throw new NonWritableChannelException();
+        }
+        ensureOpen();
+        return content.map(position, size);
+    }
+
+    @Override
+    public void force(final boolean metaData) throws IOException {
+        // Nothing is ever written
+        ensureOpen();
+    }
+
+    @Override
+    public int write(final ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long write(final ByteBuffer[] srcs, final int offset, final int length) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public int write(final ByteBuffer src, final long position) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public FileChannel truncate(final long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long transferFrom(final ReadableByteChannel src, final long position, final long count) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public FileLock lock(final long position, final long size, final boolean shared) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public FileLock tryLock(final long position, final long size, final boolean shared) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    protected void implCloseChannel() throws IOException {
+        content.close();
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!isOpen()) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Inner Classes ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Random access to the content of the asset
+     */
+    private abstract static class Content {
+
+        abstract long size() throws IOException;
+
+        /**
+         * Reads into the buffer from the specified position
+         *
+         * @return The number of bytes read, or -1 if the position is at or after the end of the content
+         */
+        abstract int read(ByteBuffer dst, long position) throws IOException;
+
+        long transferTo(final long position, final long count, final WritableByteChannel target)
+            throws IOException {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, count));
+            long transferred = 0L;
+            while (transferred < count) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), count - transferred));
+                if (read(buffer, position + transferred) <= 0) {
+                    break;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    transferred += target.write(buffer);
+                }
+            }
+            return transferred;
+        }
+
+        MappedByteBuffer map(final long position, final long size) throws IOException {
+            throw new UnsupportedOperationException("Only the content of file assets can be mapped");
+        }
+
+        void close() throws IOException {
+        }
+    }
+
+    /**
+     * Content of a {@link FileAsset}, read from its file
+     */
+    private static final class FileContent extends Content {
+
+        private final FileChannel file;
+
+        FileContent(final FileChannel file) {
+            this.file = file;
+        }
+
+        @Override
+        long size() throws IOException {
+            return file.size();
+        }
+
+        @Override
+        int read(final ByteBuffer dst, final long position) throws IOException {
+            return file.read(dst, position);
+        }
+
+        @Override
+        long transferTo(final long position, final long count, final WritableByteChannel target)
+            throws IOException {
+            return file.transferTo(position, count, target);
+        }
+
+        @Override
+        MappedByteBuffer map(final long position, final long size) throws IOException {
+            return file.map(MapMode.READ_ONLY, position, size);
+        }
+
+        @Override
+        void close() throws IOException {
+            file.close();
+        }
+    }
+
+    /**
+     * Content held in a buffer, read in place
+     */
+    private static final class BufferContent extends Content {
+
+        private final ByteBuffer bytes;
+
+        BufferContent(final ByteBuffer bytes) {
+            this.bytes = bytes.asReadOnlyBuffer();
+        }
+
+        @Override
+        long size() {
+            return bytes.capacity();
+        }
+
+        @Override
+        int read(final ByteBuffer dst, final long position) {
+            if (position >= bytes.capacity()) {
+                return -1;
+            }
+            final int length = (int) Math.min(dst.remaining(), bytes.capacity() - position);
+            final ByteBuffer source = bytes.duplicate();
+            source.position((int) position).limit((int) position + length);
+            dst.put(source);
+            return length;
+        }
+
+        @Override
+        long transferTo(final long position, final long count, final WritableByteChannel target)
+            throws IOException {
+            final ByteBuffer source = bytes.duplicate();
+            source.position((int) position).limit((int) (position + count));
+            long transferred = 0L;
+            while (source.hasRemaining()) {
+                final int written = target.write(source);
+                if (written == 0) {
+                    // Non-blocking target is full
+                    break;
+                }
+                transferred += written;
+            }
+            return transferred;
+        }
+    }
+
+    /**
+     * Content read from the stream of an asset, reopened when reading backwards
+     */
+    private static final class StreamContent extends Content {
+
+        private final Asset asset;
+
+        /**
+         * Size of the content, or -1 until it is known; guarded by this
+         */
+        private long size = -1L;
+
+        /**
+         * Currently open stream, if any, and its position in the content; guarded by this
+         */
+        private InputStream stream;
+
+        private long streamPosition;
+
+        private byte[] buffer;
+
+        StreamContent(final Asset asset) {
+            this.asset = asset;
+            if (asset instanceof SizedAsset) {
+                this.size = ((SizedAsset) asset).getSize();
+            }
+        }
+
+        @Override
+        synchronized long size() throws IOException {
+            if (size < 0) {
+                long count = 0L;
+                try (InputStream in = asset.openStream()) {
+                    final byte[] skipBuffer = new byte[BUFFER_SIZE];
+                    int read;
+                    while ((read = in.read(skipBuffer)) != -1) {
+                        count += read;
+                    }
+                }
+                size = count;
+            }
+            return size;
+        }
+
+        @Override
+        synchronized int read(final ByteBuffer dst, final long position) throws IOException {
+            if (stream == null || position < streamPosition) {
+                close();
+                stream = asset.openStream();
+                streamPosition = 0L;
+            }
+            if (!skipTo(position)) {
+                return -1;
+            }
+            if (!dst.hasRemaining()) {
+                return 0;
+            }
+            final int read;
+            if (dst.hasArray()) {
+                read = stream.read(dst.array(), dst.arrayOffset() + dst.position(), dst.remaining());
+                if (read > 0) {
+                    dst.position(dst.position() + read);
+                }
+            } else {
+                if (buffer == null) {
+                    buffer = new byte[BUFFER_SIZE];
+                }
+                read = stream.read(buffer, 0, Math.min(buffer.length, dst.remaining()));
+                if (read > 0) {
+                    dst.put(buffer, 0, read);
+                }
+            }
+            if (read > 0) {
+                streamPosition += read;
+            }
+            return read;
+        }
+
+        /**
+         * Advances the open stream to the specified position
+         *
+         * @return Whether the position is before the end of the content
+         */
+        private boolean skipTo(final long position) throws IOException {
+            while (streamPosition < position) {
+                final long skipped = stream.skip(position - streamPosition);
+                if (skipped > 0) {
+                    streamPosition += skipped;
+                } else if (stream.read() == -1) {
+                    return false;
+                } else {
+                    streamPosition++;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        synchronized void close() throws IOException {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } finally {
+                    stream = null;
+                }
+            }
+        }
+    }
+}
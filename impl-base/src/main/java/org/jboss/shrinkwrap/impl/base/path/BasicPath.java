@@ -23,6 +23,11 @@ import org.jboss.shrinkwrap.api.ArchivePath;
 
 /**
  * A Path which may be optionally prefixed with some common namespace context at construction time. Thread-safe.
+ * <p>
+ * The context is normalized at construction into an interned {@link PathNode}, shared by all paths of equal context
+ * and holding a pointer to the node of the parent, along with whether the context ends with a separator. Equal paths
+ * thus share their node, compared by identity, and paths sharing a prefix share its storage; {@link #get()} composes
+ * the context on demand.
  *
  * @author <a href="mailto:andrew.rubinger@jboss.org">ALR</a>
  * @author <a href="mailto:aslak@conduct.no">Aslak Knutsen</a>
@@ -44,9 +49,15 @@ public class BasicPath implements ArchivePath, Comparable<ArchivePath> {
     // -------------------------------------------------------------------------------------||
 
     /**
-     * The context which this path represents; immutable so we're thread-safe.
+     * The interned node of the context which this path represents, without following slash; immutable so we're
+     * thread-safe.
      */
-    private final String context;
+    private final PathNode node;
+
+    /**
+     * Whether the context ends with a separator, as for directories; always for the root.
+     */
+    private final boolean followingSlash;
 
     // -------------------------------------------------------------------------------------||
     // Constructor ------------------------------------------------------------------------||
@@ -67,11 +78,10 @@ public class BasicPath implements ArchivePath, Comparable<ArchivePath> {
      *            adjusted to absolute form.
      */
     public BasicPath(final String context) {
-        final String resolvedContext = PathUtil.optionallyPrependSlash(context);
+        this(PathNode.ROOT, context == null ? PathUtil.EMPTY : context);
         if (log.isLoggable(Level.FINER)) {
-            log.finer("Resolved \"" + context + "\" to absolute form: " + resolvedContext);
+            log.finer("Resolved \"" + context + "\" to absolute form: " + this.get());
         }
-        this.context = resolvedContext;
     }
 
     /**
@@ -95,7 +105,7 @@ public class BasicPath implements ArchivePath, Comparable<ArchivePath> {
      *            The relative context to be appended to the base path, provided as a {@link String}
      */
     public BasicPath(final ArchivePath basePath, final String context) {
-        this(basePath.get(), context);
+        this(basePath instanceof BasicPath ? ((BasicPath) basePath).node : nodeOf(basePath.get()), context);
     }
 
     /**
@@ -119,7 +129,32 @@ public class BasicPath implements ArchivePath, Comparable<ArchivePath> {
      *            The relative context to be appended to the base path, provided as a {@link String}
      */
     public BasicPath(final String basePath, String context) {
-        this(PathUtil.composeAbsoluteContext(basePath, context));
+        this(nodeOf(basePath), context);
+    }
+
+    /**
+     * Creates a new Path of the specified relative context, less a preceding slash, appended to the specified base
+     * node with a separator.
+     */
+    private BasicPath(final PathNode base, final String context) {
+        assert context != null : "Path must be specified";
+        final int start = startOfRelative(context);
+        final int end = context.length();
+        if (start == end) {
+            this.node = base;
+            this.followingSlash = true;
+        } else {
+            this.followingSlash = context.charAt(end - 1) == ArchivePath.SEPARATOR;
+            this.node = base.resolve(context, start, followingSlash ? end - 1 : end);
+        }
+    }
+
+    /**
+     * Creates a new Path of the specified node
+     */
+    private BasicPath(final PathNode node, final boolean followingSlash) {
+        this.node = node;
+        this.followingSlash = followingSlash || node == PathNode.ROOT;
     }
 
     // -------------------------------------------------------------------------------------||
@@ -133,7 +168,7 @@ public class BasicPath implements ArchivePath, Comparable<ArchivePath> {
      */
     @Override
     public String get() {
-        return context;
+        return node.context(followingSlash);
     }
 
     /**
@@ -143,7 +178,8 @@ public class BasicPath implements ArchivePath, Comparable<ArchivePath> {
      */
     @Override
     public ArchivePath getParent() {
-        return PathUtil.getParent(this);
+        final PathNode parent = node.parent;
+        return parent == null ? null : new BasicPath(parent, false);
     }
 
     /**
@@ -157,11 +193,22 @@ public class BasicPath implements ArchivePath, Comparable<ArchivePath> {
         if (path == null) {
             return 1;
         }
+        if (path instanceof BasicPath) {
+            final BasicPath other = (BasicPath) path;
+            // If we're the parent of the specified, we're less; if the specified is the parent of us, we're more
+            if (other.node.parent == node) {
+                return -1;
+            }
+            if (node.parent == other.node) {
+                return 1;
+            }
+            return compareContexts(other);
+        }
         /*
          * Check for parent relationship
          */
         final ArchivePath parentOfSpecified = PathUtil.getParent(path);
-        final ArchivePath parentOfThis = PathUtil.getParent(this);
+        final ArchivePath parentOfThis = this.getParent();
         // If we're the parent of the specified, we're less
         if (this.equals(parentOfSpecified)) {
             return -1;
@@ -184,19 +231,20 @@ public class BasicPath implements ArchivePath, Comparable<ArchivePath> {
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Paths differing only by a following slash have the same hash code, as they are equal.
      *
      * @see java.lang.Object#hashCode()
      */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((context == null) ? 0 : context.hashCode());
-        return result;
+        return node.hash;
     }
 
     /**
      * {@inheritDoc}
+     * <p>
+     * Following slashes are not significant.
      *
      * @see java.lang.Object#equals(java.lang.Object)
      */
@@ -211,23 +259,8 @@ public class BasicPath implements ArchivePath, Comparable<ArchivePath> {
         if (getClass() != obj.getClass()) {
             return false;
         }
-        final BasicPath other = (BasicPath) obj;
-
-        if (context == null) {
-            if (other.context != null) {
-                return false;
-            }
-        }
-
-        // Ensure we treat following slashes equally
-        final String adjustedContext = PathUtil.optionallyRemoveFollowingSlash(context);
-        final String adjustedOther = PathUtil.optionallyRemoveFollowingSlash(other.context);
-        if (!adjustedContext.equals(adjustedOther)) {
-            return false;
-        }
-
-        // No match
-        return true;
+        // Nodes are interned
+        return node == ((BasicPath) obj).node;
     }
 
     /**
@@ -237,7 +270,103 @@ public class BasicPath implements ArchivePath, Comparable<ArchivePath> {
      */
     @Override
     public String toString() {
-        return this.getClass().getSimpleName() + " [context=" + context + "]";
+        return this.getClass().getSimpleName() + " [context=" + this.get() + "]";
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Obtains the node of the specified context, ignoring a following slash
+     */
+    private static PathNode nodeOf(final String context) {
+        assert context != null : "Path must be specified";
+        final int start = startOfRelative(context);
+        final int end = context.length();
+        if (start == end) {
+            return PathNode.ROOT;
+        }
+        return PathNode.ROOT.resolve(context, start,
+            context.charAt(end - 1) == ArchivePath.SEPARATOR ? end - 1 : end);
+    }
+
+    /**
+     * Obtains the index at which the specified context starts once a preceding slash is removed
+     */
+    private static int startOfRelative(final String context) {
+        return !context.isEmpty() && context.charAt(0) == ArchivePath.SEPARATOR ? 1 : 0;
+    }
+
+    /**
+     * Compares the contexts of this and the specified path as {@link String#compareTo(String)} would, without
+     * composing them: past the context of their closest common ancestor, which they share, only the names of the
+     * children of that ancestor on the way to each path need be compared.
+     */
+    private int compareContexts(final BasicPath other) {
+        if (node == other.node) {
+            // Only following slashes may differ, the shorter context is less
+            return Boolean.compare(followingSlash, other.followingSlash);
+        }
+        PathNode ours = node;
+        PathNode theirs = other.node;
+        PathNode ourChild = null;
+        PathNode theirChild = null;
+        while (ours.depth > theirs.depth) {
+            ourChild = ours;
+            ours = ours.parent;
+        }
+        while (theirs.depth > ours.depth) {
+            theirChild = theirs;
+            theirs = theirs.parent;
+        }
+        while (ours != theirs) {
+            ourChild = ours;
+            ours = ours.parent;
+            theirChild = theirs;
+            theirs = theirs.parent;
+        }
+
+        // Each context continues past the common one with a separator and the name of the child, if any
+        if (ourChild == null) {
+            return -other.remainderAfterAncestor(theirChild, followingSlash);
+        }
+        if (theirChild == null) {
+            return remainderAfterAncestor(ourChild, other.followingSlash);
+        }
+        final String ourName = ourChild.name;
+        final String theirName = theirChild.name;
+        final int common = Math.min(ourName.length(), theirName.length());
+        for (int i = 0; i < common; i++) {
+            final int compared = Character.compare(ourName.charAt(i), theirName.charAt(i));
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        // Children of a node have distinct names, so one name is a prefix of the other
+        if (ourName.length() < theirName.length()) {
+            return nextAfter(ourChild) ? Character.compare(ArchivePath.SEPARATOR, theirName.charAt(common)) : -1;
+        }
+        return other.nextAfter(theirChild) ? Character.compare(ourName.charAt(common), ArchivePath.SEPARATOR) : 1;
+    }
+
+    /**
+     * Compares the context of this path past that of the parent of the specified ancestor, which is a separator and
+     * the name of the ancestor followed by more, against that of a path ending at that parent, which is a separator
+     * if it has a following slash and nothing otherwise.
+     */
+    private int remainderAfterAncestor(final PathNode ancestor, final boolean otherFollowingSlash) {
+        // Equal only if both are a single separator
+        if (otherFollowingSlash && ancestor.name.isEmpty() && !nextAfter(ancestor)) {
+            return 0;
+        }
+        return 1;
     }
 
+    /**
+     * Whether the context of this path continues past the name of the specified ancestor, always with a separator
+     */
+    private boolean nextAfter(final PathNode ancestor) {
+        return ancestor != node || followingSlash;
+    }
 }
@@ -0,0 +1,330 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.path;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jboss.shrinkwrap.api.ArchivePath;
+
+/**
+ * Canonical, interned form of an absolute path without following slash, shared by all {@link BasicPath}s of equal
+ * context. Each node holds the name of its last segment and a pointer to the node of its parent, so paths sharing a
+ * prefix share its storage, and there is exactly one node per path as long as it is in use: nodes may be compared by
+ * identity. Nodes no longer referenced are reclaimed by the garbage collector.
+ * <p>
+ * The children of a node are interned in an open addressing table looked up without locking or allocating, straight
+ * from a region of the context being resolved; additions take the monitor of the node. Thread-safe.
+ */
+final class PathNode {
+
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * The root node, represented by the empty context
+     */
+    static final PathNode ROOT = new PathNode(null, "", 0);
+
+    /**
+     * Initial capacity of the table of children
+     */
+    private static final int INITIAL_CAPACITY = 4;
+
+    /**
+     * Queue of references to collected nodes, counted against the tables of their parents until these are compacted
+     */
+    private static final ReferenceQueue<PathNode> COLLECTED = new ReferenceQueue<>();
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Node of the parent path, null for the root
+     */
+    final PathNode parent;
+
+    /**
+     * Name of the last segment
+     */
+    final String name;
+
+    /**
+     * Number of segments, 0 for the root
+     */
+    final int depth;
+
+    /**
+     * Length of the context, which is the concatenation of a separator and the name of each segment
+     */
+    final int length;
+
+    /**
+     * Hash code of the context, as computed by {@link String#hashCode()}
+     */
+    final int hash;
+
+    /**
+     * Interned children, indexed by their hash code; null until the first child is added. Replaced when resized,
+     * entries are only set holding the monitor of this node.
+     */
+    private volatile AtomicReferenceArray<ChildReference> children;
+
+    /**
+     * Number of entries in {@link #children}, including those of collected nodes; guarded by the monitor of this node
+     */
+    private int entries;
+
+    /**
+     * Number of entries in {@link #children} of collected nodes; guarded by the monitor of this node
+     */
+    private int collected;
+
+    // -------------------------------------------------------------------------------------||
+    // Constructor ------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private PathNode(final PathNode parent, final String name, final int hash) {
+        this.parent = parent;
+        this.name = name;
+        this.hash = hash;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.length = parent == null ? 0 : parent.length + 1 + name.length();
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Functional Methods -----------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Obtains the node of the path composed of this one, a separator and the specified region of the specified
+     * relative context. Separators within the region delimit further segments.
+     *
+     * @param relative
+     *            The relative context
+     * @param start
+     *            Index of the first character of the region
+     * @param end
+     *            Index after the last character of the region
+     * @return The interned node
+     */
+    PathNode resolve(final String relative, final int start, final int end) {
+        expungeCollected();
+        PathNode node = this;
+        int segmentStart = start;
+        while (true) {
+            int segmentEnd = relative.indexOf(ArchivePath.SEPARATOR, segmentStart);
+            if (segmentEnd == -1 || segmentEnd > end) {
+                segmentEnd = end;
+            }
+            node = node.child(relative, segmentStart, segmentEnd);
+            if (segmentEnd == end) {
+                return node;
+            }
+            segmentStart = segmentEnd + 1;
+        }
+    }
+
+    /**
+     * Obtains the ancestor of this node at the specified depth, which must not exceed that of this node.
+     */
+    PathNode ancestor(final int depth) {
+        PathNode node = this;
+        while (node.depth > depth) {
+            node = node.parent;
+        }
+        return node;
+    }
+
+    /**
+     * Obtains the context of this path
+     *
+     * @param followingSlash
+     *            Whether the context is to end with a separator
+     */
+    String context(final boolean followingSlash) {
+        final char[] chars = new char[followingSlash ? length + 1 : length];
+        for (PathNode node = this; node.parent != null; node = node.parent) {
+            final int start = node.length - node.name.length();
+            node.name.getChars(0, node.name.length(), chars, start);
+            chars[start - 1] = ArchivePath.SEPARATOR;
+        }
+        if (followingSlash) {
+            chars[length] = ArchivePath.SEPARATOR;
+        }
+        return new String(chars);
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Obtains the interned child named by the specified region, creating it if needed
+     */
+    private PathNode child(final String segments, final int start, final int end) {
+        int hash = 31 * this.hash + ArchivePath.SEPARATOR;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + segments.charAt(i);
+        }
+        final PathNode child = find(children, segments, start, end, hash);
+        if (child != null) {
+            return child;
+        }
+        synchronized (this) {
+            // Another thread may have added the child, or resized the table, meanwhile
+            final PathNode added = find(children, segments, start, end, hash);
+            if (added != null) {
+                return added;
+            }
+            final PathNode created = new PathNode(this, segments.substring(start, end), hash);
+            AtomicReferenceArray<ChildReference> table = children;
+            if (table == null) {
+                table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+                children = table;
+            } else if ((entries + 1) * 4 > table.length() * 3) {
+                table = rebuild(Math.max(INITIAL_CAPACITY, Integer.highestOneBit((entries - collected + 1) * 2) * 2));
+            }
+            insert(table, new ChildReference(created));
+            entries++;
+            return created;
+        }
+    }
+
+    /**
+     * Looks up the child named by the specified region in the specified table, which may be null
+     */
+    private static PathNode find(final AtomicReferenceArray<ChildReference> table, final String segments,
+        final int start, final int end, final int hash) {
+        if (table == null) {
+            return null;
+        }
+        final int length = end - start;
+        final int mask = table.length() - 1;
+        for (int i = spread(hash) & mask;; i = (i + 1) & mask) {
+            final ChildReference reference = table.get(i);
+            if (reference == null) {
+                return null;
+            }
+            if (reference.hash == hash) {
+                final PathNode child = reference.get();
+                if (child != null && child.named(segments, start, length)) {
+                    return child;
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether the name of this node is the specified region
+     */
+    private boolean named(final String segments, final int start, final int length) {
+        if (name.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (name.charAt(i) != segments.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replaces the table of children by one of the specified capacity holding the entries of children not collected;
+     * called holding the monitor of this node
+     */
+    private AtomicReferenceArray<ChildReference> rebuild(final int capacity) {
+        final AtomicReferenceArray<ChildReference> old = children;
+        final AtomicReferenceArray<ChildReference> table = new AtomicReferenceArray<>(capacity);
+        entries = 0;
+        collected = 0;
+        for (int i = 0; i < old.length(); i++) {
+            final ChildReference reference = old.get(i);
+            if (reference == null || reference.collected) {
+                continue;
+            }
+            if (reference.get() == null) {
+                // Dropped before being dequeued, not to be counted then
+                reference.collected = true;
+            } else {
+                insert(table, reference);
+                entries++;
+            }
+        }
+        children = table;
+        return table;
+    }
+
+    private static void insert(final AtomicReferenceArray<ChildReference> table, final ChildReference reference) {
+        final int mask = table.length() - 1;
+        int i = spread(reference.hash) & mask;
+        while (table.get(i) != null) {
+            i = (i + 1) & mask;
+        }
+        table.set(i, reference);
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Counts the entries of collected nodes against the tables of their parents, compacting those mostly made of them
+     */
+    private static void expungeCollected() {
+        ChildReference reference;
+        while ((reference = (ChildReference) COLLECTED.poll()) != null) {
+            final PathNode parent = reference.parent;
+            synchronized (parent) {
+                if (reference.collected) {
+                    continue;
+                }
+                reference.collected = true;
+                parent.collected++;
+                if (parent.collected * 2 > parent.entries) {
+                    parent.rebuild(Math.max(INITIAL_CAPACITY,
+                        Integer.highestOneBit(Math.max(1, parent.entries - parent.collected) * 2) * 2));
+                }
+            }
+        }
+    }
+
+    /**
+     * Weak reference to an interned child, remembering its parent and hash code
+     */
+    private static final class ChildReference extends WeakReference<PathNode> {
+
+        private final PathNode parent;
+
+        private final int hash;
+
+        /**
+         * Whether the child was counted as collected; guarded by the monitor of the parent
+         */
+        private boolean collected;
+
+        ChildReference(final PathNode child) {
+            super(child, COLLECTED);
+            this.parent = child.parent;
+            this.hash = child.hash;
+        }
+    }
+}
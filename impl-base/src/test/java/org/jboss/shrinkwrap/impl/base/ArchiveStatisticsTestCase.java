@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.jboss.shrinkwrap.spi.ArchiveStatistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Ensures that the {@link ArchiveStatistics} of an archive follow its content.
+ */
+public class ArchiveStatisticsTestCase {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void shouldCountAssetsAndDirectories() {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class);
+        final ArchiveStatistics statistics = archive.as(ArchiveStatistics.class);
+        Assertions.assertEquals(0L, statistics.getAssetCount());
+        Assertions.assertEquals(0L, statistics.getDirectoryCount());
+
+        archive.add(EmptyAsset.INSTANCE, "a/b/c");
+        archive.add(EmptyAsset.INSTANCE, "a/d");
+        archive.addAsDirectory("e");
+        Assertions.assertEquals(2L, statistics.getAssetCount());
+        Assertions.assertEquals(3L, statistics.getDirectoryCount());
+
+        archive.add(EmptyAsset.INSTANCE, "a/d");
+        Assertions.assertEquals(2L, statistics.getAssetCount());
+
+        archive.delete("a/d");
+        Assertions.assertEquals(1L, statistics.getAssetCount());
+        Assertions.assertEquals(3L, statistics.getDirectoryCount());
+    }
+
+    @Test
+    public void shouldSumSizesOfAssets() throws IOException {
+        final File file = new File(tempDir, "file");
+        Files.write(file.toPath(), new byte[300]);
+
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class);
+        archive.add(new ByteArrayAsset(new byte[20]), "bytes");
+        archive.add(new StringAsset("abc"), "string");
+        archive.add(new FileAsset(file), "file");
+        final ArchiveStatistics statistics = archive.as(ArchiveStatistics.class);
+        Assertions.assertEquals(323L, statistics.getUsedSpace());
+
+        // Files are measured again on every request
+        Files.write(file.toPath(), new byte[1]);
+        Assertions.assertEquals(24L, statistics.getUsedSpace());
+
+        archive.delete("file");
+        archive.delete("string");
+        Assertions.assertEquals(20L, statistics.getUsedSpace());
+    }
+
+    @Test
+    public void shouldIncreaseModificationVersionOnNestedChanges() {
+        final JavaArchive library = ShrinkWrap.create(JavaArchive.class, "library.jar");
+        final WebArchive web = ShrinkWrap.create(WebArchive.class).addAsLibrary(library);
+        final ArchiveStatistics statistics = web.as(ArchiveStatistics.class);
+
+        final long added = statistics.getModificationVersion();
+        Assertions.assertEquals(added, statistics.getModificationVersion());
+
+        web.add(EmptyAsset.INSTANCE, "a");
+        final long modified = statistics.getModificationVersion();
+        Assertions.assertTrue(modified > added);
+
+        library.add(EmptyAsset.INSTANCE, "b");
+        final long nestedModified = statistics.getModificationVersion();
+        Assertions.assertTrue(nestedModified > modified);
+
+        web.delete("a");
+        Assertions.assertTrue(statistics.getModificationVersion() > nestedModified);
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.ArchivePaths;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ArchiveAsset;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.ClassLoaderAsset;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.TarExporter;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.importer.ZipImporter;
+import org.jboss.shrinkwrap.api.spec.EnterpriseArchive;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.jboss.shrinkwrap.impl.base.io.IOUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Ensures that {@link ExportCache} reuses the export of a nested archive exactly as long as neither the archive nor
+ * an archive nested in it changes.
+ */
+public class ExportCacheTestCase {
+
+    private static final ArchivePath WEB_PATH = ArchivePaths.create("web.war");
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    public void shouldReuseExportOfUnchangedNestedArchive() throws IOException {
+        final CountingLoader loader = new CountingLoader("content");
+        final WebArchive web = ShrinkWrap.create(WebArchive.class, "web.war").add(loader.newAsset(), "asset");
+        final EnterpriseArchive ear = ShrinkWrap.create(EnterpriseArchive.class).addAsModule(web);
+
+        final byte[] first = read(ear);
+        final byte[] second = read(ear);
+        Assertions.assertArrayEquals(first, second);
+        Assertions.assertEquals(1, loader.reads.get());
+
+        // Exported again by another exporter
+        read(new ArchiveAsset(web, TarExporter.class));
+        Assertions.assertEquals(2, loader.reads.get());
+    }
+
+    @Test
+    public void shouldExportAgainOnceNestedArchiveChanges() throws IOException {
+        final CountingLoader loader = new CountingLoader("content");
+        final WebArchive web = ShrinkWrap.create(WebArchive.class, "web.war").add(loader.newAsset(), "asset");
+        final EnterpriseArchive ear = ShrinkWrap.create(EnterpriseArchive.class).addAsModule(web);
+        read(ear);
+
+        web.add(new StringAsset("added"), "added");
+        final byte[] exported = read(ear);
+        Assertions.assertEquals(2, loader.reads.get());
+        Assertions.assertTrue(ShrinkWrap.create(ZipImporter.class).importFrom(new ByteArrayInputStream(exported))
+            .as(WebArchive.class).contains("added"));
+
+        web.delete("added");
+        read(ear);
+        Assertions.assertEquals(3, loader.reads.get());
+    }
+
+    @Test
+    public void shouldExportAgainOnceDescendantChanges() throws IOException {
+        final CountingLoader loader = new CountingLoader("content");
+        final JavaArchive library = ShrinkWrap.create(JavaArchive.class, "library.jar")
+            .add(new StringAsset("library"), "library");
+        final WebArchive web = ShrinkWrap.create(WebArchive.class, "web.war").add(loader.newAsset(), "asset")
+            .addAsLibrary(library);
+        final EnterpriseArchive ear = ShrinkWrap.create(EnterpriseArchive.class).addAsModule(web);
+        read(ear);
+        read(ear);
+        Assertions.assertEquals(1, loader.reads.get());
+
+        library.add(new StringAsset("added"), "added");
+        read(ear);
+        Assertions.assertEquals(2, loader.reads.get());
+    }
+
+    @Test
+    public void shouldExportAgainOnceFileChanges() throws IOException {
+        final File file = new File(tempDir, "file");
+        Files.write(file.toPath(), "before".getBytes(StandardCharsets.UTF_8));
+        final CountingLoader loader = new CountingLoader("content");
+        final WebArchive web = ShrinkWrap.create(WebArchive.class, "web.war").add(loader.newAsset(), "asset")
+            .add(new FileAsset(file), "file");
+        final EnterpriseArchive ear = ShrinkWrap.create(EnterpriseArchive.class).addAsModule(web);
+        read(ear);
+        read(ear);
+        Assertions.assertEquals(1, loader.reads.get());
+
+        Files.write(file.toPath(), "changed".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertTrue(file.setLastModified(file.lastModified() - 10000));
+        read(ear);
+        Assertions.assertEquals(2, loader.reads.get());
+    }
+
+    @Test
+    public void shouldNotCacheArchivesThatAreNotNested() throws IOException {
+        final CountingLoader loader = new CountingLoader("content");
+        final WebArchive web = ShrinkWrap.create(WebArchive.class, "web.war").add(loader.newAsset(), "asset");
+        read(new ArchiveAsset(web, ZipExporter.class));
+        read(new ArchiveAsset(web, ZipExporter.class));
+        Assertions.assertEquals(2, loader.reads.get());
+
+        final EnterpriseArchive ear = ShrinkWrap.create(EnterpriseArchive.class).addAsModule(web);
+        ear.delete(WEB_PATH);
+        read(new ArchiveAsset(web, ZipExporter.class));
+        Assertions.assertEquals(3, loader.reads.get());
+    }
+
+    @Test
+    public void shouldNotCacheArchivesWithAssetsOfUnknownTypes() throws IOException {
+        final CountingAsset asset = new CountingAsset("content");
+        final WebArchive web = ShrinkWrap.create(WebArchive.class, "web.war").add(asset, "asset");
+        final EnterpriseArchive ear = ShrinkWrap.create(EnterpriseArchive.class).addAsModule(web);
+        read(ear);
+        read(ear);
+        Assertions.assertEquals(2, asset.reads.get());
+    }
+
+    private static byte[] read(final EnterpriseArchive ear) throws IOException {
+        return read(ear.get(WEB_PATH).getAsset());
+    }
+
+    private static byte[] read(final Asset asset) throws IOException {
+        try (InputStream in = asset.openStream()) {
+            return IOUtil.asByteArray(in);
+        }
+    }
+
+    /**
+     * Serves a single resource to {@link ClassLoaderAsset}s, a type known to be immutable, counting how many times it
+     * is read
+     */
+    private static final class CountingLoader extends ClassLoader {
+
+        private final byte[] content;
+
+        private final AtomicInteger reads = new AtomicInteger();
+
+        CountingLoader(final String content) {
+            super(null);
+            this.content = content.getBytes(StandardCharsets.UTF_8);
+        }
+
+        ClassLoaderAsset newAsset() {
+            return new ClassLoaderAsset("resource", this);
+        }
+
+        @Override
+        public URL getResource(final String name) {
+            return ExportCacheTestCase.class.getResource("ExportCacheTestCase.class");
+        }
+
+        @Override
+        public InputStream getResourceAsStream(final String name) {
+            reads.incrementAndGet();
+            return new ByteArrayInputStream(content);
+        }
+    }
+
+    /**
+     * Counts how many times its content is read
+     */
+    private static final class CountingAsset implements Asset {
+
+        private final byte[] content;
+
+        private final AtomicInteger reads = new AtomicInteger();
+
+        CountingAsset(final String content) {
+            this.content = content.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public InputStream openStream() {
+            reads.incrementAndGet();
+            return new ByteArrayInputStream(content);
+        }
+    }
+}
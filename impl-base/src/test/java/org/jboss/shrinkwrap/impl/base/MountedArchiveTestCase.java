@@ -0,0 +1,295 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.ArchivePaths;
+import org.jboss.shrinkwrap.api.GenericArchive;
+import org.jboss.shrinkwrap.api.IllegalOverwriteException;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ClassAsset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.classloader.ShrinkWrapClassLoader;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.importer.ArchiveImportException;
+import org.jboss.shrinkwrap.api.importer.ZipImporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.impl.base.io.IOUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Ensures that an archive mounted from a ZIP file with {@link ZipImporter#mount(File)} behaves like an archive
+ * imported from it.
+ */
+public class MountedArchiveTestCase {
+
+    @TempDir
+    Path tempDir;
+
+    private File zip;
+
+    /**
+     * Writes a ZIP file with a comment, an explicit and an implicit directory, and an empty directory
+     */
+    @BeforeEach
+    public void createZip() throws IOException {
+        zip = tempDir.resolve("mounted.jar").toFile();
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(zip))) {
+            out.setComment("mounted for testing");
+            out.putNextEntry(new ZipEntry("META-INF/"));
+            write(out, "META-INF/MANIFEST.MF", "Manifest-Version: 1.0\n");
+            write(out, "org/example/first.txt", "first");
+            write(out, "org/example/second.txt", "second");
+            write(out, "org/other.txt", "other");
+            out.putNextEntry(new ZipEntry("empty/"));
+            write(out, "top.txt", "top");
+        }
+    }
+
+    @Test
+    public void shouldHaveSameContentAsImport() {
+        final GenericArchive imported = ShrinkWrap.create(ZipImporter.class, "imported.jar").importFrom(zip)
+            .as(GenericArchive.class);
+        final GenericArchive mounted = mount();
+
+        Assertions.assertEquals(new ArrayList<>(imported.getContent().keySet()),
+            new ArrayList<>(mounted.getContent().keySet()));
+        for (final Map.Entry<ArchivePath, Node> entry : imported.getContent().entrySet()) {
+            final Node node = mounted.get(entry.getKey());
+            Assertions.assertEquals(entry.getValue().getAsset() == null, node.getAsset() == null);
+            if (node.getAsset() != null) {
+                Assertions.assertEquals(read(entry.getValue()), read(node));
+            }
+            Assertions.assertEquals(paths(entry.getValue().getChildren()), paths(node.getChildren()),
+                "Children of " + entry.getKey());
+        }
+    }
+
+    @Test
+    public void shouldResolveNodesOnDemand() {
+        final GenericArchive mounted = mount();
+
+        assertLookups(mounted);
+        // Further lookups use an index of the entries
+        for (int i = 0; i < 20; i++) {
+            mounted.contains("top.txt");
+        }
+        assertLookups(mounted);
+        Assertions.assertEquals(paths("/org/example/first.txt", "/org/example/second.txt"),
+            paths(mounted.get("org/example").getChildren()));
+        Assertions.assertEquals(paths("/META-INF", "/org", "/empty", "/top.txt"),
+            paths(mounted.get("/").getChildren()));
+    }
+
+    @Test
+    public void shouldLookUpLikeArchivesNotMounted() {
+        final GenericArchive imported = ShrinkWrap.create(ZipImporter.class, "imported.jar").importFrom(zip)
+            .as(GenericArchive.class);
+        assertLookups(imported);
+
+        final GenericArchive created = ShrinkWrap.create(GenericArchive.class).addAsDirectory("org/example")
+            .add(new StringAsset("top"), "top.txt");
+        Assertions.assertSame(created.get("org/example"), created.get("org/example/"));
+        Assertions.assertSame(created.get("top.txt"), created.get("top.txt/"));
+        Assertions.assertTrue(created.contains("org/"));
+        Assertions.assertFalse(created.contains("org/exam/"));
+    }
+
+    private void assertLookups(final GenericArchive mounted) {
+        Assertions.assertEquals("second", read(mounted.get("org/example/second.txt")));
+        Assertions.assertTrue(mounted.contains("org/example"));
+        Assertions.assertTrue(mounted.contains("empty"));
+        Assertions.assertTrue(mounted.contains("META-INF"));
+        Assertions.assertFalse(mounted.contains("org/example/missing.txt"));
+        Assertions.assertFalse(mounted.contains("org/exam"));
+        // Paths differing only by a trailing slash are equal
+        Assertions.assertSame(mounted.get("org/example"), mounted.get("org/example/"));
+        Assertions.assertEquals(ArchivePaths.create("org/example"), mounted.get("org/example/").getPath());
+    }
+
+    @Test
+    public void shouldListChildrenOfMountedDirectories() {
+        final GenericArchive mounted = mount();
+
+        Assertions.assertEquals("second", read(mounted.get("org/example/second.txt")));
+        Assertions.assertEquals(paths("/org/example/first.txt", "/org/example/second.txt"),
+            paths(mounted.get("org/example").getChildren()));
+        Assertions.assertEquals(paths("/META-INF", "/org", "/empty", "/top.txt"),
+            paths(mounted.get("/").getChildren()));
+    }
+
+    @Test
+    public void shouldKeepChangesInOverlay() {
+        final GenericArchive mounted = mount();
+
+        mounted.add(new StringAsset("changed"), "org/example/first.txt");
+        mounted.add(new StringAsset("added"), "org/example/third.txt");
+        Assertions.assertThrows(IllegalOverwriteException.class,
+            () -> mounted.add(new StringAsset("file"), "org/example"));
+
+        Assertions.assertEquals("changed", read(mounted.get("org/example/first.txt")));
+        Assertions.assertEquals(paths("/org/example/first.txt", "/org/example/second.txt",
+            "/org/example/third.txt"), paths(mounted.get("org/example").getChildren()));
+
+        Assertions.assertNotNull(mounted.delete("org/other.txt"));
+        Assertions.assertFalse(mounted.contains("org/other.txt"));
+        Assertions.assertEquals(paths("/org/example"), paths(mounted.get("org").getChildren()));
+        Assertions.assertEquals(9, mounted.getContent().size());
+
+        final GenericArchive reimported = ShrinkWrap.create(ZipImporter.class, "reimported.jar")
+            .importFrom(mounted.as(ZipExporter.class).exportAsInputStream()).as(GenericArchive.class);
+        Assertions.assertEquals("changed", read(reimported.get("org/example/first.txt")));
+        Assertions.assertEquals("first", read(ShrinkWrap.create(ZipImporter.class).importFrom(zip)
+            .as(GenericArchive.class).get("org/example/first.txt")), "The file must not change");
+    }
+
+    @Test
+    public void shouldCountAndDeleteWithoutStoringEntries() throws IOException {
+        final ArchivePath root = ArchivePaths.root();
+        final NodeStore store = new NodeStore();
+        store.update(() -> store.putIfAbsent(new NodeImpl(root)));
+        final MountedZip mountedZip = new MountedZip(zip);
+        store.mount(mountedZip, root);
+
+        // Nine nodes besides the root, five entries of 41 bytes, none of which is stored
+        Assertions.assertEquals(10, store.size());
+        Assertions.assertEquals(5, store.assetCount());
+        Assertions.assertEquals(41, store.usedSpace());
+        final Map<ArchivePath, Node> snapshot = store.snapshot(path -> !root.equals(path));
+        Assertions.assertEquals(9, snapshot.size());
+        Assertions.assertTrue(snapshot.containsKey(ArchivePaths.create("org/example")));
+        Assertions.assertEquals(9, mountedZip.unclaimedNodes());
+
+        // Deleting stores the deleted node and its parents only
+        final ArchivePath top = ArchivePaths.create("top.txt");
+        Assertions.assertNotNull(store.exclusive(() -> store.remove(store.get(top).getPath())));
+        Assertions.assertEquals(8, mountedZip.unclaimedNodes());
+        Assertions.assertNull(store.get(top));
+        Assertions.assertFalse(store.containsKey(top));
+        Assertions.assertEquals(9, store.size());
+        Assertions.assertEquals(38, store.usedSpace());
+
+        // The snapshot still holds the deleted node
+        Assertions.assertEquals("top", read(snapshot.get(top)));
+        Assertions.assertEquals(9, new ArrayList<>(snapshot.keySet()).size());
+    }
+
+    @Test
+    public void shouldKeepSnapshotsOfMountedContent() {
+        final GenericArchive mounted = mount();
+
+        final Map<ArchivePath, Node> content = mounted.getContent();
+        mounted.delete("org/other.txt");
+        mounted.add(new StringAsset("changed"), "top.txt");
+
+        Assertions.assertEquals(9, content.size());
+        Assertions.assertEquals("other", read(content.get(ArchivePaths.create("org/other.txt"))));
+        Assertions.assertEquals("top", read(content.get(ArchivePaths.create("top.txt"))));
+        Assertions.assertEquals(paths("/META-INF", "/META-INF/MANIFEST.MF", "/org/example/first.txt", "/org",
+            "/org/example", "/org/example/second.txt", "/org/other.txt", "/empty", "/top.txt"),
+            paths(content.values()));
+        Assertions.assertEquals(8, mounted.getContent().size());
+        Assertions.assertEquals("changed", read(mounted.getContent().get(ArchivePaths.create("top.txt"))));
+    }
+
+    @Test
+    public void shouldLoadClassesFromMountedArchive() throws Exception {
+        final File jar = tempDir.resolve("classes.jar").toFile();
+        ShrinkWrap.create(JavaArchive.class).add(new ClassAsset(Loaded.class), "org/jboss/shrinkwrap/impl/base/"
+            + "MountedArchiveTestCase$Loaded.class").as(ZipExporter.class).exportTo(jar);
+
+        final JavaArchive mounted = ShrinkWrap.mountZipFile(JavaArchive.class, jar);
+        try (ShrinkWrapClassLoader classLoader = new ShrinkWrapClassLoader((ClassLoader) null, mounted)) {
+            final Class<?> loaded = classLoader.loadClass(Loaded.class.getName());
+            Assertions.assertEquals(Loaded.class.getName(), loaded.getName());
+            Assertions.assertNotSame(Loaded.class, loaded);
+        }
+    }
+
+    @Test
+    public void shouldOnlyMountIntoEmptyArchive() {
+        final GenericArchive archive = ShrinkWrap.create(GenericArchive.class);
+        archive.add(new StringAsset("content"), "content.txt");
+        Assertions.assertThrows(IllegalStateException.class, () -> archive.as(ZipImporter.class).mount(zip));
+
+        final GenericArchive mounted = mount();
+        Assertions.assertThrows(IllegalStateException.class, () -> mounted.as(ZipImporter.class).mount(zip));
+    }
+
+    @Test
+    public void shouldRejectInvalidZip() throws IOException {
+        final File notZip = tempDir.resolve("not.zip").toFile();
+        Files.write(notZip.toPath(), "not a zip".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertThrows(ArchiveImportException.class,
+            () -> ShrinkWrap.create(ZipImporter.class).mount(notZip));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> ShrinkWrap.mountZipFile(GenericArchive.class, notZip));
+    }
+
+    private GenericArchive mount() {
+        return ShrinkWrap.create(ZipImporter.class, "mounted.jar").mount(zip).as(GenericArchive.class);
+    }
+
+    private static void write(final ZipOutputStream out, final String name, final String content)
+        throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+    }
+
+    private static String read(final Node node) {
+        try (InputStream in = node.getAsset().openStream()) {
+            return new String(IOUtil.asByteArray(in), StandardCharsets.UTF_8);
+        } catch (final IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+    }
+
+    private static List<String> paths(final String... paths) {
+        final List<String> list = new ArrayList<>();
+        for (final String path : paths) {
+            list.add(ArchivePaths.create(path).get());
+        }
+        return list;
+    }
+
+    private static List<String> paths(final Iterable<? extends Node> nodes) {
+        final List<String> list = new ArrayList<>();
+        nodes.forEach(node -> list.add(node.getPath().get()));
+        return list;
+    }
+
+    public static class Loaded {
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.ConfigurationBuilder;
+import org.jboss.shrinkwrap.api.Domain;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ClassAsset;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.impl.base.asset.AssetUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks adding classes with their nested classes from a package of 2000 top-level classes, each having two nested
+ * classes, located in a directory or a JAR file. {@code addClasses} finds nested classes through
+ * {@link PackageClassIndex}; {@code addClassesByPackageScan} does what {@code addClasses} did before, scanning the
+ * whole package with a regular expression filter for each class. {@code addPackage} adds the whole package, as a
+ * deployment of each test of a suite would.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=PackageClassIndexBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PackageClassIndexBenchmark {
+
+    private static final String PACKAGE_NAME = "org.jboss.shrinkwrap.benchmark.generated";
+
+    private static final int TOP_LEVEL_CLASSES = 2000;
+
+    /**
+     * Where the generated package is located
+     */
+    @Param({ "directory", "jar" })
+    public String location;
+
+    /**
+     * Number of top-level classes added per invocation
+     */
+    @Param({ "500" })
+    public int added;
+
+    private Path root;
+
+    private URLClassLoader classLoader;
+
+    private Domain domain;
+
+    private Class<?>[] classes;
+
+    @Setup
+    public void setup() throws Exception {
+        root = Files.createTempDirectory("shrinkwrap-benchmark");
+        final Path classesDir = root.resolve("classes");
+        final Path packageDir = classesDir.resolve(PACKAGE_NAME.replace('.', '/'));
+        Files.createDirectories(packageDir);
+        for (int i = 0; i < TOP_LEVEL_CLASSES; i++) {
+            final String name = "Type" + i;
+            for (final String binaryName : new String[] { name, name + "$Inner", name + "$1" }) {
+                Files.write(packageDir.resolve(binaryName + ".class"), classFile(binaryName));
+            }
+        }
+
+        File classPath = classesDir.toFile();
+        if ("jar".equals(location)) {
+            classPath = root.resolve("classes.jar").toFile();
+            try (ZipOutputStream jar = new ZipOutputStream(Files.newOutputStream(classPath.toPath()));
+                Stream<Path> files = Files.walk(classesDir)) {
+                files.filter(file -> !file.equals(classesDir)).forEach(file -> addEntry(jar, classesDir, file));
+            }
+        }
+        classLoader = new URLClassLoader(new URL[] { classPath.toURI().toURL() }, null);
+        domain = ShrinkWrap.createDomain(new ConfigurationBuilder().classLoaders(
+            Arrays.asList(classLoader, PackageClassIndexBenchmark.class.getClassLoader())));
+
+        classes = new Class<?>[added];
+        for (int i = 0; i < added; i++) {
+            classes[i] = classLoader.loadClass(PACKAGE_NAME + ".Type" + i * (TOP_LEVEL_CLASSES / added));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        classLoader.close();
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public JavaArchive addClasses() {
+        return domain.getArchiveFactory().create(JavaArchive.class).addClasses(classes);
+    }
+
+    @Benchmark
+    public JavaArchive addClassesByPackageScan() {
+        final JavaArchive archive = domain.getArchiveFactory().create(JavaArchive.class);
+        for (final Class<?> clazz : classes) {
+            archive.add(new ClassAsset(clazz), AssetUtil.getFullPathForClassResource(clazz));
+            final String expression = "/" + clazz.getName().replace('.', '/') + "\\$.*";
+            archive.addPackages(false, (ArchivePath path) -> path.get().matches(expression), PACKAGE_NAME);
+        }
+        return archive;
+    }
+
+    @Benchmark
+    public JavaArchive addPackage() {
+        return domain.getArchiveFactory().create(JavaArchive.class).addPackages(false, PACKAGE_NAME);
+    }
+
+    private static void addEntry(final ZipOutputStream jar, final Path base, final Path file) {
+        try {
+            final String name = base.relativize(file).toString().replace(File.separatorChar, '/');
+            if (Files.isDirectory(file)) {
+                // Directory entries let class loaders find the package
+                jar.putNextEntry(new ZipEntry(name + '/'));
+            } else {
+                jar.putNextEntry(new ZipEntry(name));
+                Files.copy(file, jar);
+            }
+            jar.closeEntry();
+        } catch (final IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Generates the smallest valid class file: a public class without members extending {@link Object}
+     */
+    private static byte[] classFile(final String binaryName) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0); // minor version
+            out.writeShort(52); // Java 8
+            out.writeShort(5); // constant pool count
+            out.writeByte(7); // #1 Class #2
+            out.writeShort(2);
+            out.writeByte(1); // #2 Utf8
+            out.writeUTF((PACKAGE_NAME + "." + binaryName).replace('.', '/'));
+            out.writeByte(7); // #3 Class #4
+            out.writeShort(4);
+            out.writeByte(1); // #4 Utf8
+            out.writeUTF("java/lang/Object");
+            out.writeShort(0x0021); // ACC_PUBLIC | ACC_SUPER
+            out.writeShort(1); // this class
+            out.writeShort(3); // super class
+            out.writeShort(0); // interfaces
+            out.writeShort(0); // fields
+            out.writeShort(0); // methods
+            out.writeShort(0); // attributes
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.shrinkwrap.api.asset.ClassLoaderAsset;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Ensures that {@link PackageClassIndex} finds exactly the classes of a package and the nested classes of a class.
+ */
+public class PackageClassIndexTestCase {
+
+    private static final ClassLoader CL = PackageClassIndexTestCase.class.getClassLoader();
+
+    @Test
+    public void shouldFindNestedClassesAtAnyDepth() {
+        Assertions.assertEquals(
+            new HashSet<>(Arrays.asList(Outer.Inner.class.getName(), Outer.Inner.Deep.class.getName())),
+            findNestedClasses(Outer.class));
+    }
+
+    @Test
+    public void shouldFindNestedClassesOfNestedClass() {
+        Assertions.assertEquals(new HashSet<>(Arrays.asList(Outer.Inner.Deep.class.getName())),
+            findNestedClasses(Outer.Inner.class));
+    }
+
+    @Test
+    public void shouldNotFindClassesSharingNamePrefix() {
+        // URLPackageScannerTestCase shares the name prefix but is a top-level class
+        Assertions.assertTrue(findNestedClasses(URLPackageScanner.class).contains(
+            URLPackageScanner.Callback.class.getName()));
+        Assertions.assertFalse(findNestedClasses(URLPackageScanner.class).contains(
+            URLPackageScannerTestCase.class.getName()));
+    }
+
+    @Test
+    public void shouldProvideLoadableAssets() {
+        PackageClassIndex.getInstance().findNestedClasses(CL, Outer.class.getName(),
+            (className, asset) -> Assertions.assertNotNull(((ClassLoaderAsset) asset).openStream(),
+                "Asset of " + className + " should be readable"));
+    }
+
+    @Test
+    public void shouldRejectMissingArguments() {
+        final PackageClassIndex index = PackageClassIndex.getInstance();
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> index.findNestedClasses(null, Outer.class.getName(), (className, asset) -> {}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> index.findNestedClasses(CL, null, (className, asset) -> {}));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> index.findNestedClasses(CL, Outer.class.getName(), null));
+    }
+
+    @Test
+    public void shouldFindClassesOfPackageInJar(@TempDir final Path directory) throws IOException {
+        final File jar = directory.resolve("classes.jar").toFile();
+        writeJar(jar, "com/acme/A.class", "com/acme/A$1.class", "com/acme/sub/B.class", "com/acmetools/C.class",
+            "com/acme-x/D.class", "com/acmeE.class");
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null)) {
+            Assertions.assertEquals(new HashSet<>(Arrays.asList("com.acme.A", "com.acme.A$1")),
+                findClasses(classLoader, "com.acme", false));
+            Assertions.assertEquals(new HashSet<>(Arrays.asList("com.acme.A", "com.acme.A$1", "com.acme.sub.B")),
+                findClasses(classLoader, "com.acme", true));
+        }
+    }
+
+    @Test
+    public void shouldFindClassesOfPackageInDirectoryAfterChanges(@TempDir final Path directory) throws IOException {
+        final Path packageDirectory = Files.createDirectories(directory.resolve("com/acme/sub"));
+        Files.createFile(directory.resolve("com/acme/A.class"));
+        Files.createFile(packageDirectory.resolve("B.class"));
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { directory.toUri().toURL() }, null)) {
+            Assertions.assertEquals(new HashSet<>(Arrays.asList("com.acme.A", "com.acme.sub.B")),
+                findClasses(classLoader, "com.acme", true));
+
+            Files.createDirectories(packageDirectory.resolve("deep"));
+            Files.createFile(packageDirectory.resolve("deep/C.class"));
+            // Directory modification times may have a coarse resolution
+            Assertions.assertTrue(packageDirectory.toFile().setLastModified(System.currentTimeMillis() + 10000));
+            Assertions.assertEquals(new HashSet<>(Arrays.asList("com.acme.A", "com.acme.sub.B", "com.acme.sub.deep.C")),
+                findClasses(classLoader, "com.acme", true));
+            Assertions.assertEquals(new HashSet<>(Arrays.asList("com.acme.A")),
+                findClasses(classLoader, "com.acme", false));
+        }
+    }
+
+    @Test
+    public void shouldFindClassesOfChangedJar(@TempDir final Path directory) throws IOException {
+        final File jar = directory.resolve("changing.jar").toFile();
+        writeJar(jar, "com/acme/A.class");
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null)) {
+            Assertions.assertEquals(new HashSet<>(Arrays.asList("com.acme.A")),
+                findClasses(classLoader, "com.acme", false));
+        }
+
+        writeJar(jar, "com/acme/A.class", "com/acme/B.class");
+        Assertions.assertTrue(jar.setLastModified(jar.lastModified() + 10000));
+        // A class loader keeps the JAR it opened, so the changed JAR is read with another one
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null)) {
+            Assertions.assertEquals(new HashSet<>(Arrays.asList("com.acme.A", "com.acme.B")),
+                findClasses(classLoader, "com.acme", false));
+        }
+    }
+
+    @Test
+    public void shouldKeepJarEntriesInPersistentDirectory(@TempDir final Path directory) throws IOException {
+        final File jar = directory.resolve("persisted.jar").toFile();
+        writeJar(jar, "com/acme/A.class");
+        final Path persistent = directory.resolve("index");
+        Files.createDirectories(persistent);
+        // An unreadable index is ignored and replaced
+        Files.write(persistent.resolve("persisted.jar-" + Integer.toHexString(jar.getAbsolutePath().hashCode())
+            + ".index"), new byte[] { 1, 2, 3 });
+        System.setProperty(PackageClassIndex.PERSISTENT_DIRECTORY_PROPERTY, persistent.toString());
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { jar.toURI().toURL() }, null)) {
+            Assertions.assertEquals(new HashSet<>(Arrays.asList("com.acme.A")),
+                findClasses(classLoader, "com.acme", true));
+        } finally {
+            System.clearProperty(PackageClassIndex.PERSISTENT_DIRECTORY_PROPERTY);
+        }
+        try (Stream<Path> kept = Files.list(persistent)) {
+            final Path index = kept.findFirst().orElseThrow(AssertionError::new);
+            Assertions.assertTrue(Files.size(index) > 3, "Class entries should be kept in " + index);
+        }
+    }
+
+    @Test
+    public void shouldRejectMissingPackageName() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> PackageClassIndex.getInstance().findClasses(CL, null, false, (className, asset) -> {}));
+    }
+
+    private static Set<String> findClasses(final ClassLoader classLoader, final String packageName,
+        final boolean recursive) {
+        final Set<String> found = new HashSet<>();
+        PackageClassIndex.getInstance().findClasses(classLoader, packageName, recursive,
+            (className, asset) -> found.add(className));
+        return found;
+    }
+
+    /**
+     * Writes a JAR with the given entries and their directories, which class loaders need to find packages
+     */
+    private static void writeJar(final File jar, final String... names) throws IOException {
+        final Set<String> directories = new HashSet<>();
+        try (OutputStream out = Files.newOutputStream(jar.toPath()); ZipOutputStream zip = new ZipOutputStream(out)) {
+            for (final String name : names) {
+                for (int end = name.indexOf('/'); end >= 0; end = name.indexOf('/', end + 1)) {
+                    if (directories.add(name.substring(0, end + 1))) {
+                        zip.putNextEntry(new ZipEntry(name.substring(0, end + 1)));
+                        zip.closeEntry();
+                    }
+                }
+                zip.putNextEntry(new ZipEntry(name));
+                zip.write(new byte[] { (byte) 0xCA, (byte) 0xFE });
+                zip.closeEntry();
+            }
+        }
+    }
+
+    private static Set<String> findNestedClasses(final Class<?> clazz) {
+        final Set<String> found = new HashSet<>();
+        PackageClassIndex.getInstance().findNestedClasses(CL, clazz.getName(),
+            (className, asset) -> found.add(className));
+        return found;
+    }
+
+    static class Outer {
+        static class Inner {
+            static class Deep {
+            }
+        }
+    }
+}
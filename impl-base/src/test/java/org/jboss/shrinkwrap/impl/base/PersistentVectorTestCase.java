@@ -0,0 +1,96 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Ensures that {@link PersistentVector} behaves like a list, and that modifying it leaves earlier versions unchanged.
+ */
+public class PersistentVectorTestCase {
+
+    @Test
+    public void shouldMatchListOnRandomOperations() {
+        final Random random = new Random(17);
+        final List<Integer> expected = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 40000; i++) {
+            if (expected.isEmpty() || random.nextInt(3) != 0) {
+                expected.add(i);
+                vector = vector.append(i);
+            } else {
+                final int index = random.nextInt(expected.size());
+                final Integer element = random.nextBoolean() ? null : -i;
+                expected.set(index, element);
+                vector = vector.set(index, element);
+            }
+        }
+        assertMatches(expected, vector);
+    }
+
+    @Test
+    public void shouldLeaveEarlierVersionsUnchanged() {
+        final List<List<Integer>> expected = new ArrayList<>();
+        final List<PersistentVector<Integer>> versions = new ArrayList<>();
+        final List<Integer> current = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 3000; i++) {
+            current.add(i);
+            vector = vector.append(i);
+            if (i % 7 == 0) {
+                current.set(i / 2, null);
+                vector = vector.set(i / 2, null);
+            }
+            if (i % 97 == 0) {
+                expected.add(new ArrayList<>(current));
+                versions.add(vector);
+            }
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            assertMatches(expected.get(i), versions.get(i));
+        }
+    }
+
+    @Test
+    public void shouldRejectPositionsOutOfBounds() {
+        final PersistentVector<String> vector = PersistentVector.<String> empty().append("a");
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> vector.get(1));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> vector.set(-1, "b"));
+    }
+
+    private static void assertMatches(final List<Integer> expected, final PersistentVector<Integer> vector) {
+        Assertions.assertEquals(expected.size(), vector.length());
+        final List<Integer> present = new ArrayList<>();
+        for (int i = 0; i < expected.size(); i++) {
+            Assertions.assertEquals(expected.get(i), vector.get(i), "Element " + i);
+            if (expected.get(i) != null) {
+                present.add(expected.get(i));
+            }
+        }
+        Assertions.assertEquals(present.size(), vector.count());
+        final List<Integer> iterated = new ArrayList<>();
+        vector.forEach(iterated::add);
+        Assertions.assertEquals(present, iterated);
+        Assertions.assertFalse(iterated.stream().anyMatch(Objects::isNull));
+    }
+}
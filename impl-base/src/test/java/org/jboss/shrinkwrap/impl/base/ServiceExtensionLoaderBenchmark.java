@@ -0,0 +1,78 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base;
+
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.GenericArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link Archive#as(Class)} through {@link ServiceExtensionLoader} once the extension types are cached.
+ * {@code as(WebArchive.class)} on a {@link JavaArchive} also goes through the loading of the archive the
+ * {@link WebArchive} implementation wraps.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=ServiceExtensionLoaderBenchmark}, adding {@code -prof gc} to the
+ * JMH arguments to see the allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceExtensionLoaderBenchmark {
+
+    private GenericArchive archive;
+
+    private JavaArchive javaArchive;
+
+    @Setup
+    public void setup() {
+        archive = ShrinkWrap.create(GenericArchive.class, "benchmark.jar");
+        javaArchive = archive.as(JavaArchive.class);
+    }
+
+    @Benchmark
+    public JavaArchive asJavaArchive() {
+        return archive.as(JavaArchive.class);
+    }
+
+    @Benchmark
+    public ZipExporter asZipExporter() {
+        return javaArchive.as(ZipExporter.class);
+    }
+
+    @Benchmark
+    public WebArchive asWebArchive() {
+        return javaArchive.as(WebArchive.class);
+    }
+}
@@ -18,11 +18,18 @@ package org.jboss.shrinkwrap.impl.base;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.Assignable;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
 import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -64,6 +71,31 @@ public class ServiceExtensionLoaderTestCase {
         Assertions.assertTrue(loader.isCached(Extension.class), "Should be placed in cache");
     }
 
+    @Test
+    public void shouldLoadExtensionsConcurrently() throws Exception {
+        final ServiceExtensionLoader loader = createLoaderUsingTccl();
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "test.jar");
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<Void>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executorService.submit((Callable<Void>) () -> {
+                    for (int j = 0; j < 1000; j++) {
+                        Assertions.assertSame(ExtensionImpl.class, loader.load(Extension.class, archive).getClass());
+                        Assertions.assertNotNull(loader.load(WebArchive.class, archive));
+                        Assertions.assertNotNull(loader.load(ZipExporter.class, archive));
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<Void> result : results) {
+                result.get();
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     @Test
     public void shouldThrowExceptionOnMissingExtension() {
         Assertions.assertThrows(RuntimeException.class,
@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.asset;
+
+import java.io.File;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipFile;
+
+import org.jboss.shrinkwrap.api.GenericArchive;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.impl.base.io.IOUtil;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Ensures that {@link ZipFileHandles} shares open {@link ZipFile}s and closes them when they are stale or idle.
+ */
+public class ZipFileHandlesTestCase {
+
+    private static final ZipFileHandles HANDLES = ZipFileHandles.getInstance();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldShareOpenFile() throws Exception {
+        final File file = createZip("a", "b");
+        try (ZipFileHandles.Handle first = HANDLES.acquire(file);
+            ZipFileHandles.Handle second = HANDLES.acquire(file)) {
+            Assertions.assertSame(first.getZipFile(), second.getZipFile());
+        }
+    }
+
+    @Test
+    public void shouldReadEntriesThroughSharedFile() throws Exception {
+        final File file = createZip("first", "second");
+        try (ZipFileHandles.Handle handle = HANDLES.acquire(file)) {
+            final ZipFile zipFile = handle.getZipFile();
+            final ZipFileEntryAsset first = new ZipFileEntryAsset(file, zipFile.getEntry("0"));
+            final ZipFileEntryAsset second = new ZipFileEntryAsset(file, zipFile.getEntry("1"));
+            try (InputStream firstStream = first.openStream(); InputStream secondStream = second.openStream()) {
+                Assertions.assertEquals("first", new String(IOUtil.asByteArray(firstStream), StandardCharsets.UTF_8));
+                Assertions.assertEquals("second", new String(IOUtil.asByteArray(secondStream),
+                    StandardCharsets.UTF_8));
+            }
+            // Closing the streams must not close the file still held
+            Assertions.assertNotNull(zipFile.getEntry("0"));
+        }
+    }
+
+    @Test
+    public void shouldReopenChangedFile() throws Exception {
+        final File file = createZip("content");
+        try (ZipFileHandles.Handle stale = HANDLES.acquire(file)) {
+            Files.write(file.toPath(), Files.readAllBytes(createZip("other", "content").toPath()));
+            try (ZipFileHandles.Handle current = HANDLES.acquire(file)) {
+                Assertions.assertNotSame(stale.getZipFile(), current.getZipFile());
+                Assertions.assertNotNull(current.getZipFile().getEntry("1"));
+            }
+            // The stale file stays usable while held
+            Assertions.assertNotNull(stale.getZipFile().getEntry("0"));
+        }
+    }
+
+    @Test
+    public void shouldCloseIdleFile() throws Exception {
+        final File file = createZip("content");
+        final ZipFile zipFile;
+        try (ZipFileHandles.Handle handle = HANDLES.acquire(file)) {
+            zipFile = handle.getZipFile();
+        }
+        final long deadline = System.currentTimeMillis() + ZipFileHandles.IDLE_TIMEOUT_MILLIS * 5;
+        while (!isClosed(zipFile) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        Assertions.assertTrue(isClosed(zipFile), "Idle file should have been closed");
+        try (ZipFileHandles.Handle handle = HANDLES.acquire(file)) {
+            Assertions.assertNotSame(zipFile, handle.getZipFile());
+        }
+    }
+
+    @Test
+    public void shouldRejectMissingArguments() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> HANDLES.acquire(null));
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> HANDLES.openStream(createZip("content"), null));
+    }
+
+    private File createZip(final String... contents) {
+        final GenericArchive archive = ShrinkWrap.create(GenericArchive.class);
+        for (int i = 0; i < contents.length; i++) {
+            archive.add(new StringAsset(contents[i]), String.valueOf(i));
+        }
+        final File file = tempDir.resolve("archive" + System.nanoTime() + ".zip").toFile();
+        archive.as(ZipExporter.class).exportTo(file);
+        return file;
+    }
+
+    private static boolean isClosed(final ZipFile zipFile) {
+        try {
+            zipFile.size();
+            return false;
+        } catch (final IllegalStateException e) {
+            return true;
+        }
+    }
+}
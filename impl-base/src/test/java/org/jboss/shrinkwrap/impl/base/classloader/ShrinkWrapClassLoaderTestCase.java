@@ -18,19 +18,35 @@ package org.jboss.shrinkwrap.impl.base.classloader;
 
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Logger;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.GenericArchive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
 import org.jboss.shrinkwrap.api.asset.StringAsset;
 import org.jboss.shrinkwrap.api.classloader.ShrinkWrapClassLoader;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.exporter.ZipStoredExporter;
+import org.jboss.shrinkwrap.api.spec.EnterpriseArchive;
 import org.jboss.shrinkwrap.api.spec.JavaArchive;
 import org.jboss.shrinkwrap.api.spec.WebArchive;
 import org.jboss.shrinkwrap.impl.base.io.IOUtil;
@@ -38,6 +54,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Ensures the {@link ShrinkWrapClassLoader} is working as contracted
@@ -274,10 +291,133 @@ public class ShrinkWrapClassLoaderTestCase {
        }
      }
 
+    /**
+     * Ensures classes are defined with the archive URL as code source and within a defined package
+     */
+    @Test
+    public void shouldDefineClassWithArchiveCodeSourceAndPackage() throws ClassNotFoundException {
+        final Class<?> loadedTestClass = Class.forName(applicationClassLoaderClass.getName(), false,
+            shrinkWrapClassLoader);
+
+        Assertions.assertEquals("archive:" + archive.getName() + "/",
+            loadedTestClass.getProtectionDomain().getCodeSource().getLocation().toString());
+        Assertions.assertNotNull(loadedTestClass.getPackage());
+        Assertions.assertEquals(applicationClassLoaderClass.getPackage().getName(),
+            loadedTestClass.getPackage().getName());
+    }
+
+    /**
+     * Ensures resources are found in every archive, in order, including content added after the loader was created
+     */
+    @Test
+    public void shouldFindResourcesOfAllArchivesIncludingLaterContent() throws IOException {
+        final GenericArchive first = ShrinkWrap.create(GenericArchive.class, "first.jar")
+            .add(new StringAsset("first"), "shared.txt");
+        final GenericArchive second = ShrinkWrap.create(GenericArchive.class, "second.jar")
+            .add(new StringAsset("second"), "shared.txt");
+        try (final ShrinkWrapClassLoader cl = new ShrinkWrapClassLoader((ClassLoader) null, first, second)) {
+            final List<String> contents = new ArrayList<>();
+            for (final URL url : Collections.list(cl.getResources("shared.txt"))) {
+                contents.add(read(url));
+            }
+            Assertions.assertEquals(Arrays.asList("first", "second"), contents);
+
+            Assertions.assertNull(cl.getResource("later.txt"));
+            second.add(new StringAsset("later"), "later.txt");
+            Assertions.assertEquals("later", read(cl.getResource("later.txt")));
+
+            first.delete("shared.txt");
+            Assertions.assertEquals("second", read(cl.getResource("shared.txt")));
+        }
+    }
+
+    /**
+     * Ensures a class is defined once when loaded from several threads at once
+     */
+    @Test
+    public void shouldLoadClassFromSeveralThreads() throws Exception {
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final List<Callable<Class<?>>> loads = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                loads.add(() -> Class.forName(applicationClassLoaderClass.getName(), false, shrinkWrapClassLoader));
+            }
+            Class<?> loaded = null;
+            for (final Future<Class<?>> future : executorService.invokeAll(loads)) {
+                if (loaded == null) {
+                    loaded = future.get();
+                }
+                Assertions.assertSame(loaded, future.get());
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Ensures classes and resources are loaded from library JARs however they were added to the archive
+     */
+    @Test
+    public void shouldLoadClassesAndResourcesFromLibraries(@TempDir final Path directory) throws Exception {
+        final JavaArchive library = ShrinkWrap.create(JavaArchive.class, "library.jar")
+            .addClass(applicationClassLoaderClass).add(new StringAsset("library"), "META-INF/library.txt");
+        final File file = directory.resolve("library.jar").toFile();
+        library.as(ZipExporter.class).exportTo(file);
+        final List<Archive<?>> archives = Arrays.asList(
+            ShrinkWrap.create(WebArchive.class, "archive.war").addAsLibrary(library),
+            ShrinkWrap.create(WebArchive.class, "deflated.war").add(
+                new ByteArrayAsset(library.as(ZipExporter.class).exportAsInputStream()), "WEB-INF/lib/library.jar"),
+            ShrinkWrap.create(WebArchive.class, "stored.war").add(
+                new ByteArrayAsset(library.as(ZipStoredExporter.class).exportAsInputStream()),
+                "WEB-INF/lib/library.jar"),
+            ShrinkWrap.create(WebArchive.class, "file.war").add(new FileAsset(file), "WEB-INF/lib/library.jar"),
+            ShrinkWrap.create(EnterpriseArchive.class, "file.ear").addAsLibrary(file));
+        for (final Archive<?> archive : archives) {
+            try (final ShrinkWrapClassLoader cl = new ShrinkWrapClassLoader((ClassLoader) null, archive)) {
+                final Class<?> loadedTestClass = Class.forName(applicationClassLoaderClass.getName(), false, cl);
+                Assertions.assertSame(cl, loadedTestClass.getClassLoader(), archive.getName());
+                final String location = loadedTestClass.getProtectionDomain().getCodeSource().getLocation().toString();
+                Assertions.assertTrue(location.startsWith("archive:" + archive.getName() + "/"), location);
+                Assertions.assertTrue(location.endsWith("lib/library.jar!/"), location);
+
+                Assertions.assertEquals("library", read(cl.getResource("META-INF/library.txt")), archive.getName());
+                Assertions.assertEquals("library", read(cl.getResource("/META-INF/library.txt")), archive.getName());
+                Assertions.assertEquals(1, Collections.list(cl.getResources("META-INF/library.txt")).size());
+                Assertions.assertNotNull(cl.getResource(getResourceNameOfClass(applicationClassLoaderClass)));
+                Assertions.assertNull(cl.getResource("META-INF/missing.txt"), archive.getName());
+            }
+        }
+    }
+
+    /**
+     * Ensures the classes of the archives are searched before their libraries
+     */
+    @Test
+    public void shouldSearchClassesBeforeLibraries() throws IOException {
+        final JavaArchive library = ShrinkWrap.create(JavaArchive.class, "library.jar")
+            .add(new StringAsset("library"), "shared.txt");
+        final WebArchive war = ShrinkWrap.create(WebArchive.class, "test.war").addAsLibrary(library)
+            .addAsResource(new StringAsset("classes"), "shared.txt");
+        try (final ShrinkWrapClassLoader cl = new ShrinkWrapClassLoader((ClassLoader) null, war)) {
+            Assertions.assertEquals("classes", read(cl.getResource("shared.txt")));
+            final List<String> contents = new ArrayList<>();
+            for (final URL url : Collections.list(cl.getResources("shared.txt"))) {
+                contents.add(read(url));
+            }
+            Assertions.assertEquals(Arrays.asList("classes", "library"), contents);
+        }
+    }
+
     // -------------------------------------------------------------------------------------||
     // Internal Helper Methods ------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
 
+    private static String read(final URL url) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IOUtil.copyWithClose(url.openStream(), out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
     /**
      * Obtains the resource name for a given class
      */
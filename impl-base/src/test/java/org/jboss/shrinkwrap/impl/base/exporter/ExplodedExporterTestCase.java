@@ -22,16 +22,30 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.InputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
 import org.jboss.shrinkwrap.api.exporter.ArchiveExportException;
+import org.jboss.shrinkwrap.api.exporter.ExplodedExportStrategy;
 import org.jboss.shrinkwrap.api.exporter.ExplodedExporter;
 import org.jboss.shrinkwrap.api.exporter.StreamExporter;
 import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
 import org.jboss.shrinkwrap.impl.base.TestIOUtil;
 import org.jboss.shrinkwrap.impl.base.io.IOUtil;
 import org.jboss.shrinkwrap.impl.base.path.BasicPath;
@@ -325,6 +339,225 @@ public class ExplodedExporterTestCase extends ExportTestBase {
                 () -> createArchiveWithAssets().as(ExplodedExporter.class).exportExploded(directory));
     }
 
+    /**
+     * Ensures an incremental export only writes the files whose content changed
+     */
+    @Test
+    public void testIncrementalExportWritesOnlyChangedFiles() throws Exception {
+        final File directory = createTempDirectory("testIncrementalExportWritesOnlyChangedFiles");
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "incremental.jar")
+            .add(new StringAsset("unchanged"), "a/unchanged.txt").add(new StringAsset("before"), "a/changed.txt")
+            .add(new StringAsset("same size"), "b/resized.txt");
+        final File exported = archive.as(ExplodedExporter.class).incremental(true).exportExploded(directory);
+        final long old = System.currentTimeMillis() - 100000;
+        for (final String name : new String[] { "a/unchanged.txt", "a/changed.txt", "b/resized.txt" }) {
+            Assertions.assertTrue(new File(exported, name).setLastModified(old));
+        }
+
+        archive.add(new StringAsset("after!"), "a/changed.txt").add(new StringAsset("other size"), "b/resized.txt");
+        archive.as(ExplodedExporter.class).incremental(true).exportExploded(directory);
+
+        Assertions.assertEquals(old, new File(exported, "a/unchanged.txt").lastModified());
+        Assertions.assertEquals("after!", read(new File(exported, "a/changed.txt")));
+        Assertions.assertEquals("other size", read(new File(exported, "b/resized.txt")));
+    }
+
+    /**
+     * Ensures an incremental export deletes what is not part of the archive, including in nested archive directories
+     */
+    @Test
+    public void testIncrementalExportDeletesRemovedContent() throws Exception {
+        final File directory = createTempDirectory("testIncrementalExportDeletesRemovedContent");
+        final JavaArchive nested = ShrinkWrap.create(JavaArchive.class, "nested.jar")
+            .add(new StringAsset("kept"), "kept.txt").add(new StringAsset("removed"), "removed.txt");
+        final WebArchive archive = ShrinkWrap.create(WebArchive.class, "incremental.war")
+            .add(new StringAsset("kept"), "kept.txt").add(new StringAsset("removed"), "dir/removed.txt")
+            .add(new StringAsset("file"), "replaced").addAsLibrary(nested);
+        final File exported = archive.as(ExplodedExporter.class).incremental(true).exportExploded(directory);
+        Assertions.assertTrue(new File(exported, "stray/file.txt").getParentFile().mkdirs());
+        Assertions.assertTrue(new File(exported, "stray/file.txt").createNewFile());
+
+        archive.delete("dir/removed.txt");
+        archive.delete("replaced");
+        archive.addAsDirectory("replaced");
+        nested.delete("removed.txt");
+        archive.as(ExplodedExporter.class).incremental(true).exportExploded(directory);
+
+        Assertions.assertEquals("kept", read(new File(exported, "kept.txt")));
+        Assertions.assertTrue(new File(exported, "dir").isDirectory());
+        Assertions.assertFalse(new File(exported, "dir/removed.txt").exists());
+        Assertions.assertTrue(new File(exported, "replaced").isDirectory());
+        Assertions.assertFalse(new File(exported, "stray").exists());
+        Assertions.assertEquals("kept", read(new File(exported, "WEB-INF/lib/nested.jar/kept.txt")));
+        Assertions.assertFalse(new File(exported, "WEB-INF/lib/nested.jar/removed.txt").exists());
+    }
+
+    /**
+     * Ensures a regular export leaves files that are not part of the archive in place
+     */
+    @Test
+    public void testExportKeepsFilesNotInArchive() throws Exception {
+        final File directory = createTempDirectory("testExportKeepsFilesNotInArchive");
+        final File exported = createArchiveWithAssets().as(ExplodedExporter.class).exportExploded(directory);
+        final File stray = new File(exported, "stray.txt");
+        Assertions.assertTrue(stray.createNewFile());
+
+        createArchiveWithAssets().as(ExplodedExporter.class).exportExploded(directory);
+        Assertions.assertTrue(stray.exists());
+    }
+
+    /**
+     * Ensures files are written correctly when written in parallel on an executor
+     */
+    @Test
+    public void testExportOnExecutor() throws Exception {
+        final File directory = createTempDirectory("testExportOnExecutor");
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "parallel.jar");
+            for (int i = 0; i < 200; i++) {
+                archive.add(new StringAsset("content " + i), "dir" + i % 10 + "/file" + i);
+            }
+            final File exported = archive.as(ExplodedExporter.class).parallel(executorService)
+                .exportExploded(directory);
+            archive.add(new StringAsset("changed"), "dir3/file3");
+            executorService.submit(() -> archive.as(ExplodedExporter.class).incremental(true)
+                .parallel(executorService).exportExploded(directory)).get(30, TimeUnit.SECONDS);
+
+            for (int i = 0; i < 200; i++) {
+                Assertions.assertEquals(i == 3 ? "changed" : "content " + i,
+                    read(new File(exported, "dir" + i % 10 + "/file" + i)));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Ensures a failing asset fails an export running on an executor
+     */
+    @Test
+    public void testExportOnExecutorThrowsExceptionOnAssetWrite() throws Exception {
+        final File directory = createTempDirectory("testExportOnExecutorThrowsExceptionOnAssetWrite");
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "failing.jar")
+                .add(new StringAsset("good"), "good.txt");
+            archive.add(() -> {
+                throw new RuntimeException("Mock Exception getting Stream");
+            }, new BasicPath("badAsset"));
+
+            Assertions.assertThrows(ArchiveExportException.class,
+                () -> archive.as(ExplodedExporter.class).parallel(executorService).exportExploded(directory));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Ensures every file is written on the calling thread when a saturated executor rejects the writes
+     */
+    @Test
+    public void testExportOnSaturatedExecutor() throws Exception {
+        final File directory = createTempDirectory("testExportOnSaturatedExecutor");
+        final ThreadPoolExecutor executorService = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy());
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executorService.execute(() -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "saturated.jar");
+            for (int i = 0; i < 20; i++) {
+                archive.add(new StringAsset("file" + i), "dir/file" + i + ".txt");
+            }
+
+            final File exported = archive.as(ExplodedExporter.class).parallel(executorService)
+                .exportExploded(directory);
+
+            for (int i = 0; i < 20; i++) {
+                Assertions.assertEquals("file" + i, read(new File(exported, "dir/file" + i + ".txt")));
+            }
+        } finally {
+            release.countDown();
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Ensures file assets are copied by default, leaving the exported file independent of its source
+     */
+    @Test
+    public void testExportCopiesFileAssets() throws Exception {
+        final File directory = createTempDirectory("testExportCopiesFileAssets");
+        final File source = createSource(directory, "copied");
+        final File exported = ShrinkWrap.create(JavaArchive.class, "copy.jar").add(new FileAsset(source), "file.txt")
+            .as(ExplodedExporter.class).exportExploded(directory);
+        final Path file = new File(exported, "file.txt").toPath();
+
+        Assertions.assertFalse(Files.isSymbolicLink(file));
+        Assertions.assertFalse(Files.isSameFile(file, source.toPath()));
+        Assertions.assertEquals("copied", read(file.toFile()));
+    }
+
+    /**
+     * Ensures file assets are hard linked to their source, and that a later export that copies does not write through
+     * the link into the source
+     */
+    @Test
+    public void testExportHardLinksFileAssets() throws Exception {
+        final File directory = createTempDirectory("testExportHardLinksFileAssets");
+        final File source = createSource(directory, "linked");
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "link.jar")
+            .add(new FileAsset(source), "file.txt").add(new FileAsset(source), "other.txt");
+        final File exported = archive.as(ExplodedExporter.class).strategy(ExplodedExportStrategy.HARD_LINK)
+            .exportExploded(directory);
+        Assertions.assertTrue(Files.isSameFile(new File(exported, "file.txt").toPath(), source.toPath()));
+
+        archive.add(new StringAsset("replaced"), "other.txt");
+        archive.as(ExplodedExporter.class).incremental(true).exportExploded(directory);
+
+        Assertions.assertEquals("linked", read(source));
+        Assertions.assertEquals("replaced", read(new File(exported, "other.txt")));
+        Assertions.assertFalse(Files.isSameFile(new File(exported, "file.txt").toPath(), source.toPath()));
+        Assertions.assertEquals("linked", read(new File(exported, "file.txt")));
+    }
+
+    /**
+     * Ensures file assets are symbolically linked to their source on request, and kept by an incremental export
+     */
+    @Test
+    public void testExportSymbolicallyLinksFileAssets() throws Exception {
+        final File directory = createTempDirectory("testExportSymbolicallyLinksFileAssets");
+        final File source = createSource(directory, "linked");
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "symlink.jar")
+            .add(new FileAsset(source), "file.txt");
+        final File exported = archive.as(ExplodedExporter.class).strategy(ExplodedExportStrategy.SYMBOLIC_LINK)
+            .exportExploded(directory);
+        final Path file = new File(exported, "file.txt").toPath();
+        // Platforms without symbolic links copy instead
+        if (Files.isSymbolicLink(file)) {
+            Assertions.assertEquals(source.getAbsoluteFile().toPath(), Files.readSymbolicLink(file));
+            archive.as(ExplodedExporter.class).strategy(ExplodedExportStrategy.SYMBOLIC_LINK).incremental(true)
+                .exportExploded(directory);
+            Assertions.assertTrue(Files.isSymbolicLink(file));
+        }
+        Assertions.assertEquals("linked", read(file.toFile()));
+    }
+
+    /**
+     * Ensures a null strategy is rejected
+     */
+    @Test
+    public void testExportRequiresStrategy() {
+        Assertions.assertThrows(IllegalArgumentException.class,
+            () -> createArchiveWithAssets().as(ExplodedExporter.class).strategy(null));
+    }
+
     // -------------------------------------------------------------------------------------||
     // Internal Helper Methods ------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -357,4 +590,17 @@ public class ExplodedExporterTestCase extends ExportTestBase {
             Assertions.assertArrayEquals(expectedContents, actualContents);
         }
     }
+
+    /**
+     * Creates a source file for file assets next to the export
+     */
+    private static File createSource(final File directory, final String content) throws IOException {
+        final File source = new File(directory, "source.txt");
+        Files.write(source.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return source;
+    }
+
+    private static String read(final File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
 }
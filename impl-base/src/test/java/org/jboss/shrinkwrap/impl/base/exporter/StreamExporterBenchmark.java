@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.exporter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.exporter.StreamExporter;
+import org.jboss.shrinkwrap.api.exporter.TarExporter;
+import org.jboss.shrinkwrap.api.exporter.TarGzExporter;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the ways of consuming {@link StreamExporter#exportAsInputStream()} for the ZIP, TAR and TAR.GZ
+ * exporters. The single-byte variant reproduces the access pattern every export went through before the on-demand
+ * streams supported bulk reads.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=StreamExporterBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StreamExporterBenchmark {
+
+    /**
+     * Exporter under test
+     */
+    @Param({ "zip", "tar", "tar.gz" })
+    public String format;
+
+    /**
+     * Number of assets in the exported archive
+     */
+    @Param({ "500" })
+    public int entries;
+
+    /**
+     * Size of each asset in bytes
+     */
+    @Param({ "16384" })
+    public int entrySize;
+
+    private JavaArchive archive;
+
+    private Class<? extends StreamExporter> exporter;
+
+    @Setup
+    public void setup() {
+        switch (format) {
+            case "zip":
+                exporter = ZipExporter.class;
+                break;
+            case "tar":
+                exporter = TarExporter.class;
+                break;
+            case "tar.gz":
+                exporter = TarGzExporter.class;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+
+        // Half random, half repetitive content so compression has some work to do
+        final Random random = new Random(42);
+        archive = ShrinkWrap.create(JavaArchive.class, "benchmark.jar");
+        for (int i = 0; i < entries; i++) {
+            final byte[] content = new byte[entrySize];
+            random.nextBytes(content);
+            for (int j = entrySize / 2; j < entrySize; j++) {
+                content[j] = (byte) (j % 31);
+            }
+            archive.add(new ByteArrayAsset(content), "org/example/Entry" + i + ".class");
+        }
+    }
+
+    @Benchmark
+    public long singleByteRead() throws IOException {
+        long count = 0;
+        try (InputStream in = archive.as(exporter).exportAsInputStream()) {
+            while (in.read() != -1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long bulkRead() throws IOException {
+        final byte[] buffer = new byte[8192];
+        long count = 0;
+        try (InputStream in = archive.as(exporter).exportAsInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                count += read;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public void exportTo(final Blackhole blackhole) {
+        archive.as(exporter).exportTo(new BlackholeOutputStream(blackhole));
+    }
+
+    /**
+     * {@link OutputStream} discarding everything written to it into a {@link Blackhole}
+     */
+    static final class BlackholeOutputStream extends OutputStream {
+
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(final Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(final int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
@@ -24,8 +24,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Files;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -41,6 +43,7 @@ import org.jboss.shrinkwrap.api.ArchivePaths;
 import org.jboss.shrinkwrap.api.GenericArchive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
 import org.jboss.shrinkwrap.api.exporter.ArchiveExportException;
 import org.jboss.shrinkwrap.api.exporter.FileExistsException;
 import org.jboss.shrinkwrap.api.exporter.StreamExporter;
@@ -290,6 +293,74 @@ public abstract class StreamExporterTestBase<T extends StreamImporter<T>> extend
         }
     }
 
+    /**
+     * Ensures that single-byte reads, bulk reads, skips and direct transfers of the exported stream, as well as any mix
+     * of them, all yield the complete content
+     */
+    @Test
+    public void testExportReadModesYieldSameContent() throws IOException {
+        log.info("testExportReadModesYieldSameContent");
+
+        // Get an archive instance with content spanning several encoding chunks
+        final Archive<?> archive = createArchiveWithAssets();
+        final byte[] largeContent = new byte[100 * 1024 + 17];
+        new Random(42).nextBytes(largeContent);
+        final ArchivePath largePath = ArchivePaths.create("large.bin");
+        archive.add(new ByteArrayAsset(largeContent), largePath);
+
+        // Direct transfer
+        final ByteArrayOutputStream transferred = new ByteArrayOutputStream();
+        archive.as(this.getExporterClass()).exportTo(transferred);
+
+        // Single-byte reads
+        final ByteArrayOutputStream singleBytes = new ByteArrayOutputStream();
+        try (final InputStream in = this.exportAsInputStream(archive)) {
+            int b;
+            while ((b = in.read()) != -1) {
+                singleBytes.write(b);
+            }
+        }
+
+        // Bulk reads with a length not aligned to any internal buffer
+        final ByteArrayOutputStream bulk = new ByteArrayOutputStream();
+        try (final InputStream in = this.exportAsInputStream(archive)) {
+            final byte[] buffer = new byte[1031];
+            int read;
+            while ((read = in.read(buffer, 3, buffer.length - 3)) != -1) {
+                bulk.write(buffer, 3, read);
+            }
+        }
+
+        // All of the above on the same stream
+        final ByteArrayOutputStream mixed = new ByteArrayOutputStream();
+        try (final InputStream in = this.exportAsInputStream(archive)) {
+            for (int i = 0; i < 10; i++) {
+                mixed.write(in.read());
+            }
+            final byte[] buffer = new byte[7000];
+            final int read = in.read(buffer);
+            mixed.write(buffer, 0, read);
+            ((AbstractOnDemandInputStream<?>) in).transferTo(mixed);
+            Assertions.assertEquals(-1, in.read());
+        }
+
+        // Skip
+        try (final InputStream in = this.exportAsInputStream(archive)) {
+            Assertions.assertEquals(5000, in.skip(5000));
+            final ByteArrayOutputStream afterSkip = new ByteArrayOutputStream();
+            IOUtil.copy(in, afterSkip);
+            Assertions.assertTrue(afterSkip.size() > 0);
+            Assertions.assertEquals(0, in.skip(1));
+        }
+
+        for (final ByteArrayOutputStream exported : Arrays.asList(transferred, singleBytes, bulk, mixed)) {
+            final GenericArchive roundtrip = ShrinkWrap.create(this.getImporterClass(), "roundtrip" + this.getArchiveExtension())
+                    .importFrom(new ByteArrayInputStream(exported.toByteArray())).as(GenericArchive.class);
+            Assertions.assertArrayEquals(largeContent, IOUtil.asByteArray(roundtrip.get(largePath).getAsset().openStream()));
+            Assertions.assertTrue(roundtrip.contains(PATH_ONE));
+        }
+    }
+
     @Test
     public void testExportThrowsArchiveExceptionOnAssetWriteFailure() throws IOException {
         log.info("testExportThrowsArchiveExceptionOnAssetWriteFailure");
@@ -384,7 +455,7 @@ public abstract class StreamExporterTestBase<T extends StreamImporter<T>> extend
      * @author <a href="mailto:andrew.rubinger@jboss.org">ALR</a>
      * @version $Revision: $
      */
-    private static class CountingExecutorService implements ExecutorService {
+    protected static class CountingExecutorService implements ExecutorService {
 
         private final ExecutorService delegate;
 
@@ -0,0 +1,109 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.exporter;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.exporter.TarBz2Exporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.impl.base.exporter.StreamExporterBenchmark.BlackholeOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the throughput of {@link TarBz2Exporter}, compressing BZip2 blocks on the exporting thread or on a pool
+ * of the given number of threads. Speedups only show with at least as many available processors as threads.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=TarBz2ExporterBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TarBz2ExporterBenchmark {
+
+    /**
+     * Number of threads blocks are compressed on, none to compress them on the exporting thread
+     */
+    @Param({ "0", "1", "2", "4" })
+    public int threads;
+
+    /**
+     * Number of assets in the exported archive
+     */
+    @Param({ "250" })
+    public int entries;
+
+    /**
+     * Size of each asset in bytes
+     */
+    @Param({ "16384" })
+    public int entrySize;
+
+    private ExecutorService executorService;
+
+    private JavaArchive archive;
+
+    @Setup
+    public void setup() {
+        if (threads > 0) {
+            executorService = Executors.newFixedThreadPool(threads);
+        }
+
+        // Half random, half repetitive content so compression has some work to do
+        final Random random = new Random(42);
+        archive = ShrinkWrap.create(JavaArchive.class, "benchmark.jar");
+        for (int i = 0; i < entries; i++) {
+            final byte[] content = new byte[entrySize];
+            random.nextBytes(content);
+            for (int j = entrySize / 2; j < entrySize; j++) {
+                content[j] = (byte) (j % 31);
+            }
+            archive.add(new ByteArrayAsset(content), "org/example/Entry" + i + ".class");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executorService != null) {
+            executorService.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void exportTo(final Blackhole blackhole) {
+        archive.as(TarBz2Exporter.class).parallel(executorService).exportTo(new BlackholeOutputStream(blackhole));
+    }
+}
@@ -16,15 +16,35 @@
  */
 package org.jboss.shrinkwrap.impl.base.exporter;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
 import org.jboss.shrinkwrap.api.exporter.StreamExporter;
 import org.jboss.shrinkwrap.api.exporter.TarBz2Exporter;
 import org.jboss.shrinkwrap.api.importer.TarBz2Importer;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.impl.base.io.IOUtil;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarInputStream;
 import org.jboss.shrinkwrap.impl.base.io.tar.bzip.BZip2CompressorInputStream;
+import org.jboss.shrinkwrap.impl.base.io.tar.bzip.BZip2CompressorOutputStream;
+import org.jboss.shrinkwrap.impl.base.io.tar.bzip.ParallelBZip2CompressorOutputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
 
 /**
  * TestCase to ensure that the {@link org.jboss.shrinkwrap.api.exporter.TarBz2Exporter} correctly exports archives to TAR.BZ2 format.
@@ -92,4 +112,140 @@ public final class TarBz2ExporterTestCase extends TarExporterTestBase<TarBz2Impo
     // -------------------------------------------------------------------------------------||
 
     // Inherited
+
+    /**
+     * Ensures archives exported with an {@link ExecutorService} have their BZip2 blocks compressed on it, into a stream
+     * holding the content of the archive
+     */
+    @Test
+    public void testExportInParallel() throws IOException {
+        final CountingExecutorService executorService = new CountingExecutorService();
+        try {
+            final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, NAME_ARCHIVE + EXTENSION);
+            addContent(archive);
+            archive.add(new ByteArrayAsset(randomBytes(1000 * 1024)), "random.bin");
+            archive.add(new ByteArrayAsset(new byte[100 * 1024]), "zeros.bin");
+
+            final File exported = new File(createTempDirectory("testExportInParallel"), archive.getName());
+            archive.as(TarBz2Exporter.class).parallel(executorService).exportTo(exported, true);
+
+            Assertions.assertTrue(executorService.counter > 1, "Blocks should have been compressed on the executor");
+            this.ensureInExpectedForm(exported);
+            final JavaArchive imported = ShrinkWrap.create(TarBz2Importer.class, archive.getName())
+                .importFrom(exported).as(JavaArchive.class);
+            for (final Node node : archive.getContent().values()) {
+                final ArchivePath path = node.getPath();
+                Assertions.assertNotNull(imported.get(path), "Missing " + path);
+                if (node.getAsset() != null) {
+                    Assertions.assertArrayEquals(IOUtil.asByteArray(node.getAsset().openStream()),
+                        IOUtil.asByteArray(imported.get(path).getAsset().openStream()), "Unexpected content of " + path);
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Ensures blocks compressed in parallel form the same stream as blocks compressed one after another, for input
+     * without the runs that make the initial run-length encoding cut blocks elsewhere, and decode to the input
+     * otherwise
+     */
+    @Test
+    public void testParallelCompressionMatchesSequentialCompression() throws IOException {
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final byte[] withoutRuns = new byte[250 * 1024];
+            for (int i = 0; i < withoutRuns.length; i++) {
+                withoutRuns[i] = (byte) (i * 7 + i / 251);
+            }
+            Assertions.assertArrayEquals(compress(withoutRuns, null, 1), compress(withoutRuns, executorService, 1));
+
+            final byte[] withRuns = randomBytes(700 * 1024);
+            Arrays.fill(withRuns, 1000, 150 * 1024, (byte) 'a');
+            for (int i = 300 * 1024; i < 400 * 1024; i += 5) {
+                withRuns[i] = withRuns[i + 1] = withRuns[i + 2] = withRuns[i + 3] = 'b';
+            }
+            for (final byte[] input : Arrays.asList(new byte[0], new byte[] {42}, withRuns)) {
+                final byte[] compressed = compress(input, executorService, 1);
+                Assertions.assertArrayEquals(input,
+                    IOUtil.asByteArray(new BZip2CompressorInputStream(new ByteArrayInputStream(compressed))));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Ensures blocks are compressed on the writing thread when the executor is too busy to start them, instead of
+     * waiting for it
+     */
+    @Test
+    public void testParallelCompressionOnBusyExecutor() throws Exception {
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executorService.execute(() -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            final byte[] input = randomBytes(500 * 1024);
+            final byte[] compressed = compress(input, executorService, 1);
+            Assertions.assertArrayEquals(input,
+                IOUtil.asByteArray(new BZip2CompressorInputStream(new ByteArrayInputStream(compressed))));
+        } finally {
+            release.countDown();
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Ensures the system {@code bzip2} decodes streams compressed in parallel
+     */
+    @Test
+    public void testParallelCompressionDecodedBySystemBzip2() throws Exception {
+        final File bzip2 = new File("/usr/bin/bzip2");
+        Assumptions.assumeTrue(bzip2.canExecute(), "bzip2 is not installed");
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final byte[] input = randomBytes(500 * 1024);
+            final File compressed = new File(createTempDirectory("testParallelCompressionDecodedBySystemBzip2"),
+                "input.bz2");
+            try (OutputStream out = new FileOutputStream(compressed)) {
+                out.write(compress(input, executorService, 1));
+            }
+            final Process process = new ProcessBuilder(bzip2.getPath(), "-dc", compressed.getPath()).start();
+            final byte[] decompressed = IOUtil.asByteArray(process.getInputStream());
+            Assertions.assertEquals(0, process.waitFor());
+            Assertions.assertArrayEquals(input, decompressed);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Compresses the specified input in parallel on the specified executor, or one block after another if it is null
+     */
+    private static byte[] compress(final byte[] input, final ExecutorService executorService, final int blockSize)
+        throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = executorService == null ? new BZip2CompressorOutputStream(compressed, blockSize)
+            : new ParallelBZip2CompressorOutputStream(compressed, executorService, blockSize)) {
+            out.write(input);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        new Random(17).nextBytes(bytes);
+        return bytes;
+    }
 }
@@ -16,19 +16,35 @@
  */
 package org.jboss.shrinkwrap.impl.base.exporter;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.ArchivePaths;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
+import org.jboss.shrinkwrap.api.asset.SizedAsset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ArchiveExportException;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
 import org.jboss.shrinkwrap.api.importer.StreamImporter;
 import org.jboss.shrinkwrap.impl.base.io.IOUtil;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarEntry;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarInputStream;
 import org.jboss.shrinkwrap.impl.base.path.PathUtil;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
 /**
  * TestCase to ensure that the TAR exporters are working as contracted
@@ -99,6 +115,179 @@ public abstract class TarExporterTestBase<T extends StreamImporter<T>> extends S
 
     // Inherited
 
+    /**
+     * Ensures assets reporting their size are read once, straight into the entry, and others once into content the
+     * entry is written from
+     */
+    @Test
+    public void testAssetsReadOnce() throws IOException {
+        final Archive<?> archive = createArchiveWithAssets();
+        final byte[] content = new byte[100 * 1024 + 17];
+        Arrays.fill(content, (byte) 'x');
+        final AtomicInteger sizedOpened = new AtomicInteger();
+        final AtomicInteger unsizedOpened = new AtomicInteger();
+        final ArchivePath sizedPath = ArchivePaths.create("sized.bin");
+        final ArchivePath unsizedPath = ArchivePaths.create("unsized.bin");
+        final ArchivePath stringPath = ArchivePaths.create("string.txt");
+        archive.add(new SizedAsset() {
+            @Override
+            public InputStream openStream() {
+                sizedOpened.incrementAndGet();
+                return new ByteArrayInputStream(content);
+            }
+
+            @Override
+            public long getSize() {
+                return content.length;
+            }
+        }, sizedPath);
+        archive.add(() -> {
+            unsizedOpened.incrementAndGet();
+            return new ByteArrayInputStream(content);
+        }, unsizedPath);
+        archive.add(new StringAsset("Gr\u00fc\u00dfe \u2603"), stringPath);
+
+        final File exported = new File(createTempDirectory("testAssetsReadOnce"), archive.getName());
+        archive.as(this.getExporterClass()).exportTo(exported);
+
+        Assertions.assertEquals(1, sizedOpened.get(), "Sized asset should have been read once");
+        Assertions.assertEquals(1, unsizedOpened.get(), "Unsized asset should have been read once");
+        try (final InputStream in = this.getEntryFromTarFile(exported, sizedPath)) {
+            Assertions.assertArrayEquals(content, IOUtil.asByteArray(in));
+        }
+        try (final InputStream in = this.getEntryFromTarFile(exported, unsizedPath)) {
+            Assertions.assertArrayEquals(content, IOUtil.asByteArray(in));
+        }
+        this.assertAssetInTar(exported, stringPath, archive.get(stringPath).getAsset());
+        this.ensureInExpectedForm(exported);
+    }
+
+    /**
+     * Ensures the content of assets reporting their size is streamed into the export as it is read, rather than
+     * buffered until the entry is complete
+     */
+    @Test
+    public void testSizedAssetStreamed() throws IOException {
+        final int size = 4 * 1024 * 1024;
+        final long[] consumed = new long[1];
+        final Archive<?> archive = ShrinkWrap.create(JavaArchive.class, NAME_ARCHIVE + getArchiveExtension());
+        archive.add(new SizedAsset() {
+            @Override
+            public InputStream openStream() {
+                final Random random = new Random(17);
+                return new InputStream() {
+                    @Override
+                    public int read() {
+                        if (consumed[0] == size) {
+                            return -1;
+                        }
+                        consumed[0]++;
+                        return random.nextInt(256);
+                    }
+                };
+            }
+
+            @Override
+            public long getSize() {
+                return size;
+            }
+        }, "random.bin");
+
+        long producedWhenConsumed = -1;
+        try (final InputStream in = archive.as(this.getExporterClass()).exportAsInputStream()) {
+            final byte[] buffer = new byte[8192];
+            long produced = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                produced += read;
+                if (producedWhenConsumed < 0 && consumed[0] == size) {
+                    producedWhenConsumed = produced;
+                }
+            }
+        }
+
+        // Random content does not compress, so most of it should have been written by the time it is all read
+        Assertions.assertTrue(producedWhenConsumed > size / 2,
+            "Only " + producedWhenConsumed + " bytes exported when the asset was read");
+    }
+
+    /**
+     * Ensures the content of assets not reporting their size is spilled to a temporary file when large, and that the
+     * file is deleted once written
+     */
+    @Test
+    public void testLargeUnsizedAssetSpilled() throws IOException {
+        final Archive<?> archive = createArchiveWithAssets();
+        final byte[] content = new byte[5 * 1024 * 1024];
+        Arrays.fill(content, (byte) 'x');
+        final ArchivePath path = ArchivePaths.create("large.bin");
+        archive.add(() -> new ByteArrayInputStream(content), path);
+        final int spillFiles = countSpillFiles();
+
+        final File exported = new File(createTempDirectory("testLargeUnsizedAssetSpilled"), archive.getName());
+        archive.as(this.getExporterClass()).exportTo(exported);
+
+        Assertions.assertEquals(spillFiles, countSpillFiles(), "Temporary files should have been deleted");
+        try (final InputStream in = this.getEntryFromTarFile(exported, path)) {
+            Assertions.assertArrayEquals(content, IOUtil.asByteArray(in));
+        }
+        this.ensureInExpectedForm(exported);
+    }
+
+    /**
+     * Ensures a file changed after being added is exported with the content and size it has at the time of export
+     */
+    @Test
+    public void testFileChangedBeforeExport() throws IOException {
+        final File directory = createTempDirectory("testFileChangedBeforeExport");
+        final Path file = directory.toPath().resolve("changing.txt");
+        Files.write(file, "short".getBytes());
+        final Archive<?> archive = ShrinkWrap.create(JavaArchive.class, NAME_ARCHIVE + getArchiveExtension());
+        final ArchivePath path = ArchivePaths.create("changing.txt");
+        archive.add(new FileAsset(file.toFile()), path);
+        final byte[] changed = "a rather longer content".getBytes();
+        Files.write(file, changed);
+
+        final File exported = new File(directory, archive.getName());
+        archive.as(this.getExporterClass()).exportTo(exported);
+
+        try (final InputStream in = this.getEntryFromTarFile(exported, path)) {
+            Assertions.assertArrayEquals(changed, IOUtil.asByteArray(in));
+        }
+    }
+
+    /**
+     * Ensures an asset whose content turns out longer or shorter than the size it reported fails the export with an
+     * error naming the asset, rather than writing a corrupt TAR
+     */
+    @Test
+    public void testSizeChangedDuringExport() throws IOException {
+        final File directory = createTempDirectory("testSizeChangedDuringExport");
+        for (final int actual : new int[] {90, 110}) {
+            final Archive<?> archive = ShrinkWrap.create(JavaArchive.class, NAME_ARCHIVE + getArchiveExtension());
+            archive.add(new SizedAsset() {
+                @Override
+                public InputStream openStream() {
+                    return new ByteArrayInputStream(new byte[actual]);
+                }
+
+                @Override
+                public long getSize() {
+                    return 100;
+                }
+            }, "resized.bin");
+
+            final ArchiveExportException exception = Assertions.assertThrows(ArchiveExportException.class,
+                () -> archive.as(this.getExporterClass()).exportTo(new File(directory, archive.getName()), true));
+            Throwable cause = exception;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            Assertions.assertTrue(cause.getMessage().contains("resized.bin")
+                && cause.getMessage().contains("changed size during export"), cause.getMessage());
+        }
+    }
+
     // -------------------------------------------------------------------------------------||
     // Internal Helper Methods ------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
@@ -127,6 +316,20 @@ public abstract class TarExporterTestBase<T extends StreamImporter<T>> extends S
         }
     }
 
+    /**
+     * Counts the temporary files TAR entry content is spilled to
+     */
+    private static int countSpillFiles() throws IOException {
+        int count = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(System.getProperty("java.io.tmpdir")),
+            "shrinkwrap-tar-*")) {
+            for (final Path ignored : files) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Obtains an {@link InputStream} to an entry of specified name from the specified TAR.GZ file, or null if not
      * found. We have to iterate through all entries for a matching name, as the instream does not support random
@@ -16,15 +16,34 @@
  */
 package org.jboss.shrinkwrap.impl.base.exporter;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
 import org.jboss.shrinkwrap.api.exporter.StreamExporter;
 import org.jboss.shrinkwrap.api.exporter.TarGzExporter;
 import org.jboss.shrinkwrap.api.importer.TarGzImporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.impl.base.io.IOUtil;
+import org.jboss.shrinkwrap.impl.base.io.tar.ParallelGZIPOutputStream;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarInputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
 
 /**
  * TestCase to ensure that the {@link TarGzExporter} correctly exports archives to TAR.GZ format.
@@ -91,4 +110,192 @@ public final class TarGzExporterTestCase extends TarExporterTestBase<TarGzImport
     // -------------------------------------------------------------------------------------||
 
     // Inherited
+
+    /**
+     * Ensures archives exported with an {@link ExecutorService} have their chunks deflated on it, into a stream holding
+     * the content of the archive
+     */
+    @Test
+    public void testExportInParallel() throws IOException {
+        final CountingExecutorService executorService = new CountingExecutorService();
+        try {
+            final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, NAME_ARCHIVE + EXTENSION);
+            addContent(archive);
+            archive.add(new ByteArrayAsset(randomBytes(1000 * 1024)), "random.bin");
+            archive.add(new ByteArrayAsset(new byte[300 * 1024]), "zeros.bin");
+
+            final File exported = new File(createTempDirectory("testExportInParallel"), archive.getName());
+            archive.as(TarGzExporter.class).parallel(executorService).exportTo(exported, true);
+
+            Assertions.assertTrue(executorService.counter > 1, "Chunks should have been deflated on the executor");
+            this.ensureInExpectedForm(exported);
+            final JavaArchive imported = ShrinkWrap.create(TarGzImporter.class, archive.getName())
+                .importFrom(exported).as(JavaArchive.class);
+            for (final Node node : archive.getContent().values()) {
+                final ArchivePath path = node.getPath();
+                Assertions.assertNotNull(imported.get(path), "Missing " + path);
+                if (node.getAsset() != null) {
+                    Assertions.assertArrayEquals(IOUtil.asByteArray(node.getAsset().openStream()),
+                        IOUtil.asByteArray(imported.get(path).getAsset().openStream()), "Unexpected content of " + path);
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Ensures chunks deflated in parallel decode to the input at every compression level, with a size close to that of
+     * a single deflater
+     */
+    @Test
+    public void testParallelCompressionAtEveryLevel() throws IOException {
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final byte[] input = compressibleBytes(600 * 1024);
+            for (int level = -1; level <= 9; level++) {
+                final byte[] compressed = compress(input, executorService, level);
+                Assertions.assertArrayEquals(input,
+                    IOUtil.asByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed))), "Level " + level);
+                if (level > 0) {
+                    Assertions.assertTrue(compressed.length < compress(input, null, level).length * 1.05,
+                        "Level " + level + " should compress about as well as a single deflater");
+                }
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Ensures chunks are deflated on the writing thread when the executor is too busy to start them, or rejects them,
+     * instead of waiting for it
+     */
+    @Test
+    public void testParallelCompressionOnBusyExecutor() throws IOException {
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executorService.execute(() -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            final byte[] input = compressibleBytes(600 * 1024);
+            Assertions.assertArrayEquals(input, IOUtil.asByteArray(
+                new GZIPInputStream(new ByteArrayInputStream(compress(input, executorService, 6)))));
+        } finally {
+            release.countDown();
+            executorService.shutdown();
+        }
+        final byte[] input = compressibleBytes(300 * 1024);
+        Assertions.assertArrayEquals(input, IOUtil.asByteArray(
+            new GZIPInputStream(new ByteArrayInputStream(compress(input, executorService, 6)))));
+    }
+
+    /**
+     * Ensures the system {@code gzip} decodes streams deflated in parallel
+     */
+    @Test
+    public void testParallelCompressionDecodedBySystemGzip() throws Exception {
+        final File gzip = new File("/usr/bin/gzip");
+        Assumptions.assumeTrue(gzip.canExecute(), "gzip is not installed");
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final byte[] input = compressibleBytes(500 * 1024);
+            final File compressed = new File(createTempDirectory("testParallelCompressionDecodedBySystemGzip"),
+                "input.gz");
+            try (OutputStream out = new FileOutputStream(compressed)) {
+                out.write(compress(input, executorService, 6));
+            }
+            final Process process = new ProcessBuilder(gzip.getPath(), "-dc", compressed.getPath()).start();
+            final byte[] decompressed = IOUtil.asByteArray(process.getInputStream());
+            Assertions.assertEquals(0, process.waitFor());
+            Assertions.assertArrayEquals(input, decompressed);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Ensures the compression level is applied to exports, and bypasses the reuse of exports of nested archives
+     */
+    @Test
+    public void testCompressionLevel() throws IOException {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, NAME_ARCHIVE + EXTENSION);
+        archive.add(new ByteArrayAsset(compressibleBytes(200 * 1024)), "text.bin");
+
+        final byte[] stored = IOUtil.asByteArray(archive.as(TarGzExporter.class).compressionLevel(0)
+            .exportAsInputStream());
+        final byte[] deflated = IOUtil.asByteArray(archive.as(TarGzExporter.class).exportAsInputStream());
+        final byte[] best = IOUtil.asByteArray(archive.as(TarGzExporter.class).compressionLevel(9)
+            .exportAsInputStream());
+
+        Assertions.assertTrue(stored.length > 200 * 1024, "Level 0 should not compress");
+        Assertions.assertTrue(deflated.length < stored.length / 2, "The default level should compress");
+        Assertions.assertTrue(best.length <= deflated.length, "Level 9 should compress at least as well");
+        final JavaArchive imported = ShrinkWrap.create(TarGzImporter.class, archive.getName())
+            .importFrom(new ByteArrayInputStream(stored)).as(JavaArchive.class);
+        Assertions.assertArrayEquals(IOUtil.asByteArray(archive.get("text.bin").getAsset().openStream()),
+            IOUtil.asByteArray(imported.get("text.bin").getAsset().openStream()));
+    }
+
+    /**
+     * Ensures compression levels outside of -1 to 9 are rejected
+     */
+    @Test
+    public void testInvalidCompressionLevel() {
+        final TarGzExporter exporter = ShrinkWrap.create(JavaArchive.class).as(TarGzExporter.class);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> exporter.compressionLevel(-2));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> exporter.compressionLevel(10));
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Compresses the specified input in parallel on the specified executor, or on this thread if it is null
+     */
+    private static byte[] compress(final byte[] input, final ExecutorService executorService, final int level)
+        throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream out = executorService == null ? new LeveledGZIPOutputStream(compressed, level)
+            : new ParallelGZIPOutputStream(compressed, executorService, level)) {
+            out.write(input);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        new Random(17).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Text-like bytes drawn from a small alphabet of words
+     */
+    private static byte[] compressibleBytes(final int length) {
+        final String[] words = {"shrink", "wrap", "archive", "asset", "path", "export", "import", "node", " ", "\n"};
+        final Random random = new Random(17);
+        final StringBuilder text = new StringBuilder(length);
+        while (text.length() < length) {
+            text.append(words[random.nextInt(words.length)]);
+        }
+        return text.substring(0, length).getBytes();
+    }
+
+    /**
+     * {@link GZIPOutputStream} deflating at a given level
+     */
+    private static final class LeveledGZIPOutputStream extends GZIPOutputStream {
+
+        LeveledGZIPOutputStream(final OutputStream out, final int level) throws IOException {
+            super(out);
+            this.def.setLevel(level);
+        }
+    }
 }
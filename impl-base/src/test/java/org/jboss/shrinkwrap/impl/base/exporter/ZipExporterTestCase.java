@@ -17,16 +17,30 @@
 package org.jboss.shrinkwrap.impl.base.exporter;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 
 import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.ArchivePaths;
+import org.jboss.shrinkwrap.api.Node;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
 import org.jboss.shrinkwrap.api.asset.FileAsset;
+import org.jboss.shrinkwrap.api.exporter.ArchiveExportException;
 import org.jboss.shrinkwrap.api.exporter.FileExistsException;
 import org.jboss.shrinkwrap.api.exporter.StreamExporter;
 import org.jboss.shrinkwrap.api.exporter.ZipExporter;
@@ -191,6 +205,109 @@ public final class ZipExporterTestCase extends StreamExporterTestBase<ZipImporte
         Assertions.assertEquals(file1.length(), file2.length());
     }
 
+    /**
+     * Ensures archives exported with an {@link ExecutorService} are deflated on it, and written in the order of the
+     * archive content
+     */
+    @Test
+    public void testExportInParallel() throws IOException {
+        final CountingExecutorService executorService = new CountingExecutorService();
+        try {
+            final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, NAME_ARCHIVE + EXTENSION);
+            addContent(archive);
+            archive.addAsDirectory(PATH_EMPTY_TOPLEVEL_DIR);
+            final Random random = new Random(13);
+            for (int i = 0; i < 50; i++) {
+                final byte[] content = new byte[random.nextInt(20000)];
+                random.nextBytes(content);
+                archive.add(new ByteArrayAsset(content), ArchivePaths.create("entries", "entry" + i));
+            }
+            archive.add(new ByteArrayAsset(new byte[300 * 1024]), "zeros.bin");
+            archive.add(createArchiveWithAssets(), ArchivePaths.root(), ZipExporter.class);
+
+            final File exported = new File(createTempDirectory("testExportInParallel"), archive.getName());
+            archive.as(ZipExporter.class).parallel(executorService).exportTo(exported, true);
+
+            Assertions.assertTrue(executorService.counter > 0, "Entries should have been deflated on the executor");
+
+            // Entries in the order of the archive content, with matching content
+            final List<String> expectedNames = new ArrayList<>();
+            for (final Map.Entry<ArchivePath, Node> entry : archive.getContent().entrySet()) {
+                final String name = PathUtil.optionallyRemovePrecedingSlash(entry.getKey().get());
+                expectedNames.add(entry.getValue().getAsset() == null ? PathUtil.optionallyAppendSlash(name) : name);
+            }
+            final List<String> actualNames = new ArrayList<>();
+            try (final ZipInputStream in = new ZipInputStream(new FileInputStream(exported))) {
+                ZipEntry entry;
+                while ((entry = in.getNextEntry()) != null) {
+                    actualNames.add(entry.getName());
+                    if (!entry.isDirectory()) {
+                        final Asset asset = archive.get(entry.getName()).getAsset();
+                        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+                        IOUtil.copy(in, content);
+                        Assertions.assertArrayEquals(IOUtil.asByteArray(asset.openStream()), content.toByteArray(),
+                                "Unexpected content of " + entry.getName());
+                    }
+                }
+            }
+            Assertions.assertEquals(expectedNames, actualNames);
+
+            // Readable through the central directory as well
+            this.ensureInExpectedForm(exported);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Ensures that failures of assets deflated in parallel are reported
+     */
+    @Test
+    public void testExportInParallelReportsAssetFailure() throws IOException {
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, NAME_ARCHIVE + EXTENSION);
+            addContent(archive);
+            archive.add(() -> {
+                throw new RuntimeException("Mock Exception from an Asset write");
+            }, "failing.txt");
+
+            try (final InputStream in = archive.as(ZipExporter.class).parallel(executorService).exportAsInputStream()) {
+                Assertions.assertThrows(ArchiveExportException.class, () -> IOUtil.asByteArray(in));
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * Ensures that archives nested in an archive exported on a bounded executor can themselves be exported on it
+     * without waiting for a thread
+     */
+    @Test
+    public void testNestedExportsInParallelOnBoundedExecutor() {
+        final ExecutorService executorService = Executors.newFixedThreadPool(1);
+        try {
+            final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, NAME_ARCHIVE + EXTENSION);
+            for (int i = 0; i < 40; i++) {
+                final JavaArchive nested = ShrinkWrap.create(JavaArchive.class, "nested" + i + EXTENSION);
+                addContent(nested);
+                archive.add(() -> nested.as(ZipExporter.class).parallel(executorService).exportAsInputStream(),
+                    nested.getName());
+            }
+
+            final byte[] exported = Assertions.assertTimeoutPreemptively(Duration.ofSeconds(60),
+                () -> IOUtil.asByteArray(archive.as(ZipExporter.class).parallel(executorService)
+                    .exportAsInputStream()));
+
+            final JavaArchive imported = ShrinkWrap.create(ZipImporter.class, archive.getName())
+                .importFrom(new ByteArrayInputStream(exported)).as(JavaArchive.class);
+            Assertions.assertEquals(40, imported.getContent().size());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     // -------------------------------------------------------------------------------------||
     // Internal Helper Methods ------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
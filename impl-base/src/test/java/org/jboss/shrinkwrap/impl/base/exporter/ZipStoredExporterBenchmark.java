@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.exporter;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.exporter.ZipStoredExporter;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks {@link ZipStoredExporter} on an archive with nested archives, reporting as auxiliary counters the number
+ * of bytes read from assets ({@code assetBytesRead}) against the number of bytes exported ({@code exportedBytes}).
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=ZipStoredExporterBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZipStoredExporterBenchmark {
+
+    /**
+     * Number of bytes of an entry kept in memory; 0 spills every entry to disk
+     */
+    @Param({ "4194304", "0" })
+    public long inMemoryThreshold;
+
+    /**
+     * Number of nested library archives
+     */
+    @Param({ "10" })
+    public int libraries;
+
+    private WebArchive archive;
+
+    /**
+     * Counts bytes read from all assets
+     */
+    private static long assetBytesRead;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42);
+        archive = ShrinkWrap.create(WebArchive.class, "benchmark.war");
+        for (int i = 0; i < 200; i++) {
+            archive.add(new CountingAsset(randomBytes(random, 4096)), "WEB-INF/classes/Entry" + i + ".class");
+        }
+        for (int i = 0; i < libraries; i++) {
+            final JavaArchive library = ShrinkWrap.create(JavaArchive.class, "lib" + i + ".jar");
+            for (int j = 0; j < 100; j++) {
+                library.add(new CountingAsset(randomBytes(random, 4096)), "org/example/Entry" + j + ".class");
+            }
+            archive.addAsLibrary(library);
+        }
+    }
+
+    @Benchmark
+    public void export(final Counters counters) {
+        final long before = assetBytesRead;
+        final CountingOutputStream out = new CountingOutputStream();
+        archive.as(ZipStoredExporter.class).inMemoryThreshold(inMemoryThreshold).exportTo(out);
+        counters.assetBytesRead += assetBytesRead - before;
+        counters.exportedBytes += out.count;
+    }
+
+    private static byte[] randomBytes(final Random random, final int size) {
+        final byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * Auxiliary counters reported per iteration
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+
+        public long assetBytesRead;
+
+        public long exportedBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            assetBytesRead = 0;
+            exportedBytes = 0;
+        }
+    }
+
+    /**
+     * {@link Asset} counting the bytes read from its streams
+     */
+    private static final class CountingAsset implements Asset {
+
+        private final byte[] content;
+
+        CountingAsset(final byte[] content) {
+            this.content = content;
+        }
+
+        @Override
+        public InputStream openStream() {
+            return new FilterInputStream(new ByteArrayInputStream(content)) {
+                @Override
+                public int read() throws IOException {
+                    final int b = super.read();
+                    if (b != -1) {
+                        assetBytesRead++;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(final byte[] b, final int off, final int len) throws IOException {
+                    final int read = super.read(b, off, len);
+                    if (read > 0) {
+                        assetBytesRead += read;
+                    }
+                    return read;
+                }
+            };
+        }
+    }
+
+    /**
+     * {@link OutputStream} which does nothing but count the bytes written
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        long count;
+
+        @Override
+        public void write(final int b) {
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+            count += len;
+        }
+    }
+}
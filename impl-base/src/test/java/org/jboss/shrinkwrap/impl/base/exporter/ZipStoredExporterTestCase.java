@@ -34,6 +34,11 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -156,10 +161,72 @@ public final class ZipStoredExporterTestCase extends StreamExporterTestBase<ZipI
         }
     }
 
+    /**
+     * Ensures every asset is read only once, both for entries kept in memory and for entries spilled to disk, and that
+     * no temporary files are left behind
+     */
+    @Test
+    public void shouldReadEachAssetOnce() throws IOException {
+        final byte[] small = "My file content".getBytes();
+        final byte[] large = new byte[64 * 1024];
+        new Random(7).nextBytes(large);
+        final AtomicInteger smallOpened = new AtomicInteger();
+        final AtomicInteger largeOpened = new AtomicInteger();
+
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class)
+                .add(() -> {
+                    smallOpened.incrementAndGet();
+                    return new ByteArrayInputStream(small);
+                }, "small.txt")
+                .add(() -> {
+                    largeOpened.incrementAndGet();
+                    return new ByteArrayInputStream(large);
+                }, "large.bin");
+
+        final Set<String> tempFilesBefore = storedTempFiles();
+        final File target = new File(createTempDirectory("shouldReadEachAssetOnce"), "stored.jar");
+        archive.as(ZipStoredExporter.class).inMemoryThreshold(1024).exportTo(target, true);
+
+        Assertions.assertEquals(1, smallOpened.get());
+        Assertions.assertEquals(1, largeOpened.get());
+        Assertions.assertEquals(tempFilesBefore, storedTempFiles(), "Temporary files should have been deleted");
+
+        try (final ZipFile zip = new ZipFile(target)) {
+            final ZipEntry largeEntry = zip.getEntry("large.bin");
+            Assertions.assertEquals(ZipEntry.STORED, largeEntry.getMethod());
+            Assertions.assertEquals(large.length, largeEntry.getSize());
+            try (final InputStream in = zip.getInputStream(largeEntry)) {
+                Assertions.assertArrayEquals(large, IOUtil.asByteArray(in));
+            }
+            try (final InputStream in = zip.getInputStream(zip.getEntry("small.txt"))) {
+                Assertions.assertArrayEquals(small, IOUtil.asByteArray(in));
+            }
+        }
+    }
+
+    /**
+     * Ensures a negative in memory threshold is rejected
+     */
+    @Test
+    public void shouldRejectNegativeInMemoryThreshold() {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class).add(new StringAsset("content"), "content.txt");
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> archive.as(ZipStoredExporter.class).inMemoryThreshold(-1));
+    }
+
     // -------------------------------------------------------------------------------------||
     // Internal Helper Methods ------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
 
+    /**
+     * Obtains the names of the temporary files used for spilling STORED entries
+     */
+    private static Set<String> storedTempFiles() {
+        final String[] names = new File(System.getProperty("java.io.tmpdir"))
+                .list((dir, name) -> name.startsWith("shrinkwrap-zip-"));
+        return names == null ? new HashSet<>() : new HashSet<>(Arrays.asList(names));
+    }
+
     /**
      * Ensures that the specified {@link ZipFile} contains entries in the expected form
      *
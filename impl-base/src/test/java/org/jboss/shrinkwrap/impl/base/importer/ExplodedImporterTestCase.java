@@ -17,11 +17,21 @@
 package org.jboss.shrinkwrap.impl.base.importer;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.Filters;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.StringAsset;
@@ -33,6 +43,7 @@ import org.jboss.shrinkwrap.impl.base.path.BasicPath;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * TestCase to ensure the correctness of the ExplodedImporter
@@ -186,5 +197,67 @@ public class ExplodedImporterTestCase {
         Assertions.assertTrue(war.contains("/test.war/WEB-INF/web.xml"), "Expected imported web archive to include web.xml");
     }
 
+    @Test
+    public void shouldImportDirectoryOnExecutorInWalkOrder() throws Exception {
+        final String fileName = Objects.requireNonNull(SecurityActions.getThreadContextClassLoader()
+            .getResource(EXISTING_DIRECTORY_RESOURCE)).toURI().getPath();
+        final Archive<?> sequential = ShrinkWrap.create(ExplodedImporter.class, "sequential.jar")
+            .importDirectory(fileName, Filters.exclude(".*org/jboss.*")).as(JavaArchive.class);
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final Archive<?> parallel = ShrinkWrap.create(ExplodedImporter.class, "parallel.jar")
+                .parallel(executorService).importDirectory(fileName, Filters.exclude(".*org/jboss.*"))
+                .as(JavaArchive.class);
 
+            Assertions.assertEquals(new ArrayList<ArchivePath>(sequential.getContent().keySet()),
+                new ArrayList<ArchivePath>(parallel.getContent().keySet()));
+            Assertions.assertTrue(parallel.contains(new BasicPath("/org")));
+            Assertions.assertFalse(parallel.contains(new BasicPath("/org/jboss")));
+            Assertions.assertTrue(parallel.contains(new BasicPath("/parent/empty_dir")));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldCallFilterOnCallingThreadByDefault() throws Exception {
+        final String fileName = Objects.requireNonNull(SecurityActions.getThreadContextClassLoader()
+            .getResource(EXISTING_DIRECTORY_RESOURCE)).toURI().getPath();
+        final Set<Thread> threads = new HashSet<>();
+        final Archive<?> archive = ShrinkWrap.create(ExplodedImporter.class, "sequential.jar")
+            .importDirectory(fileName, path -> {
+                threads.add(Thread.currentThread());
+                return true;
+            }).as(JavaArchive.class);
+
+        Assertions.assertTrue(archive.contains(new BasicPath("/parent/empty_dir")));
+        Assertions.assertEquals(Collections.singleton(Thread.currentThread()), threads);
+    }
+
+    @Test
+    public void shouldSkipSymbolicLinkLoops(@TempDir final Path directory) throws Exception {
+        final Path nested = Files.createDirectories(directory.resolve("a/b"));
+        Files.write(nested.resolve("file.txt"), new byte[] { 1 });
+        try {
+            Files.createSymbolicLink(nested.resolve("loop"), directory.resolve("a"));
+        } catch (final UnsupportedOperationException | IOException e) {
+            return;
+        }
+
+        final Archive<?> sequential = ShrinkWrap.create(ExplodedImporter.class, "sequential.jar")
+            .importDirectory(directory.toFile()).as(JavaArchive.class);
+        Assertions.assertTrue(sequential.contains("/a/b/file.txt"));
+        Assertions.assertFalse(sequential.contains("/a/b/loop/b"));
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            final Archive<?> parallel = ShrinkWrap.create(ExplodedImporter.class, "parallel.jar")
+                .parallel(executorService).importDirectory(directory.toFile()).as(JavaArchive.class);
+            Assertions.assertTrue(parallel.contains("/a/b/file.txt"));
+            Assertions.assertFalse(parallel.contains("/a/b/loop/b"));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
 }
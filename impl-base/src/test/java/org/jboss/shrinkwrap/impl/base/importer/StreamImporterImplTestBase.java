@@ -18,12 +18,20 @@ package org.jboss.shrinkwrap.impl.base.importer;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ArchiveFormat;
+import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.ArchivePaths;
+import org.jboss.shrinkwrap.api.ConfigurationBuilder;
+import org.jboss.shrinkwrap.api.Domain;
 import org.jboss.shrinkwrap.api.Filters;
+import org.jboss.shrinkwrap.api.Node;
 import org.jboss.shrinkwrap.api.GenericArchive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.BlobStore;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
 import org.jboss.shrinkwrap.api.asset.ClassLoaderAsset;
 import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
 import org.jboss.shrinkwrap.api.exporter.StreamExporter;
 import org.jboss.shrinkwrap.api.importer.ArchiveImportException;
 import org.jboss.shrinkwrap.api.importer.StreamImporter;
@@ -37,6 +45,15 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
 /**
@@ -272,6 +289,122 @@ public abstract class StreamImporterImplTestBase<T extends StreamImporter<T>> {
         }
     }
 
+    /**
+     * Ensures that entries larger than the in-memory threshold are imported from a stream as files
+     */
+    @Test
+    public void shouldSpillEntriesAboveInMemoryThreshold() throws Exception {
+        final File testFile = this.getDelegate().getExistingResource();
+        try (final InputStream stream = new FileInputStream(testFile)) {
+            final Archive<?> archive = ShrinkWrap.create(this.getImporterClass(), "test.jar").inMemoryThreshold(0)
+                .importFrom(stream).as(GenericArchive.class);
+            this.getDelegate().assertContent(archive, testFile);
+            Assertions.assertTrue(archive.getContent().values().stream().anyMatch(
+                node -> node.getAsset() instanceof FileAsset), "Non-empty entries should have been spilled to files");
+        }
+    }
+
+    @Test
+    public void shouldRejectNegativeInMemoryThreshold() {
+        final T importer = ShrinkWrap.create(this.getImporterClass(), "test.jar");
+        Assertions.assertThrows(IllegalArgumentException.class, () -> importer.inMemoryThreshold(-1));
+    }
+
+    /**
+     * Ensures that importing from a stream in parallel on an {@link ExecutorService} adds the same content in the same
+     * order, including when the executor is busy running the import itself
+     */
+    @Test
+    public void shouldImportInputStreamOnExecutor() throws Exception {
+        final File testFile = this.getDelegate().getExistingResource();
+        final List<ArchivePath> expectedOrder = new ArrayList<>(ShrinkWrap.create(this.getImporterClass(), "test.jar")
+            .importFrom(testFile).as(GenericArchive.class).getContent().keySet());
+
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final Callable<Archive<?>> importTask = () -> {
+                try (final InputStream stream = new FileInputStream(testFile)) {
+                    return ShrinkWrap.create(this.getImporterClass(), "test.jar").parallel(executorService)
+                        .importFrom(stream).as(GenericArchive.class);
+                }
+            };
+
+            final Archive<?> pipelined = importTask.call();
+            this.getDelegate().assertContent(pipelined, testFile);
+            Assertions.assertEquals(expectedOrder, new ArrayList<>(pipelined.getContent().keySet()));
+
+            final Archive<?> onExecutor = executorService.submit(importTask).get(30, TimeUnit.SECONDS);
+            Assertions.assertEquals(expectedOrder, new ArrayList<>(onExecutor.getContent().keySet()));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Ensures that importing in parallel on a saturated executor, which rejects every task, adds the entries on the
+     * calling thread
+     */
+    @Test
+    public void shouldImportOnSaturatedExecutor() throws Exception {
+        final File testFile = this.getDelegate().getExistingResource();
+        final ThreadPoolExecutor executorService = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy());
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            executorService.execute(() -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            try (final InputStream stream = new FileInputStream(testFile)) {
+                final Archive<?> imported = ShrinkWrap.create(this.getImporterClass(), "test.jar")
+                    .parallel(executorService).importFrom(stream).as(GenericArchive.class);
+                this.getDelegate().assertContent(imported, testFile);
+            }
+        } finally {
+            release.countDown();
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldShareIdenticalContentThroughBlobStore() throws Exception {
+        final File testFile = this.getDelegate().getExistingResource();
+        final BlobStore blobStore = new BlobStore();
+        final Domain domain = ShrinkWrap.createDomain(new ConfigurationBuilder().blobStore(blobStore));
+
+        final Callable<Archive<?>> importTask = () -> {
+            try (final InputStream stream = new FileInputStream(testFile)) {
+                return domain.getArchiveFactory().create(this.getImporterClass(), "test.jar").importFrom(stream)
+                    .as(GenericArchive.class);
+            }
+        };
+
+        final Archive<?> first = importTask.call();
+        final long storedBytes = blobStore.getStoredBytes();
+        final long savedBytes = blobStore.getSavedBytes();
+        Assertions.assertTrue(storedBytes > 0, "Imported content should be stored");
+
+        final Archive<?> second = importTask.call();
+        this.getDelegate().assertContent(second, testFile);
+        long shared = 0;
+        for (final Node node : first.getContent().values()) {
+            final Asset asset = node.getAsset();
+            if (asset instanceof ByteArrayAsset) {
+                final byte[] content = ((ByteArrayAsset) asset).getSource();
+                Assertions.assertNotSame(content, ((ByteArrayAsset) asset).getSource(),
+                    "Shared content of " + node.getPath() + " should only be handed out as a copy");
+                Assertions.assertArrayEquals(content,
+                    ((ByteArrayAsset) second.get(node.getPath()).getAsset()).getSource());
+                shared += content.length;
+            }
+        }
+        Assertions.assertEquals(storedBytes, blobStore.getStoredBytes());
+        Assertions.assertEquals(savedBytes + shared, blobStore.getSavedBytes());
+    }
+
     /**
      * SHRINKWRAP-474
      */
@@ -17,16 +17,35 @@
 package org.jboss.shrinkwrap.impl.base.importer;
 
 import org.jboss.shrinkwrap.api.ArchiveFormat;
+import org.jboss.shrinkwrap.api.GenericArchive;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
 import org.jboss.shrinkwrap.api.exporter.StreamExporter;
 import org.jboss.shrinkwrap.api.exporter.TarBz2Exporter;
 import org.jboss.shrinkwrap.api.importer.TarBz2Importer;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.jboss.shrinkwrap.impl.base.io.IOUtil;
 import org.jboss.shrinkwrap.impl.base.io.tar.TarBzInputStream;
 import org.jboss.shrinkwrap.impl.base.io.tar.bzip.BZip2CompressorOutputStream;
+import org.jboss.shrinkwrap.impl.base.io.tar.bzip.ParallelBZip2CompressorInputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * TestCase to verify the {@link org.jboss.shrinkwrap.impl.base.importer.tar.TarBz2ImporterImpl} functionality.
@@ -102,10 +121,141 @@ public class TarBz2ImporterImplTestCase extends StreamImporterImplTestBase<TarBz
         return ArchiveFormat.TAR_BZ;
     }
 
+    // -------------------------------------------------------------------------------------||
+    // Tests -------------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Ensures archives spanning several BZip2 blocks are imported with their blocks decoded in parallel
+     */
+    @Test
+    public void shouldImportSeveralBlocksInParallel() throws Exception {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class, "blocks.tar.bz2");
+        final byte[] random = randomBytes(1000 * 1024);
+        archive.add(new ByteArrayAsset(random), "random.bin");
+        archive.add(new ByteArrayAsset(Arrays.copyOf(random, 100 * 1024)), "prefix.bin");
+        archive.add(new ByteArrayAsset(new byte[100 * 1024]), "zeros.bin");
+        final byte[] exported = IOUtil.asByteArray(archive.as(TarBz2Exporter.class).exportAsInputStream());
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            assertImported(archive, ShrinkWrap.create(TarBz2Importer.class, "blocks.tar.bz2")
+                .parallel(executorService).importFrom(new ByteArrayInputStream(exported)).as(GenericArchive.class));
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        // A saturated executor rejects both the decoding of blocks and the adding of entries
+        final ThreadPoolExecutor saturated = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), new ThreadPoolExecutor.AbortPolicy());
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            saturated.execute(() -> {
+                try {
+                    release.await();
+                } catch (final InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            assertImported(archive, ShrinkWrap.create(TarBz2Importer.class, "blocks.tar.bz2")
+                .parallel(saturated).importFrom(new ByteArrayInputStream(exported)).as(GenericArchive.class));
+        } finally {
+            release.countDown();
+            saturated.shutdownNow();
+        }
+    }
+
+    /**
+     * Ensures the parallel decoder reads what {@link BZip2CompressorOutputStream} writes, block by block, stops after
+     * the first stream unless told to decode concatenated streams, reports corrupted input, and decodes on the reading
+     * thread the blocks the executor rejects
+     */
+    @Test
+    public void shouldDecodeBlocksInParallel() throws Exception {
+        final byte[] withRuns = randomBytes(450 * 1024);
+        Arrays.fill(withRuns, 1000, 100 * 1024, (byte) 'a');
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            for (final byte[] input : Arrays.asList(new byte[0], new byte[] {42}, withRuns)) {
+                Assertions.assertArrayEquals(input, decode(compress(input), executorService, false));
+            }
+
+            final ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+            concatenated.write(compress(withRuns));
+            concatenated.write(compress(new byte[] {1, 2, 3}));
+            Assertions.assertArrayEquals(withRuns, decode(concatenated.toByteArray(), executorService, false));
+            final byte[] expected = Arrays.copyOf(withRuns, withRuns.length + 3);
+            expected[withRuns.length] = 1;
+            expected[withRuns.length + 1] = 2;
+            expected[withRuns.length + 2] = 3;
+            Assertions.assertArrayEquals(expected, decode(concatenated.toByteArray(), executorService, true));
+
+            final byte[] compressed = compress(withRuns);
+            Assertions.assertThrows(IOException.class,
+                () -> decode(Arrays.copyOf(compressed, compressed.length / 2), executorService, false));
+            compressed[compressed.length / 2] ^= 0x10;
+            Assertions.assertThrows(IOException.class, () -> decode(compressed, executorService, false));
+            Assertions.assertThrows(IOException.class,
+                () -> decode("not bzip2".getBytes(), executorService, false));
+
+            final ExecutorService rejecting = Executors.newSingleThreadExecutor();
+            rejecting.shutdown();
+            Assertions.assertArrayEquals(withRuns, decode(compress(withRuns), rejecting, false));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Ensures the magic number ending a stream does not end it when found in the data of a block: the map of the bytes
+     * a block uses holds a bit per byte value, so a block using the byte values of the bits set in the magic number
+     * holds the magic number right after its header
+     */
+    @Test
+    public void shouldDecodeBlocksHoldingStreamEndMagic() throws Exception {
+        final long endMagic = 0x177245385090L;
+        final List<Byte> used = new ArrayList<>();
+        for (int value = 0; value < 48; value++) {
+            if ((endMagic >>> (47 - value) & 1) != 0) {
+                used.add((byte) value);
+            }
+        }
+        // No byte repeats the previous one, as runs would add their lengths to the bytes used
+        final byte[] input = new byte[250 * 1024];
+        final Random random = new Random(23);
+        for (int i = 0; i < input.length; i++) {
+            do {
+                input[i] = used.get(random.nextInt(used.size()));
+            } while (i > 0 && input[i] == input[i - 1]);
+        }
+        final byte[] compressed = compress(input);
+        Assertions.assertTrue(countMagic(compressed, endMagic) > 1, "Blocks should hold the magic number");
+
+        final ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Assertions.assertArrayEquals(input, decode(compressed, executorService, false));
+            final ByteArrayOutputStream concatenated = new ByteArrayOutputStream();
+            concatenated.write(compressed);
+            concatenated.write(compressed);
+            final byte[] twice = Arrays.copyOf(input, input.length * 2);
+            System.arraycopy(input, 0, twice, input.length, input.length);
+            Assertions.assertArrayEquals(twice, decode(concatenated.toByteArray(), executorService, true));
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     // -------------------------------------------------------------------------------------||
     // Internal Helper Members -------------------------------------------------------------||
     // -------------------------------------------------------------------------------------||
 
+    private static void assertImported(final JavaArchive archive, final GenericArchive imported) {
+        for (final Node node : archive.getContent().values()) {
+            Assertions.assertArrayEquals(IOUtil.asByteArray(node.getAsset().openStream()),
+                IOUtil.asByteArray(imported.get(node.getPath()).getAsset().openStream()), node.getPath().get());
+        }
+    }
+
     /**
      * Test {@link TarBzInputStream} extension which throws errors when read in order to test exception handling of the
      * import process
@@ -141,4 +291,46 @@ public class TarBz2ImporterImplTestCase extends StreamImporterImplTestBase<TarBz
         }
 
     }
+
+    /**
+     * Compresses the specified input in blocks of 100k
+     */
+    private static byte[] compress(final byte[] input) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (final BZip2CompressorOutputStream out = new BZip2CompressorOutputStream(compressed, 1)) {
+            out.write(input);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static byte[] decode(final byte[] compressed, final ExecutorService executorService,
+        final boolean decompressConcatenated) throws IOException {
+        final ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+        IOUtil.copyWithClose(new ParallelBZip2CompressorInputStream(new ByteArrayInputStream(compressed),
+            executorService, decompressConcatenated), decoded);
+        return decoded.toByteArray();
+    }
+
+    /**
+     * Counts the bits of the specified input a 48 bit magic number starts at
+     */
+    private static int countMagic(final byte[] input, final long magic) {
+        int count = 0;
+        long last = 0;
+        for (int i = 0; i < input.length; i++) {
+            last = (last << 8) | (input[i] & 0xff);
+            for (int shift = 7; shift >= 0; shift--) {
+                if (i >= 6 && ((last >>> shift) & 0xFFFFFFFFFFFFL) == magic) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static byte[] randomBytes(final int length) {
+        final byte[] bytes = new byte[length];
+        new Random(23).nextBytes(bytes);
+        return bytes;
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.io;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Ensures that {@link TemporaryFiles} deletes a file once its owner is found unreachable.
+ */
+public class TemporaryFilesTestCase {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void shouldDeleteFileOnceOwnerIsUnreachable() throws Exception {
+        final File file = Files.createFile(tempDir.resolve("spilled.tmp")).toFile();
+        final Object owner = new Object();
+
+        // Enqueued as the garbage collector would once the owner is unreachable
+        TemporaryFiles.track(owner, file).enqueue();
+
+        final long deadline = System.currentTimeMillis() + 10000;
+        while (file.exists() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertFalse(file.exists(), "File should have been deleted");
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.nio2.file;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.api.nio2.file.ShrinkWrapFileSystems;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks walking the ShrinkWrap file system of a synthetic archive with
+ * {@link Files#walk(Path, java.nio.file.FileVisitOption...)}
+ * and {@link Files#walkFileTree(Path, java.nio.file.FileVisitor)}. Assets are spread over three levels of directories
+ * of {@code fanOut} entries each.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=DirectoryStreamBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DirectoryStreamBenchmark {
+
+    /**
+     * Number of assets in the archive
+     */
+    @Param({ "20000" })
+    public int entries;
+
+    /**
+     * Number of entries per directory
+     */
+    @Param({ "30" })
+    public int fanOut;
+
+    private FileSystem fileSystem;
+
+    @Setup
+    public void setup() throws IOException {
+        final JavaArchive archive = ShrinkWrap.create(JavaArchive.class);
+        for (int i = 0; i < entries; i++) {
+            final int file = i % fanOut;
+            final int dir = i / fanOut;
+            archive.add(EmptyAsset.INSTANCE, "/d" + dir / (fanOut * fanOut) + "/d" + dir / fanOut % fanOut + "/d"
+                + dir % fanOut + "/f" + file);
+        }
+        fileSystem = ShrinkWrapFileSystems.newFileSystem(archive);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        fileSystem.close();
+    }
+
+    @Benchmark
+    public long walk() throws IOException {
+        try (Stream<Path> paths = Files.walk(fileSystem.getPath("/"))) {
+            return paths.count();
+        }
+    }
+
+    @Benchmark
+    public long walkFileTree() throws IOException {
+        final long[] files = new long[1];
+        Files.walkFileTree(fileSystem.getPath("/"), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                if (attrs.isRegularFile()) {
+                    files[0]++;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files[0];
+    }
+}
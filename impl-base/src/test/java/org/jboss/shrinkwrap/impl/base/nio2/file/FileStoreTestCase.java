@@ -18,8 +18,13 @@ package org.jboss.shrinkwrap.impl.base.nio2.file;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.FileStore;
 import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributeView;
 import java.nio.file.attribute.FileAttributeView;
 import java.nio.file.attribute.FileStoreAttributeView;
@@ -27,6 +32,9 @@ import java.nio.file.attribute.FileStoreAttributeView;
 import org.jboss.shrinkwrap.api.ArchivePath;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
 import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.api.exporter.ZipExporter;
 import org.jboss.shrinkwrap.api.nio2.file.ShrinkWrapFileSystems;
 import org.jboss.shrinkwrap.api.spec.JavaArchive;
 import org.junit.jupiter.api.AfterEach;
@@ -92,6 +100,51 @@ public class FileStoreTestCase {
                 "Size of archive as reported by file store is not equal to the size of the contained class");
     }
 
+    @Test
+    public void usedSpaceFollowsChanges() throws IOException {
+        final ShrinkWrapFileStore store = (ShrinkWrapFileStore) this.fileStore;
+        archive.add(new ByteArrayAsset(new byte[100]), "a");
+        archive.add(new StringAsset("12345"), "dir/b");
+        Assertions.assertEquals(105L, store.getUsedSpace());
+
+        // Overwrite
+        archive.add(new ByteArrayAsset(new byte[10]), "a");
+        Assertions.assertEquals(15L, store.getUsedSpace());
+
+        // Move
+        archive.move("a", "dir/c");
+        Assertions.assertEquals(15L, store.getUsedSpace());
+
+        // Delete the directory with its content
+        archive.delete("dir");
+        Assertions.assertEquals(0L, store.getUsedSpace());
+    }
+
+    @Test
+    public void usedSpaceIncludesContentWrittenAfterCreation() throws IOException {
+        final ShrinkWrapFileStore store = (ShrinkWrapFileStore) this.fileStore;
+        final Path file = fileSystem.getPath("/written");
+        try (SeekableByteChannel channel = Files.newByteChannel(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE)) {
+            Assertions.assertEquals(0L, store.getUsedSpace());
+            channel.write(ByteBuffer.wrap(new byte[42]));
+        }
+        Assertions.assertEquals(42L, store.getUsedSpace());
+    }
+
+    @Test
+    public void usedSpaceIncludesCurrentContentOfNestedArchives() throws IOException {
+        final ShrinkWrapFileStore store = (ShrinkWrapFileStore) this.fileStore;
+        final JavaArchive nested = ShrinkWrap.create(JavaArchive.class, "nested.jar");
+        nested.add(new StringAsset("first"), "first");
+        archive.add(nested, "/", ZipExporter.class);
+        final long initialSize = store.getUsedSpace();
+        Assertions.assertTrue(initialSize > 0, "Exported nested archive should have a size");
+
+        nested.add(new StringAsset("second"), "second");
+        Assertions.assertTrue(store.getUsedSpace() > initialSize, "Size should follow the nested archive content");
+    }
+
     @Test
     public void totalSpace() throws IOException {
         // We can't really test this value properly as the JVM can reallocate memory in between calls, so just ensure
@@ -45,7 +45,10 @@ import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.BasicFileAttributeView;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileAttribute;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.List;
 
 import org.jboss.shrinkwrap.api.Archive;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
@@ -671,6 +674,30 @@ public class FilesTestCase {
         }
     }
 
+    @Test
+    public void newDirectoryStreamListsDirectChildrenInOrder() throws IOException {
+        this.getArchive().add(EmptyAsset.INSTANCE, "dir/b/nested");
+        this.getArchive().add(EmptyAsset.INSTANCE, "dir/a");
+        this.getArchive().add(EmptyAsset.INSTANCE, "other");
+        final List<String> listed = new ArrayList<>();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(fs.getPath("/dir"))) {
+            for (final Path path : stream) {
+                listed.add(path.toString());
+            }
+        }
+        Assertions.assertEquals(Arrays.asList("/dir/b", "/dir/a"), listed);
+    }
+
+    @Test
+    public void newDirectoryStreamEndsWhenClosed() throws IOException {
+        this.getArchive().add(EmptyAsset.INSTANCE, "a");
+        this.getArchive().add(EmptyAsset.INSTANCE, "b");
+        final DirectoryStream<Path> stream = Files.newDirectoryStream(fs.getPath("/"));
+        final Iterator<Path> paths = stream.iterator();
+        stream.close();
+        Assertions.assertFalse(paths.hasNext(), "Closed stream should behave as if the end was reached");
+    }
+
     @Test
     public void newInputStream() throws IOException {
         final String path = "path";
@@ -0,0 +1,183 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.nio2.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.ByteArrayAsset;
+import org.jboss.shrinkwrap.api.asset.FileAsset;
+import org.jboss.shrinkwrap.api.nio2.file.ShrinkWrapFileSystems;
+import org.jboss.shrinkwrap.api.spec.JavaArchive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Ensures that channels opened for reading on the ShrinkWrap NIO.2 file system read the content of any kind of asset
+ * lazily and support the read operations of {@link FileChannel}.
+ */
+public class ReadChannelTestCase {
+
+    private static final byte[] CONTENT = new byte[20000];
+
+    static {
+        for (int i = 0; i < CONTENT.length; i++) {
+            CONTENT[i] = (byte) (i * 31);
+        }
+    }
+
+    @TempDir
+    File tempDir;
+
+    private JavaArchive archive;
+
+    private FileSystem fs;
+
+    @BeforeEach
+    public void createFileSystem() throws IOException {
+        archive = ShrinkWrap.create(JavaArchive.class);
+        fs = ShrinkWrapFileSystems.newFileSystem(archive);
+
+        final File file = new File(tempDir, "content");
+        Files.write(file.toPath(), CONTENT);
+        archive.add(new FileAsset(file), "file");
+        archive.add(new ByteArrayAsset(CONTENT), "bytes");
+        // Neither file nor array backed
+        final Asset streamed = () -> new ByteArrayInputStream(CONTENT);
+        archive.add(streamed, "stream");
+    }
+
+    @AfterEach
+    public void closeFileSystem() throws IOException {
+        fs.close();
+    }
+
+    @Test
+    public void shouldReadSequentiallyAndAfterSeeking() throws IOException {
+        for (final String name : new String[] { "file", "bytes", "stream" }) {
+            try (FileChannel channel = open(name)) {
+                Assertions.assertEquals(CONTENT.length, channel.size(), name);
+                final ByteBuffer buffer = ByteBuffer.allocate(CONTENT.length + 1);
+                while (channel.read(buffer) > 0) {
+                    // Read until the end
+                }
+                Assertions.assertArrayEquals(CONTENT, Arrays.copyOf(buffer.array(), buffer.position()), name);
+                Assertions.assertEquals(-1, channel.read(ByteBuffer.allocate(1)), name);
+
+                // Backwards
+                channel.position(100);
+                final ByteBuffer direct = ByteBuffer.allocateDirect(10);
+                Assertions.assertEquals(10, channel.read(direct), name);
+                direct.flip();
+                final byte[] read = new byte[10];
+                direct.get(read);
+                Assertions.assertArrayEquals(Arrays.copyOfRange(CONTENT, 100, 110), read, name);
+                Assertions.assertEquals(110L, channel.position(), name);
+            }
+        }
+    }
+
+    @Test
+    public void shouldReadAtPositionWithoutMoving() throws IOException {
+        for (final String name : new String[] { "file", "bytes", "stream" }) {
+            try (FileChannel channel = open(name)) {
+                channel.position(5);
+                final ByteBuffer buffer = ByteBuffer.allocate(8);
+                Assertions.assertEquals(8, channel.read(buffer, 15000), name);
+                Assertions.assertArrayEquals(Arrays.copyOfRange(CONTENT, 15000, 15008), buffer.array(), name);
+                Assertions.assertEquals(5L, channel.position(), name);
+                Assertions.assertEquals(-1, channel.read(ByteBuffer.allocate(1), CONTENT.length), name);
+            }
+        }
+    }
+
+    @Test
+    public void shouldScatterReads() throws IOException {
+        for (final String name : new String[] { "file", "bytes", "stream" }) {
+            try (FileChannel channel = open(name)) {
+                final ByteBuffer first = ByteBuffer.allocate(3);
+                final ByteBuffer second = ByteBuffer.allocate(4);
+                Assertions.assertEquals(7L, channel.read(new ByteBuffer[] { first, second }), name);
+                Assertions.assertArrayEquals(Arrays.copyOfRange(CONTENT, 0, 3), first.array(), name);
+                Assertions.assertArrayEquals(Arrays.copyOfRange(CONTENT, 3, 7), second.array(), name);
+            }
+        }
+    }
+
+    @Test
+    public void shouldTransferTo() throws IOException {
+        for (final String name : new String[] { "file", "bytes", "stream" }) {
+            try (FileChannel channel = open(name)) {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream();
+                final long transferred = channel.transferTo(10, 15000, Channels.newChannel(out));
+                Assertions.assertEquals(15000L, transferred, name);
+                Assertions.assertArrayEquals(Arrays.copyOfRange(CONTENT, 10, 15010), out.toByteArray(), name);
+                Assertions.assertEquals(0L, channel.position(), name);
+            }
+        }
+    }
+
+    @Test
+    public void shouldMapFileAssets() throws IOException {
+        try (FileChannel channel = open("file")) {
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, CONTENT.length);
+            final byte[] read = new byte[CONTENT.length];
+            mapped.get(read);
+            Assertions.assertArrayEquals(CONTENT, read);
+        }
+    }
+
+    @Test
+    public void shouldNotWrite() throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(fs.getPath("bytes"))) {
+            Assertions.assertThrows(NonWritableChannelException.class,
+                () -> channel.write(ByteBuffer.wrap(new byte[1])));
+        }
+        Assertions.assertArrayEquals(CONTENT, Files.readAllBytes(fs.getPath("bytes")));
+    }
+
+    @Test
+    public void shouldCopyOutOfArchive() throws IOException {
+        for (final String name : new String[] { "file", "bytes", "stream" }) {
+            final Path target = tempDir.toPath().resolve("copy-" + name);
+            Files.copy(fs.getPath(name), target);
+            Assertions.assertArrayEquals(CONTENT, Files.readAllBytes(target), name);
+        }
+    }
+
+    private FileChannel open(final String name) throws IOException {
+        return FileChannel.open(fs.getPath(name), StandardOpenOption.READ);
+    }
+}
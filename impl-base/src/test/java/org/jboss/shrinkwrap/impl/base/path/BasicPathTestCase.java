@@ -16,7 +16,13 @@
  */
 package org.jboss.shrinkwrap.impl.base.path;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.jboss.shrinkwrap.api.ArchivePath;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 
 /**
  * BasicPathTestCase
@@ -85,4 +91,116 @@ public class BasicPathTestCase extends PathsTestBase {
         return new BasicPath(base, context);
     }
 
+    // -------------------------------------------------------------------------------------||
+    // Tests ------------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Ensures paths differing only by a following slash are equal and have the same hash code
+     */
+    @Test
+    public void testFollowingSlashIgnoredByHashCode() {
+        final ArchivePath path = new BasicPath("/a/b");
+        final ArchivePath pathWithFollowingSlash = new BasicPath("a/b/");
+
+        Assertions.assertEquals(path, pathWithFollowingSlash);
+        Assertions.assertEquals(path.hashCode(), pathWithFollowingSlash.hashCode());
+        Assertions.assertEquals("/a/b/", pathWithFollowingSlash.get());
+    }
+
+    /**
+     * Ensures parents are resolved up to the root, which has none
+     */
+    @Test
+    public void testParents() {
+        final ArchivePath path = new BasicPath(new BasicPath("/a/"), "b/c/");
+
+        Assertions.assertEquals("/a/b/c/", path.get());
+        Assertions.assertEquals("/a/b", path.getParent().get());
+        Assertions.assertEquals("/a", path.getParent().getParent().get());
+        Assertions.assertEquals("/", path.getParent().getParent().getParent().get());
+        Assertions.assertEquals(new BasicPath(), path.getParent().getParent().getParent());
+        Assertions.assertNull(new BasicPath().getParent());
+    }
+
+    /**
+     * Ensures paths hold the contexts they were created from, and are equal, ordered and parented as their contexts
+     * are, for contexts with empty segments and characters ordered around the separator
+     */
+    @Test
+    public void testMatchesContexts() {
+        final Random random = new Random(17);
+        final List<String> contexts = new ArrayList<>();
+        final List<BasicPath> paths = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            final String context = randomContext(random);
+            final String base = randomContext(random);
+            contexts.add(PathUtil.optionallyPrependSlash(context));
+            paths.add(new BasicPath(context));
+            contexts.add(PathUtil.optionallyPrependSlash(PathUtil.composeAbsoluteContext(base, context)));
+            paths.add(random.nextBoolean() ? new BasicPath(base, context) : new BasicPath(new BasicPath(base), context));
+        }
+
+        for (int i = 0; i < paths.size(); i++) {
+            final BasicPath path = paths.get(i);
+            final String context = contexts.get(i);
+            Assertions.assertEquals(context, path.get());
+            if (!context.contains("//")) {
+                Assertions.assertEquals(PathUtil.getParent(path), path.getParent(), "Parent of " + context);
+            }
+            for (int j = 0; j < paths.size(); j++) {
+                final BasicPath other = paths.get(j);
+                final String otherContext = contexts.get(j);
+                final boolean equal = PathUtil.optionallyRemoveFollowingSlash(context)
+                    .equals(PathUtil.optionallyRemoveFollowingSlash(otherContext));
+                Assertions.assertEquals(equal, path.equals(other), context + " equals " + otherContext);
+                if (equal) {
+                    Assertions.assertEquals(path.hashCode(), other.hashCode());
+                }
+                Assertions.assertEquals(Integer.signum(compareContexts(path, context, other, otherContext)),
+                    Integer.signum(path.compareTo(other)), context + " compared to " + otherContext);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Orders paths as parents first, then by context
+     */
+    private static int compareContexts(final ArchivePath path, final String context, final ArchivePath other,
+        final String otherContext) {
+        if (path.equals(PathUtil.getParent(other))) {
+            return -1;
+        }
+        if (other.equals(PathUtil.getParent(path))) {
+            return 1;
+        }
+        return context.compareTo(otherContext);
+    }
+
+    /**
+     * Creates a context of a few segments, with characters ordered before and after the separator, optionally
+     * preceded or followed by a slash
+     */
+    private static String randomContext(final Random random) {
+        final String[] segments = {"a", "b", "ab", "a.b", "a-", "", "a0"};
+        final StringBuilder context = new StringBuilder();
+        if (random.nextBoolean()) {
+            context.append(ArchivePath.SEPARATOR);
+        }
+        final int count = random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                context.append(ArchivePath.SEPARATOR);
+            }
+            context.append(segments[random.nextInt(random.nextInt(4) == 0 ? segments.length : 3)]);
+        }
+        if (count > 0 && random.nextInt(3) == 0) {
+            context.append(ArchivePath.SEPARATOR);
+        }
+        return context.toString();
+    }
 }
@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.unit;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.Asset;
+import org.jboss.shrinkwrap.api.asset.EmptyAsset;
+import org.jboss.shrinkwrap.impl.base.MemoryMapArchiveImpl;
+import org.jboss.shrinkwrap.spi.MemoryMapArchive;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the throughput of {@link MemoryMapArchive#add(Asset, ArchivePath)} when one archive is filled from one
+ * or several threads, optionally while another thread keeps taking snapshots with
+ * {@link MemoryMapArchive#getContent()}. Every thread adds to a directory of its own and to directories shared with
+ * the other threads.
+ * <p>
+ * Run with {@code mvn -Pbenchmark test -Dbenchmark=MemoryMapArchiveBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemoryMapArchiveBenchmark {
+
+    /**
+     * Number of directories shared by all threads
+     */
+    private static final int SHARED_DIRECTORIES = 16;
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    private MemoryMapArchive archive;
+
+    /**
+     * Starts every iteration from an empty archive, so that its size does not depend on the throughput
+     */
+    @Setup(Level.Iteration)
+    public void createArchive() {
+        archive = new MemoryMapArchiveImpl(ShrinkWrap.getDefaultDomain().getConfiguration());
+    }
+
+    @Benchmark
+    public MemoryMapArchive addSingleThread(final Writer writer) {
+        return writer.add(archive);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public MemoryMapArchive addFourThreads(final Writer writer) {
+        return writer.add(archive);
+    }
+
+    @Benchmark
+    @Group("addWhileSnapshotting")
+    @GroupThreads(3)
+    public MemoryMapArchive add(final Writer writer) {
+        return writer.add(archive);
+    }
+
+    @Benchmark
+    @Group("addWhileSnapshotting")
+    @GroupThreads(1)
+    public Map<ArchivePath, Node> snapshot() {
+        return archive.getContent();
+    }
+
+    /**
+     * Per-thread position in the sequence of added paths
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+
+        private int id;
+
+        private int index;
+
+        @Setup(Level.Trial)
+        public void assignId(final MemoryMapArchiveBenchmark benchmark) {
+            id = benchmark.threadIds.getAndIncrement();
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            index = 0;
+        }
+
+        MemoryMapArchive add(final MemoryMapArchive archive) {
+            final int i = index++;
+            final String file = "asset-" + id + "_" + i + ".txt";
+            if (i % 2 == 0) {
+                return archive.add(EmptyAsset.INSTANCE, "/shared/dir" + i % SHARED_DIRECTORIES + "/" + file);
+            }
+            return archive.add(EmptyAsset.INSTANCE, "/private" + id + "/dir" + i % SHARED_DIRECTORIES + "/" + file);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.impl.base.unit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.ArchivePaths;
+import org.jboss.shrinkwrap.api.Node;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
+import org.jboss.shrinkwrap.impl.base.MemoryMapArchiveImpl;
+import org.jboss.shrinkwrap.spi.MemoryMapArchive;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Stress test adding {@link org.jboss.shrinkwrap.api.asset.Asset}s to a single {@link MemoryMapArchive} from many
+ * threads at once, while other threads take snapshots of its content.
+ */
+public class MemoryMapArchiveStressTest {
+    // -------------------------------------------------------------------------------------||
+    // Class Members ----------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Logger
+     */
+    private static final Logger log = Logger.getLogger(MemoryMapArchiveStressTest.class.getName());
+
+    /**
+     * Number of threads adding assets
+     */
+    private static final int WRITERS = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Number of assets added by each writer
+     */
+    private static final int ASSETS_PER_WRITER = 20000;
+
+    /**
+     * Number of directories shared by all writers
+     */
+    private static final int SHARED_DIRECTORIES = 16;
+
+    /**
+     * Path of the asset overwritten by all writers
+     */
+    private static final String OVERWRITTEN_PATH = "/shared/overwritten.txt";
+
+    // -------------------------------------------------------------------------------------||
+    // Instance Members -------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    private ExecutorService executorService;
+
+    // -------------------------------------------------------------------------------------||
+    // Lifecycle --------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    @BeforeEach
+    public void createExecutorService() {
+        executorService = Executors.newFixedThreadPool(WRITERS + 1);
+    }
+
+    @AfterEach
+    public void shutdownExecutorService() throws InterruptedException {
+        executorService.shutdownNow();
+        executorService.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Tests ------------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Ensures that concurrent additions to shared and private directories are all retained, keep the order in which
+     * each thread added them, and that every snapshot taken meanwhile contains the parents of all its nodes.
+     */
+    @Test
+    public void concurrentAdd() throws Exception {
+        final MemoryMapArchive archive = new MemoryMapArchiveImpl(ShrinkWrap.getDefaultDomain().getConfiguration());
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicBoolean writing = new AtomicBoolean(true);
+
+        final List<Future<?>> writers = new ArrayList<>();
+        for (int writer = 0; writer < WRITERS; writer++) {
+            final int id = writer;
+            writers.add(executorService.submit((Callable<Void>) () -> {
+                start.await();
+                for (int i = 0; i < ASSETS_PER_WRITER; i++) {
+                    archive.add(new StringAsset(id + ":" + i), pathOf(id, i));
+                    // Everyone overwrites the same asset
+                    archive.add(new StringAsset(id + ":" + i), OVERWRITTEN_PATH);
+                }
+                return null;
+            }));
+        }
+        final Future<Integer> reader = executorService.submit(() -> {
+            start.await();
+            int snapshots = 0;
+            int previousSize = 0;
+            while (writing.get()) {
+                final Map<ArchivePath, Node> content = archive.getContent();
+                Assertions.assertTrue(content.size() >= previousSize, "Snapshots should never shrink");
+                for (final ArchivePath path : content.keySet()) {
+                    final ArchivePath parent = path.getParent();
+                    Assertions.assertTrue(parent.equals(ArchivePaths.root()) || content.containsKey(parent),
+                        "Snapshot contains " + path + " without its parent");
+                }
+                previousSize = content.size();
+                snapshots++;
+            }
+            return snapshots;
+        });
+
+        final long startTime = System.nanoTime();
+        start.countDown();
+        for (final Future<?> writer : writers) {
+            writer.get(5, TimeUnit.MINUTES);
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        writing.set(false);
+        log.info("Added " + WRITERS * ASSETS_PER_WRITER * 2 + " assets from " + WRITERS + " threads in "
+            + elapsedMillis + " ms while taking " + reader.get() + " snapshots");
+
+        // Every asset is present, in the order each writer added them
+        final Map<ArchivePath, Node> content = archive.getContent();
+        final int[] next = new int[WRITERS];
+        for (final Map.Entry<ArchivePath, Node> entry : content.entrySet()) {
+            final Node node = entry.getValue();
+            if (node.getAsset() == null || entry.getKey().get().equals(OVERWRITTEN_PATH)) {
+                continue;
+            }
+            final String[] idAndIndex = entry.getKey().get().split("-|\\.")[1].split("_");
+            final int id = Integer.parseInt(idAndIndex[0]);
+            Assertions.assertEquals(next[id]++, Integer.parseInt(idAndIndex[1]), "Writer order was not kept");
+        }
+        for (int writer = 0; writer < WRITERS; writer++) {
+            Assertions.assertEquals(ASSETS_PER_WRITER, next[writer], "Missing assets of writer " + writer);
+        }
+
+        // Every directory links all of its children
+        int linked = 0;
+        for (final Node node : content.values()) {
+            if (node.getAsset() == null) {
+                for (final Node child : node.getChildren()) {
+                    Assertions.assertSame(content.get(child.getPath()), child,
+                        "Directory " + node.getPath() + " links a stale child " + child.getPath());
+                    linked++;
+                }
+            }
+        }
+        Assertions.assertEquals(content.size() - archive.get(ArchivePaths.root()).getChildren().size(), linked,
+            "Every node but the top level ones should be linked from its parent");
+    }
+
+    // -------------------------------------------------------------------------------------||
+    // Internal Helper Methods ------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Spreads the assets of a writer over the shared directories and a private one
+     */
+    private static String pathOf(final int writer, final int index) {
+        final String file = "asset-" + writer + "_" + index + ".txt";
+        if (index % 2 == 0) {
+            return "/shared/dir" + index % SHARED_DIRECTORIES + "/" + file;
+        }
+        return "/private" + writer + "/dir" + index % SHARED_DIRECTORIES + "/" + file;
+    }
+}
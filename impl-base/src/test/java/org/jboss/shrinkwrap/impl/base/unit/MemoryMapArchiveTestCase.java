@@ -16,8 +16,17 @@
  */
 package org.jboss.shrinkwrap.impl.base.unit;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.jboss.shrinkwrap.api.ArchiveFormat;
+import org.jboss.shrinkwrap.api.ArchivePath;
+import org.jboss.shrinkwrap.api.ArchivePaths;
+import org.jboss.shrinkwrap.api.Node;
 import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.asset.StringAsset;
 import org.jboss.shrinkwrap.impl.base.MemoryMapArchiveImpl;
 import org.jboss.shrinkwrap.impl.base.test.ArchiveTestBase;
 import org.jboss.shrinkwrap.spi.MemoryMapArchive;
@@ -89,6 +98,39 @@ public class MemoryMapArchiveTestCase extends ArchiveTestBase<MemoryMapArchive>
         Assertions.assertThrows(IllegalArgumentException.class, () -> new MemoryMapArchiveImpl("test.jar", null));
     }
 
+    /**
+     * Ensures that content and children obtained before a modification do not reflect it
+     */
+    @Test
+    public void testSnapshotsUnaffectedByLaterModifications() {
+        for (int i = 0; i < 100; i++) {
+            archive.add(new StringAsset("content" + i), ArchivePaths.create("dir", "file" + i));
+        }
+        final Map<ArchivePath, Node> content = archive.getContent();
+        final Set<Node> children = archive.get("dir").getChildren();
+        final List<ArchivePath> paths = new ArrayList<>(content.keySet());
+        final Node replaced = content.get(ArchivePaths.create("dir", "file1"));
+
+        archive.add(new StringAsset("added"), ArchivePaths.create("dir", "added"));
+        archive.add(new StringAsset("replaced"), ArchivePaths.create("dir", "file1"));
+        for (int i = 50; i < 100; i++) {
+            archive.delete(ArchivePaths.create("dir", "file" + i));
+        }
+
+        Assertions.assertEquals(paths, new ArrayList<>(content.keySet()));
+        Assertions.assertEquals(101, content.size());
+        Assertions.assertSame(replaced, content.get(ArchivePaths.create("dir", "file1")));
+        Assertions.assertEquals(100, children.size());
+        Assertions.assertTrue(children.contains(content.get(ArchivePaths.create("dir", "file99"))));
+
+        // The current content reflects the modifications, keeping the position of the replaced node
+        final List<ArchivePath> current = new ArrayList<>(archive.getContent().keySet());
+        Assertions.assertEquals(52, current.size());
+        Assertions.assertEquals(ArchivePaths.create("dir", "file1"), current.get(2));
+        Assertions.assertEquals(ArchivePaths.create("dir", "added"), current.get(51));
+        Assertions.assertEquals(51, archive.get("dir").getChildren().size());
+    }
+
     @Override
     protected ArchiveFormat getExpectedArchiveFormat() {
         return ArchiveFormat.UNKNOWN;
@@ -0,0 +1,64 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.spi;
+
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.Assignable;
+import org.jboss.shrinkwrap.api.asset.ArchiveAsset;
+import org.jboss.shrinkwrap.api.asset.SizedAsset;
+
+/**
+ * {@link Assignable} view of the running counters an {@link Archive} keeps about its content. Counters are updated as
+ * assets are added, replaced, moved and deleted, so obtaining them does not walk the archive.
+ */
+public interface ArchiveStatistics extends Assignable {
+    // -------------------------------------------------------------------------------------||
+    // Contracts --------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Obtains the number of assets in the {@link Archive}, not counting the content of nested archives
+     *
+     * @return The number of assets
+     */
+    long getAssetCount();
+
+    /**
+     * Obtains the number of directories in the {@link Archive}, not counting its root
+     *
+     * @return The number of directories
+     */
+    long getDirectoryCount();
+
+    /**
+     * Obtains the total size in bytes of the assets in the {@link Archive}. The size of a {@link SizedAsset} is taken
+     * when it is added, unless it can be written to afterwards or is backed by a file, whose size is taken again on
+     * every request. Other assets are read once, the first time the size is requested, except {@link ArchiveAsset}s,
+     * which are exported on every request as their archive may have changed.
+     *
+     * @return The size of the assets in bytes
+     */
+    long getUsedSpace();
+
+    /**
+     * Obtains the modification version of the {@link Archive}: a number which increases whenever a node is added,
+     * replaced or removed in the {@link Archive} or in an {@link Archive} nested in it through an {@link ArchiveAsset}
+     *
+     * @return The modification version
+     */
+    long getModificationVersion();
+}
@@ -0,0 +1,47 @@
+/*
+ * JBoss, Home of Professional Open Source
+ * Copyright 2026, Red Hat Middleware LLC, and individual contributors
+ * by the @authors tag. See the copyright.txt in the distribution for a
+ * full listing of individual contributors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jboss.shrinkwrap.spi;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.jboss.shrinkwrap.api.Archive;
+import org.jboss.shrinkwrap.api.Assignable;
+
+/**
+ * {@link Assignable} view of an {@link Archive} whose content can be read on demand from a ZIP file.
+ */
+public interface Mountable extends Assignable {
+    // -------------------------------------------------------------------------------------||
+    // Contracts --------------------------------------------------------------------------||
+    // -------------------------------------------------------------------------------------||
+
+    /**
+     * Mounts the specified ZIP file as the content of the {@link Archive}, which must be empty. Entries are added to
+     * the {@link Archive} as they are looked up.
+     *
+     * @param file
+     *            The ZIP file
+     * @throws IllegalArgumentException
+     *             If the file is not specified
+     * @throws IllegalStateException
+     *             If the {@link Archive} already has content
+     * @throws IOException
+     *             If the file could not be read as ZIP
+     */
+    void mount(File file) throws IllegalArgumentException, IllegalStateException, IOException;
+}